@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.aggregator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.jmh.AllocationCounter;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Throughput of an {@link AggregatingMessageHandler} and a {@link ResequencingMessageHandler}
+ * with a {@link SimpleMessageStore}; each operation handles one message of a sequence of
+ * {@code sequenceSize} messages (in reverse order, for the resequencer), so that a group
+ * is released, and removed from the store, every {@code sequenceSize} operations.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class CorrelatingMessageHandlerBenchmark {
+
+	@Param({ "10", "100" })
+	public int sequenceSize;
+
+	private Message<?>[] messages;
+
+	private int next;
+
+	private AggregatingMessageHandler aggregator;
+
+	private ResequencingMessageHandler resequencer;
+
+	@Setup
+	public void setup() {
+		this.messages = new Message<?>[this.sequenceSize];
+		for (int i = 0; i < this.sequenceSize; i++) {
+			this.messages[i] = MessageBuilder.withPayload("foo")
+					.setCorrelationId("bar")
+					.setSequenceNumber(this.sequenceSize - i)
+					.setSequenceSize(this.sequenceSize)
+					.build();
+		}
+
+		this.aggregator = new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(),
+				new SimpleMessageStore());
+		this.aggregator.setExpireGroupsUponCompletion(true);
+		this.aggregator.setOutputChannel(new NullChannel());
+		this.aggregator.setBeanFactory(new DefaultListableBeanFactory());
+		this.aggregator.afterPropertiesSet();
+
+		this.resequencer = new ResequencingMessageHandler(new ResequencingMessageGroupProcessor(),
+				new SimpleMessageStore());
+		this.resequencer.setOutputChannel(new NullChannel());
+		this.resequencer.setBeanFactory(new DefaultListableBeanFactory());
+		this.resequencer.afterPropertiesSet();
+	}
+
+	@Benchmark
+	public void aggregator(AllocationCounter allocations) {
+		allocations.increment();
+		this.aggregator.handleMessage(nextMessage());
+	}
+
+	@Benchmark
+	public void resequencer(AllocationCounter allocations) {
+		allocations.increment();
+		this.resequencer.handleMessage(nextMessage());
+	}
+
+	private Message<?> nextMessage() {
+		Message<?> message = this.messages[this.next++];
+		if (this.next == this.messages.length) {
+			this.next = 0;
+		}
+		return message;
+	}
+
+}
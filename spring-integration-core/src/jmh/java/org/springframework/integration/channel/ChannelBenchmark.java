@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.channel;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.jmh.AllocationCounter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Throughput of the main channel types, each with a no-op subscriber: a
+ * {@link DirectChannel}; an {@link ExecutorChannel} with two threads (the sender runs the
+ * handler itself when the executor's queue of 1000 tasks is full); a {@link QueueChannel}
+ * and a {@link RingBufferChannel} (each operation sends and receives a message); and a
+ * {@link PublishSubscribeChannel} with three subscribers, invoked on the sender's thread.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ChannelBenchmark {
+
+	private final Message<String> message = new GenericMessage<String>("foo");
+
+	private final MessageHandler handler = new MessageHandler() {
+
+		@Override
+		public void handleMessage(Message<?> message) throws MessagingException {
+		}
+
+	};
+
+	private DirectChannel directChannel;
+
+	private ThreadPoolExecutor executor;
+
+	private ExecutorChannel executorChannel;
+
+	private QueueChannel queueChannel;
+
+	private RingBufferChannel ringBufferChannel;
+
+	private PublishSubscribeChannel publishSubscribeChannel;
+
+	@Setup
+	public void setup() {
+		this.directChannel = new DirectChannel();
+		this.directChannel.subscribe(this.handler);
+
+		this.executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(1000), new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executorChannel = new ExecutorChannel(this.executor);
+		this.executorChannel.setBeanFactory(new DefaultListableBeanFactory());
+		this.executorChannel.afterPropertiesSet();
+		this.executorChannel.subscribe(this.handler);
+
+		this.queueChannel = new QueueChannel();
+
+		this.ringBufferChannel = new RingBufferChannel(1024);
+
+		this.publishSubscribeChannel = new PublishSubscribeChannel();
+		for (int i = 0; i < 3; i++) {
+			this.publishSubscribeChannel.subscribe(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+				}
+
+			});
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Benchmark
+	public boolean directChannel(AllocationCounter allocations) {
+		allocations.increment();
+		return this.directChannel.send(this.message);
+	}
+
+	@Benchmark
+	public boolean executorChannel(AllocationCounter allocations) {
+		allocations.increment();
+		return this.executorChannel.send(this.message);
+	}
+
+	@Benchmark
+	public Message<?> queueChannel(AllocationCounter allocations) {
+		allocations.increment();
+		this.queueChannel.send(this.message);
+		return this.queueChannel.receive(0);
+	}
+
+	@Benchmark
+	public Message<?> ringBufferChannel(AllocationCounter allocations) {
+		allocations.increment();
+		this.ringBufferChannel.send(this.message);
+		return this.ringBufferChannel.receive(0);
+	}
+
+	@Benchmark
+	public boolean publishSubscribeChannel(AllocationCounter allocations) {
+		allocations.increment();
+		return this.publishSubscribeChannel.send(this.message);
+	}
+
+}
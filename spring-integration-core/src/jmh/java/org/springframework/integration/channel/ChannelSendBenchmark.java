@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.channel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.jmh.AllocationCounter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Measures the cost of sending a message to a {@link DirectChannel} with a single
+ * subscriber, with 0, 1 and 3 (no-op) interceptors, with and without message history.
+ * The time per operation is reported by JMH; the bytes allocated per operation by the
+ * {@link AllocationCounter}.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ChannelSendBenchmark {
+
+	@Param({ "0", "1", "3" })
+	public int interceptors;
+
+	@Param({ "false", "true" })
+	public boolean history;
+
+	private final Message<String> message = new GenericMessage<String>("foo");
+
+	private DirectChannel channel;
+
+	@Setup
+	public void setup() {
+		this.channel = new DirectChannel();
+		this.channel.setBeanName("benchmarkChannel");
+		this.channel.setShouldTrack(this.history);
+		for (int i = 0; i < this.interceptors; i++) {
+			this.channel.addInterceptor(new ChannelInterceptorAdapter() { });
+		}
+		this.channel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+			}
+
+		});
+	}
+
+	@Benchmark
+	public boolean send(AllocationCounter allocations) {
+		allocations.increment();
+		return this.channel.send(this.message);
+	}
+
+}
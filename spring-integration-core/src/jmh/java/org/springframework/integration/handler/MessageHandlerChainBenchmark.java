@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.jmh.AllocationCounter;
+import org.springframework.integration.transformer.MessageTransformingHandler;
+import org.springframework.integration.transformer.Transformer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Throughput of a {@link MessageHandlerChain} of {@code handlers} transformers (each
+ * returning its input message) followed by a bridge to a {@link NullChannel}.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class MessageHandlerChainBenchmark {
+
+	@Param({ "1", "5" })
+	public int handlers;
+
+	private final Message<String> message = new GenericMessage<String>("foo");
+
+	private MessageHandlerChain chain;
+
+	@Setup
+	public void setup() {
+		List<MessageHandler> handlers = new ArrayList<MessageHandler>();
+		for (int i = 0; i < this.handlers; i++) {
+			handlers.add(new MessageTransformingHandler(new Transformer() {
+
+				@Override
+				public Message<?> transform(Message<?> message) {
+					return message;
+				}
+
+			}));
+		}
+		handlers.add(new BridgeHandler());
+		this.chain = new MessageHandlerChain();
+		this.chain.setHandlers(handlers);
+		this.chain.setOutputChannel(new NullChannel());
+		this.chain.setBeanFactory(new DefaultListableBeanFactory());
+		this.chain.afterPropertiesSet();
+	}
+
+	@Benchmark
+	public void chain(AllocationCounter allocations) {
+		allocations.increment();
+		this.chain.handleMessage(this.message);
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.jmh;
+
+import java.lang.management.ManagementFactory;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Per-thread benchmark state that reports the bytes allocated per operation by the
+ * benchmark thread, after each iteration, using the HotSpot
+ * {@code com.sun.management.ThreadMXBean} (JMH 1.3 has no allocation profiler).
+ * Benchmark methods declare it as a parameter and call {@link #increment()} once per
+ * operation. Allocations on other threads (for example, executor threads) are not
+ * included.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Thread)
+public class AllocationCounter {
+
+	private final com.sun.management.ThreadMXBean threadMXBean =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private long operations;
+
+	private long allocatedAtStart;
+
+	@Setup(Level.Iteration)
+	public void start() {
+		this.operations = 0;
+		this.allocatedAtStart = allocatedBytes();
+	}
+
+	@TearDown(Level.Iteration)
+	public void report() {
+		long allocated = allocatedBytes() - this.allocatedAtStart;
+		System.out.printf("%n%.1f bytes/op (%s)%n",
+				this.operations == 0 ? 0.0 : (double) allocated / this.operations, Thread.currentThread().getName());
+	}
+
+	public void increment() {
+		this.operations++;
+	}
+
+	private long allocatedBytes() {
+		return this.threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.support;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.support.IdGenerators.JdkIdGenerator;
+import org.springframework.integration.support.IdGenerators.SimpleIncrementingIdGenerator;
+import org.springframework.integration.support.IdGenerators.TimeBasedIdGenerator;
+import org.springframework.util.AlternativeJdkIdGenerator;
+import org.springframework.util.IdGenerator;
+
+/**
+ * Compares the {@link IdGenerator}s, shared by 8 threads as the one used by the
+ * {@link org.springframework.messaging.MessageHeaders} is: the default
+ * ({@link AlternativeJdkIdGenerator}), {@link JdkIdGenerator},
+ * {@link SimpleIncrementingIdGenerator} and {@link TimeBasedIdGenerator}.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class IdGeneratorBenchmark {
+
+	@Param({ "default", "jdk", "incrementing", "timeBased" })
+	public String generatorType;
+
+	private IdGenerator generator;
+
+	@Setup
+	public void setup() {
+		if ("jdk".equals(this.generatorType)) {
+			this.generator = new JdkIdGenerator();
+		}
+		else if ("incrementing".equals(this.generatorType)) {
+			this.generator = new SimpleIncrementingIdGenerator();
+		}
+		else if ("timeBased".equals(this.generatorType)) {
+			this.generator = new TimeBasedIdGenerator();
+		}
+		else {
+			this.generator = new AlternativeJdkIdGenerator();
+		}
+	}
+
+	@Benchmark
+	public UUID generateId() {
+		return this.generator.generateId();
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.jmh.AllocationCounter;
+import org.springframework.messaging.Message;
+
+/**
+ * Throughput of building messages with the {@link MessageBuilder}: a new message with
+ * two headers, and a copy of a message with ten headers with one header added; and of
+ * building the messages of a sequence (as a splitter does) from a message with ten
+ * headers, with a {@link MessageBuilder} or a {@link MessageSequenceBuilder}.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class MessageBuilderBenchmark {
+
+	private final Message<String> message;
+
+	private final MessageSequenceBuilder sequenceBuilder;
+
+	public MessageBuilderBenchmark() {
+		MessageBuilder<String> builder = MessageBuilder.withPayload("foo");
+		for (int i = 0; i < 10; i++) {
+			builder.setHeader("header" + i, "value" + i);
+		}
+		this.message = builder.build();
+		this.sequenceBuilder = new MessageSequenceBuilder(this.message.getHeaders(), true, 100);
+	}
+
+	@Benchmark
+	public Message<?> withPayload(AllocationCounter allocations) {
+		allocations.increment();
+		return MessageBuilder.withPayload("foo")
+				.setHeader("foo", "bar")
+				.setCorrelationId("baz")
+				.build();
+	}
+
+	@Benchmark
+	public Message<?> fromMessage(AllocationCounter allocations) {
+		allocations.increment();
+		return MessageBuilder.fromMessage(this.message)
+				.setHeader("foo", "bar")
+				.build();
+	}
+
+	@Benchmark
+	public Message<?> sequenceWithMessageBuilder(AllocationCounter allocations) {
+		allocations.increment();
+		return MessageBuilder.withPayload("foo")
+				.copyHeaders(this.message.getHeaders())
+				.pushSequenceDetails(this.message.getHeaders().getId(), 1, 100)
+				.build();
+	}
+
+	@Benchmark
+	public Message<?> sequenceWithSequenceBuilder(AllocationCounter allocations) {
+		allocations.increment();
+		return this.sequenceBuilder.createMessage("foo", 1);
+	}
+
+}
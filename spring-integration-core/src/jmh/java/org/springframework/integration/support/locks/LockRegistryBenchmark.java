@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.support.locks;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link DefaultLockRegistry} and the {@link PerKeyLockRegistry} when many threads
+ * lock distinct keys, in the way an aggregator locks its correlation groups: 32 threads, each
+ * locking randomly selected keys out of 100,000 (the UUID strings used by the aggregator), with
+ * a short critical section.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class LockRegistryBenchmark {
+
+	private static final int KEYS = 100000;
+
+	@Param({ "default", "perKey" })
+	public String registryType;
+
+	@Param({ "50" })
+	public int work;
+
+	private LockRegistry registry;
+
+	private String[] keys;
+
+	@Setup
+	public void setup() {
+		this.registry = "perKey".equals(this.registryType) ? new PerKeyLockRegistry() : new DefaultLockRegistry();
+		this.keys = new String[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			this.keys[i] = UUID.randomUUID().toString();
+		}
+	}
+
+	@Benchmark
+	public void lockUnlock(ThreadKeys threadKeys) {
+		Lock lock = this.registry.obtain(this.keys[threadKeys.next()]);
+		lock.lock();
+		try {
+			Blackhole.consumeCPU(this.work);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadKeys {
+
+		private final Random random = new Random();
+
+		int next() {
+			return this.random.nextInt(KEYS);
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.jmh.AllocationCounter;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
+
+/**
+ * Throughput of POJO method invocation by the {@link MessagingMethodInvokerHelper}: a
+ * single method with payload and header parameters (invoked directly); a single method
+ * with a header expression (invoked by SpEL); and a method selected by payload type
+ * from several candidates.
+ *
+ * @since 4.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class MessagingMethodInvokerHelperBenchmark {
+
+	private final Message<String> message = MessageBuilder.withPayload("foo").setHeader("bar", "baz").build();
+
+	private MessagingMethodInvokerHelper<Object> direct;
+
+	private MessagingMethodInvokerHelper<Object> expression;
+
+	private MessagingMethodInvokerHelper<Object> candidates;
+
+	@Setup
+	public void setup() throws Exception {
+		Service service = new Service();
+		this.direct = new MessagingMethodInvokerHelper<Object>(service,
+				Service.class.getMethod("payloadAndHeader", String.class, String.class), false);
+		this.expression = new MessagingMethodInvokerHelper<Object>(service,
+				Service.class.getMethod("headerExpression", String.class, String.class), false);
+		this.candidates = new MessagingMethodInvokerHelper<Object>(new Candidates(), "handle", false);
+	}
+
+	@Benchmark
+	public Object direct(AllocationCounter allocations) throws Exception {
+		allocations.increment();
+		return this.direct.process(this.message);
+	}
+
+	@Benchmark
+	public Object expression(AllocationCounter allocations) throws Exception {
+		allocations.increment();
+		return this.expression.process(this.message);
+	}
+
+	@Benchmark
+	public Object candidates(AllocationCounter allocations) throws Exception {
+		allocations.increment();
+		return this.candidates.process(this.message);
+	}
+
+	public static class Service {
+
+		public String payloadAndHeader(String payload, @Header("bar") String bar) {
+			return payload;
+		}
+
+		public String headerExpression(String payload, @Header("bar.length()") String bar) {
+			return payload;
+		}
+
+	}
+
+	public static class Candidates {
+
+		public String handle(String payload) {
+			return payload;
+		}
+
+		public Integer handle(Integer payload) {
+			return payload;
+		}
+
+		public Object handle(Object payload) {
+			return payload;
+		}
+
+	}
+
+}
@@ -17,10 +17,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.locks.Lock;
 
@@ -39,14 +39,15 @@ import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.expression.IntegrationEvaluationContextAware;
 import org.springframework.integration.handler.AbstractMessageProducingHandler;
+import org.springframework.integration.store.IndexedMessageGroup;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
-import org.springframework.integration.support.locks.DefaultLockRegistry;
 import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.integration.support.locks.PerKeyLockRegistry;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -71,7 +72,8 @@ import org.springframework.util.CollectionUtils;
  * <p>
  * By default the {@link CorrelationStrategy} will be a
  * {@link HeaderAttributeCorrelationStrategy} and the {@link ReleaseStrategy} will be a
- * {@link SequenceSizeReleaseStrategy}.
+ * {@link SequenceSizeReleaseStrategy}. An {@link IncrementalReleaseStrategy} is notified
+ * of each message added to a group.
  *
  * @author Iwein Fuld
  * @author Dave Syer
@@ -88,7 +90,8 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	public static final long DEFAULT_SEND_TIMEOUT = 1000L;
 
-	private final Map<UUID, ScheduledFuture<?>> expireGroupScheduledFutures = new HashMap<UUID, ScheduledFuture<?>>();
+	private final Map<UUID, ScheduledFuture<?>> expireGroupScheduledFutures =
+			new ConcurrentHashMap<UUID, ScheduledFuture<?>>();
 
 	protected volatile MessageGroupStore messageStore;
 
@@ -106,7 +109,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	private volatile boolean sequenceAware = false;
 
-	private volatile LockRegistry lockRegistry = new DefaultLockRegistry();
+	private volatile LockRegistry lockRegistry = new PerKeyLockRegistry();
 
 	private boolean lockRegistrySet = false;
 
@@ -362,7 +365,9 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 			}
 			MessageGroup messageGroup = messageStore.getMessageGroup(correlationKey);
 			if (this.sequenceAware) {
-				messageGroup = new SequenceAwareMessageGroup(messageGroup);
+				messageGroup = messageGroup instanceof IndexedMessageGroup
+						? new IndexedSequenceAwareMessageGroup((IndexedMessageGroup) messageGroup)
+						: new SequenceAwareMessageGroup(messageGroup);
 			}
 
 			if (!messageGroup.isComplete() && messageGroup.canAdd(message)) {
@@ -371,7 +376,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 				}
 				messageGroup = this.store(correlationKey, message);
 
-				if (releaseStrategy.canRelease(messageGroup)) {
+				if (canRelease(messageGroup, message)) {
 					Collection<Message<?>> completedMessages = null;
 					try {
 						completedMessages = this.completeGroup(message, correlationKey, messageGroup);
@@ -379,7 +384,14 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 					finally {
 						// Always clean up even if there was an exception
 						// processing messages
-						this.afterRelease(messageGroup, completedMessages);
+						try {
+							this.afterRelease(messageGroup, completedMessages);
+						}
+						finally {
+							if (!this.releasePartialSequences) {
+								discardReleaseState(correlationKey);
+							}
+						}
 					}
 				}
 				else {
@@ -395,6 +407,19 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		}
 	}
 
+	private boolean canRelease(MessageGroup messageGroup, Message<?> message) {
+		if (this.releaseStrategy instanceof IncrementalReleaseStrategy) {
+			return ((IncrementalReleaseStrategy) this.releaseStrategy).canRelease(messageGroup, message);
+		}
+		return this.releaseStrategy.canRelease(messageGroup);
+	}
+
+	private void discardReleaseState(Object correlationKey) {
+		if (this.releaseStrategy instanceof IncrementalReleaseStrategy) {
+			((IncrementalReleaseStrategy) this.releaseStrategy).discardGroup(correlationKey);
+		}
+	}
+
 	private void scheduleGroupToForceComplete(final MessageGroup messageGroup) {
 		final Long groupTimeout = this.obtainGroupTimeout(messageGroup);
 		/*
@@ -506,6 +531,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 						else {
 							expireGroup(correlationKey, groupNow);
 						}
+						discardReleaseState(correlationKey);
 						if (!this.expireGroupsUponTimeout) {
 							afterRelease(groupNow, null);
 							removeGroup = false;
@@ -560,6 +586,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 	void remove(MessageGroup group) {
 		Object correlationKey = group.getGroupId();
 		messageStore.removeMessageGroup(correlationKey);
+		discardReleaseState(correlationKey);
 	}
 
 	protected int findLastReleasedSequenceNumber(Object groupId, Collection<Message<?>> partialSequence) {
@@ -735,4 +762,40 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	}
 
+	/**
+	 * The sequence-aware view of an {@link IndexedMessageGroup}; uses the group's sequence
+	 * number index for {@link #canAdd(Message)} instead of copying the group.
+	 */
+	private static class IndexedSequenceAwareMessageGroup extends SimpleMessageGroup {
+
+		private final IndexedMessageGroup messageGroup;
+
+		public IndexedSequenceAwareMessageGroup(IndexedMessageGroup messageGroup) {
+			super(Collections.<Message<?>>emptyList(), messageGroup.getGroupId(), messageGroup.getTimestamp(),
+					messageGroup.isComplete());
+			this.messageGroup = messageGroup;
+		}
+
+		@Override
+		public boolean canAdd(Message<?> message) {
+			if (this.messageGroup.size() == 0) {
+				return true;
+			}
+			IntegrationMessageHeaderAccessor messageHeaderAccessor = new IntegrationMessageHeaderAccessor(message);
+			Integer messageSequenceNumber = messageHeaderAccessor.getSequenceNumber();
+			if (messageSequenceNumber != null && messageSequenceNumber > 0) {
+				Integer messageSequenceSize = messageHeaderAccessor.getSequenceSize();
+				return messageSequenceSize.equals(this.messageGroup.getSequenceSize())
+						&& !this.messageGroup.containsSequenceNumber(messageSequenceNumber);
+			}
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return this.messageGroup.toString();
+		}
+
+	}
+
 }
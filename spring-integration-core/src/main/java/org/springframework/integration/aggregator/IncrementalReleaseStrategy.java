@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link ReleaseStrategy} that is notified of each message added to a group, allowing it
+ * to maintain per-group state (counters, a contiguous sequence watermark etc.) so that the
+ * release decision does not have to examine all the messages in the group each time.
+ * <p>
+ * Correlating handlers invoke {@link #canRelease(MessageGroup, Message)} while holding the
+ * group's lock, after the message has been stored; {@link #canRelease(MessageGroup)} is
+ * still used when a group is evaluated without a new message (e.g. when it times out).
+ * Implementations must validate their state against the group (for example its size) and
+ * rebuild it from the group when it is missing or out of date, for example after a restart
+ * with a persistent message store, or when the group was changed by another process.
+ *
+ * @since 4.1
+ */
+public interface IncrementalReleaseStrategy extends ReleaseStrategy {
+
+	/**
+	 * Update the state held for the group with the message that has just been added to it,
+	 * and determine whether the group can now be released.
+	 * @param group the group, including the message.
+	 * @param message the message that was added.
+	 * @return true if the group can be released.
+	 */
+	boolean canRelease(MessageGroup group, Message<?> message);
+
+	/**
+	 * Discard any state held for the group; invoked when the group has been removed, or
+	 * released such that it will not be extended.
+	 * @param groupId the group id.
+	 */
+	void discardGroup(Object groupId);
+
+}
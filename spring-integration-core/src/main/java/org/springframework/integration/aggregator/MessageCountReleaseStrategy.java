@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  * 
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -14,15 +14,17 @@
 package org.springframework.integration.aggregator;
 
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.messaging.Message;
 
 /**
  * A {@link ReleaseStrategy} that releases only the first <code>n</code> messages, where <code>n</code> is a threshold.
+ * The group's size is its only state, so no per-group state is held as messages are added.
  * 
  * @author Dave Syer
  * @author Oleg Zhurakousky
  * 
  */
-public class MessageCountReleaseStrategy implements ReleaseStrategy {
+public class MessageCountReleaseStrategy implements IncrementalReleaseStrategy {
 
 	private final int threshold;
 
@@ -46,8 +48,18 @@ public class MessageCountReleaseStrategy implements ReleaseStrategy {
 	 * It is possible that more messages than the threshold could be released, but only if multiple consumers 
 	 * receive messages from the same group concurrently.
 	 */
+	@Override
 	public boolean canRelease(MessageGroup group) {
 		return group.size() >= threshold;
 	}
 
+	@Override
+	public boolean canRelease(MessageGroup group, Message<?> message) {
+		return canRelease(group);
+	}
+
+	@Override
+	public void discardGroup(Object groupId) {
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.springframework.messaging.Message;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.store.IndexedMessageGroup;
 import org.springframework.integration.store.MessageGroup;
 
 /**
@@ -36,6 +37,11 @@ public class ResequencingMessageGroupProcessor implements MessageGroupProcessor
 	private final Comparator<Message<?>> comparator = new SequenceNumberComparator();
 
 	public Object processMessageGroup(MessageGroup group) {
+		if (group instanceof IndexedMessageGroup) {
+			IndexedMessageGroup indexedGroup = (IndexedMessageGroup) group;
+			Integer lowestSequenceNumber = indexedGroup.getLowestSequenceNumber();
+			return lowestSequenceNumber != null ? indexedGroup.getContiguousMessages(lowestSequenceNumber) : null;
+		}
 		Collection<Message<?>> messages = group.getMessages();
 
 		if (messages.size() > 0) {
@@ -17,21 +17,29 @@
 package org.springframework.integration.aggregator;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.store.IndexedMessageGroup;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.messaging.Message;
 
 /**
  * An implementation of {@link ReleaseStrategy} that simply compares the current size of the message list to the
  * expected 'sequenceSize'.
+ * <p>
+ * When releasing partial sequences, this strategy is also an {@link IncrementalReleaseStrategy}: it keeps, for each
+ * group, the highest sequence number up to which all messages have been received, so that the messages do not have to
+ * be sorted each time a message is added to the group.
  *
  * @author Mark Fisher
  * @author Marius Bogoevici
@@ -39,7 +47,7 @@ import org.springframework.messaging.Message;
  * @author Iwein Fuld
  * @author Oleg Zhurakousky
  */
-public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
+public class SequenceSizeReleaseStrategy implements IncrementalReleaseStrategy {
 
 	private static final Log logger = LogFactory.getLog(SequenceSizeReleaseStrategy.class);
 
@@ -47,6 +55,8 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 
 	private volatile boolean releasePartialSequences;
 
+	private final ConcurrentMap<Object, SequenceState> sequenceStates = new ConcurrentHashMap<Object, SequenceState>();
+
 	public SequenceSizeReleaseStrategy() {
 		this(false);
 	}
@@ -70,17 +80,22 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 
 		boolean canRelease = false;
 
-		Collection<Message<?>> messages = messageGroup.getMessages();
+		int size = messageGroup.size();
 
-		if (releasePartialSequences && !messages.isEmpty()) {
+		if (releasePartialSequences && size > 0) {
 
 			if (logger.isTraceEnabled()) {
 				logger.trace("Considering partial release of group [" + messageGroup + "]");
 			}
-			List<Message<?>> sorted = new ArrayList<Message<?>>(messages);
-			Collections.sort(sorted, comparator);
-
-			int nextSequenceNumber = new IntegrationMessageHeaderAccessor(sorted.get(0)).getSequenceNumber();
+			int nextSequenceNumber;
+			if (messageGroup instanceof IndexedMessageGroup) {
+				nextSequenceNumber = ((IndexedMessageGroup) messageGroup).getLowestSequenceNumber();
+			}
+			else {
+				List<Message<?>> sorted = new ArrayList<Message<?>>(messageGroup.getMessages());
+				Collections.sort(sorted, comparator);
+				nextSequenceNumber = new IntegrationMessageHeaderAccessor(sorted.get(0)).getSequenceNumber();
+			}
 			int lastReleasedMessageSequence = messageGroup.getLastReleasedMessageSequenceNumber();
 
 			if (nextSequenceNumber - lastReleasedMessageSequence == 1){
@@ -88,8 +103,6 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 			}
 		}
 		else {
-			int size = messages.size();
-
 			if (size == 0){
 				canRelease = true;
 			}
@@ -104,4 +117,85 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 		return canRelease;
 	}
 
+	@Override
+	public boolean canRelease(MessageGroup messageGroup, Message<?> message) {
+		if (!this.releasePartialSequences) {
+			return canRelease(messageGroup);
+		}
+		Object groupId = messageGroup.getGroupId();
+		int lastReleasedMessageSequence = messageGroup.getLastReleasedMessageSequenceNumber();
+		SequenceState state = this.sequenceStates.get(groupId);
+		if (state == null || !state.add(message, lastReleasedMessageSequence, messageGroup.size())) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Building sequence state for group [" + messageGroup + "]");
+			}
+			state = new SequenceState(messageGroup);
+			this.sequenceStates.put(groupId, state);
+		}
+		return state.watermark > lastReleasedMessageSequence;
+	}
+
+	@Override
+	public void discardGroup(Object groupId) {
+		this.sequenceStates.remove(groupId);
+	}
+
+	/**
+	 * The sequence numbers of a group's messages: all the sequence numbers from the last released one up to the
+	 * watermark have been received, together with the pending ones beyond it.
+	 */
+	private static final class SequenceState {
+
+		private final Set<Integer> pending = new HashSet<Integer>();
+
+		private int size;
+
+		private int lastReleased;
+
+		private int watermark;
+
+		private SequenceState(MessageGroup messageGroup) {
+			this.lastReleased = messageGroup.getLastReleasedMessageSequenceNumber();
+			this.watermark = this.lastReleased;
+			for (Message<?> message : messageGroup.getMessages()) {
+				received(new IntegrationMessageHeaderAccessor(message).getSequenceNumber());
+			}
+			this.size = messageGroup.size();
+		}
+
+		/**
+		 * Account for a message added to the group; the messages up to the group's last released sequence number are
+		 * assumed to have been removed from the group.
+		 * @return false if the state does not match the group any more and has to be rebuilt.
+		 */
+		private boolean add(Message<?> message, int lastReleased, int groupSize) {
+			if (lastReleased != this.lastReleased) {
+				if (lastReleased < this.lastReleased || lastReleased > this.watermark) {
+					return false;
+				}
+				this.size -= lastReleased - this.lastReleased;
+				this.lastReleased = lastReleased;
+			}
+			if (this.size + 1 != groupSize) {
+				return false;
+			}
+			this.size++;
+			received(new IntegrationMessageHeaderAccessor(message).getSequenceNumber());
+			return true;
+		}
+
+		private void received(int sequenceNumber) {
+			if (sequenceNumber == this.watermark + 1) {
+				this.watermark++;
+				while (this.pending.remove(this.watermark + 1)) {
+					this.watermark++;
+				}
+			}
+			else if (sequenceNumber > this.watermark + 1) {
+				this.pending.add(sequenceNumber);
+			}
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  * 
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -13,8 +13,11 @@
 
 package org.springframework.integration.aggregator;
 
-import org.springframework.messaging.Message;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.messaging.Message;
 
 /**
  * A {@link ReleaseStrategy} that releases all messages if any of the following is true:
@@ -24,12 +27,14 @@ import org.springframework.integration.store.MessageGroup;
  * <li>There are more messages than a threshold set by the user.</li>
  * <li>The time elapsed since the earliest message, according to their timestamps, exceeds a timeout set by the user.</li>
  * </ul>
+ * The earliest timestamp of each group is tracked as messages are added, so that the messages are not scanned each
+ * time a message is added to the group.
  * 
  * @author Dave Syer
  * 
  * @since 2.0
  */
-public class TimeoutCountSequenceSizeReleaseStrategy implements ReleaseStrategy {
+public class TimeoutCountSequenceSizeReleaseStrategy implements IncrementalReleaseStrategy {
 
 	/**
 	 * Default timeout is one minute.
@@ -45,6 +50,9 @@ public class TimeoutCountSequenceSizeReleaseStrategy implements ReleaseStrategy
 
 	private final long timeout;
 
+	private final ConcurrentMap<Object, TimestampState> timestampStates =
+			new ConcurrentHashMap<Object, TimestampState>();
+
 	public TimeoutCountSequenceSizeReleaseStrategy() {
 		this(DEFAULT_THRESHOLD, DEFAULT_TIMEOUT);
 	}
@@ -58,9 +66,35 @@ public class TimeoutCountSequenceSizeReleaseStrategy implements ReleaseStrategy
 		this.timeout = timeout;
 	}
 
+	@Override
 	public boolean canRelease(MessageGroup messages) {
-		long elapsedTime = System.currentTimeMillis() - findEarliestTimestamp(messages);
-		return messages.isComplete() || messages.getMessages().size() >= threshold || elapsedTime > timeout;
+		return canRelease(messages, findEarliestTimestamp(messages));
+	}
+
+	@Override
+	public boolean canRelease(MessageGroup messages, Message<?> message) {
+		Object groupId = messages.getGroupId();
+		int size = messages.size();
+		TimestampState state = this.timestampStates.get(groupId);
+		if (state != null && state.size + 1 == size) {
+			state.size = size;
+			state.earliestTimestamp = Math.min(state.earliestTimestamp, message.getHeaders().getTimestamp());
+		}
+		else {
+			state = new TimestampState(size, findEarliestTimestamp(messages));
+			this.timestampStates.put(groupId, state);
+		}
+		return canRelease(messages, state.earliestTimestamp);
+	}
+
+	@Override
+	public void discardGroup(Object groupId) {
+		this.timestampStates.remove(groupId);
+	}
+
+	private boolean canRelease(MessageGroup messages, long earliestTimestamp) {
+		long elapsedTime = System.currentTimeMillis() - earliestTimestamp;
+		return messages.isComplete() || messages.size() >= threshold || elapsedTime > timeout;
 	}
 
 	/**
@@ -78,4 +112,17 @@ public class TimeoutCountSequenceSizeReleaseStrategy implements ReleaseStrategy
 		return result;
 	}
 
+	private static final class TimestampState {
+
+		private int size;
+
+		private long earliestTimestamp;
+
+		private TimestampState(int size, long earliestTimestamp) {
+			this.size = size;
+			this.earliestTimestamp = earliestTimestamp;
+		}
+
+	}
+
 }
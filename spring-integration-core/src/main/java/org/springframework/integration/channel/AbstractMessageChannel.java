@@ -258,12 +258,18 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (this.datatypes.length > 0) {
 				message = this.convertPayloadIfNecessary(message);
 			}
-			message = this.interceptors.preSend(message, this);
-			if (message == null) {
-				return false;
+			ChannelInterceptorList interceptors = this.interceptors;
+			boolean intercepted = interceptors.getSize() > 0 || logger.isDebugEnabled();
+			if (intercepted) {
+				message = interceptors.preSend(message, this);
+				if (message == null) {
+					return false;
+				}
 			}
 			boolean sent = this.doSend(message, timeout);
-			this.interceptors.postSend(message, this, sent);
+			if (intercepted) {
+				interceptors.postSend(message, this, sent);
+			}
 			return sent;
 		}
 		catch (Exception e) {
@@ -317,38 +323,58 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 
 	/**
-	 * A convenience wrapper class for the list of ChannelInterceptors.
+	 * A convenience wrapper class for the list of ChannelInterceptors. The interceptors
+	 * are also kept in an array, replaced whenever the list changes, which is iterated
+	 * on each send and receive without allocating an iterator.
 	 */
 	protected class ChannelInterceptorList {
 
 		private final List<ChannelInterceptor> interceptors = new CopyOnWriteArrayList<ChannelInterceptor>();
 
+		private volatile ChannelInterceptor[] interceptorArray = new ChannelInterceptor[0];
+
 
 		public boolean set(List<ChannelInterceptor> interceptors) {
 			synchronized (this.interceptors) {
 				this.interceptors.clear();
-				return this.interceptors.addAll(interceptors);
+				boolean changed = this.interceptors.addAll(interceptors);
+				this.refreshArray();
+				return changed;
 			}
 		}
 
 		public boolean add(ChannelInterceptor interceptor) {
-			return this.interceptors.add(interceptor);
+			synchronized (this.interceptors) {
+				boolean added = this.interceptors.add(interceptor);
+				this.refreshArray();
+				return added;
+			}
 		}
 
 		public void add(int index, ChannelInterceptor interceptor) {
-			this.interceptors.add(index, interceptor);
+			synchronized (this.interceptors) {
+				this.interceptors.add(index, interceptor);
+				this.refreshArray();
+			}
+		}
+
+		/**
+		 * @return the number of interceptors.
+		 * @since 4.1
+		 */
+		public int getSize() {
+			return this.interceptorArray.length;
 		}
 
 		public Message<?> preSend(Message<?> message, MessageChannel channel) {
 			if (logger.isDebugEnabled()) {
 				logger.debug("preSend on channel '" + channel + "', message: " + message);
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : this.interceptors) {
-					message = interceptor.preSend(message, channel);
-					if (message == null) {
-						return null;
-					}
+			ChannelInterceptor[] interceptors = this.interceptorArray;
+			for (int i = 0; i < interceptors.length; i++) {
+				message = interceptors[i].preSend(message, channel);
+				if (message == null) {
+					return null;
 				}
 			}
 			return message;
@@ -358,10 +384,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (logger.isDebugEnabled()) {
 				logger.debug("postSend (sent=" + sent + ") on channel '" + channel + "', message: " + message);
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : interceptors) {
-					interceptor.postSend(message, channel, sent);
-				}
+			ChannelInterceptor[] interceptors = this.interceptorArray;
+			for (int i = 0; i < interceptors.length; i++) {
+				interceptors[i].postSend(message, channel, sent);
 			}
 		}
 
@@ -369,11 +394,10 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (logger.isTraceEnabled()) {
 				logger.trace("preReceive on channel '" + channel + "'");
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : interceptors) {
-					if (!interceptor.preReceive(channel)) {
-						return false;
-					}
+			ChannelInterceptor[] interceptors = this.interceptorArray;
+			for (int i = 0; i < interceptors.length; i++) {
+				if (!interceptors[i].preReceive(channel)) {
+					return false;
 				}
 			}
 			return true;
@@ -386,12 +410,11 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			else if (logger.isTraceEnabled()) {
 				logger.trace("postReceive on channel '" + channel + "', message is null");
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : interceptors) {
-					message = interceptor.postReceive(message, channel);
-					if (message == null) {
-						return null;
-					}
+			ChannelInterceptor[] interceptors = this.interceptorArray;
+			for (int i = 0; i < interceptors.length; i++) {
+				message = interceptors[i].postReceive(message, channel);
+				if (message == null) {
+					return null;
 				}
 			}
 			return message;
@@ -402,11 +425,23 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		public boolean remove(ChannelInterceptor interceptor) {
-			return this.interceptors.remove(interceptor);
+			synchronized (this.interceptors) {
+				boolean removed = this.interceptors.remove(interceptor);
+				this.refreshArray();
+				return removed;
+			}
 		}
 
 		public ChannelInterceptor remove(int index) {
-			return this.interceptors.remove(index);
+			synchronized (this.interceptors) {
+				ChannelInterceptor removed = this.interceptors.remove(index);
+				this.refreshArray();
+				return removed;
+			}
+		}
+
+		private void refreshArray() {
+			this.interceptorArray = this.interceptors.toArray(new ChannelInterceptor[this.interceptors.size()]);
 		}
 
 	}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.expression.Expression;
+import org.springframework.integration.context.IntegrationProperties;
+import org.springframework.integration.dispatcher.LoadBalancingStrategy;
+import org.springframework.integration.dispatcher.PartitionedDispatcher;
+import org.springframework.integration.handler.ExpressionEvaluatingMessageProcessor;
+import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * A point-to-point channel that, like an {@link ExecutorChannel}, hands messages to
+ * its subscriber on other threads but, unlike it, preserves their order per key. The
+ * key is determined by evaluating an expression against each message (for example
+ * {@code headers['accountId']}); the channel has a fixed number of partitions, each a
+ * single thread with a bounded queue, and all the messages with the same key are
+ * handled by the same partition. When a partition's queue is full, senders block
+ * for at most {@link #setMaxWait(long) maxWait} milliseconds (indefinitely by default),
+ * after which the send fails.
+ * <p>
+ * Exceptions thrown by the subscriber are sent to the error channel, as for an
+ * {@link ExecutorChannel}. The partition threads are stopped when the channel is
+ * destroyed.
+ *
+ * @since 4.1
+ * @see PartitionedDispatcher
+ */
+public class PartitionedExecutorChannel extends AbstractSubscribableChannel implements DisposableBean {
+
+	private final PartitionedDispatcher dispatcher;
+
+	private final ExpressionEvaluatingMessageProcessor<Object> partitionKeyProcessor;
+
+	private volatile Integer maxSubscribers;
+
+
+	/**
+	 * Create a channel with the given number of partitions; each message is handled by
+	 * the partition selected by the value of the partition key expression.
+	 *
+	 * @param partitionCount The number of partitions (threads).
+	 * @param partitionKeyExpression The partition key expression.
+	 */
+	public PartitionedExecutorChannel(int partitionCount, Expression partitionKeyExpression) {
+		Assert.notNull(partitionKeyExpression, "'partitionKeyExpression' must not be null");
+		this.partitionKeyProcessor = new ExpressionEvaluatingMessageProcessor<Object>(partitionKeyExpression);
+		this.dispatcher = new PartitionedDispatcher(partitionCount, this.partitionKeyProcessor);
+	}
+
+
+	/**
+	 * Set the capacity of the queue of each partition. Default 1000.
+	 *
+	 * @param queueCapacity The queue capacity.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this.dispatcher.setQueueCapacity(queueCapacity);
+	}
+
+	/**
+	 * Set the maximum time, in milliseconds, a sender blocks when the queue of the
+	 * selected partition is full. Default: wait indefinitely.
+	 *
+	 * @param maxWait The maximum wait.
+	 */
+	public void setMaxWait(long maxWait) {
+		this.dispatcher.setMaxWait(maxWait);
+	}
+
+	/**
+	 * Specify whether the channel's dispatcher should have failover enabled.
+	 * By default, it will. Set this value to 'false' to disable it.
+	 *
+	 * @param failover The failover boolean.
+	 */
+	public void setFailover(boolean failover) {
+		this.dispatcher.setFailover(failover);
+	}
+
+	/**
+	 * @param loadBalancingStrategy The load balancing strategy implementation.
+	 */
+	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+		this.dispatcher.setLoadBalancingStrategy(loadBalancingStrategy);
+	}
+
+	/**
+	 * Specify the maximum number of subscribers supported by the
+	 * channel's dispatcher.
+	 *
+	 * @param maxSubscribers The maximum number of subscribers allowed.
+	 */
+	public void setMaxSubscribers(int maxSubscribers) {
+		this.maxSubscribers = maxSubscribers;
+		this.dispatcher.setMaxSubscribers(maxSubscribers);
+	}
+
+	/**
+	 * @return The number of partitions.
+	 */
+	public int getPartitionCount() {
+		return this.dispatcher.getPartitionCount();
+	}
+
+	/**
+	 * @param partition The partition index (0 to {@link #getPartitionCount()} - 1).
+	 * @return The number of messages waiting to be handled by the partition.
+	 */
+	public int getQueueSize(int partition) {
+		return this.dispatcher.getQueueSize(partition);
+	}
+
+	/**
+	 * @return The number of messages waiting to be handled, over all partitions.
+	 */
+	public int getQueueSize() {
+		int size = 0;
+		for (int i = 0; i < this.dispatcher.getPartitionCount(); i++) {
+			size += this.dispatcher.getQueueSize(i);
+		}
+		return size;
+	}
+
+	@Override
+	protected PartitionedDispatcher getDispatcher() {
+		return this.dispatcher;
+	}
+
+	@Override
+	protected void onInit() throws Exception {
+		super.onInit();
+		this.partitionKeyProcessor.setBeanFactory(this.getBeanFactory());
+		ErrorHandler errorHandler = new MessagePublishingErrorHandler(
+				new BeanFactoryChannelResolver(this.getBeanFactory()));
+		this.dispatcher.setErrorHandler(errorHandler);
+		String name = this.getComponentName();
+		this.dispatcher.setThreadFactory(new CustomizableThreadFactory((name != null ? name : "partition") + "-"));
+		if (this.maxSubscribers == null) {
+			this.maxSubscribers = this.getIntegrationProperty(IntegrationProperties.CHANNELS_MAX_UNICAST_SUBSCRIBERS, Integer.class);
+			this.dispatcher.setMaxSubscribers(this.maxSubscribers);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.dispatcher.shutdown();
+	}
+
+}
@@ -16,7 +16,9 @@
 
 package org.springframework.integration.channel;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -102,6 +104,17 @@ public class PriorityChannel extends QueueChannel {
 		return message;
 	}
 
+	@Override
+	protected int doDrain(List<Message<?>> messages, int maxMessages) {
+		List<Message<?>> wrappers = new ArrayList<Message<?>>();
+		int n = super.doDrain(wrappers, maxMessages);
+		for (Message<?> message : wrappers) {
+			messages.add(((MessageWrapper) message).getRootMessage());
+			upperBound.release();
+		}
+		return n;
+	}
+
 	private static class SequenceFallbackComparator implements Comparator<Message<?>> {
 
 		private final Comparator<Message<?>> targetComparator;
@@ -47,6 +47,12 @@ public class PublishSubscribeChannel extends AbstractSubscribableChannel {
 
 	private volatile Integer maxSubscribers;
 
+	private volatile boolean waitForCompletion;
+
+	private volatile int maxParallelism = Integer.MAX_VALUE;
+
+	private volatile long completionTimeout = -1;
+
 	@Override
 	public String getComponentType(){
 		return "publish-subscribe-channel";
@@ -142,6 +148,44 @@ public class PublishSubscribeChannel extends AbstractSubscribableChannel {
 		this.getDispatcher().setMinSubscribers(minSubscribers);
 	}
 
+	/**
+	 * Specify whether, when an {@link Executor} is provided, a send should wait for all
+	 * the subscribers to handle the message (concurrently) and throw their exceptions, if
+	 * any. Default <code>false</code>.
+	 *
+	 * @param waitForCompletion true to wait for the subscribers.
+	 * @since 4.1
+	 * @see BroadcastingDispatcher#setWaitForCompletion(boolean)
+	 */
+	public void setWaitForCompletion(boolean waitForCompletion) {
+		this.waitForCompletion = waitForCompletion;
+		this.getDispatcher().setWaitForCompletion(waitForCompletion);
+	}
+
+	/**
+	 * When waiting for completion, the maximum number of subscribers handling a message
+	 * concurrently. Default: unbounded.
+	 *
+	 * @param maxParallelism The maximum parallelism.
+	 * @since 4.1
+	 */
+	public void setMaxParallelism(int maxParallelism) {
+		this.maxParallelism = maxParallelism;
+		this.getDispatcher().setMaxParallelism(maxParallelism);
+	}
+
+	/**
+	 * When waiting for completion, the maximum time in milliseconds to wait for the
+	 * subscribers. Default: wait indefinitely.
+	 *
+	 * @param completionTimeout The timeout; negative to wait indefinitely.
+	 * @since 4.1
+	 */
+	public void setCompletionTimeout(long completionTimeout) {
+		this.completionTimeout = completionTimeout;
+		this.getDispatcher().setCompletionTimeout(completionTimeout);
+	}
+
 	/**
 	 * Callback method for initialization.
 	 */
@@ -159,6 +203,9 @@ public class PublishSubscribeChannel extends AbstractSubscribableChannel {
 			this.dispatcher.setIgnoreFailures(this.ignoreFailures);
 			this.dispatcher.setApplySequence(this.applySequence);
 			this.dispatcher.setMinSubscribers(this.minSubscribers);
+			this.dispatcher.setWaitForCompletion(this.waitForCompletion);
+			this.dispatcher.setMaxParallelism(this.maxParallelism);
+			this.dispatcher.setCompletionTimeout(this.completionTimeout);
 		}
 		if (this.maxSubscribers == null) {
 			Integer maxSubscribers = this.getIntegrationProperty(IntegrationProperties.CHANNELS_MAX_BROADCAST_SUBSCRIBERS, Integer.class);
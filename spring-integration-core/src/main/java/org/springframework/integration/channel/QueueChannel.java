@@ -108,6 +108,62 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		}
 	}
 
+	/**
+	 * Receive up to {@code maxMessages} messages. The first one is awaited as with
+	 * {@link #receive(long)}; the others are those immediately available after it.
+	 * Interceptors are invoked once before receiving and then for each message.
+	 * The messages after the first one are removed with {@link #doDrain(List, int)}.
+	 *
+	 * @param maxMessages The maximum number of messages.
+	 * @param timeout The timeout in milliseconds for the first message.
+	 * @return The messages, in order; empty if none is available within the
+	 * allotted time or the receiving thread is interrupted.
+	 * @since 4.1
+	 */
+	public List<Message<?>> receive(int maxMessages, long timeout) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		ChannelInterceptorList interceptors = this.getInterceptors();
+		if (!interceptors.preReceive(this)) {
+			return messages;
+		}
+		Message<?> first = this.doReceive(timeout);
+		if (first == null) {
+			return messages;
+		}
+		messages.add(first);
+		if (maxMessages > 1) {
+			this.doDrain(messages, maxMessages - 1);
+		}
+		if (interceptors.getSize() > 0 || logger.isDebugEnabled()) {
+			List<Message<?>> intercepted = new ArrayList<Message<?>>(messages.size());
+			for (Message<?> message : messages) {
+				message = interceptors.postReceive(message, this);
+				if (message != null) {
+					intercepted.add(message);
+				}
+			}
+			messages = intercepted;
+		}
+		return messages;
+	}
+
+	/**
+	 * Remove up to {@code maxMessages} messages that are immediately available, using
+	 * the queue's {@link BlockingQueue#drainTo(java.util.Collection, int) drainTo} method
+	 * so that, for example, a {@link org.springframework.integration.store.MessageGroupQueue}
+	 * backed by a {@link org.springframework.integration.store.BatchCapableChannelMessageStore}
+	 * removes them from the store in one operation.
+	 *
+	 * @param messages The list to add the messages to.
+	 * @param maxMessages The maximum number of messages.
+	 * @return The number of messages added.
+	 * @since 4.1
+	 */
+	protected int doDrain(List<Message<?>> messages, int maxMessages) {
+		return this.queue.drainTo(messages, maxMessages);
+	}
+
 	@Override
 	public List<Message<?>> clear() {
 		List<Message<?>> clearedMessages = new ArrayList<Message<?>>();
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.integration.core.MessageSelector;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.integration.util.RingBufferQueue.ProducerType;
+import org.springframework.integration.util.RingBufferQueue.WaitStrategy;
+import org.springframework.messaging.Message;
+
+/**
+ * A bounded version of {@link QueueChannel} that delegates to a {@link RingBufferQueue}
+ * internally: sending and receiving (when the channel is neither full nor empty) is
+ * lock-free and does not allocate. A
+ * {@link org.springframework.integration.endpoint.PollingConsumer} receives several
+ * messages in one call ({@link #receive(int, long)}) from this channel when its
+ * {@code maxMessagesPerPoll} is greater than one.
+ * <p>
+ * Since the ring buffer cannot remove a message from the middle of the queue,
+ * {@link #purge(MessageSelector)} drains the channel and sends the messages that are
+ * accepted by the selector back, in order; messages sent or received while a purge is
+ * in progress may therefore be reordered relative to them.
+ *
+ * @since 4.1
+ */
+public class RingBufferChannel extends QueueChannel {
+
+	private final RingBufferQueue<Message<?>> queue;
+
+	private final Object purgeMonitor = new Object();
+
+	/**
+	 * Create a channel for any number of sending threads, whose receivers wait by parking.
+	 *
+	 * @param capacity The capacity; rounded up to the next power of two (at least two).
+	 */
+	public RingBufferChannel(int capacity) {
+		this(new RingBufferQueue<Message<?>>(capacity));
+	}
+
+	/**
+	 * Create a channel.
+	 *
+	 * @param capacity The capacity; rounded up to the next power of two (at least two).
+	 * @param producerType Whether messages are sent by a single thread at a time.
+	 * @param waitStrategy How blocking sends and receives wait.
+	 */
+	public RingBufferChannel(int capacity, ProducerType producerType, WaitStrategy waitStrategy) {
+		this(new RingBufferQueue<Message<?>>(capacity, producerType, waitStrategy));
+	}
+
+	private RingBufferChannel(RingBufferQueue<Message<?>> queue) {
+		super(queue);
+		this.queue = queue;
+	}
+
+	@Override
+	public List<Message<?>> purge(MessageSelector selector) {
+		if (selector == null) {
+			return this.clear();
+		}
+		List<Message<?>> purgedMessages = new ArrayList<Message<?>>();
+		synchronized (this.purgeMonitor) {
+			List<Message<?>> messages = new ArrayList<Message<?>>(this.queue.size());
+			this.queue.drainTo(messages);
+			boolean interrupted = false;
+			for (Message<?> message : messages) {
+				if (!selector.accept(message)) {
+					purgedMessages.add(message);
+					continue;
+				}
+				// the space was freed by the drain, unless concurrent senders have taken it
+				while (true) {
+					try {
+						this.queue.put(message);
+						break;
+					}
+					catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return purgedMessages;
+	}
+
+}
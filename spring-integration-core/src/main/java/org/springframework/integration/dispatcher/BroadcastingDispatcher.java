@@ -16,8 +16,14 @@
 
 package org.springframework.integration.dispatcher;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
@@ -25,10 +31,13 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.integration.MessageDispatchingException;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilderFactory;
+import org.springframework.integration.support.MessageSequenceBuilder;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
 
 /**
  * A broadcasting dispatcher implementation. If the 'ignoreFailures' property is set to <code>false</code> (the
@@ -39,6 +48,11 @@ import org.springframework.messaging.MessagingException;
  * If the 'ignoreFailures' flag is set to <code>true</code> on the other hand, it will make a best effort to send the
  * message to each of its handlers. In other words, when 'ignoreFailures' is <code>true</code>, if it fails to send to
  * any one handler, it will simply log a warn-level message but continue to send the Message to any other handlers.
+ * <p>
+ * When an Executor is provided and 'waitForCompletion' is <code>true</code>, the handlers are invoked concurrently
+ * (at most 'maxParallelism' at a time) and {@link #dispatch(Message)} waits for all of them to complete, so that the
+ * dispatch takes about as long as the slowest handler rather than the sum of all; failures are thrown to the caller,
+ * several failures as an {@link AggregateMessageDeliveryException}.
  *
  * @author Mark Fisher
  * @author Iwein Fuld
@@ -57,6 +71,12 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 
 	private volatile int minSubscribers;
 
+	private volatile boolean waitForCompletion;
+
+	private volatile int maxParallelism = Integer.MAX_VALUE;
+
+	private volatile long completionTimeout = -1;
+
 	private volatile MessageBuilderFactory messageBuilderFactory = new DefaultMessageBuilderFactory();
 
 
@@ -112,6 +132,41 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 		this.minSubscribers = minSubscribers;
 	}
 
+	/**
+	 * Specify whether, when an Executor is provided, {@link #dispatch(Message)} should wait
+	 * for all the handlers to complete, and throw their exceptions, if any. Default
+	 * <code>false</code>: the dispatch returns as soon as the handlers have been submitted
+	 * to the Executor.
+	 * @param waitForCompletion true to wait for the handlers to complete.
+	 * @since 4.1
+	 */
+	public void setWaitForCompletion(boolean waitForCompletion) {
+		this.waitForCompletion = waitForCompletion;
+	}
+
+	/**
+	 * When waiting for completion, the maximum number of handlers invoked concurrently for
+	 * a message; further handlers are submitted to the Executor as earlier ones complete.
+	 * Default: unbounded.
+	 * @param maxParallelism The maximum parallelism.
+	 * @since 4.1
+	 */
+	public void setMaxParallelism(int maxParallelism) {
+		Assert.isTrue(maxParallelism > 0, "'maxParallelism' must be greater than 0");
+		this.maxParallelism = maxParallelism;
+	}
+
+	/**
+	 * When waiting for completion, the maximum time in milliseconds to wait for all the
+	 * handlers to complete, after which a {@link MessageDeliveryException} is thrown (the
+	 * handlers that are still running are not interrupted). Default: wait indefinitely.
+	 * @param completionTimeout The timeout; negative to wait indefinitely.
+	 * @since 4.1
+	 */
+	public void setCompletionTimeout(long completionTimeout) {
+		this.completionTimeout = completionTimeout;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.messageBuilderFactory = IntegrationUtils.getMessageBuilderFactory(beanFactory);
@@ -126,10 +181,29 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 			throw new MessageDispatchingException(message, "Dispatcher has no subscribers");
 		}
 		int sequenceSize = handlers.size();
+		ParallelDispatch parallelDispatch = (this.executor != null && this.waitForCompletion && sequenceSize > 0)
+				? new ParallelDispatch(message, sequenceSize)
+				: null;
+		MessageSequenceBuilder sequenceBuilder =
+				(this.applySequence && this.messageBuilderFactory instanceof DefaultMessageBuilderFactory)
+						? new MessageSequenceBuilder(message.getHeaders(), true, sequenceSize)
+						: null;
 		for (final MessageHandler handler : handlers) {
-			final Message<?> messageToSend = (!this.applySequence) ? message : this.messageBuilderFactory.fromMessage(message)
-					.pushSequenceDetails(message.getHeaders().getId(), sequenceNumber++, sequenceSize).build();
-			if (this.executor != null) {
+			final Message<?> messageToSend;
+			if (!this.applySequence) {
+				messageToSend = message;
+			}
+			else if (sequenceBuilder != null) {
+				messageToSend = sequenceBuilder.createMessage(message.getPayload(), sequenceNumber++);
+			}
+			else {
+				messageToSend = this.messageBuilderFactory.fromMessage(message)
+						.pushSequenceDetails(message.getHeaders().getId(), sequenceNumber++, sequenceSize).build();
+			}
+			if (parallelDispatch != null) {
+				parallelDispatch.execute(handler, messageToSend);
+			}
+			else if (this.executor != null) {
 				this.executor.execute(new Runnable() {
 					@Override
 					public void run() {
@@ -144,6 +218,9 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 				}
 			}
 		}
+		if (parallelDispatch != null) {
+			dispatched = parallelDispatch.await();
+		}
 		if (dispatched == 0 && this.minSubscribers == 0 && logger.isDebugEnabled()) {
 			if (sequenceSize > 0) {
 				logger.debug("No subscribers received message, default behavior is ignore");
@@ -175,4 +252,113 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 	}
 
 
+	/**
+	 * The state of the concurrent invocation of the handlers for one message, when waiting
+	 * for completion.
+	 */
+	private class ParallelDispatch {
+
+		private final Message<?> message;
+
+		private final CountDownLatch completed;
+
+		private final Semaphore permits;
+
+		private final AtomicInteger succeeded = new AtomicInteger();
+
+		private final List<RuntimeException> failures = new ArrayList<RuntimeException>();
+
+		private final long deadline;
+
+		private ParallelDispatch(Message<?> message, int handlerCount) {
+			this.message = message;
+			this.completed = new CountDownLatch(handlerCount);
+			int maxParallelism = BroadcastingDispatcher.this.maxParallelism;
+			this.permits = maxParallelism < handlerCount ? new Semaphore(maxParallelism) : null;
+			long timeout = BroadcastingDispatcher.this.completionTimeout;
+			this.deadline = timeout < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+		}
+
+		private void execute(final MessageHandler handler, final Message<?> messageToSend) {
+			if (this.permits != null) {
+				try {
+					if (!this.permits.tryAcquire(this.remaining(), TimeUnit.MILLISECONDS)) {
+						throw this.timedOut();
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MessageDeliveryException(this.message, "Interrupted while dispatching to subscribers", e);
+				}
+			}
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							handler.handleMessage(messageToSend);
+							succeeded.incrementAndGet();
+						}
+						catch (RuntimeException e) {
+							if (!ignoreFailures) {
+								synchronized (failures) {
+									failures.add(wrapExceptionIfNecessary(messageToSend, e));
+								}
+							}
+							else if (logger.isWarnEnabled()) {
+								logger.warn("Suppressing Exception since 'ignoreFailures' is set to TRUE.", e);
+							}
+						}
+						finally {
+							completed();
+						}
+					}
+				});
+			}
+			catch (RuntimeException e) {
+				this.completed();
+				throw e;
+			}
+		}
+
+		private void completed() {
+			if (this.permits != null) {
+				this.permits.release();
+			}
+			this.completed.countDown();
+		}
+
+		private int await() {
+			try {
+				if (!this.completed.await(this.remaining(), TimeUnit.MILLISECONDS)) {
+					throw this.timedOut();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MessageDeliveryException(this.message, "Interrupted while waiting for subscribers", e);
+			}
+			synchronized (this.failures) {
+				if (this.failures.size() == 1) {
+					throw this.failures.get(0);
+				}
+				if (this.failures.size() > 1) {
+					throw new AggregateMessageDeliveryException(this.message,
+							"Failed to deliver Message to " + this.failures.size() + " subscribers.", this.failures);
+				}
+			}
+			return this.succeeded.get();
+		}
+
+		private long remaining() {
+			return this.deadline == Long.MAX_VALUE ? Long.MAX_VALUE : this.deadline - System.currentTimeMillis();
+		}
+
+		private MessageDeliveryException timedOut() {
+			return new MessageDeliveryException(this.message, "Timed out after " + completionTimeout
+					+ "ms waiting for subscribers to complete");
+		}
+
+	}
+
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.integration.handler.MessageProcessor;
+import org.springframework.integration.util.CallerBlocksPolicy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * A {@link MessageDispatcher} that hands each {@link Message} to one of a fixed number
+ * of partitions, each a single thread consuming a bounded queue. The partition is
+ * selected by the hash of a key determined from the message (a {@code null} key selects
+ * the first partition), so messages with the same key are handled one at a time, in
+ * the order they were dispatched, while messages with different keys are handled
+ * concurrently.
+ * <p>
+ * Within a partition, the handler is selected as by a {@link UnicastingDispatcher}
+ * (load-balancing and failover). When the queue of the selected partition is full, the
+ * dispatching thread blocks until there is room (see {@link CallerBlocksPolicy}), for at
+ * most {@link #setMaxWait(long) maxWait} milliseconds, after which a
+ * {@link java.util.concurrent.RejectedExecutionException} is thrown.
+ * <p>
+ * The partition threads are started on demand and stopped by {@link #shutdown()}.
+ *
+ * @since 4.1
+ */
+public class PartitionedDispatcher extends AbstractDispatcher {
+
+	private final UnicastingDispatcher delegate = new UnicastingDispatcher();
+
+	private final int partitionCount;
+
+	private final MessageProcessor<?> partitionKeyProcessor;
+
+	private final Object partitionsMonitor = new Object();
+
+	private volatile ThreadPoolExecutor[] partitions;
+
+	private volatile int queueCapacity = 1000;
+
+	private volatile long maxWait = Long.MAX_VALUE;
+
+	private volatile ThreadFactory threadFactory = new CustomizableThreadFactory("partition-");
+
+	private volatile ErrorHandler errorHandler;
+
+
+	/**
+	 * @param partitionCount The number of partitions (threads).
+	 * @param partitionKeyProcessor Determines the partition key of a message.
+	 */
+	public PartitionedDispatcher(int partitionCount, MessageProcessor<?> partitionKeyProcessor) {
+		Assert.isTrue(partitionCount > 0, "'partitionCount' must be greater than 0");
+		Assert.notNull(partitionKeyProcessor, "'partitionKeyProcessor' must not be null");
+		this.partitionCount = partitionCount;
+		this.partitionKeyProcessor = partitionKeyProcessor;
+	}
+
+
+	/**
+	 * Set the capacity of the queue of each partition. Default 1000.
+	 *
+	 * @param queueCapacity The queue capacity.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "'queueCapacity' must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum time, in milliseconds, to block the dispatching thread when the
+	 * queue of the selected partition is full. Default: wait indefinitely.
+	 *
+	 * @param maxWait The maximum wait.
+	 */
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * Set the factory for the partition threads. Default a factory creating threads
+	 * named {@code partition-n}.
+	 *
+	 * @param threadFactory The thread factory.
+	 */
+	public void setThreadFactory(ThreadFactory threadFactory) {
+		Assert.notNull(threadFactory, "'threadFactory' must not be null");
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Set the handler for exceptions thrown by the message handlers (on the partition
+	 * threads). If none is set, exceptions are logged.
+	 *
+	 * @param errorHandler The error handler.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * @param failover The failover boolean.
+	 * @see UnicastingDispatcher#setFailover(boolean)
+	 */
+	public void setFailover(boolean failover) {
+		this.delegate.setFailover(failover);
+	}
+
+	/**
+	 * @param loadBalancingStrategy The load balancing strategy implementation.
+	 * @see UnicastingDispatcher#setLoadBalancingStrategy(LoadBalancingStrategy)
+	 */
+	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+		this.delegate.setLoadBalancingStrategy(loadBalancingStrategy);
+	}
+
+	/**
+	 * @return The number of partitions.
+	 */
+	public int getPartitionCount() {
+		return this.partitionCount;
+	}
+
+	/**
+	 * @param partition The partition index (0 to {@link #getPartitionCount()} - 1).
+	 * @return The number of messages waiting in the queue of the partition.
+	 */
+	public int getQueueSize(int partition) {
+		Assert.isTrue(partition >= 0 && partition < this.partitionCount, "no such partition: " + partition);
+		ThreadPoolExecutor[] partitions = this.partitions;
+		return partitions == null ? 0 : partitions[partition].getQueue().size();
+	}
+
+	@Override
+	public synchronized boolean addHandler(MessageHandler handler) {
+		boolean added = super.addHandler(handler);
+		if (added) {
+			this.delegate.addHandler(handler);
+		}
+		return added;
+	}
+
+	@Override
+	public synchronized boolean removeHandler(MessageHandler handler) {
+		boolean removed = super.removeHandler(handler);
+		if (removed) {
+			this.delegate.removeHandler(handler);
+		}
+		return removed;
+	}
+
+	@Override
+	public boolean dispatch(final Message<?> message) {
+		ThreadPoolExecutor partition = getPartitions()[partitionFor(message)];
+		partition.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					delegate.dispatch(message);
+				}
+				catch (Throwable t) {
+					ErrorHandler errorHandler = PartitionedDispatcher.this.errorHandler;
+					if (errorHandler != null) {
+						errorHandler.handleError(t);
+					}
+					else {
+						logger.error("Failed to dispatch " + message, t);
+					}
+				}
+			}
+
+		});
+		return true;
+	}
+
+	/**
+	 * Stop the partition threads, once they have handled the messages already queued.
+	 * Messages dispatched afterwards are rejected.
+	 */
+	public void shutdown() {
+		synchronized (this.partitionsMonitor) {
+			if (this.partitions != null) {
+				for (ThreadPoolExecutor partition : this.partitions) {
+					partition.shutdown();
+				}
+			}
+		}
+	}
+
+	private int partitionFor(Message<?> message) {
+		Object key = this.partitionKeyProcessor.processMessage(message);
+		if (key == null) {
+			return 0;
+		}
+		int hash = key.hashCode();
+		// mix the higher bits into the lower ones, as HashMap does
+		hash ^= (hash >>> 16);
+		return (hash & Integer.MAX_VALUE) % this.partitionCount;
+	}
+
+	private ThreadPoolExecutor[] getPartitions() {
+		ThreadPoolExecutor[] partitions = this.partitions;
+		if (partitions == null) {
+			synchronized (this.partitionsMonitor) {
+				partitions = this.partitions;
+				if (partitions == null) {
+					partitions = new ThreadPoolExecutor[this.partitionCount];
+					for (int i = 0; i < this.partitionCount; i++) {
+						partitions[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+								new LinkedBlockingQueue<Runnable>(this.queueCapacity), this.threadFactory,
+								new CallerBlocksPolicy(this.maxWait));
+					}
+					this.partitions = partitions;
+				}
+			}
+		}
+		return partitions;
+	}
+
+}
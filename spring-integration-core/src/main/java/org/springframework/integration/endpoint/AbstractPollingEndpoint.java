@@ -16,8 +16,12 @@
 
 package org.springframework.integration.endpoint;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
 
@@ -40,6 +44,7 @@ import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.support.PeriodicTrigger;
 import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -72,6 +77,10 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 
 	private volatile long maxMessagesPerPoll = -1;
 
+	private volatile boolean batchReceive;
+
+	private final Queue<Message<?>> bufferedMessages = new ConcurrentLinkedQueue<Message<?>>();
+
 	private final Object initializationMonitor = new Object();
 
 	private volatile TransactionSynchronizationFactory transactionSynchronizationFactory;
@@ -96,6 +105,35 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 		this.maxMessagesPerPoll = maxMessagesPerPoll;
 	}
 
+	/**
+	 * @return the maximum number of messages handled per poll; non-positive for no limit.
+	 * @since 4.1
+	 */
+	protected long getMaxMessagesPerPoll() {
+		return this.maxMessagesPerPoll;
+	}
+
+	/**
+	 * Set to true to receive up to {@code maxMessagesPerPoll} messages at once (see
+	 * {@link #receiveMessages(int)}) and handle them all in a single poll task, so that
+	 * the advice chain, and in particular a transaction, is applied once per batch
+	 * rather than once per message. Only applies when {@code maxMessagesPerPoll} is
+	 * greater than one.
+	 * <p>
+	 * If handling a message fails, the exception is propagated and the remaining messages
+	 * of the batch are not handled; they are handed back with
+	 * {@link #requeueMessages(List)}, once the transaction (if any) has completed; if the
+	 * transaction rolled back, they are not handed back, since a transactional source (such
+	 * as a channel backed by a JDBC message store) has restored the whole batch. When
+	 * transaction synchronization is configured, the message of the resource holder has
+	 * the list of the messages of the batch as its payload.
+	 * @param batchReceive true to receive and handle messages in batches.
+	 * @since 4.1
+	 */
+	public void setBatchReceive(boolean batchReceive) {
+		this.batchReceive = batchReceive;
+	}
+
 	public void setErrorHandler(ErrorHandler errorHandler) {
 		this.errorHandler = errorHandler;
 	}
@@ -182,14 +220,29 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 		}
 		this.runningTask = null;
 		this.initialized = false;
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message;
+		while ((message = this.bufferedMessages.poll()) != null) {
+			messages.add(message);
+		}
+		this.requeue(messages);
+	}
+
+	private boolean isBatchReceive() {
+		return this.batchReceive && this.maxMessagesPerPoll > 1;
 	}
 
 	private boolean doPoll() {
+		if (this.isBatchReceive()) {
+			return this.doBatchPoll();
+		}
 		IntegrationResourceHolder holder = this.bindResourceHolderIfNecessary(
 				this.getResourceKey(), this.getResourceToBind());
-		Message<?> message = null;
+		Message<?> message = this.bufferedMessages.poll();
 		try {
-			message = this.receiveMessage();
+			if (message == null) {
+				message = this.receiveMessage();
+			}
 		}
 		catch (Exception e) {
 			if (Thread.interrupted()) {
@@ -222,6 +275,88 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 		return result;
 	}
 
+	private boolean doBatchPoll() {
+		IntegrationResourceHolder holder = this.bindResourceHolderIfNecessary(
+				this.getResourceKey(), this.getResourceToBind());
+		int maxMessages = (int) Math.min(this.maxMessagesPerPoll, Integer.MAX_VALUE);
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message;
+		while (messages.size() < maxMessages && (message = this.bufferedMessages.poll()) != null) {
+			messages.add(message);
+		}
+		if (messages.isEmpty()) {
+			try {
+				messages = this.receiveMessages(maxMessages);
+			}
+			catch (Exception e) {
+				if (Thread.interrupted()) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Poll interrupted - during stop()? : " + e.getMessage());
+					}
+					return false;
+				}
+				else {
+					throw (RuntimeException) e;
+				}
+			}
+		}
+		if (messages.isEmpty()) {
+			if (this.logger.isDebugEnabled()){
+				this.logger.debug("Received no Message during the poll, returning 'false'");
+			}
+			return false;
+		}
+		if (this.logger.isDebugEnabled()){
+			this.logger.debug("Poll resulted in " + messages.size() + " Messages: " + messages);
+		}
+		if (holder != null) {
+			holder.setMessage(this.getMessageBuilderFactory().withPayload(messages).build());
+		}
+		for (int i = 0; i < messages.size(); i++) {
+			try {
+				this.handleMessage(messages.get(i));
+			}
+			catch (RuntimeException e) {
+				this.requeueAfterCompletion(new ArrayList<Message<?>>(messages.subList(i + 1, messages.size())));
+				throw e;
+			}
+		}
+		return true;
+	}
+
+	private void requeueAfterCompletion(final List<Message<?>> messages) {
+		if (messages.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_ROLLED_BACK) {
+						// the transactional source has restored the batch
+						if (logger.isDebugEnabled()) {
+							logger.debug("Transaction rolled back, messages not requeued: " + messages);
+						}
+					}
+					else {
+						requeue(messages);
+					}
+				}
+
+			});
+		}
+		else {
+			this.requeue(messages);
+		}
+	}
+
+	private void requeue(List<Message<?>> messages) {
+		if (!messages.isEmpty()) {
+			this.bufferedMessages.addAll(this.requeueMessages(messages));
+		}
+	}
+
 	/**
 	 * Obtain the next message (if one is available). MAY return null
 	 * if no message is immediately available.
@@ -229,6 +364,50 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 	 */
 	protected abstract Message<?> receiveMessage();
 
+	/**
+	 * Obtain up to {@code maxMessages} messages, when receiving in batches (see
+	 * {@link #setBatchReceive(boolean)}). This implementation invokes
+	 * {@link #receiveMessage()} until it returns null or enough messages have been
+	 * received; subclasses may receive the batch in a single operation.
+	 * @param maxMessages The maximum number of messages.
+	 * @return The messages; empty if none is available.
+	 * @since 4.1
+	 */
+	protected List<Message<?>> receiveMessages(int maxMessages) {
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message;
+		while (messages.size() < maxMessages && (message = this.receiveMessage()) != null) {
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	/**
+	 * Keep messages that have been received ahead of the one being handled; they are
+	 * handled, in order, before anything is received again, and are handed back with
+	 * {@link #requeueMessages(List)} if the endpoint is stopped first.
+	 * @param messages The messages.
+	 * @since 4.1
+	 */
+	protected void bufferMessages(Collection<Message<?>> messages) {
+		this.bufferedMessages.addAll(messages);
+	}
+
+	/**
+	 * Hand back messages that have been received but not handled: those following a
+	 * failed message of a batch (see {@link #setBatchReceive(boolean)}) and those
+	 * buffered (see {@link #bufferMessages(Collection)}) when the endpoint is stopped.
+	 * This implementation cannot return them to their source and returns them all, so
+	 * they stay with the endpoint and are handled first by the next poll; subclasses
+	 * that can return messages to their source should do so.
+	 * @param messages The messages, in order.
+	 * @return The messages that could not be handed back.
+	 * @since 4.1
+	 */
+	protected List<Message<?>> requeueMessages(List<Message<?>> messages) {
+		return messages;
+	}
+
 	/**
 	 * Handle a message.
 	 * @param message The message.
@@ -293,9 +472,10 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 				@Override
 				public void run() {
 					int count = 0;
+					boolean batch = isBatchReceive();
 					while (initialized && (maxMessagesPerPoll <= 0 || count < maxMessagesPerPoll)) {
 						try {
-							if (!pollingTask.call()) {
+							if (!pollingTask.call() || batch) {
 								break;
 							}
 							count++;
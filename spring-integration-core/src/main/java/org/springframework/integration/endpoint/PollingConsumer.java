@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.integration.endpoint;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.context.Lifecycle;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.channel.RingBufferChannel;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.PollableChannel;
@@ -74,14 +79,78 @@ public class PollingConsumer extends AbstractPollingEndpoint {
 		this.handler.handleMessage(message);
 	}
 
+	/**
+	 * Receive the next message; when the input channel is a {@link RingBufferChannel}
+	 * and {@code maxMessagesPerPoll} is greater than one, up to that many messages are
+	 * received at once and the others are {@link #bufferMessages(java.util.Collection)
+	 * buffered} until the following poll tasks handle them. Each message is still handled
+	 * in its own poll task (with its own advice chain and transaction).
+	 */
 	@Override
 	protected Message<?> receiveMessage() {
+		long maxMessagesPerPoll = this.getMaxMessagesPerPoll();
+		if (maxMessagesPerPoll > 1 && this.inputChannel instanceof RingBufferChannel) {
+			List<Message<?>> messages = ((RingBufferChannel) this.inputChannel).receive(
+					(int) Math.min(maxMessagesPerPoll, Integer.MAX_VALUE), this.receiveTimeout);
+			if (messages.isEmpty()) {
+				return null;
+			}
+			if (messages.size() > 1) {
+				this.bufferMessages(messages.subList(1, messages.size()));
+			}
+			return messages.get(0);
+		}
 		Message<?> message = (this.receiveTimeout >= 0)
 				? this.inputChannel.receive(this.receiveTimeout)
 				: this.inputChannel.receive();
 		return message;
 	}
 
+	/**
+	 * Receive a batch of messages; from a {@link QueueChannel}, in one call to its
+	 * {@link QueueChannel#receive(int, long) batch receive} method; from other channels,
+	 * by receiving messages until none is immediately available. Only the first message
+	 * is awaited for up to the {@code receiveTimeout}.
+	 */
+	@Override
+	protected List<Message<?>> receiveMessages(int maxMessages) {
+		if (this.inputChannel instanceof QueueChannel) {
+			return ((QueueChannel) this.inputChannel).receive(maxMessages, this.receiveTimeout);
+		}
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message = (this.receiveTimeout >= 0)
+				? this.inputChannel.receive(this.receiveTimeout)
+				: this.inputChannel.receive();
+		while (message != null) {
+			messages.add(message);
+			message = (messages.size() < maxMessages) ? this.inputChannel.receive(0) : null;
+		}
+		return messages;
+	}
+
+	/**
+	 * Send the messages back to the input channel, without waiting for space in a
+	 * bounded channel; they are then received after the messages already in the
+	 * channel. A message that cannot be sent is kept by the endpoint.
+	 */
+	@Override
+	protected List<Message<?>> requeueMessages(List<Message<?>> messages) {
+		List<Message<?>> remaining = new ArrayList<Message<?>>();
+		for (Message<?> message : messages) {
+			try {
+				if (!this.inputChannel.send(message, 0)) {
+					remaining.add(message);
+				}
+			}
+			catch (RuntimeException e) {
+				logger.warn("Failed to requeue message to the input channel; it is kept by the endpoint: "
+						+ message, e);
+				remaining.add(message);
+			}
+		}
+		return remaining;
+	}
+
 	@Override
 	protected Object getResourceToBind() {
 		return this.inputChannel;
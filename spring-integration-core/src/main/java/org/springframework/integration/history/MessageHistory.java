@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.history;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,6 +25,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Properties;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilderFactory;
@@ -69,9 +72,16 @@ public class MessageHistory implements List<Properties>, Serializable {
 		Properties metadata = extractMetadata(component);
 		if (!metadata.isEmpty()) {
 			MessageHistory previousHistory = message.getHeaders().get(HEADER_NAME, MessageHistory.class);
-			List<Properties> components = (previousHistory != null) ?
-					new ArrayList<Properties>(previousHistory) : new ArrayList<Properties>();
-			components.add(metadata);
+			List<Properties> components;
+			if (previousHistory == null) {
+				components = new AppendOnlyList(metadata);
+			}
+			else if (previousHistory.components instanceof AppendOnlyList) {
+				components = ((AppendOnlyList) previousHistory.components).append(metadata);
+			}
+			else {
+				components = new AppendOnlyList(previousHistory.components, metadata);
+			}
 			MessageHistory history = new MessageHistory(components);
 			message = messageBuilderFactory.fromMessage(message).setHeader(HEADER_NAME, history).build();
 		}
@@ -235,6 +245,66 @@ public class MessageHistory implements List<Properties>, Serializable {
 	}
 
 
+	/**
+	 * An immutable list that shares its array with the list it was appended to, so that
+	 * each hop does not copy the history: the first list appended to a list claims the
+	 * next slot in the array; another list appended to the same list (for example, when
+	 * a message is sent to several subscribers) copies the array. Serialized as an
+	 * {@link ArrayList}.
+	 */
+	private static final class AppendOnlyList extends AbstractList<Properties> implements RandomAccess, Serializable {
+
+		private static final int INITIAL_CAPACITY = 4;
+
+		private final AtomicReferenceArray<Properties> elements;
+
+		private final int size;
+
+		private AppendOnlyList(Properties element) {
+			this(Collections.<Properties>emptyList(), element);
+		}
+
+		private AppendOnlyList(List<Properties> elements, Properties element) {
+			this.size = elements.size() + 1;
+			this.elements = new AtomicReferenceArray<Properties>(Math.max(this.size * 2, INITIAL_CAPACITY));
+			for (int i = 0; i < this.size - 1; i++) {
+				this.elements.set(i, elements.get(i));
+			}
+			this.elements.set(this.size - 1, element);
+		}
+
+		private AppendOnlyList(AtomicReferenceArray<Properties> elements, int size) {
+			this.elements = elements;
+			this.size = size;
+		}
+
+		private AppendOnlyList append(Properties element) {
+			if (this.size < this.elements.length() && this.elements.compareAndSet(this.size, null, element)) {
+				return new AppendOnlyList(this.elements, this.size + 1);
+			}
+			return new AppendOnlyList(this, element);
+		}
+
+		@Override
+		public Properties get(int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+			return this.elements.get(index);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		private Object writeReplace() {
+			return new ArrayList<Properties>(this);
+		}
+
+	}
+
+
 	/**
 	 * Inner class for each Entry in the history.
 	 */
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.metadata;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link ConcurrentMetadataStore} that supports updating or removing many keys in one operation,
+ * typically in a single round trip to a remote store. Each key is updated atomically,
+ * but the operation as a whole is not atomic.
+ *
+ * @since 4.1
+ */
+public interface BatchMetadataStore extends ConcurrentMetadataStore {
+
+	/**
+	 * Atomically insert each key of the map into the store, unless it is present, as
+	 * {@link #putIfAbsent(String, String)} does.
+	 *
+	 * @param entries The keys and values.
+	 * @return The current values of the keys that were present (and not inserted).
+	 */
+	Map<String, String> putAllIfAbsent(Map<String, String> entries);
+
+	/**
+	 * Remove the keys from the store, as {@link #remove(String)} does; keys that are
+	 * not present are ignored.
+	 *
+	 * @param keys The keys.
+	 */
+	void removeAll(Collection<String> keys);
+
+}
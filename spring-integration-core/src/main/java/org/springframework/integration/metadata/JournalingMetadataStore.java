@@ -0,0 +1,757 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * A file-based {@link ConcurrentMetadataStore} that keeps the metadata in memory and
+ * records every update in an append-only journal, so that the metadata survives a
+ * crash, not only an orderly shutdown as with the {@link PropertiesPersistingMetadataStore}.
+ * <p>
+ * Reads, and {@link #putIfAbsent(String, String)} for a key that is already present,
+ * only access the in-memory map. Updates are appended to an in-memory buffer which is
+ * written to the journal and forced to the storage device ({@code fsync}) in a single
+ * operation for all the updates pending at that time (group commit):
+ * <ul>
+ * <li>by default, every {@link #setFlushInterval(long) flushInterval} milliseconds, by
+ * a background thread; an update returns without waiting for the disk, and a crash may
+ * lose the updates of the last interval;</li>
+ * <li>with {@link #setSynchronousWrites(boolean) synchronousWrites}, before the update
+ * returns; concurrent updates share the same write, so the cost of the {@code fsync}
+ * is amortized when the store is updated by many threads.</li>
+ * </ul>
+ * When the journal grows beyond the {@link #setCompactionThreshold(long)
+ * compactionThreshold}, a new journal is started and the previous ones are merged, in
+ * the background, with the last snapshot of the metadata into a new snapshot, after
+ * which they are deleted. On startup, the snapshot is loaded and the journals are
+ * replayed; an incomplete record at the end of a journal (a write interrupted by a
+ * crash) is ignored.
+ * <p>
+ * The files ({@code metadata-store.snapshot} and {@code metadata-store.journal.n}) are
+ * written to the 'java.io.tmpdir' + "/spring-integration/" directory by default;
+ * instances must not share a directory.
+ *
+ * @since 4.1
+ */
+public class JournalingMetadataStore implements BatchMetadataStore, InitializingBean, DisposableBean {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String SNAPSHOT_FILE_NAME = "metadata-store.snapshot";
+
+	private static final String JOURNAL_FILE_PREFIX = "metadata-store.journal.";
+
+	private static final int SNAPSHOT_MAGIC = 0x534d4453;
+
+	private static final byte PUT = 1;
+
+	private static final byte REMOVE = 2;
+
+	private static final byte END = 3;
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final ConcurrentMap<String, String> metadata = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Guards the updates of the map, so that the journal records are in the same order.
+	 */
+	private final Object appendMonitor = new Object();
+
+	/**
+	 * Guards the journal file.
+	 */
+	private final Object commitMonitor = new Object();
+
+	private final Object compactionMonitor = new Object();
+
+	private String baseDirectory = System.getProperty("java.io.tmpdir") + "/spring-integration/";
+
+	private volatile boolean synchronousWrites;
+
+	private volatile long flushInterval = 10;
+
+	private volatile long compactionThreshold = 64 * 1024 * 1024;
+
+	private File directory;
+
+	private ScheduledExecutorService executor;
+
+	// guarded by appendMonitor
+
+	private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+	private long appendedCount;
+
+	// guarded by commitMonitor
+
+	private FileChannel journal;
+
+	private long journalGeneration;
+
+	private long journalSize;
+
+	private volatile long committedCount;
+
+	private volatile boolean compacting;
+
+
+	public void setBaseDirectory(String baseDirectory) {
+		Assert.hasText(baseDirectory, "'baseDirectory' must be non-empty");
+		this.baseDirectory = baseDirectory;
+	}
+
+	/**
+	 * Set to true to have updates return only once they have been written to the
+	 * journal and forced to the storage device. Default false.
+	 *
+	 * @param synchronousWrites true to wait for the updates to be on disk.
+	 */
+	public void setSynchronousWrites(boolean synchronousWrites) {
+		this.synchronousWrites = synchronousWrites;
+	}
+
+	/**
+	 * Set the interval, in milliseconds, at which the pending updates are written to the
+	 * journal, unless {@link #setSynchronousWrites(boolean) synchronousWrites} is true.
+	 * Default 10.
+	 *
+	 * @param flushInterval The flush interval.
+	 */
+	public void setFlushInterval(long flushInterval) {
+		Assert.isTrue(flushInterval > 0, "'flushInterval' must be greater than 0");
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Set the size, in bytes, of the journal beyond which it is compacted into a
+	 * snapshot. Default 64MB.
+	 *
+	 * @param compactionThreshold The compaction threshold.
+	 */
+	public void setCompactionThreshold(long compactionThreshold) {
+		Assert.isTrue(compactionThreshold > 0, "'compactionThreshold' must be greater than 0");
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		this.directory = new File(this.baseDirectory);
+		this.directory.mkdirs();
+		Assert.isTrue(this.directory.isDirectory(), "Failed to create metadata-store directory '"
+				+ this.directory.getAbsolutePath() + "'");
+		long lastGeneration = readSnapshot(this.metadata);
+		long replayedSize = 0;
+		for (Long generation : journalGenerations()) {
+			File file = journalFile(generation);
+			if (generation <= lastGeneration) {
+				// already compacted into the snapshot
+				file.delete();
+			}
+			else {
+				replay(file, this.metadata);
+				replayedSize += file.length();
+				lastGeneration = generation;
+			}
+		}
+		// never append to a journal that may end with an incomplete record
+		this.journalGeneration = lastGeneration + 1;
+		this.journal = openJournal(this.journalGeneration);
+		// a compaction does not delay the flushes
+		this.executor = Executors.newScheduledThreadPool(2, createThreadFactory());
+		if (!this.synchronousWrites) {
+			this.executor.scheduleWithFixedDelay(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						flush();
+					}
+					catch (Exception e) {
+						logger.error("Failed to write the metadata journal", e);
+					}
+				}
+
+			}, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+		}
+		if (replayedSize >= this.compactionThreshold) {
+			this.compacting = true;
+			scheduleCompaction(this.journalGeneration - 1);
+		}
+	}
+
+	@Override
+	public void put(String key, String value) {
+		Assert.notNull(key, "'key' cannot be null");
+		Assert.notNull(value, "'value' cannot be null");
+		byte[] record = record(PUT, key, value);
+		long sequence;
+		synchronized (this.appendMonitor) {
+			this.metadata.put(key, value);
+			sequence = append(record);
+		}
+		awaitCommit(sequence);
+	}
+
+	@Override
+	public String get(String key) {
+		Assert.notNull(key, "'key' cannot be null");
+		return this.metadata.get(key);
+	}
+
+	@Override
+	public String remove(String key) {
+		Assert.notNull(key, "'key' cannot be null");
+		byte[] record = record(REMOVE, key, "");
+		String removed;
+		long sequence;
+		synchronized (this.appendMonitor) {
+			removed = this.metadata.remove(key);
+			if (removed == null) {
+				return null;
+			}
+			sequence = append(record);
+		}
+		awaitCommit(sequence);
+		return removed;
+	}
+
+	@Override
+	public String putIfAbsent(String key, String value) {
+		Assert.notNull(key, "'key' cannot be null");
+		Assert.notNull(value, "'value' cannot be null");
+		String existing = this.metadata.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		byte[] record = record(PUT, key, value);
+		long sequence;
+		synchronized (this.appendMonitor) {
+			existing = this.metadata.putIfAbsent(key, value);
+			if (existing != null) {
+				return existing;
+			}
+			sequence = append(record);
+		}
+		awaitCommit(sequence);
+		return null;
+	}
+
+	@Override
+	public boolean replace(String key, String oldValue, String newValue) {
+		Assert.notNull(key, "'key' cannot be null");
+		Assert.notNull(oldValue, "'oldValue' cannot be null");
+		Assert.notNull(newValue, "'newValue' cannot be null");
+		byte[] record = record(PUT, key, newValue);
+		long sequence;
+		synchronized (this.appendMonitor) {
+			if (!this.metadata.replace(key, oldValue, newValue)) {
+				return false;
+			}
+			sequence = append(record);
+		}
+		awaitCommit(sequence);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The keys that are absent are inserted, and recorded in the journal, together;
+	 * with synchronous writes, the operation waits for a single write.
+	 */
+	@Override
+	public Map<String, String> putAllIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' cannot be null");
+		Map<String, String> existing = new HashMap<String, String>();
+		Map<String, byte[]> records = new LinkedHashMap<String, byte[]>();
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			Assert.notNull(entry.getKey(), "'key' cannot be null");
+			Assert.notNull(entry.getValue(), "'value' cannot be null");
+			String value = this.metadata.get(entry.getKey());
+			if (value != null) {
+				existing.put(entry.getKey(), value);
+			}
+			else {
+				records.put(entry.getKey(), record(PUT, entry.getKey(), entry.getValue()));
+			}
+		}
+		if (!records.isEmpty()) {
+			long sequence = 0;
+			synchronized (this.appendMonitor) {
+				for (Map.Entry<String, byte[]> record : records.entrySet()) {
+					String value = this.metadata.putIfAbsent(record.getKey(), entries.get(record.getKey()));
+					if (value != null) {
+						existing.put(record.getKey(), value);
+					}
+					else {
+						sequence = append(record.getValue());
+					}
+				}
+			}
+			if (sequence > 0) {
+				awaitCommit(sequence);
+			}
+		}
+		return existing;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The keys that are present are removed, and recorded in the journal, together;
+	 * with synchronous writes, the operation waits for a single write.
+	 */
+	@Override
+	public void removeAll(Collection<String> keys) {
+		Assert.notNull(keys, "'keys' cannot be null");
+		long sequence = 0;
+		synchronized (this.appendMonitor) {
+			for (String key : keys) {
+				Assert.notNull(key, "'key' cannot be null");
+				if (this.metadata.remove(key) != null) {
+					sequence = append(record(REMOVE, key, ""));
+				}
+			}
+		}
+		if (sequence > 0) {
+			awaitCommit(sequence);
+		}
+	}
+
+	/**
+	 * Write the pending updates to the journal and force them to the storage device.
+	 */
+	public void flush() {
+		commit(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Start a new journal and compact the previous ones into a new snapshot, in the
+	 * calling thread.
+	 *
+	 * @throws IOException if the snapshot cannot be written.
+	 */
+	public void compact() throws IOException {
+		long generation;
+		synchronized (this.commitMonitor) {
+			commit(Long.MAX_VALUE);
+			generation = rotate();
+		}
+		compact(generation);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		this.executor.shutdown();
+		if (!this.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+			logger.warn("Metadata journal compaction did not complete in 30 seconds");
+		}
+		synchronized (this.commitMonitor) {
+			flush();
+			this.journal.close();
+		}
+	}
+
+	/**
+	 * Append a record to the pending updates; the caller holds the append monitor.
+	 */
+	private long append(byte[] record) {
+		this.pending.write(record, 0, record.length);
+		return ++this.appendedCount;
+	}
+
+	private void awaitCommit(long sequence) {
+		if (this.synchronousWrites) {
+			commit(sequence);
+		}
+	}
+
+	/**
+	 * Write all the pending updates, unless the update with the given sequence has been
+	 * written already (by a concurrent commit).
+	 */
+	private void commit(long sequence) {
+		synchronized (this.commitMonitor) {
+			if (this.committedCount >= sequence) {
+				return;
+			}
+			byte[] bytes;
+			long count;
+			synchronized (this.appendMonitor) {
+				bytes = this.pending.toByteArray();
+				count = this.appendedCount;
+				this.pending.reset();
+			}
+			if (bytes.length > 0) {
+				try {
+					ByteBuffer buffer = ByteBuffer.wrap(bytes);
+					while (buffer.hasRemaining()) {
+						this.journal.write(buffer);
+					}
+					this.journal.force(false);
+					this.journalSize += bytes.length;
+				}
+				catch (IOException e) {
+					restorePending(bytes);
+					throw new IllegalStateException("Failed to write the metadata journal", e);
+				}
+			}
+			this.committedCount = count;
+			if (this.journalSize >= this.compactionThreshold && !this.compacting) {
+				this.compacting = true;
+				try {
+					scheduleCompaction(rotate());
+				}
+				catch (IOException e) {
+					this.compacting = false;
+					logger.error("Failed to start a new metadata journal", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Put back the updates that could not be written, ahead of those appended since;
+	 * the caller holds the commit monitor.
+	 */
+	private void restorePending(byte[] bytes) {
+		try {
+			// discard a partial write, which would hide the records written after it
+			this.journal.truncate(this.journalSize);
+			this.journal.position(this.journalSize);
+		}
+		catch (IOException e) {
+			logger.error("Failed to truncate the metadata journal", e);
+		}
+		synchronized (this.appendMonitor) {
+			ByteArrayOutputStream restored = new ByteArrayOutputStream(bytes.length + this.pending.size());
+			restored.write(bytes, 0, bytes.length);
+			byte[] appended = this.pending.toByteArray();
+			restored.write(appended, 0, appended.length);
+			this.pending = restored;
+		}
+	}
+
+	/**
+	 * Start a new journal; the caller holds the commit monitor.
+	 * @return The generation of the previous journal.
+	 */
+	private long rotate() throws IOException {
+		FileChannel next = openJournal(this.journalGeneration + 1);
+		this.journal.close();
+		this.journal = next;
+		this.journalSize = 0;
+		return this.journalGeneration++;
+	}
+
+	private void scheduleCompaction(final long generation) {
+		try {
+			this.executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						compact(generation);
+					}
+					catch (Exception e) {
+						logger.error("Failed to compact the metadata journal", e);
+					}
+					finally {
+						compacting = false;
+					}
+				}
+
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.compacting = false;
+		}
+	}
+
+	/**
+	 * Merge the journals up to the given generation into the snapshot, then delete them.
+	 */
+	private void compact(long generation) throws IOException {
+		synchronized (this.compactionMonitor) {
+			Map<String, String> state = new HashMap<String, String>();
+			long lastGeneration = readSnapshot(state);
+			if (lastGeneration >= generation) {
+				return;
+			}
+			List<File> compacted = new ArrayList<File>();
+			for (Long journalGeneration : journalGenerations()) {
+				if (journalGeneration <= generation) {
+					File file = journalFile(journalGeneration);
+					if (journalGeneration > lastGeneration) {
+						replay(file, state);
+					}
+					compacted.add(file);
+				}
+			}
+			writeSnapshot(state, generation);
+			for (File file : compacted) {
+				if (!file.delete()) {
+					logger.warn("Failed to delete compacted metadata journal '" + file.getAbsolutePath() + "'");
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Compacted " + compacted.size() + " metadata journal(s) into a snapshot of "
+						+ state.size() + " entries");
+			}
+		}
+	}
+
+	private void writeSnapshot(Map<String, String> state, long generation) throws IOException {
+		File snapshot = new File(this.directory, SNAPSHOT_FILE_NAME);
+		File temp = new File(this.directory, SNAPSHOT_FILE_NAME + ".tmp");
+		FileOutputStream fileOutputStream = new FileOutputStream(temp);
+		try {
+			BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream, 64 * 1024);
+			outputStream.write(ByteBuffer.allocate(12).putInt(SNAPSHOT_MAGIC).putLong(generation).array());
+			for (Map.Entry<String, String> entry : state.entrySet()) {
+				outputStream.write(record(PUT, entry.getKey(), entry.getValue()));
+			}
+			outputStream.write(record(END, "", ""));
+			outputStream.flush();
+			fileOutputStream.getFD().sync();
+		}
+		finally {
+			fileOutputStream.close();
+		}
+		// the temporary snapshot is complete, and is used on startup if the rename fails half way
+		if (!temp.renameTo(snapshot)) {
+			snapshot.delete();
+			if (!temp.renameTo(snapshot)) {
+				throw new IOException("Failed to rename '" + temp.getAbsolutePath() + "' to '"
+						+ snapshot.getAbsolutePath() + "'");
+			}
+		}
+	}
+
+	/**
+	 * Load the last complete snapshot into the map.
+	 * @return The generation of the last journal compacted into the snapshot; 0 if none.
+	 */
+	private long readSnapshot(Map<String, String> state) throws IOException {
+		File snapshot = new File(this.directory, SNAPSHOT_FILE_NAME);
+		File temp = new File(this.directory, SNAPSHOT_FILE_NAME + ".tmp");
+		if (snapshot.exists()) {
+			long generation = readSnapshot(snapshot, state);
+			if (generation >= 0) {
+				return generation;
+			}
+			state.clear();
+		}
+		if (temp.exists()) {
+			long generation = readSnapshot(temp, state);
+			if (generation >= 0) {
+				return generation;
+			}
+			state.clear();
+		}
+		return 0;
+	}
+
+	private long readSnapshot(File file, Map<String, String> state) throws IOException {
+		DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+		try {
+			if (inputStream.readInt() != SNAPSHOT_MAGIC) {
+				logger.warn("Ignoring invalid metadata snapshot '" + file.getAbsolutePath() + "'");
+				return -1;
+			}
+			long generation = inputStream.readLong();
+			if (replay(inputStream, file.length() - 12, state, file)) {
+				return generation;
+			}
+			logger.warn("Ignoring incomplete metadata snapshot '" + file.getAbsolutePath() + "'");
+			return -1;
+		}
+		catch (EOFException e) {
+			logger.warn("Ignoring incomplete metadata snapshot '" + file.getAbsolutePath() + "'");
+			return -1;
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	private void replay(File file, Map<String, String> state) throws IOException {
+		DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+		try {
+			replay(inputStream, file.length(), state, file);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Apply the records read from the stream to the map, up to the end of the stream or
+	 * an incomplete or corrupt record.
+	 * @return true if an end record was read.
+	 */
+	private boolean replay(DataInputStream inputStream, long size, Map<String, String> state, File file)
+			throws IOException {
+		long remaining = size;
+		while (true) {
+			int length;
+			try {
+				length = inputStream.readInt();
+			}
+			catch (EOFException e) {
+				return false;
+			}
+			try {
+				remaining -= 4 + (long) length + 4;
+				if (length < 9 || remaining < 0) {
+					throw new EOFException();
+				}
+				byte[] payload = new byte[length];
+				inputStream.readFully(payload);
+				int checksum = inputStream.readInt();
+				CRC32 crc = new CRC32();
+				crc.update(payload);
+				if (checksum != (int) crc.getValue()) {
+					throw new EOFException();
+				}
+				ByteBuffer buffer = ByteBuffer.wrap(payload);
+				byte operation = buffer.get();
+				String key = readString(buffer);
+				String value = readString(buffer);
+				if (operation == PUT) {
+					state.put(key, value);
+				}
+				else if (operation == REMOVE) {
+					state.remove(key);
+				}
+				else if (operation == END) {
+					return true;
+				}
+			}
+			catch (RuntimeException e) {
+				logger.warn("Ignoring corrupt record at the end of '" + file.getAbsolutePath() + "'", e);
+				return false;
+			}
+			catch (EOFException e) {
+				logger.warn("Ignoring incomplete record at the end of '" + file.getAbsolutePath() + "'");
+				return false;
+			}
+		}
+	}
+
+	private List<Long> journalGenerations() {
+		String[] names = this.directory.list(new FilenameFilter() {
+
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith(JOURNAL_FILE_PREFIX);
+			}
+
+		});
+		List<Long> generations = new ArrayList<Long>();
+		if (names != null) {
+			for (String name : names) {
+				try {
+					generations.add(Long.valueOf(name.substring(JOURNAL_FILE_PREFIX.length())));
+				}
+				catch (NumberFormatException e) {
+					// not a journal
+				}
+			}
+		}
+		Collections.sort(generations);
+		return generations;
+	}
+
+	private File journalFile(long generation) {
+		return new File(this.directory, JOURNAL_FILE_PREFIX + generation);
+	}
+
+	private FileChannel openJournal(long generation) throws IOException {
+		FileChannel channel = new RandomAccessFile(journalFile(generation), "rw").getChannel();
+		channel.position(channel.size());
+		return channel;
+	}
+
+	private CustomizableThreadFactory createThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("metadata-journal-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	/**
+	 * Encode a record: length, payload (operation, key, value) and CRC32 of the payload.
+	 */
+	private static byte[] record(byte operation, String key, String value) {
+		byte[] keyBytes = key.getBytes(UTF_8);
+		byte[] valueBytes = value.getBytes(UTF_8);
+		int length = 1 + 4 + keyBytes.length + 4 + valueBytes.length;
+		ByteBuffer buffer = ByteBuffer.allocate(4 + length + 4);
+		buffer.putInt(length)
+				.put(operation)
+				.putInt(keyBytes.length)
+				.put(keyBytes)
+				.putInt(valueBytes.length)
+				.put(valueBytes);
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 4, length);
+		buffer.putInt((int) crc.getValue());
+		return buffer.array();
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+}
@@ -24,6 +24,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.locks.Lock;
 
@@ -48,7 +51,7 @@ import org.springframework.util.DefaultPropertiesPersister;
  * @author Gary Russell
  * @since 2.0
  */
-public class PropertiesPersistingMetadataStore implements ConcurrentMetadataStore, InitializingBean, DisposableBean {
+public class PropertiesPersistingMetadataStore implements BatchMetadataStore, InitializingBean, DisposableBean {
 
 	private final Log logger = LogFactory.getLog(getClass());
 
@@ -168,6 +171,27 @@ public class PropertiesPersistingMetadataStore implements ConcurrentMetadataStor
 		}
 	}
 
+	@Override
+	public Map<String, String> putAllIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' cannot be null");
+		Map<String, String> existing = new HashMap<String, String>();
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			String value = putIfAbsent(entry.getKey(), entry.getValue());
+			if (value != null) {
+				existing.put(entry.getKey(), value);
+			}
+		}
+		return existing;
+	}
+
+	@Override
+	public void removeAll(Collection<String> keys) {
+		Assert.notNull(keys, "'keys' cannot be null");
+		for (String key : keys) {
+			remove(key);
+		}
+	}
+
 	@Override
 	public void destroy() throws Exception {
 		this.saveMetadata();
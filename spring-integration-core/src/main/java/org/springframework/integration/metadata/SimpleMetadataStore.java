@@ -13,6 +13,9 @@
 
 package org.springframework.integration.metadata;
 
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -25,7 +28,7 @@ import java.util.concurrent.ConcurrentMap;
  * @author Gary Russell
  * @since 2.0
  */
-public class SimpleMetadataStore implements ConcurrentMetadataStore {
+public class SimpleMetadataStore implements BatchMetadataStore {
 
 	private final ConcurrentMap<String, String> metadata = new ConcurrentHashMap<String, String>();
 
@@ -55,4 +58,23 @@ public class SimpleMetadataStore implements ConcurrentMetadataStore {
 		return this.metadata.replace(key, oldValue, newValue);
 	}
 
+	@Override
+	public Map<String, String> putAllIfAbsent(Map<String, String> entries) {
+		Map<String, String> existing = new HashMap<String, String>();
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			String value = this.metadata.putIfAbsent(entry.getKey(), entry.getValue());
+			if (value != null) {
+				existing.put(entry.getKey(), value);
+			}
+		}
+		return existing;
+	}
+
+	@Override
+	public void removeAll(Collection<String> keys) {
+		for (String key : keys) {
+			this.metadata.remove(key);
+		}
+	}
+
 }
@@ -50,6 +50,8 @@ public class PollerMetadata {
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile boolean batchReceive;
+
 	private volatile ErrorHandler errorHandler;
 
 	private volatile List<Advice> adviceChain;
@@ -106,6 +108,24 @@ public class PollerMetadata {
 		return this.maxMessagesPerPoll;
 	}
 
+	/**
+	 * Set to true to receive up to {@code maxMessagesPerPoll} messages at once and
+	 * handle them in a single poll task (and so a single transaction, with a
+	 * transactional poller). Only applies when {@code maxMessagesPerPoll} is greater
+	 * than one.
+	 *
+	 * @param batchReceive true to receive and handle messages in batches.
+	 * @since 4.1
+	 * @see org.springframework.integration.endpoint.AbstractPollingEndpoint#setBatchReceive(boolean)
+	 */
+	public void setBatchReceive(boolean batchReceive) {
+		this.batchReceive = batchReceive;
+	}
+
+	public boolean isBatchReceive() {
+		return this.batchReceive;
+	}
+
 	public void setReceiveTimeout(long receiveTimeout) {
 		this.receiveTimeout = receiveTimeout;
 	}
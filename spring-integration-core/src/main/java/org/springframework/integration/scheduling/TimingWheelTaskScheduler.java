@@ -0,0 +1,663 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.scheduling;
+
+import java.util.Date;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * A {@link TaskScheduler} backed by a hierarchical timing wheel, for components that schedule
+ * (and mostly cancel) very large numbers of one-shot tasks, such as the aggregator's group
+ * timeouts and the delayer's delayed messages. Unlike a scheduler backed by a delay queue (a
+ * heap), scheduling and cancelling a task is O(1), regardless of the number of scheduled
+ * tasks.
+ * <p>
+ * Time is divided into ticks of {@link #setTickDuration(long) tickDuration} milliseconds; a task
+ * runs on the first tick at or after its scheduled time, so tasks run up to one tick late. A
+ * single thread advances the wheel on each tick and runs the expired tasks, or hands them to the
+ * {@link #setTaskExecutor(Executor) taskExecutor}, if provided; tasks that take a significant
+ * time should be run on an executor, to avoid delaying the tasks that follow.
+ * <p>
+ * Each level of the wheel has {@link #setWheelSize(int) wheelSize} buckets; a level's bucket
+ * spans a complete revolution of the level below. A task is stored in the lowest level that
+ * spans its deadline and is moved to the levels below as the wheel turns.
+ * <p>
+ * The thread is started when the scheduler is initialized, or when the first task is scheduled;
+ * when the scheduler is destroyed, pending tasks are discarded.
+ *
+ * @since 4.1
+ */
+public class TimingWheelTaskScheduler implements TaskScheduler, InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(TimingWheelTaskScheduler.class);
+
+	public static final long DEFAULT_TICK_DURATION = 10;
+
+	public static final int DEFAULT_WHEEL_SIZE = 256;
+
+	private final Object monitor = new Object();
+
+	private volatile long tickDuration = DEFAULT_TICK_DURATION;
+
+	private volatile int wheelSize = DEFAULT_WHEEL_SIZE;
+
+	private volatile Executor taskExecutor;
+
+	private volatile ErrorHandler errorHandler = TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER;
+
+	private volatile ThreadFactory threadFactory;
+
+	// the following fields are guarded by the monitor
+
+	private Bucket[][] levels;
+
+	private int bits;
+
+	private int mask;
+
+	private long tickNanos;
+
+	private long startNanos;
+
+	private long currentTick;
+
+	private int scheduledTaskCount;
+
+	private Thread tickThread;
+
+	private volatile boolean running;
+
+	public TimingWheelTaskScheduler() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("timing-wheel-");
+		threadFactory.setDaemon(true);
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * @param tickDuration the duration of a tick in milliseconds; tasks run up to one tick
+	 * late. Default {@value #DEFAULT_TICK_DURATION}.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be > 0");
+		synchronized (this.monitor) {
+			Assert.state(this.tickThread == null, "'tickDuration' cannot be changed once the scheduler is started");
+			this.tickDuration = tickDuration;
+		}
+	}
+
+	/**
+	 * @param wheelSize the number of buckets in each level of the wheel; a power of 2.
+	 * Default {@value #DEFAULT_WHEEL_SIZE}.
+	 */
+	public void setWheelSize(int wheelSize) {
+		Assert.isTrue(wheelSize > 1 && Integer.bitCount(wheelSize) == 1, "'wheelSize' must be a power of 2");
+		synchronized (this.monitor) {
+			Assert.state(this.tickThread == null, "'wheelSize' cannot be changed once the scheduler is started");
+			this.wheelSize = wheelSize;
+		}
+	}
+
+	/**
+	 * @param taskExecutor an executor on which to run the expired tasks; by default they
+	 * are run on the thread advancing the wheel.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * @param errorHandler the handler for exceptions thrown by the tasks; by default they are
+	 * logged. Exceptions thrown by one-shot tasks are also available from their futures.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		Assert.notNull(errorHandler, "'errorHandler' must not be null");
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * @param threadFactory the factory for the thread advancing the wheel.
+	 */
+	public void setThreadFactory(ThreadFactory threadFactory) {
+		Assert.notNull(threadFactory, "'threadFactory' must not be null");
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * @return the number of tasks waiting for their scheduled time.
+	 */
+	public int getScheduledTaskCount() {
+		synchronized (this.monitor) {
+			return this.scheduledTaskCount;
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		start();
+	}
+
+	@Override
+	public void destroy() {
+		Thread tickThread;
+		synchronized (this.monitor) {
+			tickThread = this.tickThread;
+			this.running = false;
+			this.levels = null;
+			this.scheduledTaskCount = 0;
+		}
+		if (tickThread != null) {
+			tickThread.interrupt();
+		}
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		return schedule(task, startTime.getTime() - System.currentTimeMillis());
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		return new ReschedulingTask(task, trigger).schedule();
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		PeriodicTrigger trigger = new PeriodicTrigger(period);
+		trigger.setFixedRate(true);
+		trigger.setInitialDelay(Math.max(0, startTime.getTime() - System.currentTimeMillis()));
+		return schedule(task, trigger);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		PeriodicTrigger trigger = new PeriodicTrigger(period);
+		trigger.setFixedRate(true);
+		return schedule(task, trigger);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		PeriodicTrigger trigger = new PeriodicTrigger(delay);
+		trigger.setInitialDelay(Math.max(0, startTime.getTime() - System.currentTimeMillis()));
+		return schedule(task, trigger);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return schedule(task, new PeriodicTrigger(delay));
+	}
+
+	private TimingWheelFuture schedule(Runnable task, long delayMillis) {
+		Assert.notNull(task, "'task' must not be null");
+		synchronized (this.monitor) {
+			start();
+			long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+			long deadlineTick = (deadlineNanos - this.startNanos + this.tickNanos - 1) / this.tickNanos;
+			TimingWheelFuture future = new TimingWheelFuture(task, deadlineNanos, deadlineTick);
+			insert(future);
+			this.scheduledTaskCount++;
+			return future;
+		}
+	}
+
+	private void start() {
+		synchronized (this.monitor) {
+			if (this.tickThread != null) {
+				Assert.state(this.running, "The scheduler has been destroyed");
+				return;
+			}
+			this.bits = Integer.numberOfTrailingZeros(this.wheelSize);
+			this.mask = this.wheelSize - 1;
+			this.levels = new Bucket[(Long.SIZE + this.bits - 1) / this.bits][];
+			this.tickNanos = TimeUnit.MILLISECONDS.toNanos(this.tickDuration);
+			this.startNanos = System.nanoTime();
+			this.currentTick = 0;
+			this.running = true;
+			this.tickThread = this.threadFactory.newThread(new Runnable() {
+
+				@Override
+				public void run() {
+					advance();
+				}
+
+			});
+			this.tickThread.start();
+		}
+	}
+
+	/**
+	 * Store the future in the level corresponding to the most significant digit in which its
+	 * deadline differs from the current tick; it is moved to a lower level when the lower
+	 * digits of the current tick wrap round to zero.
+	 */
+	private void insert(TimingWheelFuture future) {
+		long deadlineTick = Math.max(future.deadlineTick, this.currentTick + 1);
+		int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(deadlineTick ^ this.currentTick)) / this.bits;
+		Bucket[] buckets = this.levels[level];
+		if (buckets == null) {
+			buckets = new Bucket[this.wheelSize];
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new Bucket();
+			}
+			this.levels[level] = buckets;
+		}
+		buckets[(int) (deadlineTick >>> (level * this.bits)) & this.mask].add(future);
+	}
+
+	private void advance() {
+		while (this.running) {
+			TimingWheelFuture expired;
+			synchronized (this.monitor) {
+				if (!this.running) {
+					return;
+				}
+				long tick = this.currentTick + 1;
+				long sleepNanos = this.startNanos + tick * this.tickNanos - System.nanoTime();
+				if (sleepNanos > 0) {
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this.monitor, sleepNanos);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					continue;
+				}
+				expired = tick(tick);
+			}
+			while (expired != null) {
+				TimingWheelFuture next = expired.next;
+				expired.next = null;
+				run(expired);
+				expired = next;
+			}
+		}
+	}
+
+	/**
+	 * Advance the current tick, cascading the buckets whose span starts at this tick, and
+	 * return the expired futures.
+	 */
+	private TimingWheelFuture tick(long tick) {
+		this.currentTick = tick;
+		TimingWheelFuture expired = null;
+		for (int level = this.levels.length - 1; level >= 0; level--) {
+			if (level > 0 && (tick & ((1L << (level * this.bits)) - 1)) != 0) {
+				continue;
+			}
+			Bucket[] buckets = this.levels[level];
+			if (buckets == null) {
+				continue;
+			}
+			TimingWheelFuture future = buckets[(int) (tick >>> (level * this.bits)) & this.mask].clear();
+			while (future != null) {
+				TimingWheelFuture next = future.next;
+				future.next = null;
+				if (future.deadlineTick <= tick) {
+					future.next = expired;
+					expired = future;
+					this.scheduledTaskCount--;
+				}
+				else {
+					insert(future);
+				}
+				future = next;
+			}
+		}
+		return expired;
+	}
+
+	private void run(final TimingWheelFuture future) {
+		Executor executor = this.taskExecutor;
+		if (executor == null) {
+			future.run();
+		}
+		else {
+			try {
+				executor.execute(future);
+			}
+			catch (RuntimeException e) {
+				this.errorHandler.handleError(e);
+			}
+		}
+	}
+
+	private boolean cancel(TimingWheelFuture future) {
+		synchronized (this.monitor) {
+			// removing from its bucket unlinks the future, so it is only counted down once;
+			// once destroyed, the wheel has been discarded and the count reset
+			if (this.running && future.bucket != null) {
+				future.bucket.remove(future);
+				this.scheduledTaskCount--;
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * A doubly-linked list of futures.
+	 */
+	private static final class Bucket {
+
+		private TimingWheelFuture head;
+
+		private TimingWheelFuture tail;
+
+		private void add(TimingWheelFuture future) {
+			future.bucket = this;
+			future.previous = this.tail;
+			if (this.tail == null) {
+				this.head = future;
+			}
+			else {
+				this.tail.next = future;
+			}
+			this.tail = future;
+		}
+
+		private void remove(TimingWheelFuture future) {
+			if (future.previous == null) {
+				this.head = future.next;
+			}
+			else {
+				future.previous.next = future.next;
+			}
+			if (future.next == null) {
+				this.tail = future.previous;
+			}
+			else {
+				future.next.previous = future.previous;
+			}
+			future.bucket = null;
+			future.previous = null;
+			future.next = null;
+		}
+
+		/**
+		 * Remove all the futures.
+		 * @return the first future, linked to the others by {@code next}.
+		 */
+		private TimingWheelFuture clear() {
+			TimingWheelFuture head = this.head;
+			for (TimingWheelFuture future = head; future != null; future = future.next) {
+				future.bucket = null;
+				future.previous = null;
+			}
+			this.head = null;
+			this.tail = null;
+			return head;
+		}
+
+	}
+
+
+	private final class TimingWheelFuture implements ScheduledFuture<Object>, Runnable {
+
+		private static final int PENDING = 0;
+
+		private static final int RUNNING = 1;
+
+		private static final int DONE = 2;
+
+		private static final int CANCELLED = 3;
+
+		private final Runnable task;
+
+		private final long deadlineNanos;
+
+		private final long deadlineTick;
+
+		volatile int state; // not private, for the field updater
+
+		private volatile Throwable failure;
+
+		// guarded by the scheduler's monitor
+
+		private Bucket bucket;
+
+		private TimingWheelFuture previous;
+
+		private TimingWheelFuture next;
+
+		private TimingWheelFuture(Runnable task, long deadlineNanos, long deadlineTick) {
+			this.task = task;
+			this.deadlineNanos = deadlineNanos;
+			this.deadlineTick = deadlineTick;
+		}
+
+		@Override
+		public void run() {
+			if (!STATE.compareAndSet(this, PENDING, RUNNING)) {
+				return;
+			}
+			try {
+				this.task.run();
+			}
+			catch (Throwable e) {
+				this.failure = e;
+				try {
+					errorHandler.handleError(e);
+				}
+				catch (Throwable t) {
+					logger.error("Error handler failed", t);
+				}
+			}
+			finally {
+				done(DONE);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+				return false;
+			}
+			TimingWheelTaskScheduler.this.cancel(this);
+			done(CANCELLED);
+			return true;
+		}
+
+		private void done(int state) {
+			synchronized (this) {
+				this.state = state;
+				notifyAll();
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.state == CANCELLED;
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.state >= DONE;
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			synchronized (this) {
+				while (this.state < DONE) {
+					wait();
+				}
+			}
+			return result();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			synchronized (this) {
+				while (this.state < DONE) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+			}
+			return result();
+		}
+
+		private Object result() throws ExecutionException {
+			if (this.state == CANCELLED) {
+				throw new CancellationException();
+			}
+			if (this.failure != null) {
+				throw new ExecutionException(this.failure);
+			}
+			return null;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return diff == 0 ? 0 : (diff < 0 ? -1 : 1);
+		}
+
+	}
+
+	private static final AtomicIntegerFieldUpdater<TimingWheelFuture> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(TimingWheelFuture.class, "state");
+
+
+	/**
+	 * Runs a task repeatedly, at the times determined by a {@link Trigger}, until it is cancelled,
+	 * or the trigger returns null.
+	 */
+	private final class ReschedulingTask implements ScheduledFuture<Object>, Runnable {
+
+		private final Runnable task;
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		private volatile TimingWheelFuture current;
+
+		private volatile Date scheduledExecutionTime;
+
+		private volatile boolean cancelled;
+
+		private ReschedulingTask(Runnable task, Trigger trigger) {
+			Assert.notNull(task, "'task' must not be null");
+			Assert.notNull(trigger, "'trigger' must not be null");
+			this.task = task;
+			this.trigger = trigger;
+		}
+
+		private synchronized ScheduledFuture<?> schedule() {
+			if (this.cancelled) {
+				return null;
+			}
+			this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			if (this.scheduledExecutionTime == null) {
+				return null;
+			}
+			this.current = TimingWheelTaskScheduler.this.schedule(this,
+					this.scheduledExecutionTime.getTime() - System.currentTimeMillis());
+			return this;
+		}
+
+		@Override
+		public void run() {
+			Date actualExecutionTime = new Date();
+			try {
+				this.task.run();
+			}
+			catch (Throwable e) {
+				errorHandler.handleError(e);
+			}
+			Date completionTime = new Date();
+			synchronized (this) {
+				this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, completionTime);
+			}
+			schedule();
+		}
+
+		@Override
+		public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+			this.cancelled = true;
+			return this.current.cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.cancelled;
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.cancelled || this.current.isDone();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			return this.current.get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return this.current.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return this.current.getDelay(unit);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return this.current.compareTo(other);
+		}
+
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.integration.splitter;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -26,6 +28,8 @@ import reactor.function.Function;
 
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.support.DefaultMessageBuilderFactory;
+import org.springframework.integration.support.MessageSequenceBuilder;
 import org.springframework.integration.util.FunctionIterator;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
@@ -90,11 +94,19 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 		final MessageHeaders headers = message.getHeaders();
 		final Object correlationId = headers.getId();
 		final AtomicInteger sequenceNumber = new AtomicInteger(1);
-
-		return new FunctionIterator<Object, AbstractIntegrationMessageBuilder<?>>(iterator,
-				new Function<Object, AbstractIntegrationMessageBuilder<?>>() {
+		// the headers common to all the items are only computed once, unless a custom factory builds the messages
+		final MessageSequenceBuilder sequenceBuilder =
+				this.getMessageBuilderFactory() instanceof DefaultMessageBuilderFactory
+						? new MessageSequenceBuilder(headers, this.applySequence, sequenceSize)
+						: null;
+
+		return new FunctionIterator<Object, Object>(iterator,
+				new Function<Object, Object>() {
 					@Override
-					public AbstractIntegrationMessageBuilder<?> apply(Object object) {
+					public Object apply(Object object) {
+						if (sequenceBuilder != null && !(object instanceof Message)) {
+							return sequenceBuilder.createMessage(object, sequenceNumber.getAndIncrement());
+						}
 						return createBuilder(object, headers, correlationId, sequenceNumber.getAndIncrement(),
 								sequenceSize);
 					}
@@ -115,15 +127,41 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 		if (this.applySequence) {
 			builder.pushSequenceDetails(correlationId, sequenceNumber, sequenceSize);
 		}
+		if (item instanceof Message) {
+			builder.copyHeadersIfAbsent(headers);
+		}
 		return builder;
 	}
 
+	/**
+	 * The request headers are copied to the messages (that do not already have them) as
+	 * they are created, so there is no need to copy them again.
+	 */
+	@Override
+	protected boolean shouldCopyRequestHeaders() {
+		return false;
+	}
+
 	@Override
 	protected void produceReply(Object result, MessageHeaders requestHeaders) {
 		Iterator<?> iterator = (Iterator<?>) result;
-		while (iterator.hasNext()) {
-			super.produceReply(iterator.next(), requestHeaders);
-
+		try {
+			while (iterator.hasNext()) {
+				super.produceReply(iterator.next(), requestHeaders);
+			}
+		}
+		finally {
+			// release the resources of an iterator that is not exhausted (e.g. when a send fails)
+			if (iterator instanceof Closeable) {
+				try {
+					((Closeable) iterator).close();
+				}
+				catch (IOException e) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to close the iterator", e);
+					}
+				}
+			}
 		}
 	}
 
@@ -136,7 +174,8 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 	 * Subclasses must override this method to split the received Message. The return value may be a Collection or
 	 * Array. The individual elements may be Messages, but it is not necessary. If the elements are not Messages, each
 	 * will be provided as the payload of a Message. It is also acceptable to return a single Object or Message. In that
-	 * case, a single reply Message will be produced.
+	 * case, a single reply Message will be produced. An Iterator is consumed lazily, as the replies are sent; if it is
+	 * {@link Closeable}, it is closed once the replies have been sent (or sending one fails).
 	 * @param message The message.
 	 * @return The result of splitting the message.
 	 */
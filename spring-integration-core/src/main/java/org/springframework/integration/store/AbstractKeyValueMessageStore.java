@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors
+ * Copyright 2002-2014 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -18,13 +18,16 @@ package org.springframework.integration.store;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
@@ -44,6 +47,27 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	protected static final String CREATED_DATE = "CREATED_DATE";
 
+	private volatile boolean lazyLoadMessageGroups;
+
+	/**
+	 * Set to true to persist group changes incrementally. When enabled, adding a message
+	 * to (or removing a message from) a group only appends (or removes) its id in the stored
+	 * {@link MessageGroupMetadata}, instead of loading every message of the group and
+	 * rewriting the metadata from it, and the {@link MessageGroup}s returned by this store
+	 * load their messages from the store only when {@link MessageGroup#getMessages()} is
+	 * first invoked. The size, first message and status of such a group are served from
+	 * the metadata. Default false.
+	 * @param lazyLoadMessageGroups true to enable incremental group persistence.
+	 * @since 4.1
+	 */
+	public void setLazyLoadMessageGroups(boolean lazyLoadMessageGroups) {
+		this.lazyLoadMessageGroups = lazyLoadMessageGroups;
+	}
+
+	public boolean isLazyLoadMessageGroups() {
+		return this.lazyLoadMessageGroups;
+	}
+
 	// MessageStore methods
 
 	@Override
@@ -92,9 +116,39 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	 */
 	@Override
 	public MessageGroup getMessageGroup(Object groupId) {
+		if (this.lazyLoadMessageGroups) {
+			MessageGroupMetadata groupMetadata = this.getGroupMetadata(groupId);
+			if (groupMetadata != null) {
+				return new PersistentMessageGroup(groupMetadata);
+			}
+			return new SimpleMessageGroup(groupId);
+		}
 		return this.buildMessageGroup(groupId, false);
 	}
 
+	@Override
+	public MessageGroupMetadata getGroupMetadata(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Object mgm = this.doRetrieve(MESSAGE_GROUP_KEY_PREFIX + groupId);
+		if (mgm != null) {
+			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
+			return (MessageGroupMetadata) mgm;
+		}
+		return null;
+	}
+
+	@Override
+	public Message<?> getOneMessageFromGroup(Object groupId) {
+		MessageGroupMetadata groupMetadata = this.getGroupMetadata(groupId);
+		if (groupMetadata != null) {
+			UUID firstId = groupMetadata.firstId();
+			if (firstId != null) {
+				return this.getMessage(firstId);
+			}
+		}
+		return null;
+	}
+
 
 	/**
 	 * Add a Message to the group with the provided group ID.
@@ -104,6 +158,16 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(message, "'message' must not be null");
 
+		if (this.lazyLoadMessageGroups) {
+			UUID messageId = message.getHeaders().getId();
+			this.doStore(MESSAGE_KEY_PREFIX + messageId, this.enrichMessage(message));
+			MessageGroupMetadata groupMetadata = this.getOrCreateGroupMetadata(groupId);
+			groupMetadata.add(messageId);
+			groupMetadata.setLastModified(System.currentTimeMillis());
+			this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, groupMetadata);
+			return new PersistentMessageGroup(groupMetadata);
+		}
+
 		// add message as is to the MG accessible by the caller
 		SimpleMessageGroup messageGroup = this.getSimpleMessageGroup(this.getMessageGroup(groupId));
 
@@ -134,6 +198,16 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(messageToRemove, "'messageToRemove' must not be null");
 
+		if (this.lazyLoadMessageGroups) {
+			MessageGroupMetadata groupMetadata = this.getOrCreateGroupMetadata(groupId);
+			UUID messageId = messageToRemove.getHeaders().getId();
+			groupMetadata.remove(messageId);
+			this.removeMessage(messageId);
+			groupMetadata.setLastModified(System.currentTimeMillis());
+			this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, groupMetadata);
+			return new PersistentMessageGroup(groupMetadata);
+		}
+
 		// build raw MG
 		SimpleMessageGroup rawGroup = this.buildMessageGroup(groupId, true);
 
@@ -158,6 +232,13 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	@Override
 	public void completeGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
+		if (this.lazyLoadMessageGroups) {
+			MessageGroupMetadata groupMetadata = this.getOrCreateGroupMetadata(groupId);
+			groupMetadata.complete();
+			groupMetadata.setLastModified(System.currentTimeMillis());
+			this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, groupMetadata);
+			return;
+		}
 		SimpleMessageGroup messageGroup = this.buildMessageGroup(groupId, true);
 		messageGroup.complete();
 		messageGroup.setLastModified(System.currentTimeMillis());
@@ -185,6 +266,13 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	@Override
 	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
 		Assert.notNull(groupId, "'groupId' must not be null");
+		if (this.lazyLoadMessageGroups) {
+			MessageGroupMetadata groupMetadata = this.getOrCreateGroupMetadata(groupId);
+			groupMetadata.setLastReleasedMessageSequenceNumber(sequenceNumber);
+			groupMetadata.setLastModified(System.currentTimeMillis());
+			this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, groupMetadata);
+			return;
+		}
 		SimpleMessageGroup messageGroup = this.buildMessageGroup(groupId, true);
 		messageGroup.setLastReleasedMessageSequenceNumber(sequenceNumber);
 		messageGroup.setLastModified(System.currentTimeMillis());
@@ -307,6 +395,14 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		}
 	}
 
+	private MessageGroupMetadata getOrCreateGroupMetadata(Object groupId) {
+		MessageGroupMetadata groupMetadata = this.getGroupMetadata(groupId);
+		if (groupMetadata == null) {
+			groupMetadata = new MessageGroupMetadata(new SimpleMessageGroup(groupId));
+		}
+		return groupMetadata;
+	}
+
 	private SimpleMessageGroup getSimpleMessageGroup(MessageGroup messageGroup){
 		if (messageGroup instanceof SimpleMessageGroup){
 			return (SimpleMessageGroup) messageGroup;
@@ -355,4 +451,127 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 			throw new UnsupportedOperationException();
 		}
 	}
+
+	/**
+	 * A {@link MessageGroup} built from the {@link MessageGroupMetadata} only; the messages
+	 * are retrieved from the store on the first {@link #getMessages()} invocation. Reflects
+	 * the state of the group at the time it was created.
+	 */
+	private class PersistentMessageGroup implements MessageGroup {
+
+		private final Object groupId;
+
+		private final List<UUID> messageIds;
+
+		private final long timestamp;
+
+		private final long lastModified;
+
+		private final int lastReleasedMessageSequenceNumber;
+
+		private volatile boolean complete;
+
+		private volatile Collection<Message<?>> messages;
+
+		private volatile Message<?> one;
+
+		private PersistentMessageGroup(MessageGroupMetadata groupMetadata) {
+			this.groupId = groupMetadata.getGroupId();
+			this.messageIds = groupMetadata.getMessageIds();
+			this.timestamp = groupMetadata.getTimestamp();
+			this.lastModified = groupMetadata.getLastModified();
+			this.lastReleasedMessageSequenceNumber = groupMetadata.getLastReleasedMessageSequenceNumber();
+			this.complete = groupMetadata.isComplete();
+		}
+
+		@Override
+		public boolean canAdd(Message<?> message) {
+			return true;
+		}
+
+		@Override
+		public Collection<Message<?>> getMessages() {
+			if (this.messages == null) {
+				List<Message<?>> messages = new ArrayList<Message<?>>(this.messageIds.size());
+				for (UUID messageId : this.messageIds) {
+					Message<?> message = getMessage(messageId);
+					if (message != null) { //see INT-2666
+						messages.add(message);
+					}
+				}
+				this.messages = Collections.unmodifiableList(messages);
+			}
+			return this.messages;
+		}
+
+		@Override
+		public Object getGroupId() {
+			return this.groupId;
+		}
+
+		@Override
+		public int getLastReleasedMessageSequenceNumber() {
+			return this.lastReleasedMessageSequenceNumber;
+		}
+
+		@Override
+		public boolean isComplete() {
+			return this.complete;
+		}
+
+		@Override
+		public void complete() {
+			this.complete = true;
+		}
+
+		@Override
+		public int getSequenceSize() {
+			Message<?> one = getOne();
+			if (one == null) {
+				return 0;
+			}
+			return new IntegrationMessageHeaderAccessor(one).getSequenceSize();
+		}
+
+		@Override
+		public int size() {
+			return this.messageIds.size();
+		}
+
+		@Override
+		public Message<?> getOne() {
+			if (this.one == null) {
+				Collection<Message<?>> messages = this.messages;
+				if (messages != null) {
+					this.one = messages.isEmpty() ? null : messages.iterator().next();
+				}
+				else if (!this.messageIds.isEmpty()) {
+					this.one = getMessage(this.messageIds.get(0));
+				}
+			}
+			return this.one;
+		}
+
+		@Override
+		public long getTimestamp() {
+			return this.timestamp;
+		}
+
+		@Override
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public String toString() {
+			return "PersistentMessageGroup{" +
+					"groupId=" + this.groupId +
+					", size=" + this.messageIds.size() +
+					", timestamp=" + this.timestamp +
+					", lastModified=" + this.lastModified +
+					'}';
+		}
+
+	}
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.store;
+
+import java.util.List;
+
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link ChannelMessageStore} that can remove several messages from a group
+ * in one operation, typically saving round trips to a remote store.
+ *
+ * @since 4.1
+ *
+ */
+public interface BatchCapableChannelMessageStore extends ChannelMessageStore {
+
+	/**
+	 * Poll up to {@code maxMessages} messages from the group, in the same order that
+	 * {@link #pollMessageFromGroup(Object)} would return them; the messages are removed
+	 * from the group.
+	 * @param groupId the group id.
+	 * @param maxMessages the maximum number of messages to poll; must be greater than 0.
+	 * @return the polled messages; an empty list if none are available.
+	 */
+	List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages);
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link SimpleMessageGroup} that holds its messages in an insertion-ordered map keyed
+ * by message id, together with an index of the sequence numbers present in the group.
+ * Removing a message does not scan the group, and components that understand this
+ * group (the default release strategy, the resequencer, the sequence-aware aggregator)
+ * can check for a sequence number or extract a contiguous run of messages without
+ * copying and sorting the whole group.
+ * <p>
+ * Messages are identified by their id; adding a message with the id of a message
+ * already in the group replaces it, and moves it to the end of the group.
+ * <p>
+ * Mutations are synchronized; {@link #size()}, {@link #getOne()} and
+ * {@link #getMessages()} are served without locking from state published by the last
+ * mutation. The collection returned by {@link #getMessages()} is an immutable snapshot
+ * that is built on first access after a mutation.
+ * <p>
+ * The group is not lock-free: a mutation updates the id map and the sequence number
+ * index together, and lock-free structures could not keep the two consistent with each
+ * other without a copy per mutation. The correlating handlers already mutate a group
+ * only while holding the lock of its correlation key (see
+ * {@link org.springframework.integration.aggregator.AbstractCorrelatingMessageHandler}),
+ * so the monitor is uncontended in practice; what this group removes is the linear
+ * scans and the sorting, not the locking.
+ *
+ * @since 4.1
+ */
+public class IndexedMessageGroup extends SimpleMessageGroup {
+
+	private final Map<UUID, Message<?>> messagesById = new LinkedHashMap<UUID, Message<?>>();
+
+	private final TreeMap<Integer, List<Message<?>>> messagesBySequenceNumber = new TreeMap<Integer, List<Message<?>>>();
+
+	private volatile int size;
+
+	private volatile Message<?> one;
+
+	private volatile Collection<Message<?>> snapshot = Collections.emptyList();
+
+	public IndexedMessageGroup(Object groupId) {
+		this(Collections.<Message<?>> emptyList(), groupId, System.currentTimeMillis(), false);
+	}
+
+	public IndexedMessageGroup(Collection<? extends Message<?>> messages, Object groupId, long timestamp,
+			boolean complete) {
+		super(groupId, timestamp, complete);
+		for (Message<?> message : messages) {
+			if (message != null) { //see INT-2666
+				add(message);
+			}
+		}
+	}
+
+	public IndexedMessageGroup(MessageGroup messageGroup) {
+		this(messageGroup.getMessages(), messageGroup.getGroupId(), messageGroup.getTimestamp(),
+				messageGroup.isComplete());
+		setLastReleasedMessageSequenceNumber(messageGroup.getLastReleasedMessageSequenceNumber());
+	}
+
+	@Override
+	public synchronized void add(Message<?> message) {
+		UUID id = message.getHeaders().getId();
+		Message<?> replaced = this.messagesById.remove(id);
+		if (replaced != null) {
+			unindex(replaced);
+		}
+		this.messagesById.put(id, message);
+		index(message);
+		changed();
+	}
+
+	@Override
+	public synchronized void remove(Message<?> message) {
+		Message<?> removed = this.messagesById.remove(message.getHeaders().getId());
+		if (removed != null) {
+			unindex(removed);
+			changed();
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.messagesById.clear();
+		this.messagesBySequenceNumber.clear();
+		changed();
+	}
+
+	@Override
+	public Collection<Message<?>> getMessages() {
+		Collection<Message<?>> snapshot = this.snapshot;
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = this.snapshot;
+				if (snapshot == null) {
+					snapshot = Collections.unmodifiableList(new ArrayList<Message<?>>(this.messagesById.values()));
+					this.snapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public Message<?> getOne() {
+		return this.one;
+	}
+
+	/**
+	 * @param sequenceNumber the sequence number.
+	 * @return true if the group contains a message with this sequence number.
+	 */
+	public synchronized boolean containsSequenceNumber(int sequenceNumber) {
+		return this.messagesBySequenceNumber.containsKey(sequenceNumber);
+	}
+
+	/**
+	 * @return the lowest sequence number in the group (messages without a sequence number
+	 * have sequence number 0), or null if the group is empty.
+	 */
+	public synchronized Integer getLowestSequenceNumber() {
+		if (this.messagesBySequenceNumber.isEmpty()) {
+			return null;
+		}
+		return this.messagesBySequenceNumber.firstKey();
+	}
+
+	/**
+	 * Return the messages with contiguous sequence numbers, starting with the provided
+	 * sequence number and ending before the first missing one, in sequence order. Messages
+	 * sharing a sequence number are returned in the order they were added.
+	 * @param fromSequenceNumber the first sequence number.
+	 * @return the messages; empty if there is no message with the first sequence number.
+	 */
+	public synchronized List<Message<?>> getContiguousMessages(int fromSequenceNumber) {
+		List<Message<?>> contiguous = new ArrayList<Message<?>>();
+		int sequenceNumber = fromSequenceNumber;
+		List<Message<?>> messages = this.messagesBySequenceNumber.get(sequenceNumber);
+		while (messages != null) {
+			contiguous.addAll(messages);
+			if (sequenceNumber == Integer.MAX_VALUE) {
+				break;
+			}
+			messages = this.messagesBySequenceNumber.get(++sequenceNumber);
+		}
+		return contiguous;
+	}
+
+	private void index(Message<?> message) {
+		int sequenceNumber = new IntegrationMessageHeaderAccessor(message).getSequenceNumber();
+		List<Message<?>> messages = this.messagesBySequenceNumber.get(sequenceNumber);
+		if (messages == null) {
+			messages = new ArrayList<Message<?>>(1);
+			this.messagesBySequenceNumber.put(sequenceNumber, messages);
+		}
+		messages.add(message);
+	}
+
+	private void unindex(Message<?> message) {
+		int sequenceNumber = new IntegrationMessageHeaderAccessor(message).getSequenceNumber();
+		List<Message<?>> messages = this.messagesBySequenceNumber.get(sequenceNumber);
+		if (messages != null) {
+			Iterator<Message<?>> iterator = messages.iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().getHeaders().getId().equals(message.getHeaders().getId())) {
+					iterator.remove();
+					break;
+				}
+			}
+			if (messages.isEmpty()) {
+				this.messagesBySequenceNumber.remove(sequenceNumber);
+			}
+		}
+	}
+
+	private void changed() {
+		this.size = this.messagesById.size();
+		this.one = this.messagesById.isEmpty() ? null : this.messagesById.values().iterator().next();
+		this.snapshot = null;
+	}
+
+	@Override
+	public String toString() {
+		return "IndexedMessageGroup{" +
+				"groupId=" + getGroupId() +
+				", messages=" + getMessages() +
+				", timestamp=" + getTimestamp() +
+				", lastModified=" + getLastModified() +
+				'}';
+	}
+
+}
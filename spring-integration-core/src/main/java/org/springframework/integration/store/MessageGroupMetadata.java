@@ -17,6 +17,7 @@
 package org.springframework.integration.store;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,7 +27,7 @@ import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
 /**
- * Immutable Value Object holding metadata about a MessageGroup.
+ * Value Object holding metadata about a MessageGroup.
  *
  * @author Oleg Zhurakousky
  * @author Gary Russell
@@ -40,13 +41,13 @@ public class MessageGroupMetadata implements Serializable {
 
 	private final List<UUID> messageIds = new LinkedList<UUID>();
 
-	private final boolean complete;
+	private volatile boolean complete;
 
 	private final long timestamp;
 
 	private volatile long lastModified;
 
-	private final int lastReleasedMessageSequenceNumber;
+	private volatile int lastReleasedMessageSequenceNumber;
 
 	private final boolean hasMessages;
 
@@ -86,6 +87,28 @@ public class MessageGroupMetadata implements Serializable {
 		this.messageIds.remove(messageId);
 	}
 
+	/**
+	 * Append a message id to the end of the group; used by stores which persist
+	 * group changes incrementally rather than rebuilding the metadata from the
+	 * complete {@link MessageGroup}.
+	 * @param messageId the id of the message added to the group.
+	 * @since 4.1
+	 */
+	void add(UUID messageId) {
+		if (!this.hasMessages) {
+			throw new IllegalStateException("Messages are not available, fetch the entire group");
+		}
+		this.messageIds.add(messageId);
+	}
+
+	void complete() {
+		this.complete = true;
+	}
+
+	void setLastReleasedMessageSequenceNumber(int lastReleasedMessageSequenceNumber) {
+		this.lastReleasedMessageSequenceNumber = lastReleasedMessageSequenceNumber;
+	}
+
 	public void setLastModified(long lastModified) {
 		this.lastModified = lastModified;
 	}
@@ -102,7 +125,18 @@ public class MessageGroupMetadata implements Serializable {
 	}
 
 	public int size(){
-		return this.size;
+		return this.hasMessages ? this.messageIds.size() : this.size;
+	}
+
+	/**
+	 * @return a snapshot of the message ids in this group, in insertion order.
+	 * @since 4.1
+	 */
+	public List<UUID> getMessageIds() {
+		if (!this.hasMessages) {
+			throw new IllegalStateException("Messages are not available, fetch the entire group");
+		}
+		return new ArrayList<UUID>(this.messageIds);
 	}
 
 	public UUID firstId(){
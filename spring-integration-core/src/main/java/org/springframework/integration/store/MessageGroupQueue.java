@@ -19,6 +19,7 @@ import java.util.AbstractQueue;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -36,6 +37,9 @@ import org.springframework.util.Assert;
  * the face of transaction rollback (assuming the store is transactional) and also to ensure messages are not lost if
  * the process dies (assuming the store is durable). To use the queue across process re-starts, the same group id
  * must be provided, so it needs to be unique but identifiable with a single logical instance of the queue.
+ * <p>
+ * When the store is a {@link BatchCapableChannelMessageStore}, {@link #drainTo(Collection, int)} removes the
+ * messages from the store in batches, rather than one at a time.
  *
  * @author Dave Syer
  * @author Oleg Zhurakousky
@@ -51,6 +55,8 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 
 	private static final int DEFAULT_CAPACITY = Integer.MAX_VALUE;
 
+	private static final int DRAIN_BATCH_SIZE = 100;
+
 	private final BasicMessageGroupStore messageGroupStore;
 
 	private final Object groupId;
@@ -200,10 +206,23 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		try {
 			storeLock.lockInterruptibly();
 			try {
-				Message<?> message = this.messageGroupStore.pollMessageFromGroup(groupId);
-				for (int i = 0; i < maxElements && message != null; i++) {
-					list.add(message);
-					message = this.messageGroupStore.pollMessageFromGroup(groupId);
+				if (this.messageGroupStore instanceof BatchCapableChannelMessageStore) {
+					BatchCapableChannelMessageStore store = (BatchCapableChannelMessageStore) this.messageGroupStore;
+					while (list.size() < maxElements) {
+						List<Message<?>> messages = store.pollMessagesFromGroup(groupId,
+								Math.min(maxElements - list.size(), DRAIN_BATCH_SIZE));
+						if (messages.isEmpty()) {
+							break;
+						}
+						list.addAll(messages);
+					}
+				}
+				else {
+					Message<?> message = this.messageGroupStore.pollMessageFromGroup(groupId);
+					for (int i = 0; i < maxElements && message != null; i++) {
+						list.add(message);
+						message = this.messageGroupStore.pollMessageFromGroup(groupId);
+					}
 				}
 				this.messageStoreNotFull.signal();
 			}
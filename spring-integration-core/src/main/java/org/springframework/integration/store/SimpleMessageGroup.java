@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -68,6 +68,18 @@ public class SimpleMessageGroup implements MessageGroup {
 		this(messageGroup.getMessages(), messageGroup.getGroupId(), messageGroup.getTimestamp(), messageGroup.isComplete());
 	}
 
+	/**
+	 * Constructor for subclasses that hold the messages in their own structure;
+	 * the group is created without any messages.
+	 * @param groupId the group id.
+	 * @param timestamp the creation timestamp.
+	 * @param complete true if the group is complete.
+	 * @since 4.1
+	 */
+	protected SimpleMessageGroup(Object groupId, long timestamp, boolean complete) {
+		this(Collections.<Message<?>> emptyList(), groupId, timestamp, complete);
+	}
+
 	@Override
 	public long getTimestamp() {
 		return timestamp;
@@ -13,7 +13,6 @@
 
 package org.springframework.integration.store;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.UUID;
@@ -21,14 +20,13 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 
-import org.springframework.integration.support.locks.DefaultLockRegistry;
 import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.integration.support.locks.PerKeyLockRegistry;
 import org.springframework.integration.util.UpperBound;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Map-based in-memory implementation of {@link MessageStore} and {@link MessageGroupStore}. Enforces a maximum capacity for the
@@ -59,6 +57,8 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	private volatile boolean copyOnGet = false;
 
+	private volatile boolean indexedMessageGroups;
+
 	/**
 	 * Creates a SimpleMessageStore with a maximum size limited by the given capacity, or unlimited size if the given
 	 * capacity is less than 1. The capacities are applied independently to messages stored via
@@ -70,7 +70,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 	 * @param groupCapacity The capacity of each group.
 	 */
 	public SimpleMessageStore(int individualCapacity, int groupCapacity) {
-		this(individualCapacity, groupCapacity, new DefaultLockRegistry());
+		this(individualCapacity, groupCapacity, new PerKeyLockRegistry());
 	}
 
 	/**
@@ -132,6 +132,21 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		this.copyOnGet = copyOnGet;
 	}
 
+	/**
+	 * Set to true to hold group messages in {@link IndexedMessageGroup}s, rather than
+	 * in queue-based {@link SimpleMessageGroup}s. Removing a message from such a group does
+	 * not scan the group, and the default release strategy, the resequencer and
+	 * sequence-aware aggregators use the group's sequence number index instead of copying
+	 * and sorting the messages on each arrival. Recommended for large groups, in particular
+	 * for resequencers. Default false.
+	 * @param indexedMessageGroups true to use indexed message groups.
+	 * @since 4.1
+	 */
+	public void setIndexedMessageGroups(boolean indexedMessageGroups) {
+		Assert.isTrue(!(this.isUsed), "Cannot change the message group type after the store has been used");
+		this.indexedMessageGroups = indexedMessageGroups;
+	}
+
 	public void setLockRegistry(LockRegistry lockRegistry) {
 		Assert.notNull(lockRegistry, "The LockRegistry cannot be null");
 		Assert.isTrue(!(this.isUsed), "Cannot change the lock registry after the store has been used");
@@ -177,7 +192,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 		SimpleMessageGroup group = groupIdToMessageGroup.get(groupId);
 		if (group == null) {
-			return new SimpleMessageGroup(groupId);
+			return createMessageGroup(groupId);
 		}
 		if (this.copyOnGet) {
 			return copy(group);
@@ -189,7 +204,9 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	@Override
 	protected MessageGroup copy(MessageGroup group) {
-		SimpleMessageGroup simpleMessageGroup = new SimpleMessageGroup(group);
+		SimpleMessageGroup simpleMessageGroup = group instanceof IndexedMessageGroup
+				? new IndexedMessageGroup(group)
+				: new SimpleMessageGroup(group);
 		simpleMessageGroup.setLastModified(group.getLastModified());
 		return simpleMessageGroup;
 	}
@@ -200,13 +217,14 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 			throw new MessagingException(this.getClass().getSimpleName()
 					+ " was out of capacity at, try constructing it with a larger capacity.");
 		}
+		this.isUsed = true;
 		Lock lock = this.lockRegistry.obtain(groupId);
 		try {
 			lock.lockInterruptibly();
 			try {
 				SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
 				if (group == null) {
-					group = new SimpleMessageGroup(groupId);
+					group = createMessageGroup(groupId);
 					this.groupIdToMessageGroup.putIfAbsent(groupId, group);
 				}
 				group.add(message);
@@ -320,13 +338,9 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	@Override
 	public Message<?> pollMessageFromGroup(Object groupId) {
-		Collection<Message<?>> messageList = this.getMessageGroup(groupId).getMessages();
-		Message<?> message = null;
-		if (!CollectionUtils.isEmpty(messageList)){
-			message = messageList.iterator().next();
-			if (message != null){
-				this.removeMessageFromGroup(groupId, message);
-			}
+		Message<?> message = this.getMessageGroup(groupId).getOne();
+		if (message != null){
+			this.removeMessageFromGroup(groupId, message);
 		}
 		return message;
 	}
@@ -336,6 +350,10 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		return this.getMessageGroup(groupId).size();
 	}
 
+	private SimpleMessageGroup createMessageGroup(Object groupId) {
+		return this.indexedMessageGroups ? new IndexedMessageGroup(groupId) : new SimpleMessageGroup(groupId);
+	}
+
 	@Override
 	public MessageGroupMetadata getGroupMetadata(Object groupId) {
 		return new MessageGroupMetadata(this.getMessageGroup(groupId));
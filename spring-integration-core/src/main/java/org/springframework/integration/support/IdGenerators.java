@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,11 @@
 
 package org.springframework.integration.support;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.util.Assert;
 import org.springframework.util.IdGenerator;
 
 
@@ -64,4 +66,109 @@ public class IdGenerators {
         }
 
     }
+
+	/**
+	 * Generates time-based (version 1) UUIDs, without a shared lock or a random number
+	 * per id, for high message rates. The timestamp of the ids generated by a thread is
+	 * strictly increasing (when a thread requests ids faster than one per 100 nanoseconds,
+	 * the timestamp runs ahead of the clock until it catches up). The clock sequence is
+	 * random for each generator, and the node is derived from a node id plus an index
+	 * assigned to each thread on its first use of the generator, so that ids are unique
+	 * across threads and, the node ids being distinct, across JVMs. The node id is random
+	 * unless one is provided.
+	 * <p>
+	 * Unlike the other generators, the ids reveal when they were generated; they should
+	 * not be used where they need to be unguessable.
+	 *
+	 * @since 4.1
+	 */
+    public static class TimeBasedIdGenerator implements IdGenerator {
+
+        /**
+         * The number of 100 nanosecond intervals between the start of the Gregorian
+         * calendar (1582-10-15) and the epoch.
+         */
+        private static final long GREGORIAN_OFFSET = 0x01B21DD213814000L;
+
+        private static final long VARIANT = 0x8000000000000000L;
+
+        private static final long NODE_MASK = 0xFFFFFFFFFFFFL;
+
+        /**
+         * Set in random node ids, so that they cannot be mistaken for MAC addresses
+         * (RFC 4122 4.5).
+         */
+        private static final long MULTICAST_BIT = 0x010000000000L;
+
+        private final long clockSeqBits;
+
+        private final long nodeBits;
+
+        private final long nodeFlags;
+
+        private final AtomicLong threadIndex = new AtomicLong();
+
+        // a long[] {last timestamp, least significant bits} rather than an instance of
+        // a class of our own, so that pooled threads do not pin the class loader
+        private final ThreadLocal<long[]> threadState = new ThreadLocal<long[]>() {
+
+            @Override
+            protected long[] initialValue() {
+                TimeBasedIdGenerator generator = TimeBasedIdGenerator.this;
+                long leastSigBits = VARIANT | generator.clockSeqBits | generator.nodeFlags
+                        | ((generator.nodeBits + generator.threadIndex.getAndIncrement()) & NODE_MASK);
+                return new long[] { 0, leastSigBits };
+            }
+
+        };
+
+        /**
+         * Create a generator with a random node id.
+         */
+        public TimeBasedIdGenerator() {
+            SecureRandom random = new SecureRandom();
+            this.clockSeqBits = randomClockSeqBits(random);
+            this.nodeBits = random.nextLong();
+            this.nodeFlags = MULTICAST_BIT;
+        }
+
+        /**
+         * Create a generator with the given node id; the JVMs sharing ids must each
+         * be given a distinct node id.
+         *
+         * @param nodeId The node id, between 0 and 262143 (18 bits).
+         */
+        public TimeBasedIdGenerator(int nodeId) {
+            Assert.isTrue(nodeId >= 0 && nodeId < (1 << 18), "'nodeId' must be between 0 and 262143");
+            this.clockSeqBits = randomClockSeqBits(new SecureRandom());
+            // 30 of the 48 node bits are left for the thread index
+            this.nodeBits = ((long) nodeId) << 30;
+            this.nodeFlags = 0;
+        }
+
+        /**
+         * A random clock sequence for each instance, so that a generator created with the
+         * same node id after the clock has been set back does not repeat ids (RFC 4122 4.1.5).
+         */
+        private static long randomClockSeqBits(SecureRandom random) {
+            return ((long) (random.nextInt() & 0x3FFF)) << 48;
+        }
+
+        @Override
+        public UUID generateId() {
+            long[] state = this.threadState.get();
+            long timestamp = System.currentTimeMillis() * 10000 + GREGORIAN_OFFSET;
+            if (timestamp <= state[0]) {
+                timestamp = state[0] + 1;
+            }
+            state[0] = timestamp;
+            long mostSigBits = (timestamp << 32) // time_low
+                    | ((timestamp >>> 16) & 0xFFFF0000L) // time_mid
+                    | 0x1000L // version
+                    | ((timestamp >>> 48) & 0x0FFFL); // time_hi
+            return new UUID(mostSigBits, state[1]);
+        }
+
+    }
+
 }
@@ -271,10 +271,12 @@ public final class MessageBuilder<T> extends AbstractIntegrationMessageBuilder<T
 		if (!this.modified && !this.headerAccessor.isModified() && this.originalMessage != null) {
 			return this.originalMessage;
 		}
+		// MessageHeaders copies the accessor's headers; toMap() would copy them once more
+		MessageHeaders headers = this.headerAccessor.toMessageHeaders();
 		if (this.payload instanceof Throwable) {
-			return (Message<T>) new ErrorMessage((Throwable) this.payload, this.headerAccessor.toMap());
+			return (Message<T>) new ErrorMessage((Throwable) this.payload, headers);
 		}
-		return new GenericMessage<T>(this.payload, this.headerAccessor.toMap());
+		return new GenericMessage<T>(this.payload, headers);
 	}
 
 }
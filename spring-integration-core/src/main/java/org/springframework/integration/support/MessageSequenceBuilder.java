@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.Assert;
+
+/**
+ * Builds the messages of a sequence derived from one parent message, such as the
+ * messages a splitter produces: each has a payload of its own and the headers of the
+ * parent, with the parent's sequence details pushed and the sequence headers set as
+ * {@link AbstractIntegrationMessageBuilder#pushSequenceDetails(Object, int, int)} does.
+ * <p>
+ * The headers common to all the messages are computed once, rather than copied from the
+ * parent and updated for each message by a {@link MessageBuilder}; the header values
+ * (including the sequence details) are shared by the messages, and building one costs a
+ * single copy of the header map (by its {@link MessageHeaders}).
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @since 4.1
+ */
+public class MessageSequenceBuilder {
+
+	private final Map<String, Object> headers;
+
+	private final boolean applySequence;
+
+
+	/**
+	 * @param parentHeaders The headers of the parent message.
+	 * @param applySequence Whether to push the sequence details and set the sequence
+	 * headers; if false, the messages have the headers of the parent (except its id and
+	 * timestamp).
+	 * @param sequenceSize The sequence size; 0 if unknown.
+	 */
+	public MessageSequenceBuilder(MessageHeaders parentHeaders, boolean applySequence, int sequenceSize) {
+		Assert.notNull(parentHeaders, "'parentHeaders' must not be null");
+		this.headers = new HashMap<String, Object>(parentHeaders);
+		this.headers.remove(MessageHeaders.ID);
+		this.headers.remove(MessageHeaders.TIMESTAMP);
+		this.applySequence = applySequence;
+		if (applySequence) {
+			Object parentCorrelationId = parentHeaders.get(IntegrationMessageHeaderAccessor.CORRELATION_ID);
+			if (parentCorrelationId != null) {
+				@SuppressWarnings("unchecked")
+				List<List<Object>> parentSequenceDetails =
+						(List<List<Object>>) parentHeaders.get(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS);
+				List<List<Object>> sequenceDetails = parentSequenceDetails == null
+						? new ArrayList<List<Object>>()
+						: new ArrayList<List<Object>>(parentSequenceDetails);
+				Integer parentSequenceNumber =
+						parentHeaders.get(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, Integer.class);
+				Integer parentSequenceSize =
+						parentHeaders.get(IntegrationMessageHeaderAccessor.SEQUENCE_SIZE, Integer.class);
+				sequenceDetails.add(Arrays.<Object>asList(parentCorrelationId,
+						parentSequenceNumber != null ? parentSequenceNumber : 0,
+						parentSequenceSize != null ? parentSequenceSize : 0));
+				this.headers.put(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS,
+						Collections.unmodifiableList(sequenceDetails));
+			}
+			this.headers.put(IntegrationMessageHeaderAccessor.CORRELATION_ID, parentHeaders.getId());
+			this.headers.put(IntegrationMessageHeaderAccessor.SEQUENCE_SIZE, sequenceSize);
+		}
+	}
+
+
+	/**
+	 * Build a message of the sequence.
+	 *
+	 * @param payload The payload.
+	 * @param sequenceNumber The sequence number (ignored unless applying the sequence).
+	 * @param <T> The payload type.
+	 * @return The message.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Message<T> createMessage(T payload, int sequenceNumber) {
+		Assert.notNull(payload, "payload must not be null");
+		if (this.applySequence) {
+			this.headers.put(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, sequenceNumber);
+		}
+		if (payload instanceof Throwable) {
+			return (Message<T>) new ErrorMessage((Throwable) payload, this.headers);
+		}
+		return new GenericMessage<T>(payload, this.headers);
+	}
+
+}
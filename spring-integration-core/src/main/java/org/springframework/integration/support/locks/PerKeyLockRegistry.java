@@ -0,0 +1,222 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.support.locks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link LockRegistry} that provides a distinct {@link ReentrantLock} for each lock key, so that
+ * threads working on different keys (e.g. different message groups) never contend, unlike the
+ * {@link DefaultLockRegistry}, where keys whose hash codes collide share a lock.
+ * <p>
+ * A lock only exists while it is held, or threads are waiting for it; it is reference counted
+ * by its (pending) holders and removed from the registry when the last one unlocks, so the
+ * registry does not grow with the number of distinct keys over time. The {@link Lock}s
+ * returned by {@link #obtain(Object)} are lightweight handles that can be discarded at any time;
+ * handles for equal keys share the same lock.
+ * <p>
+ * {@link Lock#newCondition()} is not supported.
+ *
+ * @since 4.1
+ *
+ */
+@ManagedResource
+public final class PerKeyLockRegistry implements LockRegistry {
+
+	private final ConcurrentMap<Object, KeyLockEntry> locks = new ConcurrentHashMap<Object, KeyLockEntry>();
+
+	private final AtomicLong contendedAcquisitions = new AtomicLong();
+
+	@Override
+	public Lock obtain(Object lockKey) {
+		Assert.notNull(lockKey, "'lockKey' must not be null");
+		return new KeyLock(lockKey);
+	}
+
+	/**
+	 * @return the number of locks currently held, or waited for.
+	 */
+	@ManagedAttribute(description = "Number of locks currently held or waited for")
+	public int getLockCount() {
+		return this.locks.size();
+	}
+
+	/**
+	 * @return the number of times a thread could not acquire a lock immediately, because
+	 * it was held by another thread.
+	 */
+	@ManagedAttribute(description = "Number of lock acquisitions that found the lock held by another thread")
+	public long getContendedAcquisitionCount() {
+		return this.contendedAcquisitions.get();
+	}
+
+	private KeyLockEntry reference(Object lockKey) {
+		while (true) {
+			KeyLockEntry entry = this.locks.get(lockKey);
+			if (entry == null) {
+				entry = new KeyLockEntry();
+				KeyLockEntry existing = this.locks.putIfAbsent(lockKey, entry);
+				if (existing == null) {
+					return entry;
+				}
+				entry = existing;
+			}
+			if (entry.reference()) {
+				return entry;
+			}
+			// released by its last holder, but not yet removed
+			this.locks.remove(lockKey, entry);
+		}
+	}
+
+	private void release(Object lockKey, KeyLockEntry entry) {
+		if (entry.release()) {
+			this.locks.remove(lockKey, entry);
+		}
+	}
+
+	private KeyLockEntry held(Object lockKey) {
+		KeyLockEntry entry = this.locks.get(lockKey);
+		if (entry == null || !entry.lock.isHeldByCurrentThread()) {
+			throw new IllegalMonitorStateException("The lock for [" + lockKey + "] is not held by the current thread");
+		}
+		return entry;
+	}
+
+	private boolean tryAcquire(KeyLockEntry entry) {
+		if (entry.lock.tryLock()) {
+			return true;
+		}
+		this.contendedAcquisitions.incrementAndGet();
+		return false;
+	}
+
+
+	/**
+	 * A lock with a count of the threads holding, or waiting for, it; once the count
+	 * drops to zero, the entry can no longer be referenced.
+	 */
+	private static final class KeyLockEntry {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final AtomicInteger references = new AtomicInteger(1);
+
+		private boolean reference() {
+			while (true) {
+				int references = this.references.get();
+				if (references == 0) {
+					return false;
+				}
+				if (this.references.compareAndSet(references, references + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * @return true if this was the last reference.
+		 */
+		private boolean release() {
+			return this.references.decrementAndGet() == 0;
+		}
+
+	}
+
+
+	private final class KeyLock implements Lock {
+
+		private final Object lockKey;
+
+		private KeyLock(Object lockKey) {
+			this.lockKey = lockKey;
+		}
+
+		@Override
+		public void lock() {
+			KeyLockEntry entry = reference(this.lockKey);
+			if (!tryAcquire(entry)) {
+				entry.lock.lock();
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException {
+			KeyLockEntry entry = reference(this.lockKey);
+			try {
+				if (!tryAcquire(entry)) {
+					entry.lock.lockInterruptibly();
+				}
+			}
+			catch (InterruptedException e) {
+				release(this.lockKey, entry);
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean tryLock() {
+			KeyLockEntry entry = reference(this.lockKey);
+			if (tryAcquire(entry)) {
+				return true;
+			}
+			release(this.lockKey, entry);
+			return false;
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+			KeyLockEntry entry = reference(this.lockKey);
+			boolean locked = false;
+			try {
+				locked = tryAcquire(entry) || entry.lock.tryLock(time, unit);
+			}
+			finally {
+				if (!locked) {
+					release(this.lockKey, entry);
+				}
+			}
+			return locked;
+		}
+
+		@Override
+		public void unlock() {
+			KeyLockEntry entry = held(this.lockKey);
+			entry.lock.unlock();
+			release(this.lockKey, entry);
+		}
+
+		@Override
+		public Condition newCondition() {
+			throw new UnsupportedOperationException("This method is not supported for this implementation of Lock");
+		}
+
+		@Override
+		public String toString() {
+			return "PerKeyLock [lockKey=" + this.lockKey + "]";
+		}
+
+	}
+
+}
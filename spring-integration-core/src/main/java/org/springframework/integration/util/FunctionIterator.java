@@ -16,6 +16,8 @@
 
 package org.springframework.integration.util;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -24,11 +26,12 @@ import reactor.function.Function;
 /**
  * An {@link Iterator} implementation to convert each item from the target
  * {@link #iterator} to a new object applying the {@link #function} on {@link #next()}.
+ * If the target iterator is {@link Closeable}, {@link #close()} closes it.
  *
  * @author Artem Bilan
  * @since 4.1
  */
-public final class FunctionIterator<T, V> implements Iterator<V> {
+public final class FunctionIterator<T, V> implements Iterator<V>, Closeable {
 
 	private final Iterator<T> iterator;
 
@@ -61,5 +64,12 @@ public final class FunctionIterator<T, V> implements Iterator<V> {
 		throw new NoSuchElementException();
 	}
 
+	@Override
+	public void close() throws IOException {
+		if (this.iterator instanceof Closeable) {
+			((Closeable) this.iterator).close();
+		}
+	}
+
 }
 
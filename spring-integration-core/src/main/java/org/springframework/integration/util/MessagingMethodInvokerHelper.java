@@ -17,6 +17,7 @@
 package org.springframework.integration.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -33,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
@@ -49,6 +51,8 @@ import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Expression;
 import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.common.ExpressionUtils;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.annotation.Payloads;
@@ -71,6 +75,11 @@ import org.springframework.util.StringUtils;
  * is provided, and more than one declared method has that name, the method-selection will be dynamic, based on the
  * underlying SpEL method resolution. Alternatively, an annotation type may be provided so that the candidates for
  * SpEL's method resolution are determined by the presence of that annotation rather than the method name.
+ * <p>
+ * When there is a single candidate method, and each of its parameters is bound to the message, its payload, its
+ * headers or a single header, the method is invoked directly with arguments extracted from the message, rather than
+ * by evaluating the SpEL expression. The expression is still used for other parameter bindings, for messages
+ * that require argument conversion, and when the method is selected dynamically.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -88,6 +97,17 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	private static final String CANDIDATE_MESSAGE_METHODS = "CANDIDATE_MESSAGE_METHODS";
 
+	/**
+	 * When the cache of resolved methods reaches this size it is cleared, so that it does
+	 * not grow without bound, or retain classes from discarded class loaders.
+	 */
+	private static final int HANDLER_METHOD_CACHE_LIMIT = 256;
+
+	/**
+	 * Cached for parameter types that no candidate method can handle.
+	 */
+	private static final HandlerMethod NO_HANDLER_METHOD = new HandlerMethod();
+
 	private final Log logger = LogFactory.getLog(this.getClass());
 
 	private final Object targetObject;
@@ -101,12 +121,16 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	private final LinkedList<Map<Class<?>, HandlerMethod>> handlerMethodsList;
 
+	private final Map<Class<?>, HandlerMethod> handlerMethodCache = new ConcurrentHashMap<Class<?>, HandlerMethod>();
+
 	private final HandlerMethod handlerMethod;
 
 	private final Class<?> expectedType;
 
 	private final boolean canProcessMessageList;
 
+	private final boolean directInvocation;
+
 
 	public MessagingMethodInvokerHelper(Object targetObject, Method method, Class<?> expectedType,
 			boolean canProcessMessageList) {
@@ -177,6 +201,7 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		this.handlerMethods = null;
 		this.handlerMessageMethods = null;
 		this.handlerMethodsList = null;
+		this.directInvocation = this.canInvokeDirectly(this.handlerMethod);
 		this.prepareEvaluationContext(this.getEvaluationContext(false), method, annotationType);
 		this.setDisplayString(targetObject, method);
 	}
@@ -203,9 +228,11 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			this.handlerMethods = null;
 			this.handlerMessageMethods = null;
 			this.handlerMethodsList = null;
+			this.directInvocation = this.canInvokeDirectly(this.handlerMethod);
 		}
 		else {
 			this.handlerMethod = null;
+			this.directInvocation = false;
 			this.handlerMethods = handlerMethods;
 			this.handlerMessageMethods = handlerMessageMethods;
 			this.handlerMethodsList = new LinkedList<Map<Class<?>, HandlerMethod>>();
@@ -266,14 +293,35 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		return false;
 	}
 
+	/**
+	 * A method can be invoked directly if all its parameters can be bound without SpEL and if it is
+	 * the method that SpEL would resolve on the target object: when the target has other public
+	 * methods with the same name, SpEL selects one of the overloads according to the arguments,
+	 * so the method is then invoked with SpEL.
+	 */
+	private boolean canInvokeDirectly(HandlerMethod handlerMethod) {
+		Method method = handlerMethod.method;
+		if (!handlerMethod.hasArgumentExtractors() || !Modifier.isPublic(method.getModifiers())
+				|| !method.getDeclaringClass().isInstance(this.targetObject)) {
+			return false;
+		}
+		for (Method candidate : this.targetObject.getClass().getMethods()) {
+			if (candidate.getName().equals(method.getName()) && !candidate.isBridge()
+					&& !Arrays.equals(candidate.getParameterTypes(), method.getParameterTypes())) {
+				return false;
+			}
+		}
+		ReflectionUtils.makeAccessible(method);
+		return true;
+	}
+
 	private T processInternal(ParametersWrapper parameters) throws Exception {
 		HandlerMethod candidate = this.findHandlerMethodForParameters(parameters);
 		Assert.notNull(candidate, "No candidate methods found for messages.");
-		Expression expression = candidate.getExpression();
 		Class<?> expectedType = this.expectedType != null ? this.expectedType : candidate.method.getReturnType();
 		try {
 			@SuppressWarnings("unchecked")
-			T result = (T) this.evaluateExpression(expression, parameters, expectedType);
+			T result = (T) this.invokeHandlerMethod(candidate, parameters, expectedType);
 			if (this.requiresReply) {
 				Assert.notNull(result,
 						"Expression evaluation result was null, but this processor requires a reply.");
@@ -294,6 +342,38 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		}
 	}
 
+	private Object invokeHandlerMethod(HandlerMethod candidate, ParametersWrapper parameters, Class<?> expectedType)
+			throws Exception {
+		Message<?> message = parameters.getMessage();
+		if (this.directInvocation && message != null) {
+			Object[] arguments = candidate.extractArguments(message);
+			if (arguments != null) {
+				return this.invokeDirectly(candidate, arguments, expectedType);
+			}
+		}
+		return this.evaluateExpression(candidate.getExpression(), parameters, expectedType);
+	}
+
+	/**
+	 * Invoke the method and convert the result in the same way as the SpEL method reference.
+	 */
+	private Object invokeDirectly(HandlerMethod candidate, Object[] arguments, Class<?> expectedType)
+			throws Exception {
+		Object result;
+		try {
+			result = candidate.method.invoke(this.targetObject, arguments);
+		}
+		catch (InvocationTargetException e) {
+			Throwable targetException = e.getTargetException();
+			if (targetException instanceof Exception) {
+				throw (Exception) targetException;
+			}
+			throw new IllegalStateException("Cannot process message", targetException);
+		}
+		return ExpressionUtils.convertTypedValue(this.getEvaluationContext(),
+				new TypedValue(result, candidate.returnTypeDescriptor.narrow(result)), expectedType);
+	}
+
 	private Map<String, Map<Class<?>, HandlerMethod>> findHandlerMethodsForTarget(final Object targetObject,
 			final Class<? extends Annotation> annotationType, final String methodName, final boolean requiresReply) {
 
@@ -482,13 +562,31 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		return targetClass;
 	}
 
+	/**
+	 * The resolution depends only on the type of the payload (or of the collection of
+	 * messages), so it is cached by that type.
+	 */
 	private HandlerMethod findHandlerMethodForParameters(ParametersWrapper parameters) {
 		if (this.handlerMethod != null) {
 			return this.handlerMethod;
 		}
 
-		final Class<?> payloadType = parameters.getFirstParameterType();
+		Class<?> payloadType = parameters.getFirstParameterType();
+		HandlerMethod candidate = this.handlerMethodCache.get(payloadType);
+		if (candidate == null) {
+			candidate = this.resolveHandlerMethod(payloadType);
+			if (candidate == null) {
+				candidate = NO_HANDLER_METHOD;
+			}
+			if (this.handlerMethodCache.size() >= HANDLER_METHOD_CACHE_LIMIT) {
+				this.handlerMethodCache.clear();
+			}
+			this.handlerMethodCache.put(payloadType, candidate);
+		}
+		return candidate == NO_HANDLER_METHOD ? null : candidate;
+	}
 
+	private HandlerMethod resolveHandlerMethod(Class<?> payloadType) {
 		HandlerMethod closestMatch = this.findClosestMatch(payloadType);
 		if (closestMatch != null) {
 			return closestMatch;
@@ -561,15 +659,27 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 		private final boolean canProcessMessageList;
 
+		private final TypeDescriptor returnTypeDescriptor;
+
+		private volatile ArgumentExtractor[] argumentExtractors;
+
 		private volatile TypeDescriptor targetParameterTypeDescriptor;
 
 		private volatile Class<?> targetParameterType = Void.class;
 
 		private volatile boolean messageMethod;
 
+		private HandlerMethod() {
+			this.method = null;
+			this.expression = null;
+			this.canProcessMessageList = false;
+			this.returnTypeDescriptor = null;
+		}
+
 		HandlerMethod(Method method, boolean canProcessMessageList) {
 			this.method = method;
 			this.canProcessMessageList = canProcessMessageList;
+			this.returnTypeDescriptor = new TypeDescriptor(new MethodParameter(method, -1));
 			this.expression = this.generateExpression(method);
 		}
 
@@ -586,6 +696,27 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			return messageMethod;
 		}
 
+		private boolean hasArgumentExtractors() {
+			return this.argumentExtractors != null;
+		}
+
+		/**
+		 * @return the arguments, or null if any of them would need conversion, in which case the
+		 * expression must be used.
+		 */
+		private Object[] extractArguments(Message<?> message) {
+			Class<?>[] parameterTypes = this.method.getParameterTypes();
+			Object[] arguments = new Object[this.argumentExtractors.length];
+			for (int i = 0; i < arguments.length; i++) {
+				Object argument = this.argumentExtractors[i].extract(message);
+				if (!org.springframework.util.ClassUtils.isAssignableValue(parameterTypes[i], argument)) {
+					return null;
+				}
+				arguments[i] = argument;
+			}
+			return arguments;
+		}
+
 		@Override
 		public String toString() {
 			return this.method.toString();
@@ -596,6 +727,7 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			StringBuilder sb = new StringBuilder("#target." + method.getName() + "(");
 			Class<?>[] parameterTypes = method.getParameterTypes();
 			Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+			List<ArgumentExtractor> argumentExtractors = new ArrayList<ArgumentExtractor>();
 			boolean hasUnqualifiedMapParameter = false;
 			for (int i = 0; i < parameterTypes.length; i++) {
 				if (i != 0) {
@@ -614,9 +746,12 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 						String qualifierExpression = (String) AnnotationUtils.getValue(mappingAnnotation);
 						if (StringUtils.hasText(qualifierExpression)) {
 							sb.append("." + qualifierExpression);
+							argumentExtractors.add(null);
 						}
 						if (!StringUtils.hasText(qualifierExpression)) {
 							this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+							argumentExtractors.add(directExtractor(MessagePartExtractor.PAYLOAD,
+									parameterTypeDescriptor));
 						}
 					}
 					if (annotationType.equals(Payloads.class)) {
@@ -629,34 +764,41 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 						if (!StringUtils.hasText(qualifierExpression)) {
 							this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
 						}
+						argumentExtractors.add(null);
 					}
 					else if (annotationType.equals(org.springframework.integration.annotation.Headers.class)
 							|| annotationType.equals(Headers.class)) {
 						Assert.isTrue(Map.class.isAssignableFrom(parameterType),
 								"The @Headers annotation can only be applied to a Map-typed parameter.");
 						sb.append("headers");
+						argumentExtractors.add(directExtractor(MessagePartExtractor.HEADERS, parameterTypeDescriptor));
 					}
 					else if (annotationType.equals(org.springframework.integration.annotation.Header.class)
 							|| annotationType.equals(Header.class)) {
-						sb.append(this.determineHeaderExpression(mappingAnnotation, methodParameter));
+						sb.append(this.determineHeaderExpression(mappingAnnotation, methodParameter,
+								parameterTypeDescriptor, argumentExtractors));
 					}
 				}
 				else if (parameterTypeDescriptor.isAssignableTo(messageTypeDescriptor)) {
 					this.messageMethod = true;
 					sb.append("message");
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+					argumentExtractors.add(MessagePartExtractor.MESSAGE);
 				}
 				else if ((parameterTypeDescriptor.isAssignableTo(messageListTypeDescriptor)
 						|| parameterTypeDescriptor.isAssignableTo(messageArrayTypeDescriptor))) {
 					sb.append("messages");
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+					argumentExtractors.add(null);
 				}
 				else if (Collection.class.isAssignableFrom(parameterType) || parameterType.isArray()) {
 					if (canProcessMessageList) {
 						sb.append("messages.![payload]");
+						argumentExtractors.add(null);
 					}
 					else {
 						sb.append("payload");
+						argumentExtractors.add(directExtractor(MessagePartExtractor.PAYLOAD, parameterTypeDescriptor));
 					}
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
 				}
@@ -681,14 +823,18 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 						sb.append("payload.iterator()");
 					}
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+					argumentExtractors.add(null);
 				}
 				else if (Map.class.isAssignableFrom(parameterType)) {
 					if (Properties.class.isAssignableFrom(parameterType)) {
 						sb.append("payload instanceof T(java.util.Map) or "
 								+ "(payload instanceof T(String) and payload.contains('=')) ? payload : headers");
+						argumentExtractors.add(null);
 					}
 					else {
 						sb.append("(payload instanceof T(java.util.Map) ? payload : headers)");
+						argumentExtractors.add(directExtractor(MessagePartExtractor.PAYLOAD_OR_HEADERS,
+								parameterTypeDescriptor));
 					}
 					Assert.isTrue(!hasUnqualifiedMapParameter,
 							"Found more than one Map typed parameter without any qualification. "
@@ -698,6 +844,7 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 				else {
 					sb.append("payload");
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+					argumentExtractors.add(directExtractor(MessagePartExtractor.PAYLOAD, parameterTypeDescriptor));
 				}
 			}
 			if (hasUnqualifiedMapParameter) {
@@ -711,10 +858,41 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			if (this.targetParameterTypeDescriptor == null) {
 				this.targetParameterTypeDescriptor = TypeDescriptor.valueOf(Void.class);
 			}
+			if (!argumentExtractors.contains(null)) {
+				this.argumentExtractors = argumentExtractors.toArray(new ArgumentExtractor[argumentExtractors.size()]);
+			}
 			return EXPRESSION_PARSER.parseExpression(sb.toString());
 		}
 
-		private String determineHeaderExpression(Annotation headerAnnotation, MethodParameter methodParameter) {
+		/**
+		 * SpEL converts all arguments, including the elements of collections and maps with
+		 * typed elements; such parameters are left to the expression. MessageHeaders keys are
+		 * always Strings.
+		 */
+		private static ArgumentExtractor directExtractor(ArgumentExtractor extractor,
+				TypeDescriptor parameterTypeDescriptor) {
+			if (parameterTypeDescriptor.isArray()) {
+				return parameterTypeDescriptor.getType().getComponentType().isPrimitive()
+						|| isUntyped(parameterTypeDescriptor.getElementTypeDescriptor()) ? extractor : null;
+			}
+			if (parameterTypeDescriptor.isCollection()) {
+				return isUntyped(parameterTypeDescriptor.getElementTypeDescriptor()) ? extractor : null;
+			}
+			if (parameterTypeDescriptor.isMap()) {
+				TypeDescriptor keyType = parameterTypeDescriptor.getMapKeyTypeDescriptor();
+				boolean untypedKeys = isUntyped(keyType)
+						|| (extractor == MessagePartExtractor.HEADERS && String.class.equals(keyType.getType()));
+				return untypedKeys && isUntyped(parameterTypeDescriptor.getMapValueTypeDescriptor()) ? extractor : null;
+			}
+			return extractor;
+		}
+
+		private static boolean isUntyped(TypeDescriptor typeDescriptor) {
+			return typeDescriptor == null || Object.class.equals(typeDescriptor.getType());
+		}
+
+		private String determineHeaderExpression(Annotation headerAnnotation, MethodParameter methodParameter,
+				TypeDescriptor parameterTypeDescriptor, List<ArgumentExtractor> argumentExtractors) {
 			methodParameter.initParameterNameDiscovery(PARAMETER_NAME_DISCOVERER);
 			String headerName = null;
 			String relativeExpression = "";
@@ -736,9 +914,17 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			}
 			Assert.notNull(headerName, "Cannot determine header name. Possible reasons: -debug is "
 					+ "disabled or header name is not explicitly provided via @Header annotation.");
+			boolean required = annotationAttributes.getBoolean("required");
+			if (StringUtils.hasText(relativeExpression)) {
+				argumentExtractors.add(null);
+			}
+			else {
+				argumentExtractors.add(directExtractor(new HeaderExtractor(headerName, required),
+						parameterTypeDescriptor));
+			}
 			String headerRetrievalExpression = "headers['" + headerName + "']";
 			String fullHeaderExpression = headerRetrievalExpression + relativeExpression;
-			String fallbackExpression = (annotationAttributes.getBoolean("required"))
+			String fallbackExpression = required
 					? "T(org.springframework.util.Assert).isTrue(false, 'required header not available: "
 					+ headerName + "')"
 					: "null";
@@ -814,6 +1000,79 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	}
 
+	/**
+	 * Extracts an argument for a directly invoked method from the message, in the same way as
+	 * the corresponding part of the generated expression.
+	 */
+	private interface ArgumentExtractor {
+
+		Object extract(Message<?> message);
+
+	}
+
+	private enum MessagePartExtractor implements ArgumentExtractor {
+
+		PAYLOAD {
+
+			@Override
+			public Object extract(Message<?> message) {
+				return message.getPayload();
+			}
+
+		},
+
+		HEADERS {
+
+			@Override
+			public Object extract(Message<?> message) {
+				return message.getHeaders();
+			}
+
+		},
+
+		MESSAGE {
+
+			@Override
+			public Object extract(Message<?> message) {
+				return message;
+			}
+
+		},
+
+		PAYLOAD_OR_HEADERS {
+
+			@Override
+			public Object extract(Message<?> message) {
+				Object payload = message.getPayload();
+				return payload instanceof Map ? payload : message.getHeaders();
+			}
+
+		}
+
+	}
+
+	private static class HeaderExtractor implements ArgumentExtractor {
+
+		private final String headerName;
+
+		private final boolean required;
+
+		private HeaderExtractor(String headerName, boolean required) {
+			this.headerName = headerName;
+			this.required = required;
+		}
+
+		@Override
+		public Object extract(Message<?> message) {
+			Object value = message.getHeaders().get(this.headerName);
+			if (value == null && this.required) {
+				throw new IllegalArgumentException("required header not available: " + this.headerName);
+			}
+			return value;
+		}
+
+	}
+
 	@SuppressWarnings("serial")
 	private static class IneligibleMethodException extends RuntimeException {
 
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded {@link BlockingQueue} backed by a pre-allocated ring buffer. Each slot of
+ * the buffer carries a sequence number that tells producers and consumers whether the
+ * slot is free or holds an element for the current lap, so that the non-blocking
+ * operations ({@link #offer(Object)}, {@link #poll()}, {@link #drainTo(Collection, int)})
+ * only need a compare-and-set on the head or tail position; no lock is taken and
+ * nothing is allocated per element.
+ * <p>
+ * The capacity is rounded up to the next power of two, and to at least two, so that the
+ * sequence number of a slot always tells a free slot from a full one.
+ * <p>
+ * With {@link ProducerType#SINGLE}, the tail is advanced without a compare-and-set; the
+ * caller must then guarantee that elements are only ever inserted by one thread at a
+ * time. Any number of threads can remove elements, whatever the producer type.
+ * <p>
+ * The {@link WaitStrategy} determines how the blocking operations ({@link #put(Object)},
+ * {@link #take()} and the timed {@code offer} and {@code poll}) wait for a slot or an
+ * element: by parking on a lock condition (signalled only when a thread is actually
+ * waiting), by spinning and then yielding, or by busy-spinning.
+ * <p>
+ * Removal of arbitrary elements ({@link #remove(Object)} or through the iterator) is not
+ * supported; the iterator is a weakly consistent snapshot.
+ *
+ * @param <E> the element type.
+ *
+ * @since 4.1
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private static final int SPIN_TRIES = 100;
+
+	/**
+	 * Whether one or several threads may insert elements concurrently.
+	 */
+	public enum ProducerType {
+
+		SINGLE,
+
+		MULTI
+
+	}
+
+	/**
+	 * How the blocking operations wait for a slot or an element.
+	 */
+	public enum WaitStrategy {
+
+		/**
+		 * Park the waiting thread until it is signalled; the lowest CPU usage, the
+		 * highest wake-up latency.
+		 */
+		BLOCKING,
+
+		/**
+		 * Spin for a while, then yield the processor between attempts.
+		 */
+		YIELDING,
+
+		/**
+		 * Spin until the operation succeeds; the lowest latency, but each waiting
+		 * thread keeps a processor busy.
+		 */
+		BUSY_SPIN
+
+	}
+
+	private final int mask;
+
+	private final AtomicReferenceArray<E> elements;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong head = new AtomicLong();
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private final boolean singleProducer;
+
+	private final WaitStrategy waitStrategy;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = this.lock.newCondition();
+
+	private final Condition notFull = this.lock.newCondition();
+
+	private final AtomicInteger waitingConsumers = new AtomicInteger();
+
+	private final AtomicInteger waitingProducers = new AtomicInteger();
+
+	/**
+	 * Create a multi-producer queue with the {@link WaitStrategy#BLOCKING} wait strategy.
+	 * @param capacity the capacity; rounded up to the next power of two (at least two).
+	 */
+	public RingBufferQueue(int capacity) {
+		this(capacity, ProducerType.MULTI, WaitStrategy.BLOCKING);
+	}
+
+	/**
+	 * Create a queue.
+	 * @param capacity the capacity; rounded up to the next power of two (at least two).
+	 * @param producerType whether elements are inserted by a single thread.
+	 * @param waitStrategy how the blocking operations wait.
+	 */
+	public RingBufferQueue(int capacity, ProducerType producerType, WaitStrategy waitStrategy) {
+		Assert.isTrue(capacity > 0 && capacity <= MAXIMUM_CAPACITY,
+				"'capacity' must be between 1 and " + MAXIMUM_CAPACITY);
+		Assert.notNull(producerType, "'producerType' must not be null");
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		int size = 2;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.elements = new AtomicReferenceArray<E>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			this.sequences.set(i, i);
+		}
+		this.singleProducer = ProducerType.SINGLE.equals(producerType);
+		this.waitStrategy = waitStrategy;
+	}
+
+	/**
+	 * @return the capacity (a power of two).
+	 */
+	public int getCapacity() {
+		return this.mask + 1;
+	}
+
+	@Override
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		if (!enqueue(e)) {
+			return false;
+		}
+		signalNotEmpty();
+		return true;
+	}
+
+	@Override
+	public void put(E e) throws InterruptedException {
+		offer(e, 0, false);
+	}
+
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		return offer(e, unit.toNanos(timeout), true);
+	}
+
+	@Override
+	public E poll() {
+		E e = dequeue();
+		if (e != null) {
+			signalNotFull(false);
+		}
+		return e;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		return poll(0, false);
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		return poll(unit.toNanos(timeout), true);
+	}
+
+	@Override
+	public E peek() {
+		while (true) {
+			long position = this.head.get();
+			int index = (int) position & this.mask;
+			if (this.sequences.get(index) - (position + 1) < 0) {
+				return null;
+			}
+			E e = this.elements.get(index);
+			if (e != null && this.head.get() == position) {
+				return e;
+			}
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		int n = 0;
+		E e;
+		while (n < maxElements && (e = dequeue()) != null) {
+			c.add(e);
+			n++;
+		}
+		if (n > 0) {
+			signalNotFull(n > 1);
+		}
+		return n;
+	}
+
+	@Override
+	public int size() {
+		long head = this.head.get();
+		long size = this.tail.get() - head;
+		return (int) Math.max(0, Math.min(size, this.mask + 1));
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return this.mask + 1 - size();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException("A RingBufferQueue does not support the removal of arbitrary elements");
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		List<E> snapshot = new ArrayList<E>();
+		long tail = this.tail.get();
+		for (long position = this.head.get(); position < tail; position++) {
+			int index = (int) position & this.mask;
+			if (this.sequences.get(index) == position + 1) {
+				E e = this.elements.get(index);
+				if (e != null) {
+					snapshot.add(e);
+				}
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	private boolean enqueue(E e) {
+		long position = this.tail.get();
+		int index;
+		while (true) {
+			index = (int) position & this.mask;
+			long delta = this.sequences.get(index) - position;
+			if (delta == 0) {
+				if (this.singleProducer) {
+					this.tail.lazySet(position + 1);
+					break;
+				}
+				if (this.tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+			}
+			else if (delta < 0) {
+				return false;
+			}
+			position = this.tail.get();
+		}
+		this.elements.lazySet(index, e);
+		// a volatile write, so that a consumer about to wait for the element sees it, or is seen to wait
+		this.sequences.set(index, position + 1);
+		return true;
+	}
+
+	private E dequeue() {
+		long position = this.head.get();
+		int index;
+		while (true) {
+			index = (int) position & this.mask;
+			long delta = this.sequences.get(index) - (position + 1);
+			if (delta == 0) {
+				if (this.head.compareAndSet(position, position + 1)) {
+					break;
+				}
+			}
+			else if (delta < 0) {
+				return null;
+			}
+			position = this.head.get();
+		}
+		E e = this.elements.get(index);
+		this.elements.lazySet(index, null);
+		this.sequences.set(index, position + this.mask + 1);
+		return e;
+	}
+
+	private boolean offer(E e, long nanos, boolean timed) throws InterruptedException {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (enqueue(e)) {
+			signalNotEmpty();
+			return true;
+		}
+		if (WaitStrategy.BLOCKING.equals(this.waitStrategy)) {
+			this.lock.lockInterruptibly();
+			this.waitingProducers.incrementAndGet();
+			try {
+				while (!enqueue(e)) {
+					if (!timed) {
+						this.notFull.await();
+					}
+					else if (nanos <= 0) {
+						return false;
+					}
+					else {
+						nanos = this.notFull.awaitNanos(nanos);
+					}
+				}
+			}
+			finally {
+				this.waitingProducers.decrementAndGet();
+				this.lock.unlock();
+			}
+		}
+		else {
+			long deadline = System.nanoTime() + nanos;
+			int spins = 0;
+			while (!enqueue(e)) {
+				if (!spin(++spins, deadline, timed)) {
+					return false;
+				}
+			}
+		}
+		signalNotEmpty();
+		return true;
+	}
+
+	private E poll(long nanos, boolean timed) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		E e = dequeue();
+		if (e == null) {
+			if (WaitStrategy.BLOCKING.equals(this.waitStrategy)) {
+				this.lock.lockInterruptibly();
+				this.waitingConsumers.incrementAndGet();
+				try {
+					while ((e = dequeue()) == null) {
+						if (!timed) {
+							this.notEmpty.await();
+						}
+						else if (nanos <= 0) {
+							return null;
+						}
+						else {
+							nanos = this.notEmpty.awaitNanos(nanos);
+						}
+					}
+				}
+				finally {
+					this.waitingConsumers.decrementAndGet();
+					this.lock.unlock();
+				}
+			}
+			else {
+				long deadline = System.nanoTime() + nanos;
+				int spins = 0;
+				while ((e = dequeue()) == null) {
+					if (!spin(++spins, deadline, timed)) {
+						return null;
+					}
+				}
+			}
+		}
+		signalNotFull(false);
+		return e;
+	}
+
+	/**
+	 * One round of a {@link WaitStrategy#YIELDING} or {@link WaitStrategy#BUSY_SPIN} wait.
+	 * @return false if the wait timed out.
+	 */
+	private boolean spin(int spins, long deadline, boolean timed) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (timed && deadline - System.nanoTime() <= 0) {
+			return false;
+		}
+		if (spins > SPIN_TRIES && WaitStrategy.YIELDING.equals(this.waitStrategy)) {
+			Thread.yield();
+		}
+		return true;
+	}
+
+	private void signalNotEmpty() {
+		if (this.waitingConsumers.get() > 0) {
+			this.lock.lock();
+			try {
+				this.notEmpty.signal();
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	private void signalNotFull(boolean all) {
+		if (this.waitingProducers.get() > 0) {
+			this.lock.lock();
+			try {
+				if (all) {
+					this.notFull.signalAll();
+				}
+				else {
+					this.notFull.signal();
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.SimpleMessageStore;
+
+/**
+ * Runs the {@link ResequencerTests} with a store using
+ * {@link org.springframework.integration.store.IndexedMessageGroup}s.
+ *
+ * @since 4.1
+ */
+public class IndexedMessageGroupResequencerTests extends ResequencerTests {
+
+	@Override
+	protected MessageGroupStore createMessageStore() {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.setIndexedMessageGroups(true);
+		return store;
+	}
+
+}
@@ -53,7 +53,11 @@ public class ResequencerTests {
 
 	private final ResequencingMessageGroupProcessor processor = new ResequencingMessageGroupProcessor();
 
-	private final MessageGroupStore store = new SimpleMessageStore();
+	private final MessageGroupStore store = createMessageStore();
+
+	protected MessageGroupStore createMessageStore() {
+		return new SimpleMessageStore();
+	}
 
 	@Before
 	public void configureResequencer() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,13 @@
 
 package org.springframework.integration.aggregator;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 import org.springframework.messaging.Message;
 import org.springframework.integration.store.MessageGroup;
@@ -133,4 +137,63 @@ public class SequenceSizeReleaseStrategyTests {
 		assertTrue(releaseStrategy.canRelease(messages));
 	}
 
+	@Test
+	public void shouldTrackPartialSequenceIncrementally() {
+		SequenceSizeReleaseStrategy releaseStrategy = new SequenceSizeReleaseStrategy(true);
+		final AtomicInteger scans = new AtomicInteger();
+		SimpleMessageGroup messages = new SimpleMessageGroup("FOO") {
+
+			@Override
+			public Collection<Message<?>> getMessages() {
+				scans.incrementAndGet();
+				return super.getMessages();
+			}
+
+		};
+
+		assertFalse(add(releaseStrategy, messages, 3));
+		assertFalse(add(releaseStrategy, messages, 5));
+		assertTrue(add(releaseStrategy, messages, 1));
+		// release 1
+		messages.remove(messages.getOne());
+		messages.setLastReleasedMessageSequenceNumber(1);
+		assertTrue(add(releaseStrategy, messages, 2));
+		// only the initial (empty) state was built from the group
+		assertEquals(1, scans.get());
+		// release 2, 3
+		for (Message<?> message : messages.getMessages().toArray(new Message<?>[3])) {
+			if (message.getHeaders().get("sequenceNumber", Integer.class) < 4) {
+				messages.remove(message);
+			}
+		}
+		messages.setLastReleasedMessageSequenceNumber(3);
+		int scansBefore = scans.get();
+		assertFalse(add(releaseStrategy, messages, 6));
+		assertTrue(add(releaseStrategy, messages, 4));
+		assertEquals(scansBefore, scans.get());
+	}
+
+	@Test
+	public void shouldRebuildStateWhenGroupChangedElsewhere() {
+		SequenceSizeReleaseStrategy releaseStrategy = new SequenceSizeReleaseStrategy(true);
+		SimpleMessageGroup messages = new SimpleMessageGroup("FOO");
+		assertFalse(add(releaseStrategy, messages, 2));
+		messages.add(MessageBuilder.withPayload("test1").setSequenceNumber(1).setSequenceSize(5).build());
+		assertTrue(add(releaseStrategy, messages, 4));
+
+		releaseStrategy.discardGroup("FOO");
+		messages = new SimpleMessageGroup("FOO");
+		messages.setLastReleasedMessageSequenceNumber(4);
+		assertTrue(add(releaseStrategy, messages, 5));
+	}
+
+	private boolean add(SequenceSizeReleaseStrategy releaseStrategy, SimpleMessageGroup messages, int sequenceNumber) {
+		Message<String> message = MessageBuilder.withPayload("test" + sequenceNumber)
+				.setSequenceNumber(sequenceNumber)
+				.setSequenceSize(6)
+				.build();
+		messages.add(message);
+		return releaseStrategy.canRelease(messages, message);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2008 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
+
 import org.springframework.messaging.Message;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.MessageBuilder;
@@ -78,4 +79,30 @@ public class TimeoutCountSequenceSizeReleaseStrategyTests {
 		assertTrue(releaseStrategy.canRelease(new SimpleMessageGroup("FOO")));
 	}
 
+	@Test
+	public void testIncrementalTimeoutAndCount() throws Exception {
+		TimeoutCountSequenceSizeReleaseStrategy releaseStrategy = new TimeoutCountSequenceSizeReleaseStrategy(3, 60000);
+		SimpleMessageGroup messages = new SimpleMessageGroup("FOO");
+		Message<String> message = MessageBuilder.withPayload("test1").build();
+		messages.add(message);
+		assertFalse(releaseStrategy.canRelease(messages, message));
+		message = MessageBuilder.withPayload("test2").build();
+		messages.add(message);
+		assertFalse(releaseStrategy.canRelease(messages, message));
+		message = MessageBuilder.withPayload("test3").build();
+		messages.add(message);
+		assertTrue(releaseStrategy.canRelease(messages, message));
+		releaseStrategy.discardGroup("FOO");
+
+		releaseStrategy = new TimeoutCountSequenceSizeReleaseStrategy(3, 100);
+		messages = new SimpleMessageGroup("FOO");
+		message = MessageBuilder.withPayload("test1").build();
+		messages.add(message);
+		assertFalse(releaseStrategy.canRelease(messages, message));
+		Thread.sleep(200);
+		message = MessageBuilder.withPayload("test2").build();
+		messages.add(message);
+		assertTrue(releaseStrategy.canRelease(messages, message));
+	}
+
 }
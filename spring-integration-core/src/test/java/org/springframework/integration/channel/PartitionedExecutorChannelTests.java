@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.integration.test.util.TestUtils.TestApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+
+/**
+ * @since 4.1
+ */
+public class PartitionedExecutorChannelTests {
+
+	@Test
+	public void testOrderPerKey() throws Exception {
+		TestApplicationContext context = TestUtils.createTestApplicationContext();
+		final PartitionedExecutorChannel channel = createChannel(context, 3);
+		final int keys = 5;
+		final int messagesPerKey = 200;
+		final CountDownLatch latch = new CountDownLatch(keys * messagesPerKey);
+		final Map<Object, List<Object>> received = new ConcurrentHashMap<Object, List<Object>>();
+		final Map<Object, Thread> threads = new ConcurrentHashMap<Object, Thread>();
+		final AtomicBoolean switchedThreads = new AtomicBoolean();
+		channel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				Object key = message.getHeaders().get("key");
+				Thread previous = threads.put(key, Thread.currentThread());
+				if (previous != null && previous != Thread.currentThread()) {
+					switchedThreads.set(true);
+				}
+				List<Object> list = received.get(key);
+				if (list == null) {
+					list = new ArrayList<Object>();
+					received.put(key, list);
+				}
+				list.add(message.getPayload());
+				latch.countDown();
+			}
+
+		});
+		ExecutorService senders = Executors.newFixedThreadPool(keys);
+		for (int i = 0; i < keys; i++) {
+			final String key = "key" + i;
+			senders.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < messagesPerKey; j++) {
+						channel.send(MessageBuilder.withPayload(j).setHeader("key", key).build());
+					}
+				}
+
+			});
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		senders.shutdown();
+		assertFalse(switchedThreads.get());
+		assertEquals(keys, received.size());
+		for (List<Object> list : received.values()) {
+			assertEquals(messagesPerKey, list.size());
+			for (int j = 0; j < messagesPerKey; j++) {
+				assertEquals(j, list.get(j));
+			}
+		}
+		assertTrue(new ArrayList<Thread>(threads.values()).get(0).getName().startsWith("partitioned-"));
+		channel.destroy();
+		context.close();
+	}
+
+	@Test
+	public void testBackPressureAndQueueSize() throws Exception {
+		TestApplicationContext context = TestUtils.createTestApplicationContext();
+		PartitionedExecutorChannel channel = createChannel(context, 2);
+		channel.setQueueCapacity(1);
+		channel.setMaxWait(100);
+		final CountDownLatch handling = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		channel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				handling.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+		});
+		assertEquals(2, channel.getPartitionCount());
+		channel.send(MessageBuilder.withPayload("foo").build());
+		assertTrue(handling.await(10, TimeUnit.SECONDS));
+		channel.send(MessageBuilder.withPayload("bar").build());
+		assertEquals(1, channel.getQueueSize(0));
+		assertEquals(0, channel.getQueueSize(1));
+		assertEquals(1, channel.getQueueSize());
+		try {
+			channel.send(MessageBuilder.withPayload("baz").build());
+			fail("Expected MessageDeliveryException");
+		}
+		catch (MessageDeliveryException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+		release.countDown();
+		channel.destroy();
+		context.close();
+	}
+
+	@Test
+	public void testErrorChannel() throws Exception {
+		TestApplicationContext context = TestUtils.createTestApplicationContext();
+		QueueChannel errorChannel = new QueueChannel();
+		context.registerChannel(IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME, errorChannel);
+		PartitionedExecutorChannel channel = createChannel(context, 2);
+		channel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				throw new MessagingException(message, "planned");
+			}
+
+		});
+		Message<String> message = MessageBuilder.withPayload("foo").setHeader("key", "bar").build();
+		channel.send(message);
+		Message<?> error = errorChannel.receive(10000);
+		assertNotNull(error);
+		assertTrue(error instanceof ErrorMessage);
+		assertSame(message, ((MessagingException) error.getPayload()).getFailedMessage());
+		assertNull(errorChannel.receive(0));
+		channel.destroy();
+		context.close();
+	}
+
+	private PartitionedExecutorChannel createChannel(TestApplicationContext context, int partitionCount) {
+		PartitionedExecutorChannel channel = new PartitionedExecutorChannel(partitionCount,
+				new SpelExpressionParser().parseExpression("headers['key']"));
+		context.registerChannel("partitioned", channel);
+		context.refresh();
+		return channel;
+	}
+
+}
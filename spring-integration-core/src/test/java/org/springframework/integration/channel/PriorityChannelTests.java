@@ -17,6 +17,7 @@
 package org.springframework.integration.channel;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -51,6 +52,21 @@ public class PriorityChannelTests {
 		assertTrue(channel.send(new GenericMessage<String>("test5")));
 	}
 	
+	@Test
+	public void testBatchReceive() {
+		PriorityChannel channel = new PriorityChannel(3);
+		channel.send(createPriorityMessage(1));
+		channel.send(createPriorityMessage(3));
+		channel.send(createPriorityMessage(2));
+		List<Message<?>> messages = channel.receive(2, 0);
+		assertEquals(2, messages.size());
+		assertEquals("test:3", messages.get(0).getPayload());
+		assertEquals("test:2", messages.get(1).getPayload());
+		assertTrue(channel.send(new GenericMessage<String>("test4"), 0));
+		assertTrue(channel.send(new GenericMessage<String>("test5"), 0));
+		assertFalse(channel.send(new GenericMessage<String>("test6"), 0));
+	}
+
 	@Test
 	public void testDefaultComparatorWithTimestampFallback() throws Exception{
 		PriorityChannel channel = new PriorityChannel();
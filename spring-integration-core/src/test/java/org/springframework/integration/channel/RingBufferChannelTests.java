@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.core.MessageSelector;
+import org.springframework.integration.endpoint.PollingConsumer;
+import org.springframework.integration.util.RingBufferQueue.ProducerType;
+import org.springframework.integration.util.RingBufferQueue.WaitStrategy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * @since 4.1
+ */
+public class RingBufferChannelTests {
+
+	@Test
+	public void testSendAndReceive() {
+		RingBufferChannel channel = new RingBufferChannel(2, ProducerType.SINGLE, WaitStrategy.YIELDING);
+		assertTrue(channel.send(new GenericMessage<String>("foo"), 0));
+		assertTrue(channel.send(new GenericMessage<String>("bar"), 0));
+		assertFalse(channel.send(new GenericMessage<String>("baz"), 0));
+		assertEquals(2, channel.getQueueSize());
+		assertEquals(0, channel.getRemainingCapacity());
+		assertEquals("foo", channel.receive(0).getPayload());
+		assertEquals("bar", channel.receive(0).getPayload());
+		assertNull(channel.receive(10));
+	}
+
+	@Test
+	public void testPurge() {
+		RingBufferChannel channel = new RingBufferChannel(4);
+		for (int i = 0; i < 4; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> purged = channel.purge(new MessageSelector() {
+
+			@Override
+			public boolean accept(Message<?> message) {
+				return (Integer) message.getPayload() % 2 == 0;
+			}
+
+		});
+		assertEquals(2, purged.size());
+		assertEquals(1, purged.get(0).getPayload());
+		assertEquals(3, purged.get(1).getPayload());
+		assertEquals(2, channel.getQueueSize());
+		assertEquals(0, channel.receive(0).getPayload());
+		assertEquals(2, channel.receive(0).getPayload());
+		assertNull(channel.receive(0));
+		channel.send(new GenericMessage<Integer>(4));
+		assertEquals(1, channel.purge(null).size());
+		assertEquals(0, channel.getQueueSize());
+	}
+
+	@Test
+	public void testBatchReceive() {
+		RingBufferChannel channel = new RingBufferChannel(8);
+		final AtomicInteger preReceives = new AtomicInteger();
+		channel.addInterceptor(new ChannelInterceptorAdapter() {
+
+			@Override
+			public boolean preReceive(MessageChannel channel) {
+				preReceives.incrementAndGet();
+				return true;
+			}
+
+			@Override
+			public Message<?> postReceive(Message<?> message, MessageChannel channel) {
+				return "bar".equals(message.getPayload()) ? null : message;
+			}
+
+		});
+		assertTrue(channel.receive(5, 10).isEmpty());
+		channel.send(new GenericMessage<String>("foo"));
+		channel.send(new GenericMessage<String>("bar"));
+		channel.send(new GenericMessage<String>("baz"));
+		channel.send(new GenericMessage<String>("qux"));
+		List<Message<?>> messages = channel.receive(3, 0);
+		assertEquals(2, messages.size());
+		assertEquals("foo", messages.get(0).getPayload());
+		assertEquals("baz", messages.get(1).getPayload());
+		messages = channel.receive(3, 0);
+		assertEquals(1, messages.size());
+		assertEquals("qux", messages.get(0).getPayload());
+		assertEquals(3, preReceives.get());
+		assertEquals(0, channel.clear().size());
+	}
+
+	@Test
+	public void testPollingConsumerReceivesBatches() throws Exception {
+		final RingBufferChannel channel = new RingBufferChannel(16);
+		final List<Object> received = new ArrayList<Object>();
+		final CountDownLatch latch = new CountDownLatch(10);
+		PollingConsumer consumer = new PollingConsumer(channel, new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				received.add(message.getPayload());
+				if ("5".equals(message.getPayload())) {
+					throw new MessagingException(message, "planned");
+				}
+				latch.countDown();
+			}
+
+		});
+		for (int i = 0; i < 10; i++) {
+			channel.send(new GenericMessage<String>(String.valueOf(i)));
+		}
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		consumer.setTaskScheduler(scheduler);
+		consumer.setTrigger(new PeriodicTrigger(10));
+		consumer.setMaxMessagesPerPoll(4);
+		consumer.setReceiveTimeout(0);
+		consumer.setBeanFactory(mock(BeanFactory.class));
+		consumer.setErrorHandler(new ErrorHandler() {
+
+			@Override
+			public void handleError(Throwable t) {
+				latch.countDown();
+			}
+
+		});
+		consumer.afterPropertiesSet();
+		consumer.start();
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		consumer.stop();
+		scheduler.destroy();
+		// the messages after the failed one are handled by the next polls, in order
+		List<Object> expected = new ArrayList<Object>();
+		for (int i = 0; i < 10; i++) {
+			expected.add(String.valueOf(i));
+		}
+		assertEquals(expected, received);
+		assertEquals(0, channel.getQueueSize());
+	}
+
+}
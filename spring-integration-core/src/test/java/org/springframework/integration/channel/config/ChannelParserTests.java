@@ -135,6 +135,17 @@ public class ChannelParserTests {
 		context.close();
 	}
 
+	@Test
+	public void testPublishSubscribeChannelWaitingForCompletion() {
+		ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("channelParserTests.xml", this
+				.getClass());
+		MessageChannel channel = (MessageChannel) context.getBean("publishSubscribeChannelWaitingForCompletion");
+		assertTrue(TestUtils.getPropertyValue(channel, "dispatcher.waitForCompletion", Boolean.class));
+		assertEquals(2, TestUtils.getPropertyValue(channel, "dispatcher.maxParallelism"));
+		assertEquals(5000L, TestUtils.getPropertyValue(channel, "dispatcher.completionTimeout"));
+		context.close();
+	}
+
 	@Test
 	public void channelWithCustomQueue() {
 		ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
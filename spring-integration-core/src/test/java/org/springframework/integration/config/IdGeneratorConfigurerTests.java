@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
@@ -31,6 +39,7 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.integration.support.IdGenerators.JdkIdGenerator;
 import org.springframework.integration.support.IdGenerators.SimpleIncrementingIdGenerator;
+import org.springframework.integration.support.IdGenerators.TimeBasedIdGenerator;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.IdGenerator;
@@ -203,6 +212,54 @@ public class IdGeneratorConfigurerTests {
 		context.destroy();
 	}
 
+	@Test
+	public void testTimeBased() throws Exception {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBeanDefinition("bfpp", new RootBeanDefinition(DefaultConfiguringBeanFactoryPostProcessor.class));
+		RootBeanDefinition generator = new RootBeanDefinition(TimeBasedIdGenerator.class);
+		generator.getConstructorArgumentValues().addGenericArgumentValue(42);
+		context.registerBeanDefinition("foo", generator);
+		context.refresh();
+		assertSame(context.getBean(IdGenerator.class),
+				TestUtils.getPropertyValue(new MessageHeaders(null), "idGenerator"));
+		long before = System.currentTimeMillis();
+		UUID first = new MessageHeaders(null).getId();
+		UUID second = new MessageHeaders(null).getId();
+		assertEquals(1, first.version());
+		assertEquals(2, first.variant());
+		// 100ns intervals since 1582-10-15
+		long millis = (first.timestamp() - 0x01B21DD213814000L) / 10000;
+		assertTrue(millis >= before && millis <= System.currentTimeMillis());
+		assertTrue(second.timestamp() > first.timestamp());
+		assertEquals(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+		assertEquals(42, first.node() >>> 30);
+		assertEquals(first.clockSequence(), second.clockSequence());
+
+		final int threads = 4;
+		final int idsPerThread = 10000;
+		final Set<UUID> ids = Collections.synchronizedSet(new HashSet<UUID>());
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			exec.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < idsPerThread; j++) {
+						ids.add(new MessageHeaders(null).getId());
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		exec.shutdown();
+		assertEquals(threads * idsPerThread, ids.size());
+
+		context.destroy();
+	}
+
 	public static class MyIdGenerator implements IdGenerator {
 
 		@Override
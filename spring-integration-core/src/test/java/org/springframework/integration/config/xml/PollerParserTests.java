@@ -112,6 +112,15 @@ public class PollerParserTests {
 		assertEquals(TimeUnit.SECONDS.toString(), TestUtils.getPropertyValue(trigger, "timeUnit").toString());
 	}
 
+	@Test
+	public void pollerWithBatchReceive() {
+		ApplicationContext context = new ClassPathXmlApplicationContext(
+				"pollerWithBatchReceive.xml", PollerParserTests.class);
+		PollerMetadata metadata = context.getBean("poller", PollerMetadata.class);
+		assertEquals(10, metadata.getMaxMessagesPerPoll());
+		assertTrue(metadata.isBatchReceive());
+	}
+
     @Test
 	public void pollerWithTriggerReference() {
 		ApplicationContext context = new ClassPathXmlApplicationContext(
@@ -17,11 +17,19 @@
 package org.springframework.integration.dispatcher;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -34,6 +42,7 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.GenericMessage;
@@ -274,6 +283,139 @@ public class BroadcastingDispatcherTests {
 		}
 	}
 
+	@Test
+	public void testWaitForCompletionInvokesHandlersConcurrently() throws Exception {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		dispatcher = new BroadcastingDispatcher(executor);
+		dispatcher.setWaitForCompletion(true);
+		final CyclicBarrier barrier = new CyclicBarrier(3);
+		final AtomicInteger handled = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			dispatcher.addHandler(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+					try {
+						// only passes if the three handlers run at the same time
+						barrier.await(10, TimeUnit.SECONDS);
+					}
+					catch (Exception e) {
+						throw new MessagingException(message, e);
+					}
+					handled.incrementAndGet();
+				}
+
+			});
+		}
+		assertTrue(dispatcher.dispatch(new GenericMessage<String>("foo")));
+		// the dispatch has waited for the handlers
+		assertEquals(3, handled.get());
+		executor.shutdown();
+	}
+
+	@Test
+	public void testWaitForCompletionWithMaxParallelism() throws Exception {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		dispatcher = new BroadcastingDispatcher(executor);
+		dispatcher.setWaitForCompletion(true);
+		dispatcher.setMaxParallelism(2);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final AtomicInteger handled = new AtomicInteger();
+		for (int i = 0; i < 5; i++) {
+			dispatcher.addHandler(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+					int now = running.incrementAndGet();
+					synchronized (maxRunning) {
+						maxRunning.set(Math.max(now, maxRunning.get()));
+					}
+					try {
+						Thread.sleep(20);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					running.decrementAndGet();
+					handled.incrementAndGet();
+				}
+
+			});
+		}
+		dispatcher.dispatch(new GenericMessage<String>("foo"));
+		assertEquals(5, handled.get());
+		assertTrue(maxRunning.get() <= 2);
+		executor.shutdown();
+	}
+
+	@Test
+	public void testWaitForCompletionFailures() throws Exception {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		dispatcher = new BroadcastingDispatcher(executor);
+		dispatcher.setWaitForCompletion(true);
+		dispatcher.addHandler(targetMock1);
+		dispatcher.addHandler(targetMock2);
+		dispatcher.addHandler(targetMock3);
+		Message<String> message = new GenericMessage<String>("foo");
+		RuntimeException failure1 = new RuntimeException("planned1");
+		Mockito.doThrow(failure1).when(targetMock1).handleMessage(message);
+		try {
+			dispatcher.dispatch(message);
+			fail("Expected Exception");
+		}
+		catch (RuntimeException e) {
+			assertSame(failure1, e);
+		}
+		Mockito.verify(targetMock2).handleMessage(message);
+		Mockito.verify(targetMock3).handleMessage(message);
+		Mockito.doThrow(new RuntimeException("planned2")).when(targetMock3).handleMessage(message);
+		try {
+			dispatcher.dispatch(message);
+			fail("Expected Exception");
+		}
+		catch (AggregateMessageDeliveryException e) {
+			assertEquals(2, e.getAggregatedExceptions().size());
+		}
+		dispatcher.setIgnoreFailures(true);
+		dispatcher.setMinSubscribers(1);
+		assertTrue(dispatcher.dispatch(message));
+		dispatcher.setMinSubscribers(2);
+		assertFalse(dispatcher.dispatch(message));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testWaitForCompletionTimeout() throws Exception {
+		ExecutorService executor = Executors.newCachedThreadPool();
+		dispatcher = new BroadcastingDispatcher(executor);
+		dispatcher.setWaitForCompletion(true);
+		dispatcher.setCompletionTimeout(100);
+		final CountDownLatch latch = new CountDownLatch(1);
+		dispatcher.addHandler(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				try {
+					latch.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+		});
+		try {
+			dispatcher.dispatch(new GenericMessage<String>("foo"));
+			fail("Expected MessageDeliveryException");
+		}
+		catch (MessageDeliveryException e) {
+			assertTrue(e.getMessage().contains("Timed out"));
+		}
+		latch.countDown();
+		executor.shutdown();
+	}
+
 	private void defaultTaskExecutorMock() {
 		Mockito.doAnswer(new Answer<Void>() {
 
@@ -19,26 +19,38 @@ package org.springframework.integration.endpoint;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import org.aopalliance.aop.Advice;
+
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.messaging.Message;
 import org.springframework.integration.MessageRejectedException;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.transaction.DefaultTransactionSynchronizationFactory;
+import org.springframework.integration.transaction.IntegrationResourceHolder;
+import org.springframework.integration.transaction.TransactionSynchronizationProcessor;
+import org.springframework.integration.util.TestTransactionManager;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.TriggerContext;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.interceptor.MatchAlwaysTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -171,6 +183,122 @@ public class PollingConsumerEndpointTests {
 		assertEquals(1, consumer.counter.get());
 	}
 
+	@Test
+	public void batchReceive() {
+		Mockito.when(channelMock.receive()).thenReturn(message);
+		Mockito.when(channelMock.receive(0)).thenReturn(message, message, null);
+		endpoint.setMaxMessagesPerPoll(10);
+		endpoint.setBatchReceive(true);
+		endpoint.start();
+		trigger.await();
+		endpoint.stop();
+		assertEquals(3, consumer.counter.get());
+		Mockito.verify(channelMock).receive();
+		Mockito.verify(channelMock, Mockito.times(3)).receive(0);
+	}
+
+	@Test
+	public void batchReceiveOneTransactionPerBatch() {
+		QueueChannel channel = new QueueChannel();
+		for (int i = 0; i < 7; i++) {
+			channel.send(message);
+		}
+		TestTransactionManager transactionManager = new TestTransactionManager();
+		endpoint = new PollingConsumer(channel, consumer);
+		endpoint.setTaskScheduler(taskScheduler);
+		endpoint.setTrigger(trigger);
+		endpoint.setBeanFactory(mock(BeanFactory.class));
+		endpoint.setAdviceChain(Collections.<Advice>singletonList(
+				new TransactionInterceptor(transactionManager, new MatchAlwaysTransactionAttributeSource())));
+		endpoint.setMaxMessagesPerPoll(5);
+		endpoint.setBatchReceive(true);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+		trigger.await();
+		endpoint.stop();
+		assertEquals(5, consumer.counter.get());
+		assertEquals(1, transactionManager.getCommitCount());
+		assertEquals(2, channel.getQueueSize());
+	}
+
+	@Test
+	public void batchReceiveFailureWithoutTransaction() throws Throwable {
+		QueueChannel channel = new QueueChannel();
+		channel.send(message);
+		channel.send(badMessage);
+		channel.send(message);
+		channel.send(message);
+		endpoint = new PollingConsumer(channel, consumer);
+		endpoint.setTaskScheduler(taskScheduler);
+		endpoint.setTrigger(trigger);
+		endpoint.setErrorHandler(errorHandler);
+		endpoint.setBeanFactory(mock(BeanFactory.class));
+		endpoint.setMaxMessagesPerPoll(10);
+		endpoint.setBatchReceive(true);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+		trigger.await();
+		endpoint.stop();
+		assertEquals(2, consumer.counter.get());
+		// the messages after the failed one are sent back to the channel
+		assertEquals(2, channel.getQueueSize());
+		try {
+			errorHandler.throwLastErrorIfAvailable();
+		}
+		catch (MessageRejectedException e) {
+			// expected
+		}
+		trigger.reset();
+		endpoint.start();
+		trigger.await();
+		endpoint.stop();
+		assertEquals(4, consumer.counter.get());
+		assertEquals(0, channel.getQueueSize());
+	}
+
+	@Test
+	public void batchReceiveFailureWithTransaction() throws Throwable {
+		QueueChannel channel = new QueueChannel();
+		channel.send(message);
+		channel.send(badMessage);
+		channel.send(message);
+		channel.send(message);
+		TestTransactionManager transactionManager = new TestTransactionManager();
+		final AtomicReference<Message<?>> holderMessage = new AtomicReference<Message<?>>();
+		endpoint = new PollingConsumer(channel, consumer);
+		endpoint.setTaskScheduler(taskScheduler);
+		endpoint.setTrigger(trigger);
+		endpoint.setErrorHandler(errorHandler);
+		endpoint.setBeanFactory(mock(BeanFactory.class));
+		endpoint.setAdviceChain(Collections.<Advice>singletonList(
+				new TransactionInterceptor(transactionManager, new MatchAlwaysTransactionAttributeSource())));
+		endpoint.setTransactionSynchronizationFactory(new DefaultTransactionSynchronizationFactory(
+				new TransactionSynchronizationProcessor() {
+
+					public void processBeforeCommit(IntegrationResourceHolder holder) {
+					}
+
+					public void processAfterCommit(IntegrationResourceHolder holder) {
+					}
+
+					public void processAfterRollback(IntegrationResourceHolder holder) {
+						holderMessage.set(holder.getMessage());
+					}
+
+				}));
+		endpoint.setMaxMessagesPerPoll(10);
+		endpoint.setBatchReceive(true);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+		trigger.await();
+		endpoint.stop();
+		assertEquals(2, consumer.counter.get());
+		assertEquals(1, transactionManager.getRollbackCount());
+		// on rollback, the batch is left to the (transactional) source
+		assertEquals(0, channel.getQueueSize());
+		assertEquals(4, ((List<?>) holderMessage.get().getPayload()).size());
+	}
+
 
 	private static class TestConsumer implements MessageHandler {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,7 @@ import org.springframework.messaging.MessageHandlingException;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.scheduling.TimingWheelTaskScheduler;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
@@ -118,6 +119,27 @@ public class DelayHandlerTests {
 		assertNotSame(Thread.currentThread(), resultHandler.lastThread);
 	}
 
+	@Test
+	public void delayWithTimingWheelScheduler() throws Exception {
+		TimingWheelTaskScheduler timingWheel = new TimingWheelTaskScheduler();
+		timingWheel.afterPropertiesSet();
+		try {
+			this.delayHandler = new DelayHandler(DELAYER_MESSAGE_GROUP_ID, timingWheel);
+			this.delayHandler.setOutputChannel(output);
+			this.delayHandler.setBeanFactory(mock(BeanFactory.class));
+			this.delayHandler.setDefaultDelay(10);
+			this.startDelayerHandler();
+			Message<?> message = MessageBuilder.withPayload("test").build();
+			this.delayHandler.handleMessage(message);
+			this.waitForLatch(1000);
+			assertSame(message.getPayload(), resultHandler.lastMessage.getPayload());
+			assertNotSame(Thread.currentThread(), resultHandler.lastThread);
+		}
+		finally {
+			timingWheel.destroy();
+		}
+	}
+
 	@Test
 	public void delayHeaderAndDefaultDelayWouldTimeout() throws Exception {
 		delayHandler.setDefaultDelay(5000);
@@ -17,15 +17,19 @@
 package org.springframework.integration.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -45,6 +49,7 @@ import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.gateway.GatewayProxyFactoryBean;
 import org.springframework.integration.gateway.RequestReplyExchanger;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.integration.util.MessagingMethodInvokerHelper;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandlingException;
@@ -478,6 +483,43 @@ public class MethodInvokingMessageProcessorTests {
 		assertEquals(targetObject, helper.process(new GenericMessage<Object>(targetObject)));
 	}
 
+	@Test
+	public void testHandlerMethodCache() throws Exception {
+
+		class Foo {
+
+			@SuppressWarnings("unused")
+			public String m1(String payload) {
+				return "string";
+			}
+
+			@SuppressWarnings("unused")
+			public String m2(Number payload) {
+				return "number";
+			}
+
+		}
+
+		MessagingMethodInvokerHelper helper = new MessagingMethodInvokerHelper(new Foo(), (String) null, false);
+		assertEquals("string", helper.process(new GenericMessage<Object>("foo")));
+		assertEquals("number", helper.process(new GenericMessage<Object>(1)));
+		assertEquals("number", helper.process(new GenericMessage<Object>(2)));
+		assertEquals("number", helper.process(new GenericMessage<Object>(1L)));
+		for (int i = 0; i < 2; i++) {
+			try {
+				helper.process(new GenericMessage<Object>(new Date()));
+				fail("Expected exception");
+			}
+			catch (IllegalArgumentException e) {
+				assertEquals("No candidate methods found for messages.", e.getMessage());
+			}
+		}
+		Map<Class<?>, ?> cache = TestUtils.getPropertyValue(helper, "handlerMethodCache", Map.class);
+		assertEquals(4, cache.size());
+		assertSame(cache.get(Integer.class), cache.get(Long.class));
+		assertTrue(cache.containsKey(Date.class));
+	}
+
 	@Test
 	public void testInt3199PrecedenceOfCandidates() throws Exception {
 
@@ -517,6 +559,61 @@ public class MethodInvokingMessageProcessorTests {
 		assertEquals("true", bean.lastArg);
 	}
 
+	@Test
+	public void testDirectInvocation() throws Exception {
+		AnnotatedTestService service = new AnnotatedTestService();
+		Method method = service.getClass().getMethod("messageAndHeader", Message.class, Integer.class);
+		MessagingMethodInvokerHelper<String> helper = new MessagingMethodInvokerHelper<String>(service, method, false);
+		assertTrue(TestUtils.getPropertyValue(helper, "directInvocation", Boolean.class));
+		Message<String> message = MessageBuilder.withPayload("foo").setHeader("number", 42).build();
+		assertEquals("foo-42", helper.process(message));
+		// the header needs conversion; falls back to the expression
+		message = MessageBuilder.withPayload("foo").setHeader("number", "43").build();
+		assertEquals("foo-43", helper.process(message));
+
+		method = service.getClass().getMethod("requiredHeader", Integer.class);
+		MessagingMethodInvokerHelper<Integer> intHelper =
+				new MessagingMethodInvokerHelper<Integer>(service, method, false);
+		assertTrue(TestUtils.getPropertyValue(intHelper, "directInvocation", Boolean.class));
+		try {
+			intHelper.process(new GenericMessage<String>("foo"));
+			fail("Expected exception");
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals("required header not available: num", e.getMessage());
+		}
+
+		// the result is converted to the expected type
+		method = service.getClass().getMethod("integerMethod", Integer.class);
+		MessagingMethodInvokerHelper<String> stringHelper =
+				new MessagingMethodInvokerHelper<String>(service, method, String.class, false);
+		assertTrue(TestUtils.getPropertyValue(stringHelper, "directInvocation", Boolean.class));
+		assertEquals("123", stringHelper.process(new GenericMessage<Integer>(123)));
+
+		method = service.getClass().getMethod("integerListMethod", List.class);
+		helper = new MessagingMethodInvokerHelper<String>(service, method, false);
+		assertFalse(TestUtils.getPropertyValue(helper, "directInvocation", Boolean.class));
+		assertEquals("3", helper.process(new GenericMessage<List<String>>(Arrays.asList("1", "2"))));
+
+		method = service.getClass().getMethod("propertiesMethod", Properties.class);
+		helper = new MessagingMethodInvokerHelper<String>(service, method, false);
+		assertFalse(TestUtils.getPropertyValue(helper, "directInvocation", Boolean.class));
+
+		helper = new MessagingMethodInvokerHelper<String>(new AmbiguousMethodBean(), "foo", false);
+		assertFalse(TestUtils.getPropertyValue(helper, "directInvocation", Boolean.class));
+	}
+
+	@Test
+	public void testNoDirectInvocationWithOverloads() throws Exception {
+		OverloadedHandlerBean bean = new OverloadedHandlerBean();
+		MessagingMethodInvokerHelper<String> helper =
+				new MessagingMethodInvokerHelper<String>(bean, ServiceActivator.class, false);
+		assertFalse(TestUtils.getPropertyValue(helper, "directInvocation", Boolean.class));
+		// the expression is still restricted to the annotated method
+		assertEquals("object:foo", helper.process(new GenericMessage<String>("foo")));
+		assertEquals("object:42", helper.process(new GenericMessage<Integer>(42)));
+	}
+
 	private static class ExceptionCauseMatcher extends TypeSafeMatcher<Exception> {
 		private Throwable cause;
 
@@ -646,6 +743,14 @@ public class MethodInvokingMessageProcessorTests {
 			return i;
 		}
 
+		public String integerListMethod(List<Integer> list) {
+			int sum = 0;
+			for (Integer i : list) {
+				sum += i;
+			}
+			return Integer.toString(sum);
+		}
+
 	}
 
 	/**
@@ -653,6 +758,19 @@ public class MethodInvokingMessageProcessorTests {
 	 * or the 'requiresReply' flag.
 	 */
 	@SuppressWarnings("unused")
+	private static class OverloadedHandlerBean {
+
+		@ServiceActivator
+		public String handle(Object o) {
+			return "object:" + o;
+		}
+
+		public String handle(String s) {
+			return "string:" + s;
+		}
+
+	}
+
 	private static class AmbiguousMethodBean {
 
 		private volatile Object lastArg = null;
@@ -22,7 +22,13 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -42,6 +48,7 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.StopWatch;
 
 /**
@@ -249,6 +256,42 @@ public class MessageHistoryIntegrationTests {
 		System.out.println("Elapsed time without history 10000 calls: " + stopWatch.getTotalTimeSeconds());
 	}
 
+	@Test
+	public void testHistoryAppendedWithoutAffectingEarlierMessages() throws Exception {
+		Message<?> message = new GenericMessage<String>("foo");
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 10; i++) {
+			message = MessageHistory.write(message, channel("c" + i));
+			messages.add(message);
+		}
+		// branch from an earlier message, as a pub-sub channel would
+		Message<?> branch1 = MessageHistory.write(messages.get(4), channel("b1"));
+		Message<?> branch2 = MessageHistory.write(messages.get(4), channel("b2"));
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i + 1, MessageHistory.read(messages.get(i)).size());
+		}
+		assertEquals("c0,c1,c2,c3,c4,c5,c6,c7,c8,c9", MessageHistory.read(message).toString());
+		assertEquals("c0,c1,c2,c3,c4,b1", MessageHistory.read(branch1).toString());
+		assertEquals("c0,c1,c2,c3,c4,b2", MessageHistory.read(branch2).toString());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(message);
+		out.close();
+		Message<?> deserialized = (Message<?>) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+				.readObject();
+		Object components = new DirectFieldAccessor(MessageHistory.read(deserialized)).getPropertyValue("components");
+		assertEquals(ArrayList.class, components.getClass());
+		deserialized = MessageHistory.write(deserialized, channel("c10"));
+		assertEquals("c0,c1,c2,c3,c4,c5,c6,c7,c8,c9,c10", MessageHistory.read(deserialized).toString());
+	}
+
+	private static DirectChannel channel(String name) {
+		DirectChannel channel = new DirectChannel();
+		channel.setBeanName(name);
+		return channel;
+	}
+
 	public static interface SampleGateway {
 		public Message<?> echo(String value);
 	}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @since 4.1
+ */
+public class JournalingMetadataStoreTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testOperationsSurviveRestart() throws Exception {
+		JournalingMetadataStore store = createStore(true);
+		assertNull(store.putIfAbsent("foo", "bar"));
+		assertEquals("bar", store.putIfAbsent("foo", "baz"));
+		assertFalse(store.replace("foo", "xxx", "baz"));
+		assertTrue(store.replace("foo", "bar", "baz"));
+		store.put("qux", "fiz");
+		store.put("buz", "föo");
+		assertEquals("fiz", store.remove("qux"));
+		assertNull(store.remove("qux"));
+		// no destroy(): synchronous writes are on disk when the operations return
+		JournalingMetadataStore restarted = createStore(true);
+		assertEquals("baz", restarted.get("foo"));
+		assertEquals("föo", restarted.get("buz"));
+		assertNull(restarted.get("qux"));
+		restarted.destroy();
+		store.destroy();
+	}
+
+	@Test
+	public void testAsynchronousWrites() throws Exception {
+		JournalingMetadataStore store = createStore(false);
+		store.put("foo", "bar");
+		store.flush();
+		assertEquals("bar", createStore(false).get("foo"));
+		store.put("baz", "qux");
+		JournalingMetadataStore restarted = null;
+		int n = 0;
+		while (n++ < 100 && (restarted == null || restarted.get("baz") == null)) {
+			Thread.sleep(50);
+			restarted = createStore(false);
+		}
+		assertEquals("qux", restarted.get("baz"));
+		store.put("fiz", "buz");
+		store.destroy();
+		assertEquals("buz", createStore(false).get("fiz"));
+	}
+
+	@Test
+	public void testPutAllIfAbsent() throws Exception {
+		JournalingMetadataStore store = createStore(true);
+		store.put("foo", "bar");
+		Map<String, String> entries = new LinkedHashMap<String, String>();
+		entries.put("foo", "baz");
+		entries.put("qux", "fiz");
+		entries.put("buz", "fuz");
+		assertEquals(Collections.singletonMap("foo", "bar"), store.putAllIfAbsent(entries));
+		JournalingMetadataStore restarted = createStore(true);
+		assertEquals("bar", restarted.get("foo"));
+		assertEquals("fiz", restarted.get("qux"));
+		assertEquals("fuz", restarted.get("buz"));
+		restarted.destroy();
+		store.destroy();
+	}
+
+	@Test
+	public void testRemoveAll() throws Exception {
+		JournalingMetadataStore store = createStore(true);
+		store.put("foo", "bar");
+		store.put("baz", "qux");
+		store.put("fiz", "buz");
+		store.removeAll(Arrays.asList("foo", "fiz", "fuz"));
+		assertNull(store.get("foo"));
+		assertEquals("qux", store.get("baz"));
+		JournalingMetadataStore restarted = createStore(true);
+		assertNull(restarted.get("foo"));
+		assertEquals("qux", restarted.get("baz"));
+		assertNull(restarted.get("fiz"));
+		restarted.destroy();
+		store.destroy();
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		JournalingMetadataStore store = createStore(true);
+		for (int i = 0; i < 100; i++) {
+			store.put("foo" + i, "bar" + i);
+		}
+		store.remove("foo0");
+		store.compact();
+		store.put("foo100", "bar100");
+		store.put("foo1", "baz");
+		String[] files = this.folder.getRoot().list();
+		Arrays.sort(files);
+		assertEquals("[metadata-store.journal.2, metadata-store.snapshot]", Arrays.toString(files));
+		store.destroy();
+		JournalingMetadataStore restarted = createStore(true);
+		assertNull(restarted.get("foo0"));
+		assertEquals("baz", restarted.get("foo1"));
+		assertEquals("bar99", restarted.get("foo99"));
+		assertEquals("bar100", restarted.get("foo100"));
+		restarted.destroy();
+	}
+
+	@Test
+	public void testCompactionInBackground() throws Exception {
+		JournalingMetadataStore store = new JournalingMetadataStore();
+		store.setBaseDirectory(this.folder.getRoot().getAbsolutePath());
+		store.setSynchronousWrites(true);
+		store.setCompactionThreshold(1000);
+		store.afterPropertiesSet();
+		for (int i = 0; i < 1000; i++) {
+			store.put("foo" + (i % 100), "bar" + i);
+		}
+		store.destroy();
+		assertTrue(new File(this.folder.getRoot(), "metadata-store.snapshot").exists());
+		assertTrue(this.folder.getRoot().list().length < 10);
+		JournalingMetadataStore restarted = createStore(true);
+		for (int i = 0; i < 100; i++) {
+			assertEquals("bar" + (900 + i), restarted.get("foo" + i));
+		}
+		restarted.destroy();
+	}
+
+	@Test
+	public void testIncompleteRecordIgnored() throws Exception {
+		JournalingMetadataStore store = createStore(true);
+		store.put("foo", "bar");
+		store.put("baz", "qux");
+		store.destroy();
+		// a write interrupted by a crash
+		FileOutputStream journal = new FileOutputStream(new File(this.folder.getRoot(),
+				"metadata-store.journal.1"), true);
+		journal.write(new byte[] { 0, 0, 0, 20, 1, 0, 0 });
+		journal.close();
+		JournalingMetadataStore restarted = createStore(true);
+		assertEquals("bar", restarted.get("foo"));
+		assertEquals("qux", restarted.get("baz"));
+		restarted.put("fiz", "buz");
+		restarted.destroy();
+		restarted = createStore(true);
+		assertEquals("qux", restarted.get("baz"));
+		assertEquals("buz", restarted.get("fiz"));
+		restarted.destroy();
+	}
+
+	@Test
+	public void testConcurrentPutIfAbsent() throws Exception {
+		final JournalingMetadataStore store = createStore(true);
+		final int threads = 4;
+		final int keys = 500;
+		final AtomicInteger inserted = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			final String value = "thread" + i;
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < keys; j++) {
+						if (store.putIfAbsent("key" + j, value) == null) {
+							inserted.incrementAndGet();
+						}
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertEquals(keys, inserted.get());
+		JournalingMetadataStore restarted = createStore(true);
+		for (int j = 0; j < keys; j++) {
+			assertEquals(store.get("key" + j), restarted.get("key" + j));
+		}
+		restarted.destroy();
+		store.destroy();
+	}
+
+	private JournalingMetadataStore createStore(boolean synchronousWrites) throws Exception {
+		JournalingMetadataStore store = new JournalingMetadataStore();
+		store.setBaseDirectory(this.folder.getRoot().getAbsolutePath());
+		store.setSynchronousWrites(synchronousWrites);
+		store.afterPropertiesSet();
+		return store;
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.util.ErrorHandler;
+
+/**
+ * @since 4.1
+ */
+public class TimingWheelTaskSchedulerTests {
+
+	private TimingWheelTaskScheduler scheduler;
+
+	@Before
+	public void setup() {
+		this.scheduler = new TimingWheelTaskScheduler();
+		// a tiny wheel, so that tasks cascade through several levels
+		this.scheduler.setWheelSize(4);
+		this.scheduler.setTickDuration(1);
+		this.scheduler.afterPropertiesSet();
+	}
+
+	@After
+	public void tearDown() {
+		this.scheduler.destroy();
+	}
+
+	@Test
+	public void testTasksRunNoEarlierThanScheduled() throws Exception {
+		int count = 500;
+		final CountDownLatch latch = new CountDownLatch(count);
+		final AtomicInteger early = new AtomicInteger();
+		Random random = new Random();
+		for (int i = 0; i < count; i++) {
+			long delay = random.nextInt(300);
+			// allow for the millisecond resolution of the Date
+			final long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay - 1);
+			this.scheduler.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					if (System.nanoTime() < due) {
+						early.incrementAndGet();
+					}
+					latch.countDown();
+				}
+
+			}, new Date(System.currentTimeMillis() + delay));
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(0, early.get());
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final AtomicInteger runs = new AtomicInteger();
+		Runnable task = new Runnable() {
+
+			@Override
+			public void run() {
+				runs.incrementAndGet();
+			}
+
+		};
+		List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+		for (int i = 0; i < 1000; i++) {
+			futures.add(this.scheduler.schedule(task, new Date(System.currentTimeMillis() + 50 + i % 100)));
+		}
+		assertEquals(1000, this.scheduler.getScheduledTaskCount());
+		for (int i = 1; i < 1000; i++) {
+			assertTrue(futures.get(i).cancel(false));
+			assertTrue(futures.get(i).isCancelled());
+		}
+		assertEquals(1, this.scheduler.getScheduledTaskCount());
+		futures.get(0).get(10, TimeUnit.SECONDS);
+		assertFalse(futures.get(0).cancel(false));
+		Thread.sleep(200);
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	public void testCancelAfterDestroy() throws Exception {
+		Runnable task = new Runnable() {
+
+			@Override
+			public void run() {
+			}
+
+		};
+		ScheduledFuture<?> future = this.scheduler.schedule(task, new Date(System.currentTimeMillis() + 10000));
+		ScheduledFuture<?> other = this.scheduler.schedule(task, new Date(System.currentTimeMillis() + 10000));
+		assertTrue(future.cancel(false));
+		assertFalse(future.cancel(false));
+		assertEquals(1, this.scheduler.getScheduledTaskCount());
+		this.scheduler.destroy();
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+		assertTrue(other.cancel(false));
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+	}
+
+	@Test
+	public void testFixedRate() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+
+		}, 10);
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		future.cancel(false);
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		this.scheduler.setErrorHandler(new ErrorHandler() {
+
+			@Override
+			public void handleError(Throwable t) {
+				errors.add(t);
+			}
+
+		});
+		final RuntimeException exception = new RuntimeException("intentional");
+		ScheduledFuture<?> future = this.scheduler.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				throw exception;
+			}
+
+		}, new Date());
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e) {
+			assertSame(exception, e.getCause());
+		}
+		assertTrue(future.isDone());
+		assertEquals(1, errors.size());
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * @since 4.1
+ */
+public class AbstractKeyValueMessageStoreTests {
+
+	@Test
+	public void testLazyGroupAddDoesNotLoadMessages() {
+		MapMessageStore store = new MapMessageStore();
+		store.setLazyLoadMessageGroups(true);
+		MessageGroup group = null;
+		for (int i = 0; i < 100; i++) {
+			group = store.addMessageToGroup("foo", MessageBuilder.withPayload(i).build());
+		}
+		assertEquals(100, group.size());
+		assertEquals(0, store.messageRetrievals.get());
+		assertEquals(100, store.messageGroupSize("foo"));
+
+		assertEquals(0, group.getOne().getPayload());
+		assertEquals(1, store.messageRetrievals.get());
+		Collection<Message<?>> messages = group.getMessages();
+		assertEquals(100, messages.size());
+		Iterator<Message<?>> iterator = messages.iterator();
+		for (int i = 0; i < 100; i++) {
+			Message<?> message = iterator.next();
+			assertEquals(i, message.getPayload());
+			assertNull(message.getHeaders().get(AbstractKeyValueMessageStore.CREATED_DATE));
+		}
+		assertEquals(101, store.messageRetrievals.get());
+		group.getMessages();
+		assertEquals(101, store.messageRetrievals.get());
+	}
+
+	@Test
+	public void testLazyGroupRemoveCompleteAndRelease() {
+		MapMessageStore store = new MapMessageStore();
+		store.setLazyLoadMessageGroups(true);
+		Message<?> message1 = MessageBuilder.withPayload("foo").build();
+		Message<?> message2 = MessageBuilder.withPayload("bar").build();
+		store.addMessageToGroup("foo", message1);
+		store.addMessageToGroup("foo", message2);
+		MessageGroup group = store.removeMessageFromGroup("foo", message1);
+		assertEquals(1, group.size());
+		assertNull(store.getMessage(message1.getHeaders().getId()));
+		assertEquals("bar", group.getOne().getPayload());
+
+		store.completeGroup("foo");
+		store.setLastReleasedSequenceNumberForGroup("foo", 5);
+		group = store.getMessageGroup("foo");
+		assertTrue(group.isComplete());
+		assertEquals(5, group.getLastReleasedMessageSequenceNumber());
+		assertEquals(1, group.size());
+
+		assertEquals("bar", store.pollMessageFromGroup("foo").getPayload());
+		assertEquals(0, store.messageGroupSize("foo"));
+		assertEquals(0, store.getMessageGroup("foo").size());
+
+		store.removeMessageGroup("foo");
+		group = store.getMessageGroup("foo");
+		assertEquals(0, group.size());
+		assertFalse(group.isComplete());
+	}
+
+	@Test
+	public void testLazyAndEagerGroupsAreInterchangeable() {
+		MapMessageStore store = new MapMessageStore();
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("foo").build());
+		store.setLazyLoadMessageGroups(true);
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("bar").build());
+		store.setLazyLoadMessageGroups(false);
+		MessageGroup group = store.addMessageToGroup("foo", MessageBuilder.withPayload("baz").build());
+		List<Object> payloads = new ArrayList<Object>();
+		for (Message<?> message : group.getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertEquals("[foo, bar, baz]", payloads.toString());
+	}
+
+	private static class MapMessageStore extends AbstractKeyValueMessageStore {
+
+		private final Map<Object, Object> map = new ConcurrentHashMap<Object, Object>();
+
+		private final AtomicInteger messageRetrievals = new AtomicInteger();
+
+		@Override
+		protected Object doRetrieve(Object id) {
+			if (!((String) id).startsWith(MESSAGE_GROUP_KEY_PREFIX)) {
+				this.messageRetrievals.incrementAndGet();
+			}
+			return this.map.get(id);
+		}
+
+		@Override
+		protected void doStore(Object id, Object objectToStore) {
+			this.map.put(id, objectToStore);
+		}
+
+		@Override
+		protected Object doRemove(Object id) {
+			return this.map.remove(id);
+		}
+
+		@Override
+		protected Collection<?> doListKeys(String keyPattern) {
+			List<Object> keys = new ArrayList<Object>();
+			for (Object key : this.map.keySet()) {
+				if (PatternMatchUtils.simpleMatch(keyPattern, (String) key)) {
+					keys.add(key);
+				}
+			}
+			return keys;
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * @since 4.1
+ */
+public class IndexedMessageGroupTests {
+
+	@Test
+	public void testInsertionOrderAndRemoval() {
+		IndexedMessageGroup group = new IndexedMessageGroup("foo");
+		assertNull(group.getOne());
+		assertNull(group.getLowestSequenceNumber());
+		Message<?> message1 = MessageBuilder.withPayload("foo").setSequenceNumber(3).build();
+		Message<?> message2 = MessageBuilder.withPayload("bar").setSequenceNumber(1).build();
+		Message<?> message3 = MessageBuilder.withPayload("baz").setSequenceNumber(2).build();
+		group.add(message1);
+		group.add(message2);
+		group.add(message3);
+		assertEquals(3, group.size());
+		assertSame(message1, group.getOne());
+		Collection<Message<?>> messages = group.getMessages();
+		assertSame(messages, group.getMessages());
+		assertEquals("[foo, bar, baz]", payloads(messages));
+
+		group.remove(message1);
+		assertEquals(2, group.size());
+		assertSame(message2, group.getOne());
+		assertEquals("[bar, baz]", payloads(group.getMessages()));
+		assertEquals("[foo, bar, baz]", payloads(messages));
+		assertFalse(group.containsSequenceNumber(3));
+
+		group.clear();
+		assertEquals(0, group.size());
+		assertTrue(group.getMessages().isEmpty());
+	}
+
+	@Test
+	public void testSequenceIndex() {
+		IndexedMessageGroup group = new IndexedMessageGroup("foo");
+		for (int i = 10; i > 0; i--) {
+			if (i != 6) {
+				group.add(MessageBuilder.withPayload(i).setSequenceNumber(i).setSequenceSize(10).build());
+			}
+		}
+		assertEquals(Integer.valueOf(1), group.getLowestSequenceNumber());
+		assertTrue(group.containsSequenceNumber(5));
+		assertFalse(group.containsSequenceNumber(6));
+		List<Message<?>> contiguous = group.getContiguousMessages(group.getLowestSequenceNumber());
+		assertEquals("[1, 2, 3, 4, 5]", payloads(contiguous));
+		assertEquals("[7, 8, 9, 10]", payloads(group.getContiguousMessages(7)));
+		assertTrue(group.getContiguousMessages(6).isEmpty());
+		assertEquals(10, group.getSequenceSize());
+
+		for (Message<?> message : contiguous) {
+			group.remove(message);
+		}
+		assertEquals(Integer.valueOf(7), group.getLowestSequenceNumber());
+		assertEquals(4, group.size());
+	}
+
+	@Test
+	public void testDuplicateSequenceNumbers() {
+		IndexedMessageGroup group = new IndexedMessageGroup("foo");
+		Message<?> message1 = MessageBuilder.withPayload("foo").setSequenceNumber(1).build();
+		Message<?> message2 = MessageBuilder.withPayload("bar").setSequenceNumber(1).build();
+		group.add(message1);
+		group.add(message2);
+		group.add(message1);
+		assertEquals(2, group.size());
+		assertEquals("[bar, foo]", payloads(group.getContiguousMessages(1)));
+		assertEquals("[bar, foo]", payloads(group.getMessages()));
+		group.remove(message1);
+		assertTrue(group.containsSequenceNumber(1));
+		group.remove(message2);
+		assertFalse(group.containsSequenceNumber(1));
+	}
+
+	@Test
+	public void testCopy() {
+		IndexedMessageGroup group = new IndexedMessageGroup("foo");
+		group.add(MessageBuilder.withPayload("foo").build());
+		group.setLastReleasedMessageSequenceNumber(5);
+		IndexedMessageGroup copy = new IndexedMessageGroup(group);
+		assertEquals(1, copy.size());
+		assertEquals(5, copy.getLastReleasedMessageSequenceNumber());
+		assertEquals(new IntegrationMessageHeaderAccessor(group.getOne()).getSequenceNumber(),
+				copy.getLowestSequenceNumber());
+	}
+
+	private String payloads(Collection<Message<?>> messages) {
+		StringBuilder builder = new StringBuilder("[");
+		for (Message<?> message : messages) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(message.getPayload());
+		}
+		return builder.append("]").toString();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 
 package org.springframework.integration.store;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
@@ -36,6 +39,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Dave Syer
@@ -91,6 +99,32 @@ public class MessageGroupQueueTests {
 		assertNotNull(result);
 	}
 
+	@Test
+	public void testDrainToWithBatchCapableStore() throws Exception {
+		BatchCapableChannelMessageStore store = mock(BatchCapableChannelMessageStore.class);
+		List<Message<?>> empty = Collections.emptyList();
+		when(store.pollMessagesFromGroup("FOO", 100)).thenReturn(messages(100)).thenReturn(messages(50))
+				.thenReturn(empty);
+		when(store.pollMessagesFromGroup("FOO", 30)).thenReturn(messages(30));
+		MessageGroupQueue queue = new MessageGroupQueue(store, "FOO");
+		List<Message<?>> drained = new ArrayList<Message<?>>();
+		assertEquals(150, queue.drainTo(drained));
+		assertEquals(150, drained.size());
+		assertEquals(30, queue.drainTo(drained, 30));
+		assertEquals(180, drained.size());
+		verify(store, times(3)).pollMessagesFromGroup("FOO", 100);
+		verify(store).pollMessagesFromGroup("FOO", 30);
+		verify(store, never()).pollMessageFromGroup("FOO");
+	}
+
+	private List<Message<?>> messages(int count) {
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < count; i++) {
+			messages.add(new GenericMessage<Integer>(i));
+		}
+		return messages;
+	}
+
 	@Test
 	@Ignore
 	public void testConcurrentAccess() throws Exception {
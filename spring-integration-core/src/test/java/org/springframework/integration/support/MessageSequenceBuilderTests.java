@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+
+/**
+ * @since 4.1
+ */
+public class MessageSequenceBuilderTests {
+
+	@Test
+	public void testSameHeadersAsMessageBuilder() {
+		Message<String> parent = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.build();
+		assertSameHeaders(parent, 3);
+		Message<String> nested = MessageBuilder.fromMessage(parent)
+				.pushSequenceDetails("qux", 2, 5)
+				.build();
+		assertSameHeaders(nested, 0);
+		Message<String> twiceNested = MessageBuilder.fromMessage(nested)
+				.pushSequenceDetails("fiz", 1, 3)
+				.build();
+		assertSameHeaders(twiceNested, 2);
+	}
+
+	@Test
+	public void testNoSequence() {
+		Message<String> parent = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.setCorrelationId("qux")
+				.build();
+		MessageSequenceBuilder builder = new MessageSequenceBuilder(parent.getHeaders(), false, 2);
+		Message<Integer> message = builder.createMessage(1, 1);
+		assertEquals(Integer.valueOf(1), message.getPayload());
+		assertEquals("baz", message.getHeaders().get("bar"));
+		assertEquals("qux", new IntegrationMessageHeaderAccessor(message).getCorrelationId());
+		assertNull(message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER));
+		assertNull(message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS));
+		assertFalse(parent.getHeaders().getId().equals(message.getHeaders().getId()));
+		assertNotNull(message.getHeaders().getTimestamp());
+	}
+
+	@Test
+	public void testErrorMessage() {
+		Message<String> parent = MessageBuilder.withPayload("foo").build();
+		Message<?> message = new MessageSequenceBuilder(parent.getHeaders(), true, 1)
+				.createMessage(new RuntimeException("bar"), 1);
+		assertTrue(message instanceof ErrorMessage);
+		assertEquals(parent.getHeaders().getId(), new IntegrationMessageHeaderAccessor(message).getCorrelationId());
+	}
+
+	private void assertSameHeaders(Message<String> parent, int sequenceSize) {
+		MessageSequenceBuilder sequenceBuilder = new MessageSequenceBuilder(parent.getHeaders(), true, sequenceSize);
+		for (int i = 1; i <= 3; i++) {
+			Message<String> expected = MessageBuilder.withPayload("item" + i)
+					.copyHeaders(parent.getHeaders())
+					.pushSequenceDetails(parent.getHeaders().getId(), i, sequenceSize)
+					.build();
+			Message<String> actual = sequenceBuilder.createMessage("item" + i, i);
+			assertEquals(expected.getPayload(), actual.getPayload());
+			assertEquals(withoutIdAndTimestamp(expected.getHeaders()), withoutIdAndTimestamp(actual.getHeaders()));
+			assertNotNull(actual.getHeaders().getId());
+			assertNotNull(actual.getHeaders().getTimestamp());
+		}
+	}
+
+	private Map<String, Object> withoutIdAndTimestamp(MessageHeaders headers) {
+		Map<String, Object> map = new HashMap<String, Object>(headers);
+		map.remove(MessageHeaders.ID);
+		map.remove(MessageHeaders.TIMESTAMP);
+		return map;
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.support.locks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Test;
+
+/**
+ * @since 4.1
+ *
+ */
+public class PerKeyLockRegistryTests {
+
+	@Test
+	public void testLocksAreRemovedWhenReleased() {
+		PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		Lock lock = registry.obtain("foo");
+		assertEquals(0, registry.getLockCount());
+		lock.lock();
+		lock.lock();
+		assertEquals(1, registry.getLockCount());
+		registry.obtain("bar").lock();
+		assertEquals(2, registry.getLockCount());
+		lock.unlock();
+		assertEquals(2, registry.getLockCount());
+		registry.obtain("foo").unlock();
+		assertEquals(1, registry.getLockCount());
+		registry.obtain("bar").unlock();
+		assertEquals(0, registry.getLockCount());
+	}
+
+	@Test(expected = IllegalMonitorStateException.class)
+	public void testUnlockNotHeld() {
+		new PerKeyLockRegistry().obtain("foo").unlock();
+	}
+
+	@Test
+	public void testDistinctKeysDoNotContend() throws Exception {
+		final PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		// these keys share a lock in the DefaultLockRegistry
+		final Object key1 = new HashCodeKey(0);
+		final Object key2 = new HashCodeKey(256);
+		registry.obtain(key1).lock();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Boolean> other = executor.submit(new Callable<Boolean>() {
+
+				@Override
+				public Boolean call() throws Exception {
+					Lock lock = registry.obtain(key2);
+					boolean locked = lock.tryLock();
+					if (locked) {
+						lock.unlock();
+					}
+					return locked && !registry.obtain(key1).tryLock(10, TimeUnit.MILLISECONDS);
+				}
+
+			});
+			assertTrue(other.get(10, TimeUnit.SECONDS));
+			assertEquals(1, registry.getContendedAcquisitionCount());
+			assertEquals(1, registry.getLockCount());
+		}
+		finally {
+			registry.obtain(key1).unlock();
+			executor.shutdownNow();
+		}
+		assertEquals(0, registry.getLockCount());
+	}
+
+	@Test
+	public void testMutualExclusionUnderEviction() throws Exception {
+		final PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		final int[] counters = new int[4];
+		final AtomicBoolean overlap = new AtomicBoolean();
+		final boolean[] held = new boolean[4];
+		int threads = 8;
+		final int iterations = 10000;
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			final int offset = i;
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < iterations; j++) {
+						int key = (j + offset) % counters.length;
+						Lock lock = registry.obtain("key" + key);
+						lock.lock();
+						try {
+							if (held[key]) {
+								overlap.set(true);
+							}
+							held[key] = true;
+							counters[key]++;
+							held[key] = false;
+						}
+						finally {
+							lock.unlock();
+						}
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertFalse(overlap.get());
+		int total = 0;
+		for (int counter : counters) {
+			total += counter;
+		}
+		assertEquals(threads * iterations, total);
+		assertEquals(0, registry.getLockCount());
+	}
+
+	@Test
+	public void testInterruptedWaiterReleasesReference() throws Exception {
+		final PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		registry.obtain("foo").lock();
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		Thread waiter = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					registry.obtain("foo").lockInterruptibly();
+				}
+				catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+			}
+
+		});
+		waiter.start();
+		waiter.interrupt();
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+		registry.obtain("foo").unlock();
+		assertEquals(0, registry.getLockCount());
+	}
+
+	private static class HashCodeKey {
+
+		private final int hashCode;
+
+		private HashCodeKey(int hashCode) {
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+}
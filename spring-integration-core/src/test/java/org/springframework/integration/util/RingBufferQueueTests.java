@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.integration.util.RingBufferQueue.ProducerType;
+import org.springframework.integration.util.RingBufferQueue.WaitStrategy;
+
+/**
+ * @since 4.1
+ */
+public class RingBufferQueueTests {
+
+	@Test
+	public void testOfferPollAndWrap() {
+		RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(3);
+		assertEquals(4, queue.getCapacity());
+		assertNull(queue.poll());
+		assertNull(queue.peek());
+		for (int lap = 0; lap < 3; lap++) {
+			for (int i = 0; i < 4; i++) {
+				assertTrue(queue.offer(i));
+			}
+			assertFalse(queue.offer(4));
+			assertEquals(4, queue.size());
+			assertEquals(0, queue.remainingCapacity());
+			assertEquals(Arrays.asList(0, 1, 2, 3), new ArrayList<Integer>(queue));
+			assertEquals(Integer.valueOf(0), queue.peek());
+			for (int i = 0; i < 4; i++) {
+				assertEquals(Integer.valueOf(i), queue.poll());
+			}
+			assertNull(queue.poll());
+			assertEquals(0, queue.size());
+		}
+	}
+
+	@Test
+	public void testDrainTo() {
+		RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(8);
+		for (int i = 0; i < 5; i++) {
+			queue.offer(i);
+		}
+		List<Integer> drained = new ArrayList<Integer>();
+		assertEquals(3, queue.drainTo(drained, 3));
+		assertEquals(Arrays.asList(0, 1, 2), drained);
+		assertEquals(2, queue.drainTo(drained));
+		assertEquals(Arrays.asList(0, 1, 2, 3, 4), drained);
+		assertEquals(0, queue.drainTo(drained));
+	}
+
+	@Test
+	public void testRemoveNotSupported() {
+		RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(2);
+		queue.offer(1);
+		try {
+			queue.remove(1);
+			fail("Expected UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testTimeouts() throws Exception {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(1, ProducerType.SINGLE, waitStrategy);
+			assertEquals(2, queue.getCapacity());
+			assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+			assertTrue(queue.offer(1, 10, TimeUnit.MILLISECONDS));
+			assertTrue(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+			assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+			assertEquals(Integer.valueOf(1), queue.poll(10, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	@Test
+	public void testInterruptedTake() throws Exception {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			final RingBufferQueue<Integer> queue = new RingBufferQueue<Integer>(1, ProducerType.MULTI, waitStrategy);
+			final CountDownLatch latch = new CountDownLatch(1);
+			Thread consumer = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						queue.take();
+					}
+					catch (InterruptedException e) {
+						latch.countDown();
+					}
+				}
+
+			});
+			consumer.start();
+			consumer.interrupt();
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testSingleProducer() throws Exception {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			transfer(new RingBufferQueue<Integer>(16, ProducerType.SINGLE, waitStrategy), 1, 2);
+		}
+	}
+
+	@Test
+	public void testMultiProducer() throws Exception {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			transfer(new RingBufferQueue<Integer>(16, ProducerType.MULTI, waitStrategy), 3, 2);
+		}
+	}
+
+	/**
+	 * Each producer puts 1..n, the consumers take all the elements through a queue
+	 * much smaller than n, so that both sides wait; the sum of the elements taken must
+	 * be the sum of the elements put. Busy-spinning threads only make progress with a
+	 * processor each.
+	 */
+	private void transfer(final RingBufferQueue<Integer> queue, int producers, int consumers) throws Exception {
+		if (WaitStrategy.BUSY_SPIN.equals(TestUtils.getPropertyValue(queue, "waitStrategy"))
+				&& Runtime.getRuntime().availableProcessors() < producers + consumers) {
+			return;
+		}
+		final int n = 20000;
+		ExecutorService executor = Executors.newCachedThreadPool();
+		final CountDownLatch done = new CountDownLatch(producers * n);
+		final AtomicLong sum = new AtomicLong();
+		for (int i = 0; i < consumers; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						while (true) {
+							sum.addAndGet(queue.take());
+							done.countDown();
+						}
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+
+			});
+		}
+		for (int i = 0; i < producers; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int j = 1; j <= n; j++) {
+							queue.put(j);
+						}
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+
+			});
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		executor.shutdownNow();
+		assertEquals((long) producers * n * (n + 1) / 2, sum.get());
+		assertEquals(0, queue.size());
+	}
+
+}
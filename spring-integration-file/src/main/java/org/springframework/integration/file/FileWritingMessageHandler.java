@@ -23,14 +23,25 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.Lifecycle;
 import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -44,6 +55,8 @@ import org.springframework.integration.util.WhileLockedProcessor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
@@ -65,6 +78,16 @@ import org.springframework.util.StringUtils;
  * Likewise, any Object can be converted to a String based on its
  * <code>toString()</code> method by the
  * {@link org.springframework.integration.transformer.ObjectToStringTransformer}.
+ * <p>
+ * In {@link FileExistsMode#APPEND APPEND} mode, the handler can keep the files it
+ * appends to open (see {@link #setMaxOpenFiles(int)}), rather than opening and closing
+ * the file for each message; the data is then flushed according to the
+ * {@link #setFlushCount(int) flushCount}, {@link #setFlushInterval(long) flushInterval}
+ * and {@link #setFlushWhenIdle(boolean) flushWhenIdle} properties, and the files are
+ * closed when they have been idle for {@link #setOpenFileIdleTimeout(long)
+ * openFileIdleTimeout}, when evicted to keep at most {@code maxOpenFiles} files open
+ * (the least recently written to is closed), and when the handler is stopped or
+ * destroyed.
  *
  * @author Mark Fisher
  * @author Iwein Fuld
@@ -74,7 +97,8 @@ import org.springframework.util.StringUtils;
  * @author Gunnar Hillert
  * @author Gary Russell
  */
-public class FileWritingMessageHandler extends AbstractReplyProducingMessageHandler {
+public class FileWritingMessageHandler extends AbstractReplyProducingMessageHandler
+		implements Lifecycle, DisposableBean {
 
 	private volatile String temporaryFileSuffix =".writing";
 
@@ -102,6 +126,24 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 
 	private volatile LockRegistry lockRegistry = new PassThruLockRegistry();
 
+	private volatile int maxOpenFiles;
+
+	private volatile int flushCount;
+
+	private volatile long flushInterval = 1000;
+
+	private volatile boolean flushWhenIdle;
+
+	private volatile long openFileIdleTimeout;
+
+	private final Map<String, OpenFile> openFiles = new LinkedHashMap<String, OpenFile>(16, 0.75f, true);
+
+	private final Object lifecycleMonitor = new Object();
+
+	private volatile ScheduledFuture<?> flushTask;
+
+	private volatile boolean running;
+
 	/**
 	 * Constructor which sets the {@link #destinationDirectoryExpression} using
 	 * a {@link LiteralExpression}.
@@ -230,6 +272,91 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		this.charset = Charset.forName(charset);
 	}
 
+	/**
+	 * In {@link FileExistsMode#APPEND APPEND} mode, keep up to this number of files open
+	 * between messages, instead of opening and closing the file for each message; when
+	 * a file that is not open must be written to and the limit is reached, the file
+	 * written to least recently is closed. Default 0: files are not kept open.
+	 * <p>
+	 * Open files are written to, flushed and closed while holding the lock of the file
+	 * in the handler's {@link LockRegistry}, as when files are not kept open; note that
+	 * a file moved or deleted while open (e.g. rotated) continues to be written to until
+	 * it is closed.
+	 * <p>
+	 * The periodic flush (see {@link #setFlushInterval(long)}) is scheduled with the
+	 * {@link TaskScheduler} when the first file is opened, so it does not depend on the
+	 * handler being started (e.g. when it is used in a chain); the open files are closed
+	 * when the handler is stopped or destroyed.
+	 * <p>
+	 * When a reply is expected (see {@link #setExpectReply(boolean)}), or the source file
+	 * is to be deleted (see {@link #setDeleteSourceFiles(boolean)}), the data of each
+	 * message is flushed before the reply is returned, or the source file deleted, so
+	 * keeping files open mostly benefits the outbound channel adapter.
+	 *
+	 * @param maxOpenFiles The maximum number of open files.
+	 * @since 4.1
+	 */
+	public void setMaxOpenFiles(int maxOpenFiles) {
+		Assert.isTrue(maxOpenFiles >= 0, "'maxOpenFiles' cannot be negative");
+		this.maxOpenFiles = maxOpenFiles;
+	}
+
+	/**
+	 * When files are kept open (see {@link #setMaxOpenFiles(int)}), flush a file after
+	 * this number of messages have been appended to it since it was last flushed.
+	 * Default 0: the data is flushed when the buffer is full, and by the periodic flush
+	 * (see {@link #setFlushInterval(long)}).
+	 *
+	 * @param flushCount The number of messages.
+	 * @since 4.1
+	 */
+	public void setFlushCount(int flushCount) {
+		Assert.isTrue(flushCount >= 0, "'flushCount' cannot be negative");
+		this.flushCount = flushCount;
+	}
+
+	/**
+	 * When files are kept open (see {@link #setMaxOpenFiles(int)}), the interval, in
+	 * milliseconds, at which the open files are flushed (see
+	 * {@link #setFlushWhenIdle(boolean)}) and those idle for longer than
+	 * {@link #setOpenFileIdleTimeout(long) openFileIdleTimeout} are closed. Default 1000.
+	 *
+	 * @param flushInterval The flush interval.
+	 * @since 4.1
+	 */
+	public void setFlushInterval(long flushInterval) {
+		Assert.isTrue(flushInterval > 0, "'flushInterval' must be greater than 0");
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * When true, the periodic flush only flushes the files that have not been written
+	 * to during the last {@link #setFlushInterval(long) flushInterval}, so that files
+	 * being written to continuously are only flushed when their buffer is full (or
+	 * according to the {@link #setFlushCount(int) flushCount}). Default false: each
+	 * periodic flush flushes all the files with data not yet flushed.
+	 *
+	 * @param flushWhenIdle true to flush idle files only.
+	 * @since 4.1
+	 */
+	public void setFlushWhenIdle(boolean flushWhenIdle) {
+		this.flushWhenIdle = flushWhenIdle;
+	}
+
+	/**
+	 * When files are kept open (see {@link #setMaxOpenFiles(int)}), close the files
+	 * that have not been written to for this number of milliseconds; checked every
+	 * {@link #setFlushInterval(long) flushInterval}. Default 0: open files are only
+	 * closed when evicted, or when the handler is stopped.
+	 *
+	 * @param openFileIdleTimeout The idle timeout.
+	 * @since 4.1
+	 */
+	public void setOpenFileIdleTimeout(long openFileIdleTimeout) {
+		Assert.isTrue(openFileIdleTimeout >= 0, "'openFileIdleTimeout' cannot be negative");
+		this.openFileIdleTimeout = openFileIdleTimeout;
+	}
+
 	@Override
 	protected void doInit() {
 
@@ -244,6 +371,72 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		if (!this.fileNameGeneratorSet && this.fileNameGenerator instanceof BeanFactoryAware) {
 			((BeanFactoryAware) this.fileNameGenerator).setBeanFactory(this.getBeanFactory());
 		}
+
+		if (this.maxOpenFiles > 0) {
+			Assert.state(FileExistsMode.APPEND.equals(this.fileExistsMode),
+					"'maxOpenFiles' can only be set when appending to files");
+			Assert.state(this.getTaskScheduler() != null, "A TaskScheduler is required to keep files open");
+		}
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+	}
+
+	/**
+	 * Flush and close the open files; they are opened again (and the periodic flush
+	 * rescheduled) if the handler is invoked after being stopped.
+	 */
+	@Override
+	public void stop() {
+		this.running = false;
+		this.closeOpenFiles();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Flush and close the open files.
+	 */
+	@Override
+	public void destroy() {
+		this.closeOpenFiles();
+	}
+
+	private void closeOpenFiles() {
+		synchronized (this.lifecycleMonitor) {
+			if (this.flushTask != null) {
+				this.flushTask.cancel(false);
+				this.flushTask = null;
+			}
+		}
+		List<OpenFile> openFiles;
+		synchronized (this.openFiles) {
+			openFiles = new ArrayList<OpenFile>(this.openFiles.values());
+			this.openFiles.clear();
+		}
+		for (OpenFile openFile : openFiles) {
+			this.closeWhileLocked(openFile);
+		}
+	}
+
+	private void scheduleFlushTask() {
+		synchronized (this.lifecycleMonitor) {
+			if (this.flushTask == null) {
+				this.flushTask = this.getTaskScheduler().scheduleAtFixedRate(new Runnable() {
+
+					@Override
+					public void run() {
+						flushAndCloseIdleFiles();
+					}
+
+				}, new Date(System.currentTimeMillis() + this.flushInterval), this.flushInterval);
+			}
+		}
 	}
 
 	private void validateDestinationDirectory(File destinationDirectory, boolean autoCreateDirectory) {
@@ -341,7 +534,29 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 	}
 
 	private File handleFileMessage(final File sourceFile, File tempFile, final File resultFile) throws IOException {
-		if (FileExistsMode.APPEND.equals(this.fileExistsMode)){
+		if (FileExistsMode.APPEND.equals(this.fileExistsMode) && this.maxOpenFiles > 0) {
+			final InputStream inputStream = new BufferedInputStream(new FileInputStream(sourceFile));
+			try {
+				this.appendToOpenFile(resultFile, this.isFlushRequired(sourceFile), new OpenFileCallback() {
+
+					@Override
+					public void write(OutputStream outputStream) throws IOException {
+						byte[] buffer = new byte[4096];
+						int bytesRead;
+						while ((bytesRead = inputStream.read(buffer)) != -1) {
+							outputStream.write(buffer, 0, bytesRead);
+						}
+					}
+
+				});
+			}
+			finally {
+				inputStream.close();
+			}
+			this.cleanUpAfterCopy(resultFile, resultFile, sourceFile);
+			return resultFile;
+		}
+		else if (FileExistsMode.APPEND.equals(this.fileExistsMode)){
 			File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
 			final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fileToWriteTo, true));
 			final BufferedInputStream bis = new BufferedInputStream(new FileInputStream(sourceFile));
@@ -376,6 +591,19 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 
 		final boolean append = FileExistsMode.APPEND.equals(this.fileExistsMode);
 
+		if (append && this.maxOpenFiles > 0) {
+			this.appendToOpenFile(fileToWriteTo, this.isFlushRequired(originalFile), new OpenFileCallback() {
+
+				@Override
+				public void write(OutputStream outputStream) throws IOException {
+					outputStream.write(bytes);
+				}
+
+			});
+			this.cleanUpAfterCopy(fileToWriteTo, resultFile, originalFile);
+			return resultFile;
+		}
+
 		final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fileToWriteTo, append));
 		WhileLockedProcessor whileLockedProcessor = new WhileLockedProcessor(this.lockRegistry, fileToWriteTo.getAbsolutePath()){
 			@Override
@@ -394,6 +622,20 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 
 		final boolean append = FileExistsMode.APPEND.equals(this.fileExistsMode);
 
+		if (append && this.maxOpenFiles > 0) {
+			final byte[] bytes = content.getBytes(this.charset);
+			this.appendToOpenFile(fileToWriteTo, this.isFlushRequired(originalFile), new OpenFileCallback() {
+
+				@Override
+				public void write(OutputStream outputStream) throws IOException {
+					outputStream.write(bytes);
+				}
+
+			});
+			this.cleanUpAfterCopy(fileToWriteTo, resultFile, originalFile);
+			return resultFile;
+		}
+
 		final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileToWriteTo, append), this.charset));
 		WhileLockedProcessor whileLockedProcessor = new WhileLockedProcessor(this.lockRegistry, fileToWriteTo.getAbsolutePath()){
 			@Override
@@ -408,6 +650,119 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		return resultFile;
 	}
 
+	/**
+	 * Whether the data appended to an open file must be flushed before the message has
+	 * been handled: the reply or the deletion of the source file must not precede the
+	 * data reaching the file.
+	 */
+	private boolean isFlushRequired(File originalFile) {
+		return this.expectReply || (this.deleteSourceFiles && originalFile != null);
+	}
+
+	private void appendToOpenFile(File file, boolean flush, OpenFileCallback callback) throws IOException {
+		String key = file.getAbsolutePath();
+		Lock lock = this.lockRegistry.obtain(key);
+		try {
+			lock.lockInterruptibly();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Thread was interrupted while performing task", e);
+		}
+		OpenFile evicted = null;
+		try {
+			while (true) {
+				OpenFile openFile;
+				synchronized (this.openFiles) {
+					openFile = this.openFiles.get(key);
+					if (openFile == null) {
+						openFile = new OpenFile(file);
+						if (this.openFiles.size() >= this.maxOpenFiles) {
+							String eldest = this.openFiles.keySet().iterator().next();
+							evicted = this.openFiles.remove(eldest);
+						}
+						this.openFiles.put(key, openFile);
+					}
+				}
+				if (this.flushTask == null) {
+					this.scheduleFlushTask();
+				}
+				synchronized (openFile) {
+					if (openFile.isClosed()) {
+						// closed since obtained
+						continue;
+					}
+					try {
+						callback.write(openFile.getOutputStream());
+						openFile.written(flush ? 1 : this.flushCount);
+					}
+					catch (IOException e) {
+						this.removeOpenFile(openFile);
+						openFile.close();
+						throw e;
+					}
+					return;
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+			// closed outside of our lock so that the locks are never held two at a time
+			if (evicted != null) {
+				this.closeWhileLocked(evicted);
+			}
+		}
+	}
+
+	private void closeWhileLocked(OpenFile openFile) {
+		Lock lock = this.lockRegistry.obtain(openFile.getFile().getAbsolutePath());
+		lock.lock();
+		try {
+			openFile.close();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void flushWhileLocked(OpenFile openFile) {
+		Lock lock = this.lockRegistry.obtain(openFile.getFile().getAbsolutePath());
+		lock.lock();
+		try {
+			openFile.flush();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void removeOpenFile(OpenFile openFile) {
+		synchronized (this.openFiles) {
+			String key = openFile.getFile().getAbsolutePath();
+			if (this.openFiles.get(key) == openFile) {
+				this.openFiles.remove(key);
+			}
+		}
+	}
+
+	private void flushAndCloseIdleFiles() {
+		long now = System.currentTimeMillis();
+		List<OpenFile> openFiles;
+		synchronized (this.openFiles) {
+			openFiles = new ArrayList<OpenFile>(this.openFiles.values());
+		}
+		for (OpenFile openFile : openFiles) {
+			long idle = now - openFile.getLastWrite();
+			if (this.openFileIdleTimeout > 0 && idle >= this.openFileIdleTimeout) {
+				this.removeOpenFile(openFile);
+				this.closeWhileLocked(openFile);
+			}
+			else if (!this.flushWhenIdle || idle >= this.flushInterval) {
+				this.flushWhileLocked(openFile);
+			}
+		}
+	}
+
 	private File determineFileToWrite(File resultFile, File tempFile){
 
 		final File fileToWriteTo;
@@ -493,4 +848,85 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		return destinationDirectory;
 	}
 
+	private interface OpenFileCallback {
+
+		void write(OutputStream outputStream) throws IOException;
+
+	}
+
+	/**
+	 * A file kept open for appending; guarded by its own monitor.
+	 */
+	private final class OpenFile {
+
+		private final File file;
+
+		private OutputStream outputStream;
+
+		private int unflushed;
+
+		private volatile long lastWrite;
+
+		private boolean closed;
+
+		private OpenFile(File file) {
+			this.file = file;
+		}
+
+		private File getFile() {
+			return this.file;
+		}
+
+		private long getLastWrite() {
+			return this.lastWrite;
+		}
+
+		private boolean isClosed() {
+			return this.closed;
+		}
+
+		private OutputStream getOutputStream() throws IOException {
+			if (this.outputStream == null) {
+				this.outputStream = new BufferedOutputStream(new FileOutputStream(this.file, true));
+			}
+			return this.outputStream;
+		}
+
+		private void written(int flushCount) throws IOException {
+			this.lastWrite = System.currentTimeMillis();
+			this.unflushed++;
+			if (flushCount > 0 && this.unflushed >= flushCount) {
+				this.outputStream.flush();
+				this.unflushed = 0;
+			}
+		}
+
+		private synchronized void flush() {
+			if (!this.closed && this.unflushed > 0) {
+				try {
+					this.outputStream.flush();
+					this.unflushed = 0;
+				}
+				catch (IOException e) {
+					logger.error("Failed to flush '" + this.file.getAbsolutePath() + "'", e);
+				}
+			}
+		}
+
+		private synchronized void close() {
+			if (!this.closed) {
+				this.closed = true;
+				if (this.outputStream != null) {
+					try {
+						this.outputStream.close();
+					}
+					catch (IOException e) {
+						logger.error("Failed to close '" + this.file.getAbsolutePath() + "'", e);
+					}
+				}
+			}
+		}
+
+	}
+
 }
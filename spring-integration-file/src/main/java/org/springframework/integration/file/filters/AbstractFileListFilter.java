@@ -33,7 +33,7 @@ public abstract class AbstractFileListFilter<F> implements FileListFilter<F> {
      * {@inheritDoc}
      */
     @Override
-	public final List<F> filterFiles(F[] files) {
+	public List<F> filterFiles(F[] files) {
         List<F> accepted = new ArrayList<F>();
         if (files != null) {
             for (F file : files) {
@@ -16,8 +16,14 @@
 
 package org.springframework.integration.file.filters;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.integration.metadata.BatchMetadataStore;
 import org.springframework.integration.metadata.ConcurrentMetadataStore;
 import org.springframework.util.Assert;
 
@@ -38,8 +44,6 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 
 	protected final String prefix;
 
-	private final Object monitor = new Object();
-
 	public AbstractPersistentAcceptOnceFileListFilter(ConcurrentMetadataStore store, String prefix) {
 		Assert.notNull(store, "'store' cannot be null");
 		Assert.notNull(prefix, "'prefix' cannot be null");
@@ -47,33 +51,83 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 		this.prefix = prefix;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>If the store is a {@link BatchMetadataStore}, the files are inserted into the
+	 * store in one operation, rather than one by one; only the files that are in the
+	 * store with another value (that have been modified) are then updated one by one.
+	 * @since 4.1
+	 */
+	@Override
+	public List<F> filterFiles(F[] files) {
+		if (!(this.store instanceof BatchMetadataStore) || files == null || files.length < 2) {
+			return super.filterFiles(files);
+		}
+		String[] keys = new String[files.length];
+		Map<String, String> entries = new LinkedHashMap<String, String>();
+		for (int i = 0; i < files.length; i++) {
+			keys[i] = buildKey(files[i]);
+			if (!entries.containsKey(keys[i])) {
+				entries.put(keys[i], value(files[i]));
+			}
+		}
+		Map<String, String> existing = ((BatchMetadataStore) this.store).putAllIfAbsent(entries);
+		List<F> accepted = new ArrayList<F>();
+		Set<String> filtered = new HashSet<String>();
+		for (int i = 0; i < files.length; i++) {
+			String key = keys[i];
+			if (filtered.add(key)) { // the same key may appear twice in a listing
+				String oldValue = existing.get(key);
+				if (oldValue == null // not in store
+						|| (!isEqual(files[i], oldValue) && this.store.replace(key, oldValue, entries.get(key)))) {
+					accepted.add(files[i]);
+				}
+			}
+		}
+		return accepted;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The store operations are atomic for each key, so concurrent invocations need
+	 * no further synchronization.
+	 */
 	@Override
 	protected boolean accept(F file) {
 		String key = buildKey(file);
-		synchronized(monitor) {
-			String newValue = value(file);
-			String oldValue = this.store.putIfAbsent(key, newValue);
-			if (oldValue == null) { // not in store
-				return true;
-			}
-			// same value in store
-			return !isEqual(file, oldValue) && this.store.replace(key, oldValue, newValue);
+		String newValue = value(file);
+		String oldValue = this.store.putIfAbsent(key, newValue);
+		if (oldValue == null) { // not in store
+			return true;
 		}
+		// same value in store
+		return !isEqual(file, oldValue) && this.store.replace(key, oldValue, newValue);
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>If the store is a {@link BatchMetadataStore}, the files are removed from the
+	 * store in one operation.
 	 * @since 4.0.4
 	 */
 	@Override
 	public void rollback(F file, List<F> files) {
+		List<String> keys = new ArrayList<String>();
 		boolean rollingBack = false;
 		for (F fileToRollback : files) {
 			if (fileToRollback.equals(file)) {
 				rollingBack = true;
 			}
 			if (rollingBack) {
-				this.store.remove(buildKey(fileToRollback));
+				keys.add(buildKey(fileToRollback));
+			}
+		}
+		if (this.store instanceof BatchMetadataStore) {
+			((BatchMetadataStore) this.store).removeAll(keys);
+		}
+		else {
+			for (String key : keys) {
+				this.store.remove(key);
 			}
 		}
 	}
@@ -21,13 +21,17 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.integration.expression.IntegrationEvaluationContextAware;
@@ -48,6 +52,18 @@ import org.springframework.util.ObjectUtils;
  * The implementation should run through any configured
  * {@link org.springframework.integration.file.filters.FileListFilter}s to
  * ensure the file entry is acceptable.
+ * <p>
+ * By default, the files are transferred one at a time, over the session used to list
+ * the remote directory. With a {@link #setParallelism(int) parallelism} greater than 1,
+ * they are transferred concurrently over that many sessions (the additional sessions
+ * are obtained from the session factory, which should then be a
+ * {@link org.springframework.integration.file.remote.session.CachingSessionFactory}),
+ * on threads of the {@link #setTaskExecutor(TaskExecutor) taskExecutor}. Either way,
+ * the files are started in the order of the (filtered) listing and, if a transfer
+ * fails, no more transfers are started; that file and all the files after it in the
+ * listing that have not been transferred are then rolled back if the filter is a
+ * {@link ReversibleFileListFilter}, so that they are considered again on the next
+ * synchronization.
  *
  * @author Josh Long
  * @author Mark Fisher
@@ -96,6 +112,12 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 	 */
 	private volatile boolean  preserveTimestamp;
 
+	private volatile int parallelism = 1;
+
+	private volatile TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("synchronizer-");
+
+	private volatile int maxFilesPerSync;
+
 	/**
 	 * Create a synchronizer with the {@link SessionFactory} used to acquire {@link Session} instances.
 	 *
@@ -142,6 +164,45 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 		this.preserveTimestamp = preserveTimestamp;
 	}
 
+	/**
+	 * Set the number of files to transfer concurrently, each over its own session.
+	 * Default 1.
+	 *
+	 * @param parallelism The parallelism.
+	 * @since 4.1
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "'parallelism' must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the executor running the concurrent transfers when the
+	 * {@link #setParallelism(int) parallelism} is greater than 1. Default a
+	 * {@link SimpleAsyncTaskExecutor}.
+	 *
+	 * @param taskExecutor The task executor.
+	 * @since 4.1
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the maximum number of files to transfer on each synchronization; the other
+	 * files passed by the filter are rolled back (if the filter is a
+	 * {@link ReversibleFileListFilter}, which a filter keeping state should be) and
+	 * considered on the next synchronization. Default 0: no limit.
+	 *
+	 * @param maxFilesPerSync The maximum number of files.
+	 * @since 4.1
+	 */
+	public void setMaxFilesPerSync(int maxFilesPerSync) {
+		Assert.isTrue(maxFilesPerSync >= 0, "'maxFilesPerSync' cannot be negative");
+		this.maxFilesPerSync = maxFilesPerSync;
+	}
+
 	@Override
 	public void setIntegrationEvaluationContext(EvaluationContext evaluationContext) {
 		this.evaluationContext = evaluationContext;
@@ -171,30 +232,35 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 					F[] files = session.list(AbstractInboundFileSynchronizer.this.remoteDirectory);
 					if (!ObjectUtils.isEmpty(files)) {
 						List<F> filteredFiles = AbstractInboundFileSynchronizer.this.filterFiles(files);
-						for (F file : filteredFiles) {
-							try {
-								if (file != null) {
-									AbstractInboundFileSynchronizer.this.copyFileToLocalDirectory(
-											AbstractInboundFileSynchronizer.this.remoteDirectory, file, localDirectory,
-											session);
+						List<F> filesToTransfer = filteredFiles;
+						int maxFilesPerSync = AbstractInboundFileSynchronizer.this.maxFilesPerSync;
+						if (maxFilesPerSync > 0 && filteredFiles.size() > maxFilesPerSync) {
+							rollback(filteredFiles.get(maxFilesPerSync), filteredFiles);
+							filesToTransfer = filteredFiles.subList(0, maxFilesPerSync);
+						}
+						if (AbstractInboundFileSynchronizer.this.parallelism > 1 && filesToTransfer.size() > 1) {
+							transferConcurrently(filesToTransfer, localDirectory, session);
+						}
+						else {
+							for (F file : filesToTransfer) {
+								try {
+									if (file != null) {
+										AbstractInboundFileSynchronizer.this.copyFileToLocalDirectory(
+												AbstractInboundFileSynchronizer.this.remoteDirectory, file, localDirectory,
+												session);
+									}
 								}
-							}
-							catch (RuntimeException e) {
-								if (AbstractInboundFileSynchronizer.this.filter instanceof ReversibleFileListFilter) {
-									((ReversibleFileListFilter<F>) AbstractInboundFileSynchronizer.this.filter)
-											.rollback(file, filteredFiles);
+								catch (RuntimeException e) {
+									rollback(file, filteredFiles);
+									throw e;
 								}
-								throw e;
-							}
-							catch (IOException e) {
-								if (AbstractInboundFileSynchronizer.this.filter instanceof ReversibleFileListFilter) {
-									((ReversibleFileListFilter<F>) AbstractInboundFileSynchronizer.this.filter)
-											.rollback(file, filteredFiles);
+								catch (IOException e) {
+									rollback(file, filteredFiles);
+									throw e;
 								}
-								throw e;
 							}
 						}
-						return filteredFiles.size();
+						return filesToTransfer.size();
 					}
 					else {
 						return 0;
@@ -210,6 +276,96 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 		}
 	}
 
+	private void rollback(F file, List<F> filteredFiles) {
+		if (this.filter instanceof ReversibleFileListFilter) {
+			((ReversibleFileListFilter<F>) this.filter).rollback(file, filteredFiles);
+		}
+	}
+
+	/**
+	 * Transfer the files over up to {@link #parallelism} sessions: the listing session,
+	 * on the calling thread, and sessions obtained by tasks run by the
+	 * {@link #taskExecutor}. The transfers are started in the order of the files; after
+	 * a failure, no more transfers are started and, once the transfers in progress have
+	 * completed, the earliest file (in that order) that failed is rolled back, with the
+	 * files after it not transferred, and its exception thrown.
+	 * <p>
+	 * Only the transfers started are waited for, not the tasks, which might be waiting
+	 * for a session (possibly the listing session, if the session factory has a single
+	 * session); a task obtaining a session after the files have all been transferred
+	 * returns it at once.
+	 */
+	private void transferConcurrently(final List<F> files, File localDirectory, Session<F> session)
+			throws IOException {
+		final ConcurrentTransfer transfer = new ConcurrentTransfer(files, localDirectory);
+		int additionalSessions = Math.min(this.parallelism, files.size()) - 1;
+		for (int i = 0; i < additionalSessions; i++) {
+			try {
+				this.taskExecutor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							AbstractInboundFileSynchronizer.this.remoteFileTemplate.execute(
+									new SessionCallback<F, Object>() {
+
+										@Override
+										public Object doInSession(Session<F> session) throws IOException {
+											transfer.transferFiles(session);
+											return null;
+										}
+
+									});
+						}
+						catch (Exception e) {
+							// no file was claimed; the other sessions carry on
+							logger.warn("Failed to obtain a session for a concurrent transfer", e);
+						}
+					}
+
+				});
+			}
+			catch (RuntimeException e) {
+				logger.warn("Failed to start a concurrent transfer", e);
+			}
+		}
+		transfer.transferFiles(session);
+		try {
+			transfer.awaitCompletion();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rollbackUntransferred(files, transfer, 0);
+			throw new MessagingException("Interrupted while waiting for the transfers to complete", e);
+		}
+		Exception failure = transfer.getFailure();
+		if (failure != null) {
+			rollbackUntransferred(files, transfer, transfer.getFailedIndex());
+			if (failure instanceof IOException) {
+				throw (IOException) failure;
+			}
+			throw (RuntimeException) failure;
+		}
+	}
+
+	/**
+	 * Roll back the files, from the provided index, that have not been transferred; files
+	 * after the first of them may have been transferred concurrently, so they are rolled
+	 * back as a list of the untransferred files only.
+	 */
+	private void rollbackUntransferred(List<F> files, ConcurrentTransfer transfer, int fromIndex) {
+		List<F> untransferred = new ArrayList<F>();
+		for (int i = fromIndex; i < files.size(); i++) {
+			F file = files.get(i);
+			if (file != null && !transfer.isTransferred(i)) {
+				untransferred.add(file);
+			}
+		}
+		if (!untransferred.isEmpty()) {
+			rollback(untransferred.get(0), untransferred);
+		}
+	}
+
 	protected void copyFileToLocalDirectory(String remoteDirectoryPath, F remoteFile, File localDirectory,
 			Session<F> session) throws IOException {
 		String remoteFileName = this.getFilename(remoteFile);
@@ -273,4 +429,106 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 
 	protected abstract long getModified(F file);
 
+	/**
+	 * The state of a concurrent transfer of files, shared by the sessions.
+	 */
+	private final class ConcurrentTransfer {
+
+		private final List<F> files;
+
+		private final File localDirectory;
+
+		private final BitSet transferred = new BitSet();
+
+		private int nextIndex;
+
+		private int finished;
+
+		private boolean closed;
+
+		private int failedIndex = -1;
+
+		private Exception failure;
+
+		private ConcurrentTransfer(List<F> files, File localDirectory) {
+			this.files = files;
+			this.localDirectory = localDirectory;
+		}
+
+		private void transferFiles(Session<F> session) {
+			int index;
+			while ((index = claim()) >= 0) {
+				F file = this.files.get(index);
+				try {
+					if (file != null) {
+						copyFileToLocalDirectory(AbstractInboundFileSynchronizer.this.remoteDirectory, file,
+								this.localDirectory, session);
+						int transferred = transferred(index);
+						if (logger.isDebugEnabled()) {
+							logger.debug("Transferred " + getFilename(file) + " (" + transferred + " of "
+									+ this.files.size() + ")");
+						}
+					}
+				}
+				catch (Exception e) {
+					failed(index, e);
+				}
+				finally {
+					finished();
+				}
+			}
+		}
+
+		/**
+		 * @return the index of the next file to transfer, or -1 if there is none
+		 * (or no more transfers must be started).
+		 */
+		private synchronized int claim() {
+			if (this.closed || this.failure != null || this.nextIndex >= this.files.size()) {
+				return -1;
+			}
+			return this.nextIndex++;
+		}
+
+		private synchronized int transferred(int index) {
+			this.transferred.set(index);
+			return this.transferred.cardinality();
+		}
+
+		private synchronized void failed(int index, Exception e) {
+			if (this.failure == null || index < this.failedIndex) {
+				this.failedIndex = index;
+				this.failure = e;
+			}
+		}
+
+		private synchronized void finished() {
+			this.finished++;
+			this.notifyAll();
+		}
+
+		/**
+		 * Stop starting transfers and wait for those in progress to complete.
+		 */
+		private synchronized void awaitCompletion() throws InterruptedException {
+			this.closed = true;
+			while (this.finished < this.nextIndex) {
+				this.wait();
+			}
+		}
+
+		private synchronized boolean isTransferred(int index) {
+			return this.transferred.get(index);
+		}
+
+		private synchronized int getFailedIndex() {
+			return this.failedIndex;
+		}
+
+		private synchronized Exception getFailure() {
+			return this.failure;
+		}
+
+	}
+
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.splitter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.integration.splitter.AbstractMessageSplitter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A splitter that splits the contents of a file into lines, or into records ending with
+ * a {@link #setDelimiter(String) delimiter}, each becoming the payload of a message.
+ * The payload of the request message may be a {@link File}, a {@link String} (the path
+ * of a file), an {@link InputStream} or a {@link Reader}; any other payload is returned
+ * as is.
+ * <p>
+ * By default, the records are read lazily, as the messages are sent, through a buffered
+ * reader, so the size of the file is not limited by the memory available; the
+ * {@code sequenceSize} header of the messages is then 0 (unknown). If the splitter is
+ * created with {@code iterator = false}, the records are read before the messages are
+ * sent and the {@code sequenceSize} is known. Either way, the file (or the stream) is
+ * closed once all the records have been read, or when sending a message fails.
+ * <p>
+ * With {@code markers = true}, the records are preceded by a message with a
+ * {@link FileMarker} payload with a {@link FileMarker.Mark#START START} mark, and
+ * followed by one with an {@link FileMarker.Mark#END END} mark and the number of
+ * records read.
+ *
+ * @since 4.1
+ */
+public class FileSplitter extends AbstractMessageSplitter {
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private final boolean returnIterator;
+
+	private final boolean markers;
+
+	private volatile Charset charset = Charset.defaultCharset();
+
+	private volatile String delimiter;
+
+
+	/**
+	 * Create a splitter that reads the lines lazily, without markers.
+	 */
+	public FileSplitter() {
+		this(true, false);
+	}
+
+	/**
+	 * Create a splitter without markers.
+	 *
+	 * @param iterator true to read the lines lazily, false to read them all (and set the
+	 * {@code sequenceSize} header) before sending the messages.
+	 */
+	public FileSplitter(boolean iterator) {
+		this(iterator, false);
+	}
+
+	/**
+	 * @param iterator true to read the lines lazily, false to read them all (and set the
+	 * {@code sequenceSize} header) before sending the messages.
+	 * @param markers true to emit start and end {@link FileMarker} messages.
+	 */
+	public FileSplitter(boolean iterator, boolean markers) {
+		this.returnIterator = iterator;
+		this.markers = markers;
+	}
+
+
+	/**
+	 * Set the charset used to decode the contents of a file or an input stream. Default
+	 * the platform's default charset.
+	 *
+	 * @param charset The charset.
+	 */
+	public void setCharset(Charset charset) {
+		Assert.notNull(charset, "'charset' must not be null");
+		this.charset = charset;
+	}
+
+	/**
+	 * Set the delimiter ending each record, which is not part of the record. By default,
+	 * the contents are split into lines, as by {@link BufferedReader#readLine()}.
+	 *
+	 * @param delimiter The delimiter.
+	 */
+	public void setDelimiter(String delimiter) {
+		Assert.isTrue(StringUtils.hasLength(delimiter), "'delimiter' must not be empty");
+		this.delimiter = delimiter;
+	}
+
+	@Override
+	protected Object splitMessage(Message<?> message) {
+		Object payload = message.getPayload();
+		String filePath = null;
+		Reader reader;
+		try {
+			if (payload instanceof String) {
+				payload = new File((String) payload);
+			}
+			if (payload instanceof File) {
+				filePath = ((File) payload).getAbsolutePath();
+				reader = new InputStreamReader(new FileInputStream((File) payload), this.charset);
+			}
+			else if (payload instanceof InputStream) {
+				reader = new InputStreamReader((InputStream) payload, this.charset);
+			}
+			else if (payload instanceof Reader) {
+				reader = (Reader) payload;
+			}
+			else {
+				return message;
+			}
+		}
+		catch (IOException e) {
+			throw new MessageHandlingException(message, "Failed to read file [" + payload + "]", e);
+		}
+
+		FileIterator iterator = new FileIterator(message, reader, filePath);
+		if (this.returnIterator) {
+			return iterator;
+		}
+		List<Object> records = new ArrayList<Object>();
+		while (iterator.hasNext()) {
+			records.add(iterator.next());
+		}
+		return records;
+	}
+
+	@Override
+	public String getComponentType() {
+		return "file:splitter";
+	}
+
+
+	private final class FileIterator implements Iterator<Object>, Closeable {
+
+		private final Message<?> message;
+
+		private final BufferedReader reader;
+
+		private final String filePath;
+
+		private final String delimiter = FileSplitter.this.delimiter;
+
+		private final char[] chunk;
+
+		/**
+		 * The characters read but not yet returned as part of a record start at
+		 * {@link #pendingStart}.
+		 */
+		private final StringBuilder pending;
+
+		private int pendingStart;
+
+		private boolean startSent = !FileSplitter.this.markers;
+
+		private boolean endSent = !FileSplitter.this.markers;
+
+		private boolean eof;
+
+		private String nextRecord;
+
+		private long recordCount;
+
+		private FileIterator(Message<?> message, Reader reader, String filePath) {
+			this.message = message;
+			this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+			this.filePath = filePath;
+			this.chunk = this.delimiter == null ? null : new char[CHUNK_SIZE];
+			this.pending = this.delimiter == null ? null : new StringBuilder();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (!this.startSent) {
+				return true;
+			}
+			if (this.nextRecord == null && !this.eof) {
+				try {
+					this.nextRecord = this.delimiter == null ? this.reader.readLine() : readDelimited();
+				}
+				catch (IOException e) {
+					closeQuietly();
+					throw new MessageHandlingException(this.message, "Failed to read file [" + this.filePath + "]", e);
+				}
+				if (this.nextRecord == null) {
+					this.eof = true;
+					closeQuietly();
+				}
+			}
+			return this.nextRecord != null || !this.endSent;
+		}
+
+		@Override
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (!this.startSent) {
+				this.startSent = true;
+				return new FileMarker(this.filePath, FileMarker.Mark.START, 0);
+			}
+			if (this.nextRecord != null) {
+				String record = this.nextRecord;
+				this.nextRecord = null;
+				this.recordCount++;
+				return record;
+			}
+			this.endSent = true;
+			return new FileMarker(this.filePath, FileMarker.Mark.END, this.recordCount);
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.eof = true;
+			this.reader.close();
+		}
+
+		/**
+		 * Return the next record, reading the contents a chunk at a time; the characters
+		 * read after the delimiter are kept for the following records.
+		 */
+		private String readDelimited() throws IOException {
+			int from = this.pendingStart;
+			while (true) {
+				int index = this.pending.indexOf(this.delimiter, from);
+				if (index >= 0) {
+					String record = this.pending.substring(this.pendingStart, index);
+					this.pendingStart = index + this.delimiter.length();
+					return record;
+				}
+				this.pending.delete(0, this.pendingStart);
+				this.pendingStart = 0;
+				// a delimiter may start in the characters already scanned
+				from = Math.max(0, this.pending.length() - this.delimiter.length() + 1);
+				int read = this.reader.read(this.chunk);
+				if (read < 0) {
+					if (this.pending.length() == 0) {
+						return null;
+					}
+					String record = this.pending.toString();
+					this.pending.setLength(0);
+					return record;
+				}
+				this.pending.append(this.chunk, 0, read);
+			}
+		}
+
+		private void closeQuietly() {
+			try {
+				close();
+			}
+			catch (IOException e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to close file [" + this.filePath + "]", e);
+				}
+			}
+		}
+
+	}
+
+
+	/**
+	 * The payload of the messages marking the start and the end of the records of a file,
+	 * when the splitter is created with {@code markers = true}.
+	 */
+	public static class FileMarker {
+
+		public enum Mark {
+			START,
+			END
+		}
+
+		private final String filePath;
+
+		private final Mark mark;
+
+		private final long lineCount;
+
+		public FileMarker(String filePath, Mark mark, long lineCount) {
+			this.filePath = filePath;
+			this.mark = mark;
+			this.lineCount = lineCount;
+		}
+
+		/**
+		 * @return The absolute path of the file; null if the payload was a stream.
+		 */
+		public String getFilePath() {
+			return this.filePath;
+		}
+
+		public Mark getMark() {
+			return this.mark;
+		}
+
+		/**
+		 * @return The number of records (lines) read; 0 for a {@link Mark#START START} mark.
+		 */
+		public long getLineCount() {
+			return this.lineCount;
+		}
+
+		@Override
+		public String toString() {
+			return "FileMarker [filePath=" + this.filePath + ", mark=" + this.mark + ", lineCount=" + this.lineCount
+					+ "]";
+		}
+
+	}
+
+}
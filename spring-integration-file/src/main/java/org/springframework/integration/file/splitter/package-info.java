@@ -0,0 +1,5 @@
+/**
+ * Provides classes supporting the splitting of file contents
+ * into messages.
+ */
+package org.springframework.integration.file.splitter;
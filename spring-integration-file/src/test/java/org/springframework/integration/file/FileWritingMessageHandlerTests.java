@@ -21,17 +21,22 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Ignore;
@@ -42,11 +47,17 @@ import org.junit.rules.TemporaryFolder;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.file.support.FileExistsMode;
+import org.springframework.integration.handler.MessageHandlerChain;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.FileCopyUtils;
 
 /**
@@ -303,6 +314,143 @@ public class FileWritingMessageHandlerTests {
 		assertFileContentIs(outFile, "foo");
 	}
 
+	@Test
+	public void appendWithOpenFiles() throws Exception {
+		FileWritingMessageHandler handler = createOpenFilesHandler(null);
+		handler.setMaxOpenFiles(1);
+		handler.setFlushCount(2);
+		handler.setFlushInterval(100000);
+		handler.afterPropertiesSet();
+		handler.start();
+		File foo = new File(outputDirectory, "foo");
+		File bar = new File(outputDirectory, "bar");
+		handler.handleMessage(MessageBuilder.withPayload("a").setHeader("file", "foo").build());
+		assertFileContentIs(foo, "");
+		handler.handleMessage(MessageBuilder.withPayload("b".getBytes()).setHeader("file", "foo").build());
+		assertFileContentIs(foo, "ab");
+		handler.handleMessage(MessageBuilder.withPayload("c").setHeader("file", "bar").build());
+		assertFileContentIs(bar, "");
+		// bar is closed, to open foo again
+		handler.handleMessage(MessageBuilder.withPayload(sourceFile).setHeader("file", "foo").build());
+		assertFileContentIs(bar, "c");
+		assertFileContentIs(foo, "ab");
+		handler.stop();
+		assertFileContentIs(foo, "ab" + SAMPLE_CONTENT);
+		assertTrue(sourceFile.exists());
+	}
+
+	@Test
+	public void openFilesFlushedBeforeReplyAndSourceDeletion() throws Exception {
+		FileWritingMessageHandler handler = createOpenFilesHandler(null);
+		handler.setMaxOpenFiles(1);
+		handler.setFlushInterval(100000);
+		handler.setExpectReply(true);
+		handler.setOutputChannel(new QueueChannel());
+		handler.afterPropertiesSet();
+		handler.start();
+		File foo = new File(outputDirectory, "foo");
+		handler.handleMessage(MessageBuilder.withPayload("a").setHeader("file", "foo").build());
+		assertFileContentIs(foo, "a");
+		handler.setExpectReply(false);
+		handler.setDeleteSourceFiles(true);
+		handler.handleMessage(MessageBuilder.withPayload(sourceFile).setHeader("file", "foo").build());
+		assertFalse(sourceFile.exists());
+		assertFileContentIs(foo, "a" + SAMPLE_CONTENT);
+		handler.handleMessage(MessageBuilder.withPayload("b").setHeader("file", "foo").build());
+		assertFileContentIs(foo, "a" + SAMPLE_CONTENT);
+		handler.stop();
+		assertFileContentIs(foo, "a" + SAMPLE_CONTENT + "b");
+	}
+
+	@Test
+	public void openFilesFlushedAndClosedWhenIdle() throws Exception {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		FileWritingMessageHandler handler = createOpenFilesHandler(scheduler);
+		handler.setMaxOpenFiles(10);
+		handler.setFlushInterval(50);
+		handler.setOpenFileIdleTimeout(500);
+		handler.afterPropertiesSet();
+		handler.start();
+		File foo = new File(outputDirectory, "foo");
+		handler.handleMessage(MessageBuilder.withPayload("a").setHeader("file", "foo").build());
+		Map<?, ?> openFiles = TestUtils.getPropertyValue(handler, "openFiles", Map.class);
+		int n = 0;
+		while (foo.length() == 0 && n++ < 200) {
+			Thread.sleep(50);
+		}
+		assertFileContentIs(foo, "a");
+		n = 0;
+		while (!openFiles.isEmpty() && n++ < 200) {
+			Thread.sleep(50);
+		}
+		assertTrue(openFiles.isEmpty());
+		handler.handleMessage(MessageBuilder.withPayload("b").setHeader("file", "foo").build());
+		assertEquals(1, openFiles.size());
+		handler.stop();
+		assertFalse(handler.isRunning());
+		assertTrue(openFiles.isEmpty());
+		assertFileContentIs(foo, "ab");
+		scheduler.destroy();
+	}
+
+	@Test
+	public void openFilesFlushedAndClosedInChain() throws Exception {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		FileWritingMessageHandler handler = createOpenFilesHandler(scheduler);
+		handler.setMaxOpenFiles(10);
+		handler.setFlushInterval(50);
+		handler.afterPropertiesSet();
+		MessageHandlerChain chain = new MessageHandlerChain();
+		chain.setHandlers(Collections.<MessageHandler>singletonList(handler));
+		chain.setBeanFactory(mock(BeanFactory.class));
+		chain.afterPropertiesSet();
+		// the chain is not started; the flush is scheduled when the file is opened
+		File foo = new File(outputDirectory, "foo");
+		chain.handleMessage(MessageBuilder.withPayload("a").setHeader("file", "foo").build());
+		int n = 0;
+		while (foo.length() == 0 && n++ < 200) {
+			Thread.sleep(50);
+		}
+		assertFileContentIs(foo, "a");
+		chain.handleMessage(MessageBuilder.withPayload("b").setHeader("file", "foo").build());
+		Map<?, ?> openFiles = TestUtils.getPropertyValue(handler, "openFiles", Map.class);
+		assertEquals(1, openFiles.size());
+		handler.destroy();
+		assertTrue(openFiles.isEmpty());
+		assertFileContentIs(foo, "ab");
+		assertNull(TestUtils.getPropertyValue(handler, "flushTask"));
+		scheduler.destroy();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void openFilesRequireAppend() throws Exception {
+		handler.setMaxOpenFiles(1);
+		handler.afterPropertiesSet();
+	}
+
+	private FileWritingMessageHandler createOpenFilesHandler(TaskScheduler scheduler) {
+		FileWritingMessageHandler handler = new FileWritingMessageHandler(outputDirectory);
+		BeanFactory beanFactory = mock(BeanFactory.class);
+		when(beanFactory.containsBean(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME)).thenReturn(true);
+		when(beanFactory.getBean(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, TaskScheduler.class))
+				.thenReturn(scheduler != null ? scheduler : mock(TaskScheduler.class));
+		handler.setBeanFactory(beanFactory);
+		handler.setFileExistsMode(FileExistsMode.APPEND);
+		handler.setCharset(DEFAULT_ENCODING);
+		handler.setExpectReply(false);
+		handler.setFileNameGenerator(new FileNameGenerator() {
+
+			@Override
+			public String generateFileName(Message<?> message) {
+				return (String) message.getHeaders().get("file");
+			}
+
+		});
+		return handler;
+	}
+
 	void assertFileContentIsMatching(Message<?> result) throws IOException, UnsupportedEncodingException {
 		assertFileContentIs(result, SAMPLE_CONTENT);
 	}
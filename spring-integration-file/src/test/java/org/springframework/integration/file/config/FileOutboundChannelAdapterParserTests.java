@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -90,6 +90,12 @@ public class FileOutboundChannelAdapterParserTests {
 	@Autowired
 	MessageChannel usageChannelConcurrent;
 
+	@Autowired
+	EventDrivenConsumer adapterWithOpenFiles;
+
+	@Autowired
+	MessageChannel usageChannelWithOpenFiles;
+
 	private volatile static int adviceCalled;
 
 	@Test
@@ -194,6 +200,31 @@ public class FileOutboundChannelAdapterParserTests {
 		testFile.delete();
 	}
 
+	@Test
+	public void adapterUsageWithOpenFiles() throws Exception {
+		FileWritingMessageHandler handler = TestUtils.getPropertyValue(adapterWithOpenFiles, "handler",
+				FileWritingMessageHandler.class);
+		assertEquals(10, TestUtils.getPropertyValue(handler, "maxOpenFiles"));
+		assertEquals(100, TestUtils.getPropertyValue(handler, "flushCount"));
+		assertEquals(60000L, TestUtils.getPropertyValue(handler, "flushInterval"));
+		assertEquals(Boolean.TRUE, TestUtils.getPropertyValue(handler, "flushWhenIdle"));
+		assertEquals(120000L, TestUtils.getPropertyValue(handler, "openFileIdleTimeout"));
+		assertTrue(handler.isRunning());
+
+		File testFile = new File("test/fileToAppendOpen.txt");
+		if (testFile.exists()) {
+			testFile.delete();
+		}
+		usageChannelWithOpenFiles.send(new GenericMessage<String>("String content:"));
+		usageChannelWithOpenFiles.send(new GenericMessage<byte[]>("byte[] content".getBytes()));
+		// not flushed yet
+		assertEquals(0, testFile.length());
+		adapterWithOpenFiles.stop();
+		assertEquals("String content:byte[] content", new String(FileCopyUtils.copyToByteArray(testFile)));
+		adapterWithOpenFiles.start();
+		testFile.delete();
+	}
+
 	@Test
 	public void adapterUsageWithFailMode() throws Exception{
 
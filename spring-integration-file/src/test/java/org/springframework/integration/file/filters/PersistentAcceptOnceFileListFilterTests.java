@@ -17,17 +17,22 @@
 package org.springframework.integration.file.filters;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -132,4 +137,65 @@ public class PersistentAcceptOnceFileListFilterTests extends AcceptOnceFileListF
 		assertEquals(0, now.size());
 	}
 
+	@Test
+	public void testBatch() {
+		final AtomicInteger singleKeyCalls = new AtomicInteger();
+		final AtomicInteger batchCalls = new AtomicInteger();
+		SimpleMetadataStore store = new SimpleMetadataStore() {
+
+			@Override
+			public String putIfAbsent(String key, String value) {
+				singleKeyCalls.incrementAndGet();
+				return super.putIfAbsent(key, value);
+			}
+
+			@Override
+			public Map<String, String> putAllIfAbsent(Map<String, String> entries) {
+				batchCalls.incrementAndGet();
+				return super.putAllIfAbsent(entries);
+			}
+
+			@Override
+			public String remove(String key) {
+				singleKeyCalls.incrementAndGet();
+				return super.remove(key);
+			}
+
+			@Override
+			public void removeAll(Collection<String> keys) {
+				batchCalls.incrementAndGet();
+				super.removeAll(keys);
+			}
+
+		};
+		final Map<String, Long> modified = new HashMap<String, Long>();
+		AbstractPersistentAcceptOnceFileListFilter<String> filter = new AbstractPersistentAcceptOnceFileListFilter<String>(
+				store, "batch:") {
+
+					@Override
+					protected long modified(String file) {
+						return modified.get(file);
+					}
+
+					@Override
+					protected String fileName(String file) {
+						return file;
+					}
+				};
+		modified.put("foo", 1L);
+		modified.put("bar", 1L);
+		modified.put("baz", 1L);
+		assertEquals(Arrays.asList("foo", "bar"), filter.filterFiles(new String[] {"foo", "bar", "foo"}));
+		modified.put("bar", 2L);
+		assertEquals(Arrays.asList("bar", "baz"), filter.filterFiles(new String[] {"foo", "bar", "baz"}));
+		assertEquals("2", store.get("batch:bar"));
+		assertEquals(0, filter.filterFiles(new String[] {"foo", "bar", "baz"}).size());
+		filter.rollback("bar", Arrays.asList("foo", "bar", "baz"));
+		assertEquals("1", store.get("batch:foo"));
+		assertNull(store.get("batch:bar"));
+		assertNull(store.get("batch:baz"));
+		assertEquals(4, batchCalls.get());
+		assertEquals(0, singleKeyCalls.get());
+	}
+
 }
@@ -19,6 +19,7 @@ package org.springframework.integration.file.remote.synchronizer;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
@@ -26,12 +27,22 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
 import org.springframework.integration.file.filters.AcceptOnceFileListFilter;
+import org.springframework.integration.file.remote.session.CachingSessionFactory;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.file.remote.session.SessionFactory;
 import org.springframework.messaging.MessagingException;
@@ -91,17 +102,222 @@ public class AbstractRemoteFileSynchronizerTests {
 		assertEquals(3, count.get());
 	}
 
+	@Test
+	public void testConcurrentTransfer() {
+		final List<String> transferred = Collections.synchronizedList(new ArrayList<String>());
+		final Set<Session<String>> sessions = Collections.synchronizedSet(new HashSet<Session<String>>());
+		final AtomicInteger concurrent = new AtomicInteger();
+		final AtomicInteger maxConcurrent = new AtomicInteger();
+		AbstractInboundFileSynchronizer<String> sync = new TestSynchronizer(new StringSessionFactory(files(20))) {
+
+			@Override
+			protected void copyFileToLocalDirectory(String remoteDirectoryPath, String remoteFile, File localDirectory,
+					Session<String> session) throws IOException {
+				int n = concurrent.incrementAndGet();
+				if (n > maxConcurrent.get()) {
+					maxConcurrent.set(n);
+				}
+				sessions.add(session);
+				try {
+					Thread.sleep(20);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				transferred.add(remoteFile);
+				concurrent.decrementAndGet();
+			}
+
+		};
+		sync.setParallelism(4);
+		sync.synchronizeToLocalDirectory(mock(File.class));
+		assertEquals(20, transferred.size());
+		assertEquals(20, new HashSet<String>(transferred).size());
+		assertEquals(4, sessions.size());
+		assertTrue(maxConcurrent.get() > 1);
+	}
+
+	@Test
+	public void testConcurrentTransferWithOneCachedSession() {
+		final AtomicInteger count = new AtomicInteger();
+		CachingSessionFactory<String> sf = new CachingSessionFactory<String>(new StringSessionFactory(files(5)), 1);
+		AbstractInboundFileSynchronizer<String> sync = new TestSynchronizer(sf) {
+
+			@Override
+			protected void copyFileToLocalDirectory(String remoteDirectoryPath, String remoteFile, File localDirectory,
+					Session<String> session) throws IOException {
+				count.incrementAndGet();
+			}
+
+		};
+		sync.setParallelism(3);
+		// the other tasks get the session when the listing session is returned
+		sync.synchronizeToLocalDirectory(mock(File.class));
+		assertEquals(5, count.get());
+		sync.synchronizeToLocalDirectory(mock(File.class));
+		assertEquals(10, count.get());
+	}
+
+	@Test
+	public void testConcurrentRollback() {
+		final AtomicBoolean failWhenCopyingFile3 = new AtomicBoolean(true);
+		final List<String> transferred = Collections.synchronizedList(new ArrayList<String>());
+		AbstractInboundFileSynchronizer<String> sync = new TestSynchronizer(new StringSessionFactory(files(10))) {
+
+			@Override
+			protected void copyFileToLocalDirectory(String remoteDirectoryPath, String remoteFile, File localDirectory,
+					Session<String> session) throws IOException {
+				if ("file3".equals(remoteFile) && failWhenCopyingFile3.getAndSet(false)) {
+					throw new IOException("fail");
+				}
+				transferred.add(remoteFile);
+			}
+
+		};
+		sync.setFilter(new AcceptOnceFileListFilter<String>());
+		sync.setParallelism(3);
+		try {
+			sync.synchronizeToLocalDirectory(mock(File.class));
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+			assertThat(e.getCause().getCause(), instanceOf(IOException.class));
+		}
+		assertTrue(transferred.containsAll(files(3)));
+		assertTrue(transferred.size() < 10);
+		sync.synchronizeToLocalDirectory(mock(File.class));
+		// each file transferred once
+		assertEquals(10, transferred.size());
+		assertEquals(10, new HashSet<String>(transferred).size());
+		assertTrue(transferred.contains("file3"));
+	}
+
+	@Test
+	public void testConcurrentTransferInterrupted() throws Exception {
+		final Thread listingThread = Thread.currentThread();
+		final CountDownLatch concurrentTransferStarted = new CountDownLatch(1);
+		final CountDownLatch releaseConcurrentTransfer = new CountDownLatch(1);
+		final AtomicReference<String> concurrentFile = new AtomicReference<String>();
+		AbstractInboundFileSynchronizer<String> sync = new TestSynchronizer(new StringSessionFactory(files(5))) {
+
+			@Override
+			protected void copyFileToLocalDirectory(String remoteDirectoryPath, String remoteFile, File localDirectory,
+					Session<String> session) throws IOException {
+				try {
+					if (Thread.currentThread() == listingThread) {
+						concurrentTransferStarted.await(10, TimeUnit.SECONDS);
+						// interrupted while awaiting the concurrent transfer
+						listingThread.interrupt();
+					}
+					else {
+						concurrentFile.set(remoteFile);
+						concurrentTransferStarted.countDown();
+						releaseConcurrentTransfer.await(10, TimeUnit.SECONDS);
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+		};
+		AcceptOnceFileListFilter<String> filter = new AcceptOnceFileListFilter<String>();
+		sync.setFilter(filter);
+		sync.setParallelism(2);
+		try {
+			sync.synchronizeToLocalDirectory(mock(File.class));
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+			assertTrue(Thread.interrupted());
+		}
+		finally {
+			releaseConcurrentTransfer.countDown();
+		}
+		// the file still being transferred has been rolled back, the others have not
+		String[] files = files(5).toArray(new String[5]);
+		assertEquals(Collections.singletonList(concurrentFile.get()), filter.filterFiles(files));
+	}
+
+	@Test
+	public void testMaxFilesPerSync() {
+		final List<String> transferred = new ArrayList<String>();
+		AbstractInboundFileSynchronizer<String> sync = new TestSynchronizer(new StringSessionFactory()) {
+
+			@Override
+			protected void copyFileToLocalDirectory(String remoteDirectoryPath, String remoteFile, File localDirectory,
+					Session<String> session) throws IOException {
+				transferred.add(remoteFile);
+			}
+
+		};
+		sync.setFilter(new AcceptOnceFileListFilter<String>());
+		sync.setMaxFilesPerSync(2);
+		sync.synchronizeToLocalDirectory(mock(File.class));
+		assertEquals(2, transferred.size());
+		sync.synchronizeToLocalDirectory(mock(File.class));
+		assertEquals(3, transferred.size());
+		assertEquals(new HashSet<String>(transferred), new HashSet<String>(Arrays.asList("foo", "bar", "baz")));
+	}
+
+	private static List<String> files(int count) {
+		List<String> files = new ArrayList<String>();
+		for (int i = 0; i < count; i++) {
+			files.add("file" + i);
+		}
+		return files;
+	}
+
+	private abstract static class TestSynchronizer extends AbstractInboundFileSynchronizer<String> {
+
+		private TestSynchronizer(SessionFactory<String> sessionFactory) {
+			super(sessionFactory);
+		}
+
+		@Override
+		protected boolean isFile(String file) {
+			return true;
+		}
+
+		@Override
+		protected String getFilename(String file) {
+			return file;
+		}
+
+		@Override
+		protected long getModified(String file) {
+			return 0;
+		}
+
+	}
+
 	private class StringSessionFactory implements SessionFactory<String> {
 
+		private final String[] files;
+
+		private StringSessionFactory() {
+			this.files = new String[] {"foo", "bar", "baz"};
+		}
+
+		private StringSessionFactory(List<String> files) {
+			this.files = files.toArray(new String[files.size()]);
+		}
+
 		@Override
 		public Session<String> getSession() {
-			return new StringSession();
+			return new StringSession(this.files);
 		}
 
 	}
 
 	private class StringSession implements Session<String> {
 
+		private final String[] files;
+
+		private StringSession(String[] files) {
+			this.files = files;
+		}
+
 		@Override
 		public boolean remove(String path) throws IOException {
 			return true;
@@ -109,7 +325,7 @@ public class AbstractRemoteFileSynchronizerTests {
 
 		@Override
 		public String[] list(String path) throws IOException {
-			return new String[] {"foo", "bar", "baz"};
+			return this.files.clone();
 		}
 
 		@Override
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.splitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.file.splitter.FileSplitter.FileMarker;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * @since 4.1
+ */
+public class FileSplitterTests {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLines() throws Exception {
+		File file = createFile("foo\nbar\r\nbaz\n");
+		QueueChannel output = new QueueChannel();
+		FileSplitter splitter = new FileSplitter();
+		splitter.setOutputChannel(output);
+		splitter.handleMessage(MessageBuilder.withPayload(file).build());
+		assertLine(output.receive(0), "foo", 1, 0);
+		assertLine(output.receive(0), "bar", 2, 0);
+		assertLine(output.receive(0), "baz", 3, 0);
+		assertNull(output.receive(0));
+
+		splitter.handleMessage(MessageBuilder.withPayload(file.getAbsolutePath()).build());
+		assertLine(output.receive(0), "foo", 1, 0);
+		assertEquals(2, output.getQueueSize());
+	}
+
+	@Test
+	public void testLinesWithSequenceSize() throws Exception {
+		File file = createFile("foo\nbar\nbaz");
+		QueueChannel output = new QueueChannel();
+		FileSplitter splitter = new FileSplitter(false);
+		splitter.setOutputChannel(output);
+		splitter.handleMessage(MessageBuilder.withPayload(file).build());
+		assertLine(output.receive(0), "foo", 1, 3);
+		assertLine(output.receive(0), "bar", 2, 3);
+		assertLine(output.receive(0), "baz", 3, 3);
+		assertNull(output.receive(0));
+	}
+
+	@Test
+	public void testMarkers() throws Exception {
+		File file = createFile("foo\nbar\n");
+		QueueChannel output = new QueueChannel();
+		FileSplitter splitter = new FileSplitter(true, true);
+		splitter.setOutputChannel(output);
+		splitter.handleMessage(MessageBuilder.withPayload(file).build());
+		FileMarker start = (FileMarker) output.receive(0).getPayload();
+		assertEquals(FileMarker.Mark.START, start.getMark());
+		assertEquals(file.getAbsolutePath(), start.getFilePath());
+		assertLine(output.receive(0), "foo", 2, 0);
+		assertLine(output.receive(0), "bar", 3, 0);
+		FileMarker end = (FileMarker) output.receive(0).getPayload();
+		assertEquals(FileMarker.Mark.END, end.getMark());
+		assertEquals(2, end.getLineCount());
+		assertNull(output.receive(0));
+
+		splitter.handleMessage(MessageBuilder.withPayload(createFile("")).build());
+		assertEquals(FileMarker.Mark.START, ((FileMarker) output.receive(0).getPayload()).getMark());
+		end = (FileMarker) output.receive(0).getPayload();
+		assertEquals(FileMarker.Mark.END, end.getMark());
+		assertEquals(0, end.getLineCount());
+		assertNull(output.receive(0));
+	}
+
+	@Test
+	public void testDelimiterAndStream() throws Exception {
+		QueueChannel output = new QueueChannel();
+		FileSplitter splitter = new FileSplitter();
+		splitter.setDelimiter("||");
+		splitter.setCharset(UTF_8);
+		splitter.setOutputChannel(output);
+		InputStream stream = new ByteArrayInputStream("föo||b|ar||||baz".getBytes(UTF_8));
+		splitter.handleMessage(MessageBuilder.withPayload(stream).build());
+		assertEquals("föo", output.receive(0).getPayload());
+		assertEquals("b|ar", output.receive(0).getPayload());
+		assertEquals("", output.receive(0).getPayload());
+		assertEquals("baz", output.receive(0).getPayload());
+		assertNull(output.receive(0));
+	}
+
+	@Test
+	public void testDelimiterAcrossChunks() throws Exception {
+		QueueChannel output = new QueueChannel();
+		FileSplitter splitter = new FileSplitter();
+		splitter.setDelimiter("||");
+		splitter.setOutputChannel(output);
+		StringBuilder longRecord = new StringBuilder();
+		for (int i = 0; i < 8188; i++) {
+			longRecord.append('x');
+		}
+		// the delimiter after the long record spans the first two chunks (of 8192 characters) read
+		File file = createFile("a||" + longRecord + "||b||" + longRecord + longRecord + "|");
+		splitter.handleMessage(MessageBuilder.withPayload(file).build());
+		assertEquals("a", output.receive(0).getPayload());
+		assertEquals(longRecord.toString(), output.receive(0).getPayload());
+		assertEquals("b", output.receive(0).getPayload());
+		assertEquals(longRecord.toString() + longRecord + "|", output.receive(0).getPayload());
+		assertNull(output.receive(0));
+
+		// a reader returning at most 3 characters at a time
+		Reader reader = new StringReader("foo||b|ar||||baz|||") {
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				return super.read(cbuf, off, Math.min(len, 3));
+			}
+
+		};
+		splitter.handleMessage(MessageBuilder.withPayload(reader).build());
+		assertEquals("foo", output.receive(0).getPayload());
+		assertEquals("b|ar", output.receive(0).getPayload());
+		assertEquals("", output.receive(0).getPayload());
+		assertEquals("baz", output.receive(0).getPayload());
+		assertEquals("|", output.receive(0).getPayload());
+		assertNull(output.receive(0));
+	}
+
+	@Test
+	public void testStreamClosedWhenSendFails() throws Exception {
+		final AtomicBoolean closed = new AtomicBoolean();
+		InputStream stream = new ByteArrayInputStream("foo\nbar\nbaz\n".getBytes(UTF_8)) {
+
+			@Override
+			public void close() throws IOException {
+				closed.set(true);
+				super.close();
+			}
+
+		};
+		final AtomicInteger sent = new AtomicInteger();
+		FileSplitter splitter = new FileSplitter();
+		splitter.setOutputChannel(new MessageChannel() {
+
+			@Override
+			public boolean send(Message<?> message) {
+				return send(message, -1);
+			}
+
+			@Override
+			public boolean send(Message<?> message, long timeout) {
+				if (sent.incrementAndGet() > 1) {
+					throw new MessageDeliveryException(message, "planned");
+				}
+				return true;
+			}
+
+		});
+		try {
+			splitter.handleMessage(MessageBuilder.withPayload(stream).build());
+			fail("Expected MessageDeliveryException");
+		}
+		catch (MessageDeliveryException e) {
+			assertEquals("bar", e.getFailedMessage().getPayload());
+		}
+		assertTrue(closed.get());
+	}
+
+	@Test
+	public void testOtherPayload() throws Exception {
+		QueueChannel output = new QueueChannel();
+		FileSplitter splitter = new FileSplitter();
+		splitter.setOutputChannel(output);
+		Message<Integer> message = MessageBuilder.withPayload(42).build();
+		splitter.handleMessage(message);
+		assertSame(message.getPayload(), output.receive(0).getPayload());
+	}
+
+	private void assertLine(Message<?> message, String line, int sequenceNumber, int sequenceSize) {
+		assertEquals(line, message.getPayload());
+		IntegrationMessageHeaderAccessor accessor = new IntegrationMessageHeaderAccessor(message);
+		assertEquals(Integer.valueOf(sequenceNumber), accessor.getSequenceNumber());
+		assertEquals(Integer.valueOf(sequenceSize), accessor.getSequenceSize());
+	}
+
+	private File createFile(String contents) throws IOException {
+		File file = this.folder.newFile();
+		FileCopyUtils.copy(contents.getBytes(UTF_8), new FileOutputStream(file));
+		return file;
+	}
+
+}
@@ -98,6 +98,8 @@ public class FtpInboundChannelAdapterParserTests {
 			(FtpInboundFileSynchronizer) TestUtils.getPropertyValue(inbound, "synchronizer");
 		assertNotNull(TestUtils.getPropertyValue(fisync, "localFilenameGeneratorExpression"));
 		assertTrue(TestUtils.getPropertyValue(fisync, "preserveTimestamp", Boolean.class));
+		assertEquals(4, TestUtils.getPropertyValue(fisync, "parallelism"));
+		assertEquals(100, TestUtils.getPropertyValue(fisync, "maxFilesPerSync"));
 		assertEquals(".foo", TestUtils.getPropertyValue(fisync, "temporaryFileSuffix", String.class));
 		String remoteFileSeparator = (String) TestUtils.getPropertyValue(fisync, "remoteFileSeparator");
 		assertNotNull(remoteFileSeparator);
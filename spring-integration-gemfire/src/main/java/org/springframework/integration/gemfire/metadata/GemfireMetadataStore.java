@@ -16,6 +16,11 @@
 
 package org.springframework.integration.gemfire.metadata;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.integration.metadata.BatchMetadataStore;
 import org.springframework.integration.metadata.ConcurrentMetadataStore;
 import org.springframework.util.Assert;
 
@@ -32,7 +37,7 @@ import com.gemstone.gemfire.cache.Scope;
  * @author Artem Bilan
  * @since 4.0
  */
-public class GemfireMetadataStore implements ConcurrentMetadataStore {
+public class GemfireMetadataStore implements BatchMetadataStore {
 
 	public static final String KEY = "MetaData";
 
@@ -70,6 +75,31 @@ public class GemfireMetadataStore implements ConcurrentMetadataStore {
 		return this.region.replace(key, oldValue, newValue);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The current values of all the keys are read in a single {@code getAll}
+	 * operation; only the keys that are absent are then inserted, one by one.
+	 */
+	@Override
+	public Map<String, String> putAllIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' must not be null.");
+		Map<String, String> existing = new HashMap<String, String>();
+		if (entries.isEmpty()) {
+			return existing;
+		}
+		Map<String, String> current = this.region.getAll(entries.keySet());
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			String value = current.get(entry.getKey());
+			if (value == null) {
+				value = putIfAbsent(entry.getKey(), entry.getValue());
+			}
+			if (value != null) {
+				existing.put(entry.getKey(), value);
+			}
+		}
+		return existing;
+	}
+
 	@Override
 	public String get(String key) {
 		Assert.notNull(key, "'key' must not be null.");
@@ -82,4 +112,12 @@ public class GemfireMetadataStore implements ConcurrentMetadataStore {
 		return this.region.remove(key);
 	}
 
+	@Override
+	public void removeAll(Collection<String> keys) {
+		Assert.notNull(keys, "'keys' must not be null.");
+		for (String key : keys) {
+			remove(key);
+		}
+	}
+
 }
@@ -19,6 +19,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -158,6 +162,18 @@ public class GemfireMetadataStoreTests {
 		assertEquals("Integration", gemfireTemplate.get("GemfireMetadataStoreTests-Spring"));
 	}
 
+	@Test
+	public void testPutAllIfAbsent() {
+		metadataStore.put("foo", "bar");
+		Map<String, String> entries = new LinkedHashMap<String, String>();
+		entries.put("foo", "baz");
+		entries.put("qux", "fiz");
+		Map<String, String> existing = ((GemfireMetadataStore) metadataStore).putAllIfAbsent(entries);
+		assertEquals(Collections.singletonMap("foo", "bar"), existing);
+		assertEquals("bar", metadataStore.get("foo"));
+		assertEquals("fiz", metadataStore.get("qux"));
+	}
+
 	private static Region<Object, Object> getRegion() {
 		return cache.getRegion(GemfireMetadataStore.KEY);
 	}
@@ -122,6 +122,12 @@ public abstract class IpAdapterParserUtils {
 
 	public static final String MAPPER = "mapper";
 
+	public static final String BUFFER_POOL = "buffer-pool";
+
+	public static final String CORRELATION_STRATEGY = "correlation-strategy";
+
+	public static final String MAX_IN_FLIGHT = "max-in-flight";
+
 	private IpAdapterParserUtils() {}
 
 	/**
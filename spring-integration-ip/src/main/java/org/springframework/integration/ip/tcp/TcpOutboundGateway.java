@@ -18,12 +18,14 @@ package org.springframework.integration.ip.tcp;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.SmartLifecycle;
 import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.aggregator.CorrelationStrategy;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
@@ -41,8 +43,13 @@ import org.springframework.util.Assert;
  * TCP outbound gateway that uses a client connection factory. If the factory is configured
  * for single-use connections, each request is sent on a new connection; if the factory does not use
  * single use connections, each request is blocked until the previous response is received
- * (or times out). Asynchronous requests/responses over the same connection are not
- * supported - use a pair of outbound/inbound adapters for that use case.
+ * (or times out).
+ * <p>
+ * When a {@link CorrelationStrategy} is provided, the gateway operates in a pipelined mode
+ * on a shared connection: multiple requests may be in flight at the same time (bounded by
+ * {@link #setMaxInFlight(int) maxInFlight}) and each reply is matched to its request using
+ * the correlation key that the strategy extracts from both the request and the reply
+ * messages. The remote system may reply in any order.
  * <p>
  * {@link SmartLifecycle} methods delegate to the underlying {@link AbstractConnectionFactory}
  *
@@ -56,8 +63,17 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 	private final Map<String, AsyncReply> pendingReplies = new ConcurrentHashMap<String, AsyncReply>();
 
+	private final ConcurrentMap<Object, AsyncReply> pendingCorrelatedReplies =
+			new ConcurrentHashMap<Object, AsyncReply>();
+
 	private final Semaphore semaphore = new Semaphore(1, true);
 
+	private volatile CorrelationStrategy correlationStrategy;
+
+	private volatile int maxInFlight = 100;
+
+	private volatile Semaphore inFlightSemaphore;
+
 	private volatile long remoteTimeout = 10000L;
 
 	private volatile boolean remoteTimeoutSet = false;
@@ -83,6 +99,33 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		this.remoteTimeoutSet = true;
 	}
 
+	/**
+	 * Set the strategy used to determine the correlation key of requests and replies.
+	 * When set, requests are pipelined on a shared connection and each reply is matched
+	 * to the request with the same correlation key; the strategy must therefore be able to
+	 * extract the key (for example an id field in the payload) from both the request and
+	 * the reply messages. Requires a connection factory that does not use single-use
+	 * connections.
+	 * @param correlationStrategy the correlation strategy.
+	 * @since 4.1
+	 */
+	public void setCorrelationStrategy(CorrelationStrategy correlationStrategy) {
+		this.correlationStrategy = correlationStrategy;
+	}
+
+	/**
+	 * Set the maximum number of requests awaiting a reply at any one time when a
+	 * {@link #setCorrelationStrategy(CorrelationStrategy) correlation strategy} is
+	 * configured. Further requests wait up to the request timeout for an in-flight
+	 * request to complete. Default 100.
+	 * @param maxInFlight the maximum number of in-flight requests.
+	 * @since 4.1
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		Assert.isTrue(maxInFlight > 0, "'maxInFlight' must be greater than 0");
+		this.maxInFlight = maxInFlight;
+	}
+
 	@Override
 	public void setSendTimeout(long sendTimeout) {
 		super.setSendTimeout(sendTimeout);
@@ -96,10 +139,23 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	@Override
+	protected void doInit() {
+		super.doInit();
+		if (this.correlationStrategy != null) {
+			Assert.state(this.connectionFactory == null || !this.connectionFactory.isSingleUse(),
+					"A correlation strategy requires a connection factory with shared connections (single-use=\"false\")");
+			this.inFlightSemaphore = new Semaphore(this.maxInFlight, true);
+		}
+	}
+
 	@Override
 	protected Object handleRequestMessage(Message<?> requestMessage) {
 		Assert.notNull(connectionFactory, this.getClass().getName() +
 				" requires a client connection factory");
+		if (this.correlationStrategy != null) {
+			return this.handleCorrelatedRequestMessage(requestMessage);
+		}
 		boolean haveSemaphore = false;
 		String connectionId = null;
 		try {
@@ -156,6 +212,62 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	private Object handleCorrelatedRequestMessage(Message<?> requestMessage) {
+		Object correlationKey = this.correlationStrategy.getCorrelationKey(requestMessage);
+		if (correlationKey == null) {
+			throw new MessagingException(requestMessage, "The correlation strategy returned a null correlation key");
+		}
+		boolean havePermit = false;
+		AsyncReply reply = null;
+		try {
+			if (!this.inFlightSemaphore.tryAcquire(this.requestTimeout, TimeUnit.MILLISECONDS)) {
+				throw new MessageTimeoutException(requestMessage, "Timed out waiting for an in-flight request to complete");
+			}
+			havePermit = true;
+			TcpConnection connection = this.connectionFactory.getConnection();
+			AsyncReply newReply = new AsyncReply(connection.getConnectionId());
+			if (this.pendingCorrelatedReplies.putIfAbsent(correlationKey, newReply) != null) {
+				throw new MessagingException(requestMessage, "A request with correlation key '" + correlationKey
+						+ "' is already awaiting a reply");
+			}
+			reply = newReply;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Added " + correlationKey + " on " + connection.getConnectionId());
+			}
+			connection.send(requestMessage);
+			Message<?> replyMessage = reply.getReply();
+			if (replyMessage == null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Remote Timeout for " + correlationKey + " on " + connection.getConnectionId());
+				}
+				/*
+				 * Other requests are using the connection; a late reply is
+				 * simply discarded as uncorrelated.
+				 */
+				throw new MessageTimeoutException(requestMessage, "Timed out waiting for response");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Response " + replyMessage);
+			}
+			return replyMessage;
+		}
+		catch (Exception e) {
+			logger.error("Tcp Gateway exception", e);
+			if (e instanceof MessagingException) {
+				throw (MessagingException) e;
+			}
+			throw new MessagingException("Failed to send or receive", e);
+		}
+		finally {
+			if (reply != null) {
+				this.pendingCorrelatedReplies.remove(correlationKey, reply);
+			}
+			if (havePermit) {
+				this.inFlightSemaphore.release();
+			}
+		}
+	}
+
 	@Override
 	public boolean onMessage(Message<?> message) {
 		String connectionId = (String) message.getHeaders().get(IpHeaders.CONNECTION_ID);
@@ -166,6 +278,9 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		if (logger.isTraceEnabled()) {
 			logger.trace("onMessage: " + connectionId + "(" + message + ")");
 		}
+		if (this.correlationStrategy != null) {
+			return this.onCorrelatedMessage(message, connectionId);
+		}
 		AsyncReply reply = pendingReplies.get(connectionId);
 		if (reply == null) {
 			if (message instanceof ErrorMessage) {
@@ -184,6 +299,35 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		return false;
 	}
 
+	private boolean onCorrelatedMessage(Message<?> message, String connectionId) {
+		if (message instanceof ErrorMessage) {
+			/*
+			 * The connection failed; convey the error to all requests waiting on it.
+			 */
+			for (AsyncReply reply : this.pendingCorrelatedReplies.values()) {
+				if (connectionId.equals(reply.connectionId)) {
+					reply.setReply(message);
+				}
+			}
+			return false;
+		}
+		Object correlationKey;
+		try {
+			correlationKey = this.correlationStrategy.getCorrelationKey(message);
+		}
+		catch (Exception e) {
+			logger.error("Cannot correlate response - failed to determine the correlation key", e);
+			return false;
+		}
+		AsyncReply reply = correlationKey == null ? null : this.pendingCorrelatedReplies.get(correlationKey);
+		if (reply == null) {
+			logger.error("Cannot correlate response - no pending reply for correlation key " + correlationKey);
+			return false;
+		}
+		reply.setReply(message);
+		return false;
+	}
+
 	public void setConnectionFactory(AbstractConnectionFactory connectionFactory) {
 		// TODO: In 3.0 Change parameter type to AbstractClientConnectionFactory
 		Assert.isTrue(connectionFactory instanceof AbstractClientConnectionFactory,
@@ -274,9 +418,16 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 		private final CountDownLatch secondChanceLatch;
 
+		private final String connectionId;
+
 		private volatile Message<?> reply;
 
 		public AsyncReply() {
+			this(null);
+		}
+
+		public AsyncReply(String connectionId) {
+			this.connectionId = connectionId;
 			this.latch = new CountDownLatch(1);
 			this.secondChanceLatch = new CountDownLatch(1);
 		}
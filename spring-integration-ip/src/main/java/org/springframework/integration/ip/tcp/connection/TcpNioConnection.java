@@ -34,10 +34,14 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.ip.tcp.serializer.BufferPool;
+import org.springframework.integration.ip.tcp.serializer.ByteBufferDeserializer;
 import org.springframework.integration.ip.tcp.serializer.SoftEndOfStreamException;
 import org.springframework.integration.util.CompositeExecutor;
 import org.springframework.messaging.Message;
@@ -45,6 +49,13 @@ import org.springframework.util.Assert;
 
 /**
  * A TcpConnection that uses and underlying {@link SocketChannel}.
+ * <p>
+ * When the deserializer is a {@link ByteBufferDeserializer} that
+ * {@link ByteBufferDeserializer#supportsByteBuffers() supports buffers}, frames are
+ * decoded directly from the buffer that the socket is read into, on the reading
+ * thread; the resulting messages are passed to the listener, in order, on a thread
+ * from the task executor. Otherwise, data is piped to an assembler thread that
+ * deserializes it from an {@link InputStream}.
  *
  * @author Gary Russell
  * @author John Anderson
@@ -55,6 +66,8 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private static final long DEFAULT_PIPE_TIMEOUT = 60000;
 
+	private static final int MAX_PENDING_MESSAGES = 1000;
+
 	private final SocketChannel socketChannel;
 
 	private final ChannelOutputStream channelOutputStream;
@@ -69,6 +82,12 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private volatile ByteBuffer rawBuffer;
 
+	private volatile BufferPool bufferPool;
+
+	private boolean reading; // guarded by rawBufferMonitor
+
+	private final Object rawBufferMonitor = new Object();
+
 	private volatile int maxMessageSize = 60 * 1024;
 
 	private volatile long lastRead;
@@ -83,6 +102,16 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private volatile long pipeTimeout = DEFAULT_PIPE_TIMEOUT;
 
+	private volatile ByteBufferDeserializer<?> bufferDeserializer;
+
+	private volatile boolean bufferDeserializerResolved;
+
+	private final BlockingQueue<Object> pendingMessages = new LinkedBlockingQueue<Object>(MAX_PENDING_MESSAGES);
+
+	private final AtomicBoolean dispatching = new AtomicBoolean();
+
+	private Object decodedPayload;
+
 	/**
 	 * Constructs a TcpNetConnection for the SocketChannel.
 	 * @param socketChannel The socketChannel.
@@ -124,6 +153,14 @@ public class TcpNioConnection extends TcpConnectionSupport {
 			this.socketChannel.close();
 		}
 		catch (Exception e) {}
+		ByteBuffer buffer = null;
+		synchronized (this.rawBufferMonitor) {
+			// a read in progress releases the buffer when it completes
+			if (!this.reading) {
+				buffer = detachRawBuffer();
+			}
+		}
+		releaseToPool(buffer);
 		super.close();
 	}
 
@@ -157,6 +194,12 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	@Override
 	public Object getPayload() throws Exception {
+		Object payload = this.decodedPayload;
+		if (payload != null) {
+			// decoded from the read buffer by decodeFrames()
+			this.decodedPayload = null;
+			return payload;
+		}
 		return this.getDeserializer().deserialize(this.channelInputStream);
 	}
 
@@ -179,7 +222,10 @@ public class TcpNioConnection extends TcpConnectionSupport {
 	 */
 	protected ByteBuffer allocate(int length) {
 		ByteBuffer buffer;
-		if (this.usingDirectBuffers) {
+		if (this.bufferPool != null) {
+			buffer = this.bufferPool.acquireBuffer(length, this.usingDirectBuffers);
+		}
+		else if (this.usingDirectBuffers) {
 			buffer = ByteBuffer.allocateDirect(length);
 		} else {
 			buffer = ByteBuffer.allocate(length);
@@ -387,14 +433,19 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		if (this.rawBuffer == null) {
 			this.rawBuffer = allocate(maxMessageSize);
 		}
+		if (this.taskExecutor == null) {
+			ExecutorService executor = Executors.newCachedThreadPool();
+			this.taskExecutor = new CompositeExecutor(executor, executor);
+		}
+		ByteBufferDeserializer<?> bufferDeserializer = getBufferDeserializer();
+		if (bufferDeserializer != null) {
+			doReadFrames(bufferDeserializer);
+			return;
+		}
 
 		this.writingLatch = new CountDownLatch(1);
 		this.writingToPipe = true;
 		try {
-			if (this.taskExecutor == null) {
-				ExecutorService executor = Executors.newCachedThreadPool();
-				this.taskExecutor = new CompositeExecutor(executor, executor);
-			}
 			// If there is no assembler running, start one
 			checkForAssembler();
 
@@ -431,6 +482,170 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	private ByteBufferDeserializer<?> getBufferDeserializer() {
+		if (!this.bufferDeserializerResolved) {
+			Deserializer<?> deserializer = this.getDeserializer();
+			if (this.isDecodingFromBuffers() && deserializer instanceof ByteBufferDeserializer
+					&& ((ByteBufferDeserializer<?>) deserializer).supportsByteBuffers()) {
+				this.bufferDeserializer = (ByteBufferDeserializer<?>) deserializer;
+			}
+			this.bufferDeserializerResolved = true;
+		}
+		return this.bufferDeserializer;
+	}
+
+	/**
+	 * Whether frames may be decoded directly from the buffer that the socket is read
+	 * into, when the deserializer supports it. Subclasses that transform the data read
+	 * from the socket (such as for decryption) return false.
+	 * @return true to decode from buffers.
+	 * @since 4.1
+	 */
+	protected boolean isDecodingFromBuffers() {
+		return true;
+	}
+
+	/**
+	 * Reads from the socket and decodes any complete frames from the raw buffer,
+	 * leaving an incomplete frame in the buffer until more data arrives; the buffer
+	 * grows if it is full and the frame is still incomplete (the deserializer limits
+	 * the size of a frame).
+	 */
+	private void doReadFrames(ByteBufferDeserializer<?> deserializer) throws Exception {
+		try {
+			int len = this.socketChannel.read(this.rawBuffer);
+			this.rawBuffer.flip();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Read " + this.rawBuffer.remaining() + " into raw buffer");
+			}
+			if (this.getListener() == null && !this.isSingleUse()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(this.getConnectionId() + " Discarding data - no listener and not single use");
+				}
+				this.rawBuffer.clear();
+			}
+			else if (!decodeFrames(deserializer)) {
+				return;
+			}
+			if (len < 0) {
+				this.closeConnection(true);
+				if (this.rawBuffer.hasRemaining()) {
+					dispatch(new IOException("Socket closed during message assembly"));
+				}
+			}
+			else if (!this.rawBuffer.hasRemaining()) {
+				this.rawBuffer.clear();
+			}
+			else if (this.rawBuffer.position() == 0 && this.rawBuffer.limit() == this.rawBuffer.capacity()) {
+				ByteBuffer buffer = allocate(this.rawBuffer.capacity() * 2);
+				buffer.put(this.rawBuffer);
+				ByteBuffer previous;
+				synchronized (this.rawBufferMonitor) {
+					previous = this.rawBuffer;
+					this.rawBuffer = buffer;
+				}
+				releaseToPool(previous);
+			}
+			else {
+				this.rawBuffer.compact();
+			}
+		}
+		catch (Exception e) {
+			this.publishConnectionExceptionEvent(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Decodes complete frames from the raw buffer and dispatches the resulting
+	 * messages.
+	 * @return false if the data could not be decoded; the connection is closed and
+	 * the exception has been dispatched to the listener.
+	 */
+	private boolean decodeFrames(ByteBufferDeserializer<?> deserializer) throws IOException {
+		try {
+			Object payload = deserializer.deserialize(this.rawBuffer);
+			while (payload != null) {
+				this.decodedPayload = payload;
+				Message<?> message = this.getMapper().toMessage(this);
+				if (message != null) {
+					dispatch(message);
+				}
+				payload = deserializer.deserialize(this.rawBuffer);
+			}
+			return true;
+		}
+		catch (Exception e) {
+			this.decodedPayload = null;
+			if (logger.isTraceEnabled()) {
+				logger.error("Read exception " + this.getConnectionId(), e);
+			}
+			else if (!this.isNoReadErrorOnClose()) {
+				logger.error("Read exception " + this.getConnectionId() + " " + e.getClass().getSimpleName() +
+						":" + e.getCause() + ":" + e.getMessage());
+			}
+			this.closeConnection(true);
+			dispatch(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Queues a message, or an exception, for the listener, and starts a dispatcher if
+	 * none is running; a single dispatcher per connection preserves the order of the
+	 * messages. Blocks for up to the pipeTimeout if the listener is not keeping up.
+	 */
+	private void dispatch(Object messageOrException) throws IOException {
+		try {
+			if (!this.pendingMessages.offer(messageOrException, this.pipeTimeout, TimeUnit.MILLISECONDS)) {
+				throw new IOException("Timed out waiting for the listener to accept messages");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the listener to accept messages", e);
+		}
+		if (this.dispatching.compareAndSet(false, true)) {
+			Runnable dispatcher = new Runnable() {
+
+				@Override
+				public void run() {
+					dispatchPending();
+				}
+
+			};
+			try {
+				this.taskExecutor.execute2(dispatcher);
+			}
+			catch (RejectedExecutionException e) {
+				if (logger.isInfoEnabled()) {
+					logger.info(getConnectionId() + " Insufficient threads in the assembler fixed thread pool; consider " +
+							"increasing this task executor pool size; dispatching on the reading thread");
+				}
+				dispatcher.run();
+			}
+		}
+	}
+
+	private void dispatchPending() {
+		while (true) {
+			Object pending = this.pendingMessages.poll();
+			if (pending == null) {
+				this.dispatching.set(false);
+				// a message may have been queued after the poll, without starting a dispatcher
+				if (this.pendingMessages.isEmpty() || !this.dispatching.compareAndSet(false, true)) {
+					return;
+				}
+			}
+			else if (pending instanceof Exception) {
+				this.sendExceptionToListener((Exception) pending);
+			}
+			else {
+				sendToChannel((Message<?>) pending);
+			}
+		}
+	}
+
 	protected void sendToPipe(ByteBuffer rawBuffer) throws IOException {
 		Assert.notNull(rawBuffer, "rawBuffer cannot be null");
 		if (logger.isTraceEnabled()) {
@@ -473,6 +688,9 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		if (logger.isDebugEnabled()) {
 			logger.debug(this.getConnectionId() + " Reading...");
 		}
+		synchronized (this.rawBufferMonitor) {
+			this.reading = true;
+		}
 		try {
 			doRead();
 		}
@@ -491,6 +709,39 @@ public class TcpNioConnection extends TcpConnectionSupport {
 					     e.getMessage(), e);
 			this.closeConnection(true);
 		}
+		finally {
+			ByteBuffer buffer = null;
+			synchronized (this.rawBufferMonitor) {
+				this.reading = false;
+				// return the buffer to the pool while there is no partial data to retain
+				if (!this.isOpen() || (this.rawBuffer != null && this.rawBuffer.position() == 0)) {
+					buffer = detachRawBuffer();
+				}
+			}
+			releaseToPool(buffer);
+		}
+	}
+
+	/**
+	 * Detaches the raw buffer from this connection if it came from a buffer pool;
+	 * must be called while holding the rawBufferMonitor, under which the reading
+	 * flag is also set and cleared, so that a buffer is detached (and returned to the
+	 * pool) by either the reading thread or a closing thread, never both.
+	 * @return the buffer to release, or null.
+	 */
+	private ByteBuffer detachRawBuffer() {
+		if (this.bufferPool == null) {
+			return null;
+		}
+		ByteBuffer buffer = this.rawBuffer;
+		this.rawBuffer = null;
+		return buffer;
+	}
+
+	private void releaseToPool(ByteBuffer buffer) {
+		if (buffer != null && this.bufferPool != null) {
+			this.bufferPool.release(buffer);
+		}
 	}
 
 	/**
@@ -513,6 +764,17 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	/**
+	 * A pool from which to acquire the buffer that data is read into; when set, the
+	 * buffer is returned to the pool whenever it holds no partial message, so idle
+	 * connections do not each retain a buffer.
+	 * @param bufferPool the buffer pool.
+	 * @since 4.1
+	 */
+	public void setBufferPool(BufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
 	/**
 	 * If true, connection will attempt to use direct buffers where
 	 * possible.
@@ -74,6 +74,14 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 		this.sslEngine = sslEngine;
 	}
 
+	/**
+	 * Decrypted data is always piped to the assembler.
+	 */
+	@Override
+	protected boolean isDecodingFromBuffers() {
+		return false;
+	}
+
 	/**
 	 * Overrides super class method to perform decryption and/or participate
 	 * in handshaking. Decrypted data is sent to the super class to be
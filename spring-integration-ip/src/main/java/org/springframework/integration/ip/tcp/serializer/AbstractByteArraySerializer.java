@@ -17,6 +17,7 @@
 package org.springframework.integration.ip.tcp.serializer;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -25,6 +26,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Base class for (de)serializers that provide a mechanism to
@@ -45,6 +47,8 @@ public abstract class AbstractByteArraySerializer implements
 
 	private ApplicationEventPublisher applicationEventPublisher;
 
+	private volatile BufferPool bufferPool;
+
 	/**
 	 * The maximum supported message size for this serializer.
 	 * Default 2048.
@@ -63,6 +67,24 @@ public abstract class AbstractByteArraySerializer implements
 		this.maxMessageSize = maxMessageSize;
 	}
 
+	/**
+	 * A pool from which to acquire the working buffers used to assemble
+	 * messages; by default, a new buffer is allocated for each message.
+	 * @param bufferPool The buffer pool.
+	 * @since 4.1
+	 */
+	public void setBufferPool(BufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * @return The buffer pool, or null if none.
+	 * @since 4.1
+	 */
+	public BufferPool getBufferPool() {
+		return this.bufferPool;
+	}
+
 	@Override
 	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
 		this.applicationEventPublisher = applicationEventPublisher;
@@ -91,7 +113,50 @@ public abstract class AbstractByteArraySerializer implements
 		return assembledData;
 	}
 
+	/**
+	 * Acquire a working buffer from the buffer pool, if any, or allocate a new one.
+	 * The buffer may be longer than requested. It must be released with
+	 * {@link #releaseBuffer(byte[])} and must not be returned to the caller.
+	 * @param size The minimum size.
+	 * @return The buffer.
+	 * @since 4.1
+	 */
+	protected byte[] acquireBuffer(int size) {
+		BufferPool bufferPool = this.bufferPool;
+		return bufferPool != null ? bufferPool.acquire(size) : new byte[size];
+	}
+
+	/**
+	 * Release a buffer acquired with {@link #acquireBuffer(int)}.
+	 * @param buffer The buffer; may be null.
+	 * @since 4.1
+	 */
+	protected void releaseBuffer(byte[] buffer) {
+		BufferPool bufferPool = this.bufferPool;
+		if (bufferPool != null && buffer != null) {
+			bufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Determine whether this object's class overrides a method declared by a
+	 * base class; used to detect subclasses that customize the stream format.
+	 * @param baseClass The class declaring the method.
+	 * @param methodName The method name.
+	 * @param parameterTypes The method parameter types.
+	 * @return true if the method is overridden.
+	 * @since 4.1
+	 */
+	protected final boolean isOverridden(Class<?> baseClass, String methodName, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(this.getClass(), methodName, parameterTypes);
+		return method != null && !method.getDeclaringClass().equals(baseClass);
+	}
+
 	protected void publishEvent(Exception cause, byte[] buffer, int offset) {
+		if (this.bufferPool != null && buffer != null) {
+			// the buffer may be a pooled working buffer
+			buffer = buffer.clone();
+		}
 		TcpDeserializationExceptionEvent event = new TcpDeserializationExceptionEvent(this, cause, buffer, offset);
 		if (this.applicationEventPublisher != null) {
 			this.applicationEventPublisher.publishEvent(event);
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A pool of reusable buffers, used by (de)serializers for their working
+ * storage and by NIO connections for their read buffers, to avoid allocating
+ * large buffers for each message or connection.
+ * <p>
+ * A buffer must not be used after it has been released; buffers that are
+ * not released are reclaimed by the garbage collector as usual.
+ *
+ * @since 4.1
+ *
+ */
+public interface BufferPool {
+
+	/**
+	 * Acquire an array.
+	 * @param size the minimum size.
+	 * @return an array of at least the requested size; its content is undefined.
+	 */
+	byte[] acquire(int size);
+
+	/**
+	 * Return an array to the pool.
+	 * @param array the array.
+	 */
+	void release(byte[] array);
+
+	/**
+	 * Acquire a buffer.
+	 * @param size the minimum capacity.
+	 * @param direct true for a direct buffer, false for a heap buffer.
+	 * @return a cleared buffer with at least the requested capacity; its content is undefined.
+	 */
+	ByteBuffer acquireBuffer(int size, boolean direct);
+
+	/**
+	 * Return a buffer to the pool.
+	 * @param buffer the buffer.
+	 */
+	void release(ByteBuffer buffer);
+
+}
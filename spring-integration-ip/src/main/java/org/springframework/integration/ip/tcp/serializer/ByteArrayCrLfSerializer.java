@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by \r\n
@@ -28,10 +29,15 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer {
+public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer
+		implements ByteBufferDeserializer<byte[]> {
 
 	private static final byte[] CRLF = "\r\n".getBytes();
 
+	private final boolean supportsByteBuffers =
+			!(isOverridden(ByteArrayCrLfSerializer.class, "deserialize", InputStream.class)
+					|| isOverridden(ByteArrayCrLfSerializer.class, "fillToCrLf", InputStream.class, byte[].class));
+
 	/**
 	 * Reads the data in the inputStream to a byte[]. Data must be terminated
 	 * by CRLF (\r\n). Throws a {@link SoftEndOfStreamException} if the stream
@@ -40,9 +46,14 @@ public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer {
 	 */
 	@Override
 	public byte[] deserialize(InputStream inputStream) throws IOException {
-		byte[] buffer = new byte[this.maxMessageSize];
-		int n = this.fillToCrLf(inputStream, buffer);
-		return this.copyToSizedArray(buffer, n);
+		byte[] buffer = this.acquireBuffer(this.maxMessageSize);
+		try {
+			int n = this.fillToCrLf(inputStream, buffer);
+			return this.copyToSizedArray(buffer, n);
+		}
+		finally {
+			this.releaseBuffer(buffer);
+		}
 	}
 
 	public int fillToCrLf(InputStream inputStream, byte[] buffer) throws IOException {
@@ -82,6 +93,41 @@ public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer {
 		}
 	}
 
+	/**
+	 * Decodes the data up to the next CRLF (\r\n) in the buffer, if present.
+	 * Throws an IOException if the CRLF is not found before max message length.
+	 * @since 4.1
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		int limit = buffer.limit();
+		int n = 0;
+		while (start + n < limit) {
+			if (n > 0 && buffer.get(start + n) == '\n' && buffer.get(start + n - 1) == '\r') {
+				byte[] assembledData = new byte[n - 1]; // trim \r
+				buffer.get(assembledData);
+				buffer.position(start + n + 1);
+				return assembledData;
+			}
+			if (++n >= this.maxMessageSize) {
+				IOException e = new IOException("CRLF not found before max message length: "
+						+ this.maxMessageSize);
+				byte[] data = new byte[n];
+				buffer.get(data);
+				buffer.position(start);
+				publishEvent(e, data, n);
+				throw e;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean supportsByteBuffers() {
+		return this.supportsByteBuffers;
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends \r\n.
 	 */
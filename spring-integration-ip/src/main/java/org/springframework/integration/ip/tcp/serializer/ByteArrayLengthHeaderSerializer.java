@@ -37,12 +37,15 @@ import org.apache.commons.logging.LogFactory;
  * Other options are an unsigned byte, and unsigned short.
  *
  * For other header formats, override {@link #readHeader(InputStream)} and
- * {@link #writeHeader(OutputStream, int)}.
+ * {@link #writeHeader(OutputStream, int)}. Such subclasses are not used to decode
+ * frames from NIO buffers (see {@link ByteBufferDeserializer}) unless they also
+ * override {@link #readHeader(ByteBuffer)}.
  *
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer {
+public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
+		implements ByteBufferDeserializer<byte[]> {
 
 
 	/**
@@ -64,6 +67,8 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 
 	private final Log logger = LogFactory.getLog(this.getClass());
 
+	private final boolean supportsByteBuffers;
+
 	/**
 	 * Constructs the serializer using {@link #HEADER_SIZE_INT}
 	 */
@@ -84,6 +89,9 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 			throw new IllegalArgumentException("Illegal header size:" + headerSize);
 		}
 		this.headerSize = headerSize;
+		this.supportsByteBuffers = !(isOverridden(ByteArrayLengthHeaderSerializer.class, "deserialize", InputStream.class)
+				|| (isOverridden(ByteArrayLengthHeaderSerializer.class, "readHeader", InputStream.class)
+						&& !isOverridden(ByteArrayLengthHeaderSerializer.class, "readHeader", ByteBuffer.class)));
 	}
 
 	/**
@@ -122,6 +130,46 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		}
 	}
 
+	/**
+	 * Decodes the next message from the buffer, if the header and the
+	 * complete data are present. Throws an IOException if the length field
+	 * exceeds the maxMessageSize.
+	 * @param buffer The buffer.
+	 * @return The data, or null if the buffer does not contain a complete message.
+	 * @throws IOException Any IOException.
+	 * @since 4.1
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		int messageLength = this.readHeader(buffer);
+		if (messageLength < 0) {
+			return null;
+		}
+		try {
+			if (messageLength > this.maxMessageSize) {
+				throw new IOException("Message length " + messageLength +
+						" exceeds max message length: " + this.maxMessageSize);
+			}
+		}
+		catch (IOException e) {
+			publishEvent(e, null, -1);
+			throw e;
+		}
+		if (buffer.remaining() < messageLength) {
+			buffer.position(start);
+			return null;
+		}
+		byte[] messagePart = new byte[messageLength];
+		buffer.get(messagePart);
+		return messagePart;
+	}
+
+	@Override
+	public boolean supportsByteBuffers() {
+		return this.supportsByteBuffers;
+	}
+
 	/**
 	 * Writes the byte[] to the output stream, preceded by a 4 byte
 	 * length in network byte order (big endian).
@@ -253,4 +301,46 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 			throw e;
 		}
 	}
+
+	/**
+	 * Reads the header, if present, from the buffer and returns the length of
+	 * the data part; the buffer position is advanced past the header.
+	 * Subclasses that override {@link #readHeader(InputStream)} should
+	 * override this method too.
+	 * @param buffer The buffer.
+	 * @return The length of the data part, or -1 (leaving the position unchanged)
+	 * if the buffer does not contain the complete header.
+	 * @since 4.1
+	 */
+	protected int readHeader(ByteBuffer buffer) {
+		if (buffer.remaining() < this.headerSize) {
+			return -1;
+		}
+		int start = buffer.position();
+		int messageLength;
+		switch (this.headerSize) {
+		case HEADER_SIZE_INT:
+			messageLength = buffer.getInt();
+			if (messageLength < 0) {
+				IllegalArgumentException e = new IllegalArgumentException("Length header:"
+						+ messageLength
+						+ " is negative");
+				byte[] lengthPart = new byte[this.headerSize];
+				buffer.position(start);
+				buffer.get(lengthPart);
+				publishEvent(e, lengthPart, -1);
+				throw e;
+			}
+			break;
+		case HEADER_SIZE_UNSIGNED_BYTE:
+			messageLength = buffer.get() & 0xff;
+			break;
+		case HEADER_SIZE_UNSIGNED_SHORT:
+			messageLength = buffer.getShort() & 0xffff;
+			break;
+		default:
+			throw new IllegalArgumentException("Bad header size:" + headerSize);
+		}
+		return messageLength;
+	}
 }
@@ -44,7 +44,7 @@ public class ByteArrayRawSerializer extends AbstractByteArraySerializer {
 
 	@Override
 	public byte[] deserialize(InputStream inputStream) throws IOException {
-		byte[] buffer = new byte[this.maxMessageSize];
+		byte[] buffer = this.acquireBuffer(this.maxMessageSize);
 		int n = 0;
 		int bite = 0;
 		if (logger.isDebugEnabled()) {
@@ -80,6 +80,9 @@ public class ByteArrayRawSerializer extends AbstractByteArraySerializer {
 			publishEvent(e, buffer, n);
 			throw e;
 		}
+		finally {
+			this.releaseBuffer(buffer);
+		}
 	}
 
 }
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by a single
@@ -28,10 +29,14 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.2
  */
-public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerializer {
+public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerializer
+		implements ByteBufferDeserializer<byte[]> {
 
 	private final byte terminator;
 
+	private final boolean supportsByteBuffers =
+			!isOverridden(ByteArraySingleTerminatorSerializer.class, "deserialize", InputStream.class);
+
 	public ByteArraySingleTerminatorSerializer(byte delimiter) {
 		this.terminator = delimiter;
 	}
@@ -44,7 +49,7 @@ public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerial
 	 */
 	@Override
 	public byte[] deserialize(InputStream inputStream) throws IOException {
-		byte[] buffer = new byte[this.maxMessageSize];
+		byte[] buffer = this.acquireBuffer(this.maxMessageSize);
 		int n = 0;
 		int bite;
 		if (logger.isDebugEnabled()) {
@@ -82,6 +87,45 @@ public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerial
 			publishEvent(e, buffer, n);
 			throw e;
 		}
+		finally {
+			this.releaseBuffer(buffer);
+		}
+	}
+
+	/**
+	 * Decodes the data up to the next terminator in the buffer, if present.
+	 * Throws an IOException if the terminator is not found before max message length.
+	 * @since 4.1
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		int limit = buffer.limit();
+		int n = 0;
+		while (start + n < limit) {
+			if (buffer.get(start + n) == terminator) {
+				byte[] assembledData = new byte[n];
+				buffer.get(assembledData);
+				buffer.position(start + n + 1);
+				return assembledData;
+			}
+			if (++n >= this.maxMessageSize) {
+				IOException e = new IOException("Terminator '0x" + Integer.toHexString(terminator & 0xff)
+						+ "' not found before max message length: "
+						+ this.maxMessageSize);
+				byte[] data = new byte[n];
+				buffer.get(data);
+				buffer.position(start);
+				publishEvent(e, data, n);
+				throw e;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean supportsByteBuffers() {
+		return this.supportsByteBuffers;
 	}
 
 	/**
@@ -56,7 +56,7 @@ public class ByteArrayStxEtxSerializer extends AbstractByteArraySerializer {
 			if (bite != STX) {
 				throw new MessageMappingException("Expected STX to begin message");
 			}
-			buffer = new byte[this.maxMessageSize];
+			buffer = this.acquireBuffer(this.maxMessageSize);
 			while ((bite = inputStream.read()) != ETX) {
 				checkClosure(bite);
 				buffer[n++] = (byte) bite;
@@ -77,6 +77,9 @@ public class ByteArrayStxEtxSerializer extends AbstractByteArraySerializer {
 			publishEvent(e, buffer, n);
 			throw e;
 		}
+		finally {
+			this.releaseBuffer(buffer);
+		}
 	}
 
 	/**
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by deserializers that can decode frames directly from a
+ * {@link ByteBuffer} containing data received from the network. NIO connections
+ * use this, when supported, to decode frames on the thread that reads the
+ * socket, instead of piping the data to an {@code InputStream} that is read a
+ * byte at a time.
+ *
+ * @param <T> the type of the decoded objects.
+ *
+ * @since 4.1
+ *
+ */
+public interface ByteBufferDeserializer<T> {
+
+	/**
+	 * Decode the next frame from the buffer, starting at its position. If the buffer
+	 * (between its position and limit) contains a complete frame, the position is
+	 * advanced past the frame; otherwise the position is unchanged and null is
+	 * returned; the caller will invoke this method again when more data has been
+	 * appended.
+	 * <p>
+	 * Implementations must throw an exception, rather than return null, once the
+	 * buffer contains more data than the largest frame they allow, so that the
+	 * caller's buffer is bounded.
+	 * @param buffer the buffer.
+	 * @return the decoded object, or null if the buffer does not contain a complete frame.
+	 * @throws IOException if the data is not valid.
+	 */
+	T deserialize(ByteBuffer buffer) throws IOException;
+
+	/**
+	 * @return true if {@link #deserialize(ByteBuffer)} is consistent with the stream
+	 * based deserialization of this object; false, for example, if a subclass has
+	 * customized the stream format, in which case the stream is used.
+	 */
+	boolean supportsByteBuffers();
+
+}
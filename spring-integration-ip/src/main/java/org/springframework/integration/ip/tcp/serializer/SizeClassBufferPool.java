@@ -0,0 +1,319 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link BufferPool} that keeps released buffers in slabs of power-of-two size
+ * classes, between a minimum and a maximum size; requests are rounded up to the next
+ * size class. Requests larger than the maximum size are not pooled. Heap buffers are
+ * backed by pooled arrays; direct buffers are pooled separately. Each slab retains at
+ * most {@link #setMaxBuffersPerSizeClass(int) maxBuffersPerSizeClass} buffers; further
+ * released buffers are left to the garbage collector.
+ * <p>
+ * When leak detection is enabled (by default, when DEBUG logging is enabled for this
+ * class), the pool records where each buffer was acquired and logs an error, with that
+ * stack trace, when a buffer is garbage collected without having been released; it also
+ * warns when a buffer is released twice, ignoring the second release. This has a
+ * significant overhead and is intended for diagnosis only.
+ *
+ * @since 4.1
+ *
+ */
+public class SizeClassBufferPool implements BufferPool {
+
+	private static final Log logger = LogFactory.getLog(SizeClassBufferPool.class);
+
+	private final int minSizeShift;
+
+	private final int maxSize;
+
+	private final Slab[] arrays;
+
+	private final Slab[] directBuffers;
+
+	private volatile int maxBuffersPerSizeClass = 64;
+
+	private volatile boolean leakDetection = logger.isDebugEnabled();
+
+	private final ReferenceQueue<Object> leakQueue = new ReferenceQueue<Object>();
+
+	private final Map<LeakRecord, LeakRecord> outstanding = new ConcurrentHashMap<LeakRecord, LeakRecord>();
+
+	private final AtomicInteger leakCount = new AtomicInteger();
+
+	/**
+	 * Construct a pool with size classes from 256 bytes to 64 KB.
+	 */
+	public SizeClassBufferPool() {
+		this(256, 64 * 1024);
+	}
+
+	/**
+	 * Construct a pool with the supplied size bounds, each of which is rounded up to a
+	 * power of two.
+	 * @param minSize the smallest size class.
+	 * @param maxSize the largest size class.
+	 */
+	public SizeClassBufferPool(int minSize, int maxSize) {
+		Assert.isTrue(minSize > 0, "'minSize' must be greater than 0");
+		Assert.isTrue(maxSize >= minSize, "'maxSize' must not be less than 'minSize'");
+		Assert.isTrue(maxSize <= 1 << 30, "'maxSize' must not be greater than 2**30");
+		this.minSizeShift = ceilLog2(minSize);
+		this.maxSize = 1 << ceilLog2(maxSize);
+		int sizeClasses = ceilLog2(maxSize) - this.minSizeShift + 1;
+		this.arrays = new Slab[sizeClasses];
+		this.directBuffers = new Slab[sizeClasses];
+		for (int i = 0; i < sizeClasses; i++) {
+			this.arrays[i] = new Slab();
+			this.directBuffers[i] = new Slab();
+		}
+	}
+
+	/**
+	 * The maximum number of released buffers retained for each size class (separately for
+	 * arrays and direct buffers). Default 64.
+	 * @param maxBuffersPerSizeClass the maximum.
+	 */
+	public void setMaxBuffersPerSizeClass(int maxBuffersPerSizeClass) {
+		Assert.isTrue(maxBuffersPerSizeClass >= 0, "'maxBuffersPerSizeClass' must not be negative");
+		this.maxBuffersPerSizeClass = maxBuffersPerSizeClass;
+	}
+
+	/**
+	 * Enable or disable leak detection; must be set before the pool is used. Default
+	 * true if DEBUG logging is enabled for this class.
+	 * @param leakDetection true to enable leak detection.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * @return the number of leaked buffers detected so far; always 0 unless leak
+	 * detection is enabled.
+	 */
+	public int getLeakCount() {
+		reportLeaks();
+		return this.leakCount.get();
+	}
+
+	/**
+	 * @return the number of pooled buffers currently acquired and not released; always 0
+	 * unless leak detection is enabled.
+	 */
+	public int getOutstandingCount() {
+		return this.outstanding.size();
+	}
+
+	@Override
+	public byte[] acquire(int size) {
+		Assert.isTrue(size >= 0, "'size' must not be negative");
+		int sizeClass = sizeClass(size);
+		if (sizeClass < 0) {
+			return new byte[size];
+		}
+		byte[] array = (byte[]) this.arrays[sizeClass].poll();
+		if (array == null) {
+			array = new byte[sizeOf(sizeClass)];
+		}
+		track(array);
+		return array;
+	}
+
+	@Override
+	public void release(byte[] array) {
+		if (array != null) {
+			doRelease(this.arrays, array, array.length);
+		}
+	}
+
+	@Override
+	public ByteBuffer acquireBuffer(int size, boolean direct) {
+		if (!direct) {
+			return ByteBuffer.wrap(acquire(size));
+		}
+		Assert.isTrue(size >= 0, "'size' must not be negative");
+		int sizeClass = sizeClass(size);
+		if (sizeClass < 0) {
+			return ByteBuffer.allocateDirect(size);
+		}
+		ByteBuffer buffer = (ByteBuffer) this.directBuffers[sizeClass].poll();
+		if (buffer == null) {
+			buffer = ByteBuffer.allocateDirect(sizeOf(sizeClass));
+		}
+		else {
+			buffer.clear();
+		}
+		track(buffer);
+		return buffer;
+	}
+
+	@Override
+	public void release(ByteBuffer buffer) {
+		if (buffer == null) {
+			return;
+		}
+		if (buffer.isDirect()) {
+			doRelease(this.directBuffers, buffer, buffer.capacity());
+		}
+		else if (buffer.hasArray() && buffer.arrayOffset() == 0) {
+			release(buffer.array());
+		}
+	}
+
+	private void doRelease(Slab[] slabs, Object buffer, int size) {
+		int sizeClass = sizeClass(size);
+		if (sizeClass < 0 || sizeOf(sizeClass) != size) {
+			// not from this pool
+			return;
+		}
+		if (untrack(buffer)) {
+			slabs[sizeClass].offer(buffer, this.maxBuffersPerSizeClass);
+		}
+	}
+
+	private int sizeClass(int size) {
+		if (size > this.maxSize) {
+			return -1;
+		}
+		return Math.max(ceilLog2(size) - this.minSizeShift, 0);
+	}
+
+	private int sizeOf(int sizeClass) {
+		return 1 << (sizeClass + this.minSizeShift);
+	}
+
+	private static int ceilLog2(int size) {
+		return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+	}
+
+	private void track(Object buffer) {
+		if (this.leakDetection) {
+			reportLeaks();
+			LeakRecord record = new LeakRecord(buffer, this.leakQueue, new Exception("Buffer acquired here"));
+			this.outstanding.put(record, record);
+		}
+	}
+
+	/**
+	 * @return false if the buffer must not be returned to the pool because it was
+	 * already released.
+	 */
+	private boolean untrack(Object buffer) {
+		if (!this.leakDetection) {
+			return true;
+		}
+		LeakRecord record = this.outstanding.remove(new LeakRecord(buffer, null, null));
+		if (record == null) {
+			logger.warn("Ignoring the release of a buffer that was already released, or was not acquired "
+					+ "from this pool", new Exception("Buffer released here"));
+			return false;
+		}
+		record.clear();
+		return true;
+	}
+
+	private void reportLeaks() {
+		Reference<?> reference = this.leakQueue.poll();
+		while (reference != null) {
+			LeakRecord record = this.outstanding.remove(reference);
+			if (record != null) {
+				this.leakCount.incrementAndGet();
+				logger.error("A buffer was garbage collected without being released to the pool",
+						record.acquiredAt);
+			}
+			reference = this.leakQueue.poll();
+		}
+	}
+
+
+	private static final class Slab {
+
+		private final Queue<Object> buffers = new ConcurrentLinkedQueue<Object>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		private Object poll() {
+			Object buffer = this.buffers.poll();
+			if (buffer != null) {
+				this.size.decrementAndGet();
+			}
+			return buffer;
+		}
+
+		private void offer(Object buffer, int maxSize) {
+			if (this.size.incrementAndGet() > maxSize) {
+				this.size.decrementAndGet();
+			}
+			else {
+				this.buffers.offer(buffer);
+			}
+		}
+
+	}
+
+	/**
+	 * Weakly references an acquired buffer; compares by buffer identity, so that it
+	 * can be found when the buffer is released.
+	 */
+	private static final class LeakRecord extends WeakReference<Object> {
+
+		private final int hash;
+
+		private final Exception acquiredAt;
+
+		private LeakRecord(Object buffer, ReferenceQueue<Object> queue, Exception acquiredAt) {
+			super(buffer, queue);
+			this.hash = System.identityHashCode(buffer);
+			this.acquiredAt = acquiredAt;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof LeakRecord)) {
+				return false;
+			}
+			Object buffer = this.get();
+			return buffer != null && buffer == ((LeakRecord) obj).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+}
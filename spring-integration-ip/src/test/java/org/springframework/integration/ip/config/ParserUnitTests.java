@@ -40,6 +40,7 @@ import org.springframework.core.io.UrlResource;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.integration.aggregator.CorrelationStrategy;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.core.MessagingTemplate;
@@ -66,6 +67,7 @@ import org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionF
 import org.springframework.integration.ip.tcp.connection.TcpSSLContextSupport;
 import org.springframework.integration.ip.tcp.connection.TcpSocketFactorySupport;
 import org.springframework.integration.ip.tcp.connection.TcpSocketSupport;
+import org.springframework.integration.ip.tcp.serializer.BufferPool;
 import org.springframework.integration.ip.udp.DatagramPacketMessageMapper;
 import org.springframework.integration.ip.udp.MulticastReceivingChannelAdapter;
 import org.springframework.integration.ip.udp.MulticastSendingMessageHandler;
@@ -132,6 +134,9 @@ public class ParserUnitTests {
 	@Qualifier(value="inGateway2")
 	TcpInboundGateway tcpInboundGateway2;
 
+	@Autowired
+	CorrelationStrategy correlationStrategy;
+
 	@Autowired
 	@Qualifier(value="outGateway.handler")
 	TcpOutboundGateway tcpOutboundGateway;
@@ -152,6 +157,9 @@ public class ParserUnitTests {
 	@Qualifier(value="externalTE")
 	TaskExecutor taskExecutor;
 
+	@Autowired
+	BufferPool bufferPool;
+
 	@Autowired
 	AbstractConnectionFactory client1;
 
@@ -492,6 +500,8 @@ public class ParserUnitTests {
 				MessagingTemplate.class);
 		assertEquals(Long.valueOf(567), TestUtils.getPropertyValue(messagingTemplate, "sendTimeout", Long.class));
 		assertEquals(789L, dfa.getPropertyValue("remoteTimeout"));
+		assertSame(correlationStrategy, dfa.getPropertyValue("correlationStrategy"));
+		assertEquals(12, dfa.getPropertyValue("maxInFlight"));
 		assertEquals("outGateway",tcpOutboundGateway.getComponentName());
 		assertEquals("ip:tcp-outbound-gateway", tcpOutboundGateway.getComponentType());
 		assertTrue(cfC2.isLookupHost());
@@ -537,6 +547,7 @@ public class ParserUnitTests {
 		assertSame(taskExecutor, dfa.getPropertyValue("taskExecutor"));
 		assertEquals(123, dfa.getPropertyValue("backlog"));
 		assertEquals(true, dfa.getPropertyValue("usingDirectBuffers"));
+		assertSame(bufferPool, dfa.getPropertyValue("bufferPool"));
 		assertNotNull(dfa.getPropertyValue("interceptorFactoryChain"));
 	}
 
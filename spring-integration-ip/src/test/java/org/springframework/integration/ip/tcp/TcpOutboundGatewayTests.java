@@ -26,8 +26,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.ServerSocket;
@@ -41,6 +43,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +61,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.serializer.DefaultDeserializer;
 import org.springframework.core.serializer.DefaultSerializer;
 import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.aggregator.CorrelationStrategy;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.AbstractConnectionFactory;
@@ -204,6 +208,93 @@ public class TcpOutboundGatewayTests {
 		gateway.stop();
 	}
 
+	@Test
+	public void testGoodNetPipelined() throws Exception {
+		final int port = SocketUtils.findAvailableServerSocket();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicBoolean done = new AtomicBoolean();
+		Executors.newSingleThreadExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(port, 10);
+					latch.countDown();
+					Socket socket = server.accept();
+					BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+					List<String> requests = new ArrayList<String>();
+					// all requests must be in flight before we reply, in reverse order
+					for (int i = 0; i < 10; i++) {
+						requests.add(reader.readLine());
+					}
+					Collections.reverse(requests);
+					for (String request : requests) {
+						socket.getOutputStream().write((request.replace("Test", "Reply") + "\r\n").getBytes());
+					}
+					socket.getOutputStream().flush();
+					reader.readLine();
+				}
+				catch (Exception e) {
+					if (!done.get()) {
+						e.printStackTrace();
+					}
+				}
+			}
+		});
+		AbstractConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost", port);
+		ccf.setSoTimeout(10000);
+		ccf.setSingleUse(false);
+		ccf.start();
+		assertTrue(latch.await(10000, TimeUnit.MILLISECONDS));
+		final TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setCorrelationStrategy(new CorrelationStrategy() {
+
+			@Override
+			public Object getCorrelationKey(Message<?> message) {
+				Object payload = message.getPayload();
+				String string = payload instanceof byte[] ? new String((byte[]) payload) : (String) payload;
+				return string.substring(0, string.indexOf(':'));
+			}
+
+		});
+		gateway.setMaxInFlight(10);
+		final QueueChannel replyChannel = new QueueChannel();
+		gateway.setRequiresReply(true);
+		gateway.setOutputChannel(replyChannel);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		List<Future<Object>> results = new ArrayList<Future<Object>>();
+		ExecutorService exec = Executors.newFixedThreadPool(10);
+		for (int i = 0; i < 10; i++) {
+			final int n = i;
+			results.add(exec.submit(new Callable<Object>() {
+
+				@Override
+				public Object call() throws Exception {
+					gateway.handleMessage(MessageBuilder.withPayload(n + ":Test" + n).build());
+					return null;
+				}
+
+			}));
+		}
+		for (Future<Object> result : results) {
+			result.get(10, TimeUnit.SECONDS);
+		}
+		Set<String> replies = new HashSet<String>();
+		for (int i = 0; i < 10; i++) {
+			Message<?> m = replyChannel.receive(10000);
+			assertNotNull(m);
+			replies.add(new String((byte[]) m.getPayload()));
+		}
+		for (int i = 0; i < 10; i++) {
+			assertTrue(replies.remove(i + ":Reply" + i));
+		}
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "pendingCorrelatedReplies", Map.class).size());
+		done.set(true);
+		exec.shutdownNow();
+		gateway.stop();
+	}
+
 	@Test
 	public void testGoodNetTimeout() throws Exception {
 		final int port = SocketUtils.findAvailableServerSocket();
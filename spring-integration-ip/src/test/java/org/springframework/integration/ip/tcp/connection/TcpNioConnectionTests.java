@@ -75,6 +75,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.integration.ip.tcp.connection.TcpNioConnection.ChannelInputStream;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.tcp.serializer.MapJsonSerializer;
+import org.springframework.integration.ip.tcp.serializer.SizeClassBufferPool;
 import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.support.converter.MapMessageConverter;
@@ -734,6 +735,15 @@ public class TcpNioConnectionTests {
 		te.setQueueCapacity(0);
 		te.initialize();
 		factory.setTaskExecutor(te);
+		// a deserializer that does not support buffers, so the data is piped to the assembler
+		factory.setDeserializer(new ByteArrayCrLfSerializer() {
+
+			@Override
+			public byte[] deserialize(InputStream inputStream) throws IOException {
+				return super.deserialize(inputStream);
+			}
+
+		});
 		factory.start();
 		TestingUtilities.waitListening(factory, 10000L);
 		Socket socket = SocketFactory.getDefault().createSocket("localhost", port);
@@ -794,6 +804,85 @@ public class TcpNioConnectionTests {
 		factory.stop();
 	}
 
+	@Test
+	public void testFramesDecodedFromBuffer() throws Exception {
+		final int port = SocketUtils.findAvailableServerSocket();
+		TcpNioServerConnectionFactory factory = new TcpNioServerConnectionFactory(port);
+		final int count = 100;
+		final List<String> payloads = new ArrayList<String>();
+		final CountDownLatch latch = new CountDownLatch(count);
+		factory.registerListener(new TcpListener() {
+
+			@Override
+			public boolean onMessage(Message<?> message) {
+				payloads.add(new String((byte[]) message.getPayload()));
+				latch.countDown();
+				return false;
+			}
+
+		});
+		factory.start();
+		TestingUtilities.waitListening(factory, 10000L);
+		Socket socket = SocketFactory.getDefault().createSocket("localhost", port);
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			data.append("foo").append(i).append("\r\n");
+		}
+		// split the last frame across two writes
+		String all = data.toString();
+		socket.getOutputStream().write(all.substring(0, all.length() - 3).getBytes());
+		Thread.sleep(100);
+		socket.getOutputStream().write(all.substring(all.length() - 3).getBytes());
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < count; i++) {
+			assertEquals("foo" + i, payloads.get(i));
+		}
+		TcpNioConnection connection = (TcpNioConnection) TestUtils.getPropertyValue(factory, "connections", List.class).get(0);
+		assertNotNull(TestUtils.getPropertyValue(connection, "bufferDeserializer"));
+		assertEquals(0, TestUtils.getPropertyValue(connection, "channelInputStream", ChannelInputStream.class).available());
+		socket.close();
+		factory.stop();
+	}
+
+	@Test
+	public void testReadBufferReturnedToPool() throws Exception {
+		final int port = SocketUtils.findAvailableServerSocket();
+		TcpNioServerConnectionFactory factory = new TcpNioServerConnectionFactory(port);
+		SizeClassBufferPool pool = new SizeClassBufferPool();
+		pool.setLeakDetection(true);
+		factory.setBufferPool(pool);
+		final CountDownLatch latch = new CountDownLatch(1);
+		factory.registerListener(new TcpListener() {
+
+			@Override
+			public boolean onMessage(Message<?> message) {
+				latch.countDown();
+				return false;
+			}
+
+		});
+		factory.start();
+		TestingUtilities.waitListening(factory, 10000L);
+		Socket socket = SocketFactory.getDefault().createSocket("localhost", port);
+		socket.getOutputStream().write("foo\r\n".getBytes());
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		waitForOutstanding(pool, 0);
+		// a partial message retains the buffer until the connection is closed
+		socket.getOutputStream().write("fo".getBytes());
+		waitForOutstanding(pool, 1);
+		socket.close();
+		waitForOutstanding(pool, 0);
+		factory.stop();
+	}
+
+	private void waitForOutstanding(SizeClassBufferPool pool, int expected) throws InterruptedException {
+		int n = 0;
+		while (pool.getOutstandingCount() != expected && n++ < 100) {
+			Thread.sleep(100);
+		}
+		assertEquals(expected, pool.getOutstandingCount());
+	}
+
 	private void readFully(InputStream is, byte[] buff) throws IOException {
 		for (int i = 0; i < buff.length; i++) {
 			buff[i] = (byte) is.read();
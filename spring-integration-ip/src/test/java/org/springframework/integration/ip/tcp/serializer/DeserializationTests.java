@@ -18,15 +18,20 @@ package org.springframework.integration.ip.tcp.serializer;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -288,6 +293,91 @@ public class DeserializationTests {
 		assertEquals(2, event.getOffset());
 	}
 
+	@Test
+	public void testBufferDeserialization() throws Exception {
+		doDeserializeBuffer(new ByteArrayLengthHeaderSerializer(),
+				new byte[] { 0, 0, 0, 3, 'f', 'o', 'o', 0, 0, 0, 0, 0, 0, 0, 5, 'b', 'a' }, "foo", "");
+		doDeserializeBuffer(new ByteArrayLengthHeaderSerializer(ByteArrayLengthHeaderSerializer.HEADER_SIZE_UNSIGNED_SHORT),
+				new byte[] { 0, 3, 'f', 'o', 'o', 0, 5, 'b', 'a' }, "foo");
+		doDeserializeBuffer(new ByteArrayCrLfSerializer(), "foo\r\n\r\nbar\r".getBytes(), "foo", "");
+		doDeserializeBuffer(new ByteArrayLfSerializer(), "foo\n\nbar".getBytes(), "foo", "");
+	}
+
+	@Test
+	public void testBufferDeserializationOverflow() throws Exception {
+		ByteArrayLengthHeaderSerializer lengthHeader = new ByteArrayLengthHeaderSerializer();
+		lengthHeader.setMaxMessageSize(5);
+		ByteBuffer data = ByteBuffer.allocate(4);
+		data.putInt(6).flip();
+		try {
+			lengthHeader.deserialize(data);
+			fail("expected exception");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("Message length 6 exceeds max message length: 5"));
+		}
+		ByteArrayCrLfSerializer crLf = new ByteArrayCrLfSerializer();
+		crLf.setMaxMessageSize(5);
+		assertNull(crLf.deserialize(ByteBuffer.wrap("foob".getBytes())));
+		try {
+			crLf.deserialize(ByteBuffer.wrap("fooba".getBytes()));
+			fail("expected exception");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("CRLF not found before max message length: 5"));
+		}
+	}
+
+	@Test
+	public void testCustomStreamFormatDisablesBuffers() {
+		assertTrue(new ByteArrayLengthHeaderSerializer().supportsByteBuffers());
+		assertTrue(new ByteArrayLfSerializer().supportsByteBuffers());
+		assertFalse(new ByteArrayLengthHeaderSerializer() {
+
+			@Override
+			protected int readHeader(InputStream inputStream) throws IOException {
+				return inputStream.read();
+			}
+
+		}.supportsByteBuffers());
+		assertTrue(new ByteArrayLengthHeaderSerializer() {
+
+			@Override
+			protected int readHeader(InputStream inputStream) throws IOException {
+				return inputStream.read();
+			}
+
+			@Override
+			protected int readHeader(ByteBuffer buffer) {
+				return buffer.hasRemaining() ? buffer.get() : -1;
+			}
+
+		}.supportsByteBuffers());
+	}
+
+	/**
+	 * Feeds the data to the deserializer a byte at a time, as if each byte was
+	 * a separate network read, and verifies the decoded frames; the remaining data
+	 * is an incomplete frame.
+	 */
+	private void doDeserializeBuffer(ByteBufferDeserializer<byte[]> deser, byte[] data, String... expected)
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(data.length);
+		int frames = 0;
+		for (byte b : data) {
+			buffer.put(b);
+			buffer.flip();
+			byte[] frame = deser.deserialize(buffer);
+			while (frame != null) {
+				assertEquals(expected[frames++], new String(frame));
+				frame = deser.deserialize(buffer);
+			}
+			buffer.compact();
+		}
+		assertEquals(expected.length, frames);
+		assertTrue(buffer.position() > 0);
+	}
+
 	private TcpDeserializationExceptionEvent doDeserialize(AbstractByteArraySerializer deser, String expectedMessage) {
 		return doDeserialize(deser, expectedMessage, "foobar".getBytes(), 5);
 	}
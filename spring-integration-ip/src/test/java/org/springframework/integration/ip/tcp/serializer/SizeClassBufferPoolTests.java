@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * @since 4.1
+ *
+ */
+public class SizeClassBufferPoolTests {
+
+	@Test
+	public void testSizeClasses() {
+		SizeClassBufferPool pool = new SizeClassBufferPool(256, 4096);
+		assertEquals(256, pool.acquire(0).length);
+		assertEquals(256, pool.acquire(256).length);
+		assertEquals(512, pool.acquire(257).length);
+		assertEquals(4096, pool.acquire(4000).length);
+		assertEquals(5000, pool.acquire(5000).length);
+		assertEquals(1024, pool.acquireBuffer(1000, true).capacity());
+		assertEquals(1024, pool.acquireBuffer(1000, false).capacity());
+	}
+
+	@Test
+	public void testReuse() {
+		SizeClassBufferPool pool = new SizeClassBufferPool(256, 4096);
+		pool.setMaxBuffersPerSizeClass(1);
+		byte[] array1 = pool.acquire(1000);
+		byte[] array2 = pool.acquire(1000);
+		pool.release(array1);
+		pool.release(array2);
+		assertSame(array1, pool.acquire(600));
+		assertNotSame(array2, pool.acquire(600));
+
+		ByteBuffer heap = pool.acquireBuffer(1000, false);
+		byte[] array = heap.array();
+		heap.put((byte) 1);
+		pool.release(heap);
+		assertSame(array, pool.acquire(1000));
+
+		ByteBuffer direct = pool.acquireBuffer(1000, true);
+		direct.put((byte) 1);
+		pool.release(direct);
+		ByteBuffer reused = pool.acquireBuffer(1000, true);
+		assertSame(direct, reused);
+		assertEquals(0, reused.position());
+
+		// not from the pool
+		pool.release(new byte[1000]);
+		assertEquals(1024, pool.acquire(1000).length);
+	}
+
+	@Test
+	public void testLeakDetection() throws Exception {
+		SizeClassBufferPool pool = new SizeClassBufferPool();
+		pool.setLeakDetection(true);
+		byte[] array = pool.acquire(1000);
+		assertEquals(1, pool.getOutstandingCount());
+		pool.release(array);
+		assertEquals(0, pool.getOutstandingCount());
+		// a second release is ignored
+		pool.release(array);
+		assertSame(array, pool.acquire(1000));
+		assertNotSame(array, pool.acquire(1000));
+		assertEquals(2, pool.getOutstandingCount());
+		array = null;
+		int n = 0;
+		while (pool.getLeakCount() < 2 && n++ < 100) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertEquals(2, pool.getLeakCount());
+		assertEquals(0, pool.getOutstandingCount());
+	}
+
+	@Test
+	public void testSerializerReleasesBuffers() throws Exception {
+		SizeClassBufferPool pool = new SizeClassBufferPool();
+		pool.setLeakDetection(true);
+		AbstractByteArraySerializer[] serializers = new AbstractByteArraySerializer[] {
+				new ByteArrayCrLfSerializer(), new ByteArrayLfSerializer(), new ByteArrayStxEtxSerializer(),
+				new ByteArrayRawSerializer() };
+		String[] data = new String[] { "foo\r\n", "foo\n", "\u0002foo\u0003", "foo" };
+		for (int i = 0; i < serializers.length; i++) {
+			serializers[i].setBufferPool(pool);
+			byte[] result = serializers[i].deserialize(new ByteArrayInputStream(data[i].getBytes()));
+			assertEquals("foo", new String(result));
+			assertEquals(0, pool.getOutstandingCount());
+		}
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		serializer.setBufferPool(pool);
+		serializer.setMaxMessageSize(3);
+		try {
+			serializer.deserialize(new ByteArrayInputStream("foo\r\n".getBytes()));
+			fail("expected exception");
+		}
+		catch (Exception e) {
+			assertTrue(e.getMessage().contains("CRLF not found"));
+		}
+		assertEquals(0, pool.getOutstandingCount());
+	}
+
+}
@@ -39,6 +39,7 @@ import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.integration.jdbc.store.InsertBatcher;
 import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
@@ -197,6 +198,12 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	private volatile Map<Query, String> queryCache = new HashMap<Query, String>();
 
+	private volatile int insertBatchSize;
+
+	private volatile long insertBatchLatency = 10;
+
+	private volatile InsertBatcher insertBatcher;
+
 	/**
 	 * Convenient constructor for configuration use.
 	 */
@@ -286,9 +293,38 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		this.deserializer = new DeserializingConverter((Deserializer) deserializer);
 	}
 
+	/**
+	 * When greater than 1, message inserts from concurrent threads that are not in a transaction
+	 * are coalesced into JDBC batches of up to this size, each committed in one transaction;
+	 * {@link #addMessage(Message)} returns once the message is committed. Default 0 (each message
+	 * is inserted with its own statement).
+	 *
+	 * @param insertBatchSize the maximum number of messages inserted in one batch.
+	 * @since 4.1
+	 * @see InsertBatcher
+	 */
+	public void setInsertBatchSize(int insertBatchSize) {
+		this.insertBatchSize = insertBatchSize;
+	}
+
+	/**
+	 * The maximum time, in milliseconds, a message waits for other messages to be added to
+	 * its insert batch. Only applies when {@link #setInsertBatchSize(int) insertBatchSize}
+	 * is greater than 1. Default 10.
+	 *
+	 * @param insertBatchLatency the latency.
+	 * @since 4.1
+	 */
+	public void setInsertBatchLatency(long insertBatchLatency) {
+		this.insertBatchLatency = insertBatchLatency;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		Assert.state(jdbcTemplate != null, "A DataSource or JdbcTemplate must be provided");
+		if (this.insertBatchSize > 1) {
+			this.insertBatcher = new InsertBatcher(this.jdbcTemplate, this.insertBatchSize, this.insertBatchLatency);
+		}
 	}
 
 	@Override
@@ -343,7 +379,7 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		final String messageId = getKey(result.getHeaders().getId());
 		final byte[] messageBytes = serializer.convert(result);
 
-		jdbcTemplate.update(getQuery(Query.CREATE_MESSAGE), new PreparedStatementSetter() {
+		PreparedStatementSetter setter = new PreparedStatementSetter() {
 			@Override
 			public void setValues(PreparedStatement ps) throws SQLException {
 				if (logger.isDebugEnabled()){
@@ -354,7 +390,13 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 				ps.setTimestamp(3, new Timestamp(createdDate));
 				lobHandler.getLobCreator().setBlobAsBytes(ps, 4, messageBytes);
 			}
-		});
+		};
+		if (this.insertBatcher != null) {
+			this.insertBatcher.insert(getQuery(Query.CREATE_MESSAGE), setter);
+		}
+		else {
+			jdbcTemplate.update(getQuery(Query.CREATE_MESSAGE), setter);
+		}
 		return result;
 	}
 
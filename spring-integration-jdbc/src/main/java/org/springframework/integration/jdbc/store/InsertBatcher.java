@@ -0,0 +1,275 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.jdbc.store;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces single-row inserts from concurrent threads into JDBC batches, each executed
+ * and committed in one local transaction, instead of one statement and one commit per row.
+ * <p>
+ * The first thread to submit an insert while no batch is open opens one and waits for up to
+ * {@code maxLatency} milliseconds for other inserts to join it; the batch is executed by the
+ * thread that fills it to {@code maxBatchSize} or, when the latency expires, by the thread
+ * that opened it. Every thread returns from
+ * {@link #insert(String, PreparedStatementSetter)} only once its row is committed (or has
+ * failed), so the durability guarantees are the same as for individual inserts.
+ * <p>
+ * Inserts submitted within an active transaction are executed immediately, in that
+ * transaction, so that they commit or roll back with it. If a batch fails, its rows are
+ * inserted individually, so that each thread sees only the failure of its own row.
+ *
+ * @since 4.1
+ *
+ */
+public class InsertBatcher {
+
+	private static final Log logger = LogFactory.getLog(InsertBatcher.class);
+
+	private final JdbcOperations jdbcOperations;
+
+	private final int maxBatchSize;
+
+	private final long maxLatency;
+
+	private final Object monitor = new Object();
+
+	private List<PendingInsert> openBatch;
+
+	/**
+	 * @param jdbcOperations the {@link JdbcOperations} used to execute the inserts.
+	 * @param maxBatchSize the maximum number of inserts in a batch.
+	 * @param maxLatency the maximum time, in milliseconds, an insert waits for others to join its batch.
+	 */
+	public InsertBatcher(JdbcOperations jdbcOperations, int maxBatchSize, long maxLatency) {
+		Assert.notNull(jdbcOperations, "'jdbcOperations' must not be null");
+		Assert.isTrue(maxBatchSize > 1, "'maxBatchSize' must be greater than 1");
+		Assert.isTrue(maxLatency >= 0, "'maxLatency' must not be negative");
+		this.jdbcOperations = jdbcOperations;
+		this.maxBatchSize = maxBatchSize;
+		this.maxLatency = maxLatency;
+	}
+
+	/**
+	 * Insert a row, returning when it has been committed.
+	 * @param sql the insert statement.
+	 * @param setter the setter for the statement parameters; it may be invoked more than once.
+	 * @throws DataAccessException if the insert failed.
+	 */
+	public void insert(String sql, PreparedStatementSetter setter) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			this.jdbcOperations.update(sql, setter);
+			return;
+		}
+		PendingInsert insert = new PendingInsert(sql, setter);
+		List<PendingInsert> toExecute = null;
+		synchronized (this.monitor) {
+			List<PendingInsert> batch = this.openBatch;
+			boolean opened = batch == null;
+			if (opened) {
+				batch = new ArrayList<PendingInsert>(this.maxBatchSize);
+				this.openBatch = batch;
+			}
+			batch.add(insert);
+			if (batch.size() >= this.maxBatchSize) {
+				this.openBatch = null;
+				this.monitor.notifyAll();
+				toExecute = batch;
+			}
+			else if (opened && awaitFull(batch)) {
+				toExecute = batch;
+			}
+		}
+		if (toExecute != null) {
+			execute(toExecute);
+		}
+		insert.await();
+	}
+
+	/**
+	 * Called by the thread that opened the batch, holding the monitor; waits until the batch
+	 * is filled (and executed) by another thread, or the latency expires.
+	 * @return true if the latency expired and the caller must execute the batch.
+	 */
+	private boolean awaitFull(List<PendingInsert> batch) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.maxLatency);
+		long remaining = deadline - System.nanoTime();
+		while (this.openBatch == batch && remaining > 0) {
+			try {
+				TimeUnit.NANOSECONDS.timedWait(this.monitor, remaining);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			remaining = deadline - System.nanoTime();
+		}
+		if (this.openBatch == batch) {
+			this.openBatch = null;
+			return true;
+		}
+		return false;
+	}
+
+	private void execute(final List<PendingInsert> batch) {
+		try {
+			this.jdbcOperations.execute(new ConnectionCallback<Void>() {
+
+				@Override
+				public Void doInConnection(Connection connection) throws SQLException, DataAccessException {
+					executeBatch(connection, batch);
+					return null;
+				}
+
+			});
+			for (PendingInsert insert : batch) {
+				insert.complete(null);
+			}
+		}
+		catch (RuntimeException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Batch insert of " + batch.size() + " rows failed; inserting them individually", e);
+			}
+			for (PendingInsert insert : batch) {
+				try {
+					this.jdbcOperations.update(insert.sql, insert.setter);
+					insert.complete(null);
+				}
+				catch (RuntimeException ex) {
+					insert.complete(ex);
+				}
+			}
+		}
+		catch (Error e) {
+			for (PendingInsert insert : batch) {
+				insert.complete(e);
+			}
+			throw e;
+		}
+	}
+
+	private void executeBatch(Connection connection, List<PendingInsert> batch) throws SQLException {
+		Map<String, List<PendingInsert>> bySql = new LinkedHashMap<String, List<PendingInsert>>();
+		for (PendingInsert insert : batch) {
+			List<PendingInsert> inserts = bySql.get(insert.sql);
+			if (inserts == null) {
+				inserts = new ArrayList<PendingInsert>();
+				bySql.put(insert.sql, inserts);
+			}
+			inserts.add(insert);
+		}
+		boolean autoCommit = connection.getAutoCommit();
+		if (autoCommit) {
+			connection.setAutoCommit(false);
+		}
+		try {
+			for (Entry<String, List<PendingInsert>> entry : bySql.entrySet()) {
+				PreparedStatement ps = connection.prepareStatement(entry.getKey());
+				try {
+					for (PendingInsert insert : entry.getValue()) {
+						insert.setter.setValues(ps);
+						ps.addBatch();
+					}
+					ps.executeBatch();
+				}
+				finally {
+					JdbcUtils.closeStatement(ps);
+				}
+			}
+			connection.commit();
+		}
+		catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		}
+		catch (RuntimeException e) {
+			connection.rollback();
+			throw e;
+		}
+		finally {
+			if (autoCommit) {
+				connection.setAutoCommit(true);
+			}
+		}
+	}
+
+
+	private static final class PendingInsert {
+
+		private final String sql;
+
+		private final PreparedStatementSetter setter;
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile Throwable failure;
+
+		private PendingInsert(String sql, PreparedStatementSetter setter) {
+			this.sql = sql;
+			this.setter = setter;
+		}
+
+		private void complete(Throwable failure) {
+			this.failure = failure;
+			this.done.countDown();
+		}
+
+		/**
+		 * Wait, uninterruptibly, for the outcome; the insert may be committed regardless
+		 * of the interrupt, so the caller must not be told otherwise.
+		 */
+		private void await() {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					this.done.await();
+					break;
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			if (this.failure instanceof RuntimeException) {
+				throw (RuntimeException) this.failure;
+			}
+			if (this.failure instanceof Error) {
+				throw (Error) this.failure;
+			}
+		}
+
+	}
+
+}
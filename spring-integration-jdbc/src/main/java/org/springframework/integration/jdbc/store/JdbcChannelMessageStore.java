@@ -15,7 +15,9 @@ package org.springframework.integration.jdbc.store;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -42,12 +44,14 @@ import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.jdbc.JdbcMessageStore;
+import org.springframework.integration.jdbc.store.channel.BatchChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.DerbyChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.MessageRowMapper;
 import org.springframework.integration.jdbc.store.channel.MySqlChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.OracleChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.PostgresChannelMessageStoreQueryProvider;
+import org.springframework.integration.store.BatchCapableChannelMessageStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
@@ -58,11 +62,14 @@ import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.integration.transaction.TransactionSynchronizationFactory;
 import org.springframework.integration.util.UUIDConverter;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
@@ -89,13 +96,18 @@ import org.springframework.util.StringUtils;
  * under <code>org/springframework/integration/jdbc/messagestore/channel/schema-*.sql</code>,
  * where <code>*</code> denotes the target database type.
  * </p>
+ * <p>
+ * {@link #pollMessagesFromGroup(Object, int)} polls a batch of messages with one select
+ * and one batched delete, instead of a select and a delete for each message.
+ * </p>
  *
  * @author Gunnar Hillert
  * @author Artem Bilan
  * @since 2.2
  */
 @ManagedResource
-public class JdbcChannelMessageStore implements PriorityCapableChannelMessageStore, InitializingBean, BeanFactoryAware {
+public class JdbcChannelMessageStore implements PriorityCapableChannelMessageStore, BatchCapableChannelMessageStore,
+		InitializingBean, BeanFactoryAware {
 
 	private static final Log logger = LogFactory.getLog(JdbcChannelMessageStore.class);
 
@@ -154,6 +166,12 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private boolean priorityEnabled;
 
+	private int insertBatchSize;
+
+	private long insertBatchLatency = 10;
+
+	private volatile InsertBatcher insertBatcher;
+
 	/**
 	 * Convenient constructor for configuration use.
 	 */
@@ -348,6 +366,32 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		this.usingIdCache = usingIdCache;
 	}
 
+	/**
+	 * When greater than 1, inserts from concurrent threads that are not in a transaction are
+	 * coalesced into JDBC batches of up to this size, each committed in one transaction;
+	 * {@link #addMessageToGroup(Object, Message)} returns once the message is committed.
+	 * Default 0 (each message is inserted with its own statement).
+	 *
+	 * @param insertBatchSize the maximum number of messages inserted in one batch.
+	 * @since 4.1
+	 * @see InsertBatcher
+	 */
+	public void setInsertBatchSize(int insertBatchSize) {
+		this.insertBatchSize = insertBatchSize;
+	}
+
+	/**
+	 * The maximum time, in milliseconds, a message waits for other messages to be added to
+	 * its insert batch. Only applies when {@link #setInsertBatchSize(int) insertBatchSize}
+	 * is greater than 1. Default 10.
+	 *
+	 * @param insertBatchLatency the latency.
+	 * @since 4.1
+	 */
+	public void setInsertBatchLatency(long insertBatchLatency) {
+		this.insertBatchLatency = insertBatchLatency;
+	}
+
 	public void setPriorityEnabled(boolean priorityEnabled) {
 		this.priorityEnabled = priorityEnabled;
 	}
@@ -390,6 +434,10 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		}
 
 		this.jdbcTemplate.afterPropertiesSet();
+
+		if (this.insertBatchSize > 1) {
+			this.insertBatcher = new InsertBatcher(this.jdbcTemplate, this.insertBatchSize, this.insertBatchLatency);
+		}
 	}
 
 	/**
@@ -419,7 +467,7 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		final String messageId = getKey(result.getHeaders().getId());
 		final byte[] messageBytes = serializer.convert(result);
 
-		jdbcTemplate.update(getQuery(channelMessageStoreQueryProvider.getCreateMessageQuery()), new PreparedStatementSetter() {
+		PreparedStatementSetter setter = new PreparedStatementSetter() {
 			@Override
 			public void setValues(PreparedStatement ps) throws SQLException {
 				if (logger.isDebugEnabled()) {
@@ -441,7 +489,15 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 				lobHandler.getLobCreator().setBlobAsBytes(ps, 6, messageBytes);
 			}
-		});
+		};
+
+		String query = getQuery(channelMessageStoreQueryProvider.getCreateMessageQuery());
+		if (this.insertBatcher != null) {
+			this.insertBatcher.insert(query, setter);
+		}
+		else {
+			jdbcTemplate.update(query, setter);
+		}
 
 		return getMessageGroup(groupId);
 	}
@@ -553,32 +609,38 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 		String query;
 
-		final List<Message<?>> messages;
-
-		this.idCacheReadLock.lock();
-		try {
-			if (this.usingIdCache && !this.idCache.isEmpty()) {
-				if (this.priorityEnabled) {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupExcludeIdsQuery());
-				}
-				else {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
+		List<String> excludedIds = null;
+		if (this.usingIdCache) {
+			// copy the ids, so that the cache is not locked for the duration of the query
+			this.idCacheReadLock.lock();
+			try {
+				if (!this.idCache.isEmpty()) {
+					excludedIds = new ArrayList<String>(this.idCache);
 				}
-				parameters.addValue("message_ids", idCache);
+			}
+			finally {
+				this.idCacheReadLock.unlock();
+			}
+		}
+
+		if (excludedIds != null) {
+			if (this.priorityEnabled) {
+				query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupExcludeIdsQuery());
 			}
 			else {
-				if (this.priorityEnabled) {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupQuery());
-				}
-				else {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
-				}
+				query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
 			}
-			messages = namedParameterJdbcTemplate.query(query, parameters, messageRowMapper);
+			parameters.addValue("message_ids", excludedIds);
 		}
-		finally {
-			this.idCacheReadLock.unlock();
+		else {
+			if (this.priorityEnabled) {
+				query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupQuery());
+			}
+			else {
+				query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
+			}
 		}
+		final List<Message<?>> messages = namedParameterJdbcTemplate.query(query, parameters, messageRowMapper);
 
 
 		Assert.isTrue(messages.size() == 0 || messages.size() == 1);
@@ -606,6 +668,113 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return null;
 	}
 
+	/**
+	 * Polls the database for up to <code>maxMessages</code> of the oldest messages persisted
+	 * for the given group id, using one query to select them and one batch update to delete
+	 * them. Only the messages that this store deleted are returned; messages deleted
+	 * concurrently by another poller are dropped from the batch.
+	 * <p>
+	 * When the id cache is in use ({@link #setUsingIdCache(boolean)}), or the
+	 * {@link ChannelMessageStoreQueryProvider} is not a {@link BatchChannelMessageStoreQueryProvider}
+	 * (or returns a null batch query), the messages are polled one at a time, using
+	 * {@link #pollMessageFromGroup(Object)}.
+	 * @since 4.1
+	 */
+	@Override
+	public List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+
+		String query = null;
+		if (this.channelMessageStoreQueryProvider instanceof BatchChannelMessageStoreQueryProvider) {
+			BatchChannelMessageStoreQueryProvider queryProvider =
+					(BatchChannelMessageStoreQueryProvider) this.channelMessageStoreQueryProvider;
+			query = this.priorityEnabled
+					? queryProvider.getPriorityPollBatchFromGroupQuery()
+					: queryProvider.getPollBatchFromGroupQuery();
+		}
+
+		if (query == null || this.usingIdCache || maxMessages == 1) {
+			List<Message<?>> messages = new ArrayList<Message<?>>();
+			for (int i = 0; i < maxMessages; i++) {
+				Message<?> message = pollMessageFromGroup(groupId);
+				if (message == null) {
+					break;
+				}
+				messages.add(message);
+			}
+			return messages;
+		}
+
+		final String key = getKey(groupId);
+		List<Message<?>> polledMessages = this.doPollForMessages(key, getQuery(query), maxMessages);
+		if (polledMessages.isEmpty()) {
+			return polledMessages;
+		}
+		return this.doRemoveMessagesFromGroup(key, polledMessages);
+	}
+
+	/**
+	 * This method executes a call to the DB to get up to <code>maxMessages</code> of the oldest
+	 * Messages in the MessageGroup. The rows are limited both by the query's <code>:max_rows</code>
+	 * parameter (if any) and by the statement's maxRows, overriding the {@link JdbcTemplate}'s
+	 * maxRows and fetchSize (typically <code>1</code>) for this query.
+	 *
+	 * @param groupIdKey String representation of message group (Channel) ID
+	 * @param query the batch poll query
+	 * @param maxMessages the maximum number of messages to select
+	 * @return the messages; an empty list if the query produced no Messages
+	 * @since 4.1
+	 */
+	protected List<Message<?>> doPollForMessages(String groupIdKey, String query, final int maxMessages) {
+		final MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		parameters.addValue("region", region);
+		parameters.addValue("group_key", groupIdKey);
+		parameters.addValue("max_rows", maxMessages);
+
+		ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(query);
+		String sql = NamedParameterUtils.substituteNamedParameters(parsedSql, parameters);
+		final PreparedStatementSetter argumentSetter =
+				new ArgumentPreparedStatementSetter(NamedParameterUtils.buildValueArray(parsedSql, parameters, null));
+
+		return this.jdbcTemplate.query(sql, new PreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps) throws SQLException {
+				argumentSetter.setValues(ps);
+				ps.setMaxRows(maxMessages);
+				ps.setFetchSize(maxMessages);
+			}
+
+		}, this.messageRowMapper);
+	}
+
+	private List<Message<?>> doRemoveMessagesFromGroup(String groupIdKey, List<Message<?>> messagesToRemove) {
+		List<Object[]> batchArgs = new ArrayList<Object[]>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			batchArgs.add(new Object[] {getKey(message.getHeaders().getId()), groupIdKey, region});
+		}
+
+		int[] updated = jdbcTemplate.batchUpdate(getQuery(channelMessageStoreQueryProvider.getDeleteMessageQuery()),
+				batchArgs, new int[] {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR});
+
+		List<Message<?>> removed = new ArrayList<Message<?>>(messagesToRemove.size());
+		for (int i = 0; i < updated.length; i++) {
+			UUID id = messagesToRemove.get(i).getHeaders().getId();
+			// drivers may report Statement.SUCCESS_NO_INFO for successful batch statements
+			if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+				removed.add(messagesToRemove.get(i));
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Message with id '%s' was deleted.", id));
+				}
+			}
+			else {
+				logger.warn(String.format("Message with id '%s' was not deleted.", id));
+			}
+		}
+		return removed;
+	}
+
 	private boolean doRemoveMessageFromGroup(Object groupId, Message<?> messageToRemove) {
 		final UUID id = messageToRemove.getHeaders().getId();
 
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.jdbc.store.channel;
+
+/**
+ * A {@link ChannelMessageStoreQueryProvider} that also provides the queries used by the
+ * {@link org.springframework.integration.jdbc.store.JdbcChannelMessageStore} to poll
+ * many messages with a single statement. With other query providers, the store polls
+ * one message at a time.
+ *
+ * @since 4.1
+ */
+public interface BatchChannelMessageStoreQueryProvider extends ChannelMessageStoreQueryProvider {
+
+	/**
+	 * Get the query used to retrieve the oldest messages for a channel, in a single
+	 * statement. In addition to <code>:group_key</code> and <code>:region</code>, the
+	 * query may use a <code>:max_rows</code> parameter to limit the number of rows;
+	 * the store also limits the rows using {@link java.sql.Statement#setMaxRows(int)}.
+	 * Where the database supports it, rows locked by other transactions should be
+	 * skipped rather than waited for.
+	 *
+	 * @return Sql Query.
+	 */
+	String getPollBatchFromGroupQuery();
+
+	/**
+	 * Get the query used to retrieve the oldest messages by priority for a channel,
+	 * in a single statement; see {@link #getPollBatchFromGroupQuery()}.
+	 *
+	 * @return Sql Query.
+	 */
+	String getPriorityPollBatchFromGroupQuery();
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.jdbc.store.channel;
+
+/**
+ * A {@link MySqlChannelMessageStoreQueryProvider} for MySQL 8.0 or later, whose batch
+ * poll queries use <code>FOR UPDATE SKIP LOCKED</code>, so that concurrent pollers claim
+ * distinct rows without waiting for each other.
+ *
+ * @since 4.1
+ */
+public class MySql8ChannelMessageStoreQueryProvider extends MySqlChannelMessageStoreQueryProvider {
+
+	@Override
+	public String getPollBatchFromGroupQuery() {
+		return super.getPollBatchFromGroupQuery() + " FOR UPDATE SKIP LOCKED";
+	}
+
+	@Override
+	public String getPriorityPollBatchFromGroupQuery() {
+		return super.getPriorityPollBatchFromGroupQuery() + " FOR UPDATE SKIP LOCKED";
+	}
+
+}
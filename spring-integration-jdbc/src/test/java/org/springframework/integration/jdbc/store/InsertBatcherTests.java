@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.jdbc.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @since 4.1
+ *
+ */
+public class InsertBatcherTests {
+
+	private static final String INSERT = "INSERT into TEST_ROWS(ID) values (?)";
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		this.dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL).build();
+		this.jdbcTemplate = spy(new JdbcTemplate(this.dataSource));
+		this.jdbcTemplate.execute("CREATE TABLE TEST_ROWS (ID INT PRIMARY KEY)");
+		this.executor = Executors.newCachedThreadPool();
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+		this.dataSource.shutdown();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testConcurrentInsertsAreBatched() throws Exception {
+		InsertBatcher batcher = new InsertBatcher(this.jdbcTemplate, 5, 10000);
+		List<Future<?>> futures = insertConcurrently(batcher, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		assertEquals(Integer.valueOf(10), this.jdbcTemplate.queryForObject("SELECT COUNT(*) from TEST_ROWS", Integer.class));
+		// two full batches, so nobody waits for the latency
+		verify(this.jdbcTemplate, times(2)).execute(any(ConnectionCallback.class));
+	}
+
+	@Test
+	public void testFailureIsIsolated() throws Exception {
+		this.jdbcTemplate.update(INSERT, 1);
+		InsertBatcher batcher = new InsertBatcher(this.jdbcTemplate, 3, 10000);
+		List<Future<?>> futures = insertConcurrently(batcher, 0, 1, 2);
+		futures.get(0).get();
+		futures.get(2).get();
+		try {
+			futures.get(1).get();
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof DuplicateKeyException);
+		}
+		assertEquals(Integer.valueOf(3), this.jdbcTemplate.queryForObject("SELECT COUNT(*) from TEST_ROWS", Integer.class));
+	}
+
+	@Test
+	public void testInsertInTransactionIsNotBatched() throws Exception {
+		final InsertBatcher batcher = new InsertBatcher(this.jdbcTemplate, 5, 10000);
+		new TransactionTemplate(new DataSourceTransactionManager(this.dataSource))
+				.execute(new TransactionCallbackWithoutResult() {
+
+					@Override
+					protected void doInTransactionWithoutResult(TransactionStatus status) {
+						batcher.insert(INSERT, setter(1));
+						status.setRollbackOnly();
+					}
+
+				});
+		assertEquals(Integer.valueOf(0), this.jdbcTemplate.queryForObject("SELECT COUNT(*) from TEST_ROWS", Integer.class));
+	}
+
+	@Test
+	public void testPartialBatchIsInsertedAfterLatency() {
+		InsertBatcher batcher = new InsertBatcher(this.jdbcTemplate, 5, 10);
+		batcher.insert(INSERT, setter(1));
+		assertEquals(Integer.valueOf(1), this.jdbcTemplate.queryForObject("SELECT COUNT(*) from TEST_ROWS", Integer.class));
+	}
+
+	private List<Future<?>> insertConcurrently(final InsertBatcher batcher, int... ids) {
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (final int id : ids) {
+			futures.add(this.executor.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						start.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					batcher.insert(INSERT, setter(id));
+				}
+
+			}));
+		}
+		start.countDown();
+		return futures;
+	}
+
+	private static PreparedStatementSetter setter(final int id) {
+		return new PreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps) throws SQLException {
+				ps.setInt(1, id);
+			}
+
+		};
+	}
+
+}
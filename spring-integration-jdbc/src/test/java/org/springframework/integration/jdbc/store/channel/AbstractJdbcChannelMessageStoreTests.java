@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,15 @@ package org.springframework.integration.jdbc.store.channel;
 
 import static org.junit.Assert.*;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -100,4 +109,88 @@ public abstract class AbstractJdbcChannelMessageStoreTests {
 		assertNotNull(messageFromDb.getHeaders().get(JdbcChannelMessageStore.CREATED_DATE_KEY));
 	}
 
+	@Test
+	public void testBatchPoll() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload(i).build());
+		}
+
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3);
+		assertEquals(3, messages.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i, messages.get(i).getPayload());
+		}
+		assertEquals(2, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+
+		messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(2, messages.size());
+		assertEquals(3, messages.get(0).getPayload());
+		assertEquals(4, messages.get(1).getPayload());
+
+		assertEquals(0, messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10).size());
+	}
+
+	@Test
+	public void testBatchPollWithoutBatchQueryProvider() throws Exception {
+		// a provider that only implements ChannelMessageStoreQueryProvider
+		ChannelMessageStoreQueryProvider plainProvider = (ChannelMessageStoreQueryProvider) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { ChannelMessageStoreQueryProvider.class },
+				new InvocationHandler() {
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						return method.invoke(queryProvider, args);
+					}
+
+				});
+		messageStore.setChannelMessageStoreQueryProvider(plainProvider);
+		messageStore.afterPropertiesSet();
+		for (int i = 0; i < 3; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload(i).build());
+		}
+
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 2);
+		assertEquals(2, messages.size());
+		assertEquals(0, messages.get(0).getPayload());
+		assertEquals(1, messages.get(1).getPayload());
+		assertEquals(1, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
+	@Test
+	public void testBatchInserts() throws Exception {
+		messageStore.setInsertBatchSize(5);
+		messageStore.afterPropertiesSet();
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		final CountDownLatch latch = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload("foo").build());
+					latch.countDown();
+				}
+
+			});
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertEquals(10, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+		assertEquals(10, messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 20).size());
+	}
+
+	@Test
+	public void testPriorityBatchPoll() throws Exception {
+		messageStore.setPriorityEnabled(true);
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload("none").build());
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload("low").setPriority(1).build());
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload("high").setPriority(9).build());
+
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(3, messages.size());
+		assertEquals("high", messages.get(0).getPayload());
+		assertEquals("low", messages.get(1).getPayload());
+		assertEquals("none", messages.get(2).getPayload());
+	}
+
 }
@@ -13,12 +13,20 @@
 
 package org.springframework.integration.redis.metadata;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.BoundHashOperations;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.support.collections.RedisProperties;
-import org.springframework.integration.metadata.ConcurrentMetadataStore;
+import org.springframework.integration.metadata.BatchMetadataStore;
 import org.springframework.integration.metadata.MetadataStore;
 import org.springframework.util.Assert;
 
@@ -30,7 +38,7 @@ import org.springframework.util.Assert;
  * @author Artem Bilan
  * @since 3.0
  */
-public class RedisMetadataStore implements ConcurrentMetadataStore {
+public class RedisMetadataStore implements BatchMetadataStore {
 
 	public static final String KEY = "MetaData";
 
@@ -151,4 +159,77 @@ public class RedisMetadataStore implements ConcurrentMetadataStore {
 		return this.properties.replace(key, oldValue, newValue);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The keys are inserted ({@code HSETNX}) and their current values read
+	 * ({@code HGET}) in a single pipeline.
+	 */
+	@Override
+	public Map<String, String> putAllIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' must not be null.");
+		Map<String, String> existing = new HashMap<String, String>();
+		if (entries.isEmpty()) {
+			return existing;
+		}
+		final List<Map.Entry<String, String>> entryList = new ArrayList<Map.Entry<String, String>>(entries.entrySet());
+		final String hashKey = this.properties.getKey();
+		RedisOperations<String, ?> operations = this.properties.getOperations();
+		List<Object> results = operations.executePipelined(new SessionCallback<Object>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				BoundHashOperations<String, String, String> hashOperations =
+						((RedisOperations<String, ?>) operations).boundHashOps(hashKey);
+				for (Map.Entry<String, String> entry : entryList) {
+					Assert.notNull(entry.getKey(), "'key' must not be null.");
+					Assert.notNull(entry.getValue(), "'value' must not be null.");
+					hashOperations.putIfAbsent(entry.getKey(), entry.getValue());
+					hashOperations.get(entry.getKey());
+				}
+				return null;
+			}
+
+		}, operations.getHashValueSerializer());
+		for (int i = 0; i < entryList.size(); i++) {
+			if (!isInserted(results.get(2 * i))) {
+				String key = entryList.get(i).getKey();
+				Object value = results.get(2 * i + 1);
+				if (value == null) {
+					// removed after the HSETNX
+					value = this.putIfAbsent(key, entryList.get(i).getValue());
+				}
+				if (value != null) {
+					Assert.isInstanceOf(String.class, value, "Invalid type in the store");
+					existing.put(key, (String) value);
+				}
+			}
+		}
+		return existing;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The keys are removed with a single {@code HDEL}.
+	 */
+	@Override
+	public void removeAll(Collection<String> keys) {
+		Assert.notNull(keys, "'keys' must not be null.");
+		if (keys.isEmpty()) {
+			return;
+		}
+		for (String key : keys) {
+			Assert.notNull(key, "'key' must not be null.");
+		}
+		this.properties.getOperations().boundHashOps(this.properties.getKey()).delete(keys.toArray());
+	}
+
+	private boolean isInserted(Object hSetNxResult) {
+		// depending on the driver, the pipelined result may not be converted to a Boolean
+		if (hSetNxResult instanceof Number) {
+			return ((Number) hSetNxResult).longValue() == 1;
+		}
+		return Boolean.TRUE.equals(hSetNxResult);
+	}
+
 }
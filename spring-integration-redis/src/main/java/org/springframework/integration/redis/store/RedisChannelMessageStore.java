@@ -15,16 +15,23 @@
  */
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.BoundListOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.integration.store.BatchCapableChannelMessageStore;
 import org.springframework.integration.store.ChannelMessageStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.SimpleMessageGroup;
@@ -36,12 +43,15 @@ import org.springframework.util.Assert;
  * Specialized Redis {@link ChannelMessageStore} that uses a list to back a QueueChannel.
  * <p>
  * Requires {@link #setBeanName(String)} which is used as part of the key.
+ * <p>
+ * Since 4.1, several messages can be polled with one round trip, in a MULTI/EXEC
+ * transaction (see {@link #pollMessagesFromGroup(Object, int)}).
  *
  * @author Gary Russell
  * @since 4.0
  *
  */
-public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAware, InitializingBean {
+public class RedisChannelMessageStore implements BatchCapableChannelMessageStore, BeanNameAware, InitializingBean {
 
 	private final RedisTemplate<Object, Message<?>> redisTemplate;
 
@@ -117,6 +127,39 @@ public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAw
 		return this.redisTemplate.boundListOps(groupId).rightPop();
 	}
 
+	/**
+	 * Remove the oldest {@code maxMessages} messages of the list with a range and a trim
+	 * executed atomically, in one MULTI/EXEC transaction.
+	 * @since 4.1
+	 */
+	@Override
+	public List<Message<?>> pollMessagesFromGroup(final Object groupId, final int maxMessages) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		List<Object> results = this.redisTemplate.execute(new SessionCallback<List<Object>>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+				RedisOperations<Object, Message<?>> redisOperations = (RedisOperations<Object, Message<?>>) operations;
+				redisOperations.multi();
+				BoundListOperations<Object, Message<?>> listOperations = redisOperations.boundListOps(groupId);
+				listOperations.range(-maxMessages, -1);
+				listOperations.trim(0, -maxMessages - 1);
+				return redisOperations.exec();
+			}
+
+		});
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		if (results != null && !results.isEmpty() && results.get(0) != null) {
+			for (Object message : (List<?>) results.get(0)) {
+				messages.add((Message<?>) message);
+			}
+			// messages are pushed on the left and popped from the right
+			Collections.reverse(messages);
+		}
+		return messages;
+	}
+
 	@ManagedAttribute
 	public int getMessageCountForAllMessageGroups() {
 		Set<?> keys = this.redisTemplate.keys(this.beanName + ":*");
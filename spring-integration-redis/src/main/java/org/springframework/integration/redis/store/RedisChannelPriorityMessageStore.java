@@ -15,6 +15,7 @@
  */
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -104,6 +105,21 @@ public class RedisChannelPriorityMessageStore extends RedisChannelMessageStore i
 		return null;
 	}
 
+	@Override
+	public List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		Assert.isInstanceOf(String.class, groupId);
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		List<String> list = sortedKeys((String) groupId);
+		for (String key : list) {
+			messages.addAll(super.pollMessagesFromGroup(key, maxMessages - messages.size()));
+			if (messages.size() == maxMessages) {
+				break;
+			}
+		}
+		return messages;
+	}
+
 	private List<String> sortedKeys(String groupId) {
 		Set<Object> keys = this.getRedisTemplate().keys(groupId == null ? (this.getBeanName() + ":*") : (groupId + "*"));
 		List<String> list = new LinkedList<String>();
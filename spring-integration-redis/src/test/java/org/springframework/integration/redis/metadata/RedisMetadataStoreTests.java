@@ -19,6 +19,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -169,4 +174,33 @@ public class RedisMetadataStoreTests extends RedisAvailableTests {
 		assertNull(metadataStore.remove(testKey));
 	}
 
+	@Test
+	@RedisAvailable
+	public void testPutAllIfAbsent() {
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisMetadataStore metadataStore = new RedisMetadataStore(jcf, "testMetadata");
+		metadataStore.put("foo", "bar");
+		Map<String, String> entries = new LinkedHashMap<String, String>();
+		entries.put("foo", "baz");
+		entries.put("qux", "fiz");
+		Map<String, String> existing = metadataStore.putAllIfAbsent(entries);
+		assertEquals(Collections.singletonMap("foo", "bar"), existing);
+		assertEquals("bar", metadataStore.get("foo"));
+		assertEquals("fiz", metadataStore.get("qux"));
+	}
+
+	@Test
+	@RedisAvailable
+	public void testRemoveAll() {
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisMetadataStore metadataStore = new RedisMetadataStore(jcf, "testMetadata");
+		metadataStore.put("foo", "bar");
+		metadataStore.put("baz", "qux");
+		metadataStore.put("fiz", "buz");
+		metadataStore.removeAll(Arrays.asList("foo", "fiz", "fuz"));
+		assertNull(metadataStore.get("foo"));
+		assertEquals("qux", metadataStore.get("baz"));
+		assertNull(metadataStore.get("fiz"));
+	}
+
 }
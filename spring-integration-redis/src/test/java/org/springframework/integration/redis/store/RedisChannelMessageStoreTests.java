@@ -20,6 +20,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
+import java.util.List;
+
 import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +30,7 @@ import org.junit.runner.RunWith;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.redis.rules.RedisAvailable;
 import org.springframework.integration.redis.rules.RedisAvailableTests;
 import org.springframework.integration.support.MessageBuilder;
@@ -173,4 +176,34 @@ public class RedisChannelMessageStoreTests extends RedisAvailableTests {
 		assertEquals(0, this.priorityCms.messageGroupSize("priorityCms:testChannel3"));
 	}
 
+	@Test
+	@RedisAvailable
+	public void testBatchPoll() {
+		for (int i = 0; i < 10; i++) {
+			this.testChannel1.send(new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> messages = ((QueueChannel) this.testChannel1).receive(4, 0);
+		assertEquals(4, messages.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, messages.get(i).getPayload());
+		}
+		assertEquals(6, this.cms.messageGroupSize("cms:testChannel1"));
+		messages = this.cms.pollMessagesFromGroup("cms:testChannel1", 10);
+		assertEquals(6, messages.size());
+		assertEquals(4, messages.get(0).getPayload());
+		assertEquals(9, messages.get(5).getPayload());
+		assertEquals(0, this.cms.getMessageGroupCount());
+
+		this.testChannel3.send(MessageBuilder.withPayload(98).build());
+		this.testChannel3.send(MessageBuilder.withPayload(5).setPriority(5).build());
+		this.testChannel3.send(MessageBuilder.withPayload(9).setPriority(9).build());
+		this.testChannel3.send(MessageBuilder.withPayload(99).build());
+		messages = this.priorityCms.pollMessagesFromGroup("priorityCms:testChannel3", 3);
+		assertEquals(3, messages.size());
+		assertEquals(9, messages.get(0).getPayload());
+		assertEquals(5, messages.get(1).getPayload());
+		assertEquals(98, messages.get(2).getPayload());
+		assertEquals(1, this.priorityCms.messageGroupSize("priorityCms:testChannel3"));
+	}
+
 }